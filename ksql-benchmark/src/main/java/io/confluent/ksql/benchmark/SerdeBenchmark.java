@@ -55,6 +55,7 @@ import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.annotations.Threads;
 import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
 import org.openjdk.jmh.runner.options.Options;
@@ -118,15 +119,22 @@ public class SerdeBenchmark {
     GenericRow row;
     byte[] bytes;
 
-    @Param({"JSON", "Avro"})
+    @Param({"JSON", "JSON_STREAMING", "Avro"})
     public String serializationFormat;
 
+    // Set to false to benchmark JSON serialization through the JsonConverter:
+    @Param({"true"})
+    public boolean jsonDirectSerializer = true;
+
     @Setup(Level.Iteration)
     public void setUp(final SchemaAndGenericRowState rowState) {
       final Serde<GenericRow> serde;
       switch (serializationFormat) {
         case "JSON":
-          serde = getJsonSerde(rowState.schema);
+          serde = getJsonSerde(rowState.schema, false, jsonDirectSerializer);
+          break;
+        case "JSON_STREAMING":
+          serde = getJsonSerde(rowState.schema, true, jsonDirectSerializer);
           break;
         case "Avro":
           serde = getAvroSerde(rowState.schema);
@@ -141,11 +149,16 @@ public class SerdeBenchmark {
     }
 
     private static Serde<GenericRow> getJsonSerde(
-        final org.apache.kafka.connect.data.Schema schema) {
-      final Serializer<GenericRow> serializer = getJsonSerdeHelper(schema).serializer();
+        final org.apache.kafka.connect.data.Schema schema,
+        final boolean streamingDecoder,
+        final boolean directSerializer) {
+      final Serializer<GenericRow> serializer =
+          getJsonSerdeHelper(schema, streamingDecoder, directSerializer).serializer();
       // KsqlJsonDeserializer requires schema field names to be uppercase
       final Deserializer<GenericRow> deserializer =
-          getJsonSerdeHelper(convertFieldNamesToUppercase(schema)).deserializer();
+          getJsonSerdeHelper(
+              convertFieldNamesToUppercase(schema), streamingDecoder, directSerializer)
+              .deserializer();
       return Serdes.serdeFrom(serializer, deserializer);
     }
 
@@ -159,10 +172,13 @@ public class SerdeBenchmark {
     }
 
     private static Serde<GenericRow> getJsonSerdeHelper(
-        final org.apache.kafka.connect.data.Schema schema) {
-      return new KsqlJsonTopicSerDe().getGenericRowSerde(
+        final org.apache.kafka.connect.data.Schema schema,
+        final boolean streamingDecoder,
+        final boolean directSerializer) {
+      return new KsqlJsonTopicSerDe(streamingDecoder).getGenericRowSerde(
           schema,
-          new KsqlConfig(Collections.emptyMap()),
+          new KsqlConfig(Collections.singletonMap(
+              KsqlConfig.KSQL_SERDE_JSON_DIRECT_SERIALIZER_CONFIG, directSerializer)),
           false,
           () -> null,
           "benchmark",
@@ -195,6 +211,8 @@ public class SerdeBenchmark {
   public static void main(final String[] args) throws RunnerException {
     final Options opt = new OptionsBuilder()
         .include(SerdeBenchmark.class.getSimpleName())
+        // reports allocation rates, in bytes per op, alongside the timings:
+        .addProfiler(GCProfiler.class)
         .build();
 
     new Runner(opt).run();
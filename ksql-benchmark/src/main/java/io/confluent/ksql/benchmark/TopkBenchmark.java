@@ -0,0 +1,132 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.benchmark;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.function.AggregateFunctionArguments;
+import io.confluent.ksql.function.AggregateFunctionFactory;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import io.confluent.ksql.function.udaf.topk.TopKAggregateFunctionFactory;
+import io.confluent.ksql.function.udaf.topkdistinct.TopkDistinctAggFunctionFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.connect.data.Schema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs JMH benchmarks of the TOPK and TOPKDISTINCT aggregate functions over BIGINT values, for
+ * a range of k. See `ksql-benchmark/README.md` for more info.
+ *
+ * <p>Each invocation aggregates a batch of values into an aggregate that already holds k
+ * values, as it would for a busy key.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 3, time = 10)
+@Fork(3)
+public class TopkBenchmark {
+
+  private static final int VALUES_PER_INVOCATION = 1024;
+
+  @State(Scope.Thread)
+  public static class TopkState {
+
+    @Param({"10", "100", "1000"})
+    public int k;
+
+    @Param({"TOPK", "TOPKDISTINCT"})
+    public String function;
+
+    /**
+     * {@code random} values are mostly smaller than the k-th largest value seen so far, and
+     * rejected. {@code ascending} values are all added, which is the worst case.
+     */
+    @Param({"random", "ascending"})
+    public String values;
+
+    KsqlAggregateFunction<Long, List<Long>> topk;
+    List<Long> initial;
+    Long[] batch;
+    long next;
+
+    @Setup(Level.Trial)
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+      final AggregateFunctionFactory factory = function.equals("TOPK")
+          ? new TopKAggregateFunctionFactory()
+          : new TopkDistinctAggFunctionFactory();
+      topk = (KsqlAggregateFunction) factory
+          .getProperAggregateFunction(Collections.singletonList(Schema.OPTIONAL_INT64_SCHEMA))
+          .getInstance(new AggregateFunctionArguments(0, ImmutableList.of("COL0", "" + k)));
+
+      final Random random = new Random(0);
+      List<Long> aggregate = new ArrayList<>();
+      for (int i = 0; i < 10 * k; i++) {
+        aggregate = topk.aggregate((long) random.nextInt(1_000_000), aggregate);
+      }
+      initial = aggregate;
+      batch = new Long[VALUES_PER_INVOCATION];
+      for (int i = 0; i < VALUES_PER_INVOCATION; i++) {
+        batch[i] = (long) random.nextInt(1_000_000);
+      }
+      next = 1_000_000;
+    }
+
+    Long value(final int i) {
+      return values.equals("random") ? batch[i] : next++;
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(VALUES_PER_INVOCATION)
+  public List<Long> aggregate(final TopkState state) {
+    // The aggregate is deserialized from the state store for each record, so the functions only
+    // ever see fresh copies of it:
+    List<Long> aggregate = new ArrayList<>(state.initial);
+    for (int i = 0; i < VALUES_PER_INVOCATION; i++) {
+      aggregate = state.topk.aggregate(state.value(i), aggregate);
+    }
+    return aggregate;
+  }
+
+  public static void main(final String[] args) throws RunnerException {
+    final Options opt = new OptionsBuilder()
+        .include(TopkBenchmark.class.getSimpleName())
+        .build();
+
+    new Runner(opt).run();
+  }
+}
@@ -15,28 +15,52 @@
 
 package io.confluent.ksql;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Objects;
+import java.util.RandomAccess;
 
+/**
+ * A row of column values.
+ *
+ * <p>Rows created with {@link #withColumnCount(int)} are backed by an array, and INT, BIGINT,
+ * DOUBLE and BOOLEAN values set through the primitive setters are held unboxed. They are
+ * boxed once, the first time they are read through {@link #getColumns()}. The primitive getters
+ * work on any row, so code on hot paths can use them without caring how the row was built.
+ */
 public class GenericRow {
 
   private final List<Object> columns;
+  private final ArrayColumns arrayColumns;
 
   public GenericRow() {
-    columns = new ArrayList<>();
+    this(new ArrayList<>());
   }
 
   public GenericRow(final List<Object> columns) {
     Objects.requireNonNull(columns);
     this.columns = columns;
+    this.arrayColumns = null;
   }
 
   public GenericRow(final Object ...columns) {
     this(Arrays.asList(columns));
   }
 
+  private GenericRow(final ArrayColumns columns) {
+    this.columns = columns;
+    this.arrayColumns = columns;
+  }
+
+  /**
+   * @return an array-backed row with {@code columnCount} null columns.
+   */
+  public static GenericRow withColumnCount(final int columnCount) {
+    return new GenericRow(new ArrayColumns(columnCount));
+  }
+
   @Override
   public String toString() {
     final StringBuilder stringBuilder = new StringBuilder("[ ");
@@ -94,4 +118,279 @@ public class GenericRow {
   public <T> T getColumnValue(final int columnIndex) {
     return (T) columns.get(columnIndex);
   }
+
+  public boolean isNull(final int columnIndex) {
+    return arrayColumns == null
+        ? columns.get(columnIndex) == null
+        : arrayColumns.isNull(columnIndex);
+  }
+
+  /**
+   * @throws NullPointerException if the column is null.
+   * @throws ClassCastException if the column is not numeric.
+   */
+  public int getInt(final int columnIndex) {
+    return arrayColumns == null
+        ? ((Number) columns.get(columnIndex)).intValue()
+        : (int) arrayColumns.getLong(columnIndex);
+  }
+
+  /**
+   * @throws NullPointerException if the column is null.
+   * @throws ClassCastException if the column is not numeric.
+   */
+  public long getLong(final int columnIndex) {
+    return arrayColumns == null
+        ? ((Number) columns.get(columnIndex)).longValue()
+        : arrayColumns.getLong(columnIndex);
+  }
+
+  /**
+   * @throws NullPointerException if the column is null.
+   * @throws ClassCastException if the column is not numeric.
+   */
+  public double getDouble(final int columnIndex) {
+    return arrayColumns == null
+        ? ((Number) columns.get(columnIndex)).doubleValue()
+        : arrayColumns.getDouble(columnIndex);
+  }
+
+  /**
+   * @throws NullPointerException if the column is null.
+   * @throws ClassCastException if the column is not a boolean.
+   */
+  public boolean getBoolean(final int columnIndex) {
+    return arrayColumns == null
+        ? (Boolean) columns.get(columnIndex)
+        : arrayColumns.getBoolean(columnIndex);
+  }
+
+  public void setInt(final int columnIndex, final int value) {
+    if (arrayColumns == null) {
+      columns.set(columnIndex, value);
+    } else {
+      arrayColumns.setPrimitive(columnIndex, ArrayColumns.INT, value);
+    }
+  }
+
+  public void setLong(final int columnIndex, final long value) {
+    if (arrayColumns == null) {
+      columns.set(columnIndex, value);
+    } else {
+      arrayColumns.setPrimitive(columnIndex, ArrayColumns.LONG, value);
+    }
+  }
+
+  public void setDouble(final int columnIndex, final double value) {
+    if (arrayColumns == null) {
+      columns.set(columnIndex, value);
+    } else {
+      arrayColumns.setPrimitive(
+          columnIndex, ArrayColumns.DOUBLE, Double.doubleToRawLongBits(value));
+    }
+  }
+
+  public void setBoolean(final int columnIndex, final boolean value) {
+    if (arrayColumns == null) {
+      columns.set(columnIndex, value);
+    } else {
+      arrayColumns.setPrimitive(columnIndex, ArrayColumns.BOOLEAN, value ? 1 : 0);
+    }
+  }
+
+  /**
+   * Set column {@code columnIndex} to column {@code sourceIndex} of {@code source}, without
+   * boxing the value if both rows hold it unboxed.
+   */
+  public void copyColumn(final int columnIndex, final GenericRow source, final int sourceIndex) {
+    if (arrayColumns != null && source.arrayColumns != null) {
+      final byte kind = source.arrayColumns.kind(sourceIndex);
+      if (kind != ArrayColumns.REFERENCE) {
+        arrayColumns.setPrimitive(
+            columnIndex, kind, source.arrayColumns.primitives[sourceIndex]);
+        return;
+      }
+    }
+    columns.set(columnIndex, source.columns.get(sourceIndex));
+  }
+
+  /**
+   * The columns of an array-backed row. Each column is either a reference, which may be null,
+   * or a primitive held in {@code primitives}, with doubles stored as their raw bits. The
+   * primitive slots are only allocated once a primitive is first set. A primitive is boxed the
+   * first time it is read as a list element, and the box kept in {@code values}, so that
+   * repeated reads do not allocate, until the column is next set.
+   */
+  private static final class ArrayColumns extends AbstractList<Object> implements RandomAccess {
+
+    private static final byte REFERENCE = 0;
+    private static final byte INT = 1;
+    private static final byte LONG = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte BOOLEAN = 4;
+
+    private Object[] values;
+    private byte[] kinds;
+    private long[] primitives;
+    private int size;
+
+    ArrayColumns(final int size) {
+      if (size < 0) {
+        throw new IllegalArgumentException("Negative column count: " + size);
+      }
+      this.values = new Object[size];
+      this.size = size;
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public Object get(final int index) {
+      final byte kind = kind(index);
+      if (kind == REFERENCE || values[index] != null) {
+        return values[index];
+      }
+      final Object boxed = box(kind, primitives[index]);
+      values[index] = boxed;
+      return boxed;
+    }
+
+    @Override
+    public Object set(final int index, final Object value) {
+      final Object previous = get(index);
+      values[index] = value;
+      if (kinds != null) {
+        kinds[index] = REFERENCE;
+      }
+      return previous;
+    }
+
+    @Override
+    public void add(final int index, final Object value) {
+      if (index < 0 || index > size) {
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+      }
+      if (size == values.length) {
+        grow();
+      }
+      System.arraycopy(values, index, values, index + 1, size - index);
+      values[index] = value;
+      if (kinds != null) {
+        System.arraycopy(kinds, index, kinds, index + 1, size - index);
+        System.arraycopy(primitives, index, primitives, index + 1, size - index);
+        kinds[index] = REFERENCE;
+      }
+      size++;
+      modCount++;
+    }
+
+    @Override
+    public Object remove(final int index) {
+      final Object previous = get(index);
+      final int moved = size - index - 1;
+      System.arraycopy(values, index + 1, values, index, moved);
+      if (kinds != null) {
+        System.arraycopy(kinds, index + 1, kinds, index, moved);
+        System.arraycopy(primitives, index + 1, primitives, index, moved);
+        kinds[size - 1] = REFERENCE;
+      }
+      values[--size] = null;
+      modCount++;
+      return previous;
+    }
+
+    byte kind(final int index) {
+      checkIndex(index);
+      return kinds == null ? REFERENCE : kinds[index];
+    }
+
+    private static Object box(final byte kind, final long bits) {
+      switch (kind) {
+        case INT:
+          return (int) bits;
+        case LONG:
+          return bits;
+        case DOUBLE:
+          return Double.longBitsToDouble(bits);
+        default:
+          return bits != 0;
+      }
+    }
+
+    boolean isNull(final int index) {
+      return kind(index) == REFERENCE && values[index] == null;
+    }
+
+    long getLong(final int index) {
+      switch (kind(index)) {
+        case INT:
+        case LONG:
+          return primitives[index];
+        case DOUBLE:
+          return (long) Double.longBitsToDouble(primitives[index]);
+        case BOOLEAN:
+          throw notA("numeric", index);
+        default:
+          return ((Number) values[index]).longValue();
+      }
+    }
+
+    double getDouble(final int index) {
+      switch (kind(index)) {
+        case INT:
+        case LONG:
+          return primitives[index];
+        case DOUBLE:
+          return Double.longBitsToDouble(primitives[index]);
+        case BOOLEAN:
+          throw notA("numeric", index);
+        default:
+          return ((Number) values[index]).doubleValue();
+      }
+    }
+
+    boolean getBoolean(final int index) {
+      switch (kind(index)) {
+        case BOOLEAN:
+          return primitives[index] != 0;
+        case REFERENCE:
+          return (Boolean) values[index];
+        default:
+          throw notA("boolean", index);
+      }
+    }
+
+    void setPrimitive(final int index, final byte kind, final long bits) {
+      checkIndex(index);
+      if (kinds == null) {
+        kinds = new byte[values.length];
+        primitives = new long[values.length];
+      }
+      values[index] = null;
+      kinds[index] = kind;
+      primitives[index] = bits;
+    }
+
+    private void grow() {
+      final int capacity = values.length + (values.length >> 1) + 1;
+      values = Arrays.copyOf(values, capacity);
+      if (kinds != null) {
+        kinds = Arrays.copyOf(kinds, capacity);
+        primitives = Arrays.copyOf(primitives, capacity);
+      }
+    }
+
+    private void checkIndex(final int index) {
+      if (index < 0 || index >= size) {
+        throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+      }
+    }
+
+    private ClassCastException notA(final String type, final int index) {
+      return new ClassCastException("Column " + index + " is not " + type + ": " + get(index));
+    }
+  }
 }
@@ -27,6 +27,12 @@ public final class DdlConfig {
   public static final String TIMESTAMP_NAME_PROPERTY = "TIMESTAMP";
   public static final String PARTITION_BY_PROPERTY = "PARTITION_BY";
   public static final String TIMESTAMP_FORMAT_PROPERTY = "TIMESTAMP_FORMAT";
+  public static final String VALUE_JSON_DECODER_PROPERTY = "VALUE_JSON_DECODER";
+  public static final String JSON_DECODER_STREAMING = "STREAMING";
+  public static final String JSON_DECODER_DEFAULT = "DEFAULT";
+  public static final String VALUE_DELIMITER_PROPERTY = "VALUE_DELIMITER";
+  public static final String DELIMITER_TAB = "TAB";
+  public static final String DELIMITER_SPACE = "SPACE";
 
   private DdlConfig() {
   }
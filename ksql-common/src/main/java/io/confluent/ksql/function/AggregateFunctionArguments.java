@@ -16,18 +16,30 @@
 package io.confluent.ksql.function;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.util.KsqlException;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 
 public class AggregateFunctionArguments {
 
   private final int udafIndex;
   private final List<String> args;
+  private final Map<String, Object> config;
 
   public AggregateFunctionArguments(final int index,  final List<String> args) {
+    this(index, args, ImmutableMap.of());
+  }
+
+  public AggregateFunctionArguments(
+      final int index,
+      final List<String> args,
+      final Map<String, ?> config
+  ) {
     this.udafIndex = index;
     this.args = ImmutableList.copyOf(Objects.requireNonNull(args, "args"));
+    this.config = ImmutableMap.<String, Object>copyOf(Objects.requireNonNull(config, "config"));
 
     if (index < 0) {
       throw new IllegalArgumentException("index is negative: " + index);
@@ -42,6 +54,14 @@ public class AggregateFunctionArguments {
     return args.get(i);
   }
 
+  /**
+   * @return the {@code ksql.functions.*} properties of the function, used to configure UDAFs
+   *     that implement {@link io.confluent.common.Configurable}.
+   */
+  public Map<String, Object> config() {
+    return config;
+  }
+
   public void ensureArgCount(final int expectedCount, final String functionName) {
     if (args.size() != expectedCount) {
       throw new KsqlException(
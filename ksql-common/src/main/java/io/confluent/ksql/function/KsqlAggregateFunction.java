@@ -16,6 +16,8 @@
 package io.confluent.ksql.function;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
 import java.util.function.Supplier;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.streams.kstream.Merger;
@@ -33,6 +35,22 @@ public interface KsqlAggregateFunction<V, A> {
 
   Schema getReturnType();
 
+  /**
+   * @return the type of the aggregate the function builds up, which is stored in the state
+   *     store and differs from the return type if the function has a result mapper.
+   */
+  default Schema getAggregateType() {
+    return getReturnType();
+  }
+
+  /**
+   * @return the function that maps an aggregate of {@link #getAggregateType()} to the result of
+   *     {@link #getReturnType()}, if the two types differ.
+   */
+  default Optional<Function<A, ?>> getResultMapper() {
+    return Optional.empty();
+  }
+
   boolean hasSameArgTypes(List<Schema> argTypeList);
 
   /**
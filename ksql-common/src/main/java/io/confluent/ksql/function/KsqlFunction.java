@@ -19,8 +19,10 @@ import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.function.udf.Kudf;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
+import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import javax.annotation.concurrent.Immutable;
@@ -29,7 +31,7 @@ import org.apache.kafka.connect.data.Schema;
 @Immutable
 public final class KsqlFunction {
 
-  static final String INTERNAL_PATH = "internal";
+  public static final String INTERNAL_PATH = "internal";
 
   private final Schema returnType;
   private final List<Schema> arguments;
@@ -38,6 +40,8 @@ public final class KsqlFunction {
   private final Function<KsqlConfig, Kudf> udfFactory;
   private final String description;
   private final String pathLoadedFrom;
+  @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+  private final Optional<Method> directInvocationMethod;
 
   /**
    * Create built in / legacy function.
@@ -62,11 +66,35 @@ public final class KsqlFunction {
         returnType, arguments, functionName, kudfClass, udfFactory, "", INTERNAL_PATH);
   }
 
+  static KsqlFunction create(
+      final Schema returnType,
+      final List<Schema> arguments,
+      final String functionName,
+      final Class<? extends Kudf> kudfClass,
+      final Function<KsqlConfig, Kudf> udfFactory,
+      final String description,
+      final String pathLoadedFrom
+  ) {
+    return create(
+        returnType,
+        arguments,
+        functionName,
+        kudfClass,
+        udfFactory,
+        description,
+        pathLoadedFrom,
+        Optional.empty());
+  }
+
   /**
    * Create udf.
    *
    * <p>Can be either built-in UDF or true user-supplied.
+   *
+   * <p>If {@code directInvocationMethod} is present, generated code may call it directly on the
+   * UDF instance wrapped by the {@link Kudf}, rather than going through {@link Kudf#evaluate}.
    */
+  @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
   static KsqlFunction create(
       final Schema returnType,
       final List<Schema> arguments,
@@ -74,12 +102,21 @@ public final class KsqlFunction {
       final Class<? extends Kudf> kudfClass,
       final Function<KsqlConfig, Kudf> udfFactory,
       final String description,
-      final String pathLoadedFrom
+      final String pathLoadedFrom,
+      final Optional<Method> directInvocationMethod
   ) {
     return new KsqlFunction(
-        returnType, arguments, functionName, kudfClass, udfFactory, description, pathLoadedFrom);
+        returnType,
+        arguments,
+        functionName,
+        kudfClass,
+        udfFactory,
+        description,
+        pathLoadedFrom,
+        directInvocationMethod);
   }
 
+  @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
   private KsqlFunction(
       final Schema returnType,
       final List<Schema> arguments,
@@ -87,7 +124,8 @@ public final class KsqlFunction {
       final Class<? extends Kudf> kudfClass,
       final Function<KsqlConfig, Kudf> udfFactory,
       final String description,
-      final String pathLoadedFrom
+      final String pathLoadedFrom,
+      final Optional<Method> directInvocationMethod
   ) {
     this.returnType = Objects.requireNonNull(returnType, "returnType");
     this.arguments = ImmutableList.copyOf(Objects.requireNonNull(arguments, "arguments"));
@@ -96,6 +134,8 @@ public final class KsqlFunction {
     this.udfFactory = Objects.requireNonNull(udfFactory, "udfFactory");
     this.description = Objects.requireNonNull(description, "description");
     this.pathLoadedFrom  = Objects.requireNonNull(pathLoadedFrom, "pathLoadedFrom");
+    this.directInvocationMethod =
+        Objects.requireNonNull(directInvocationMethod, "directInvocationMethod");
 
     if (arguments.stream().anyMatch(Objects::isNull)) {
       throw new IllegalArgumentException("KSQL Function can't have null argument types");
@@ -126,6 +166,13 @@ public final class KsqlFunction {
     return pathLoadedFrom;
   }
 
+  /**
+   * @return the UDF method generated code may invoke directly, if any.
+   */
+  public Optional<Method> getDirectInvocationMethod() {
+    return directInvocationMethod;
+  }
+
   @Override
   public boolean equals(final Object o) {
     if (this == o) {
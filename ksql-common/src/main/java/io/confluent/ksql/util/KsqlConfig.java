@@ -117,6 +117,15 @@ public class KsqlConfig extends AbstractConfig {
       + "continue to store session keys without the end time. With the default value of false "
       + "new queries will now correctly store the session end time as part of the key";
 
+  public static final String KSQL_GROUP_BY_KEY_LEGACY_CONFIG =
+      KSQL_CONFIG_PROPERTY_PREFIX + "groupby.key.legacy";
+
+  private static final String KSQL_GROUP_BY_KEY_LEGACY_DOC = ""
+      + "Version 5.2 of KSQL and earlier joined the values of multi-column GROUP BY keys with "
+      + "'|+|' as they were, so different groups whose values contained '|+|' could share a key. "
+      + "Setting this value to true will make KSQL continue to build keys this way. With the "
+      + "default value of false new queries escape every backslash and '|' within each value.";
+
   public static final String KSQL_ACTIVE_PERSISTENT_QUERY_LIMIT_CONFIG =
       "ksql.query.persistent.active.limit";
   private static final int KSQL_ACTIVE_PERSISTENT_QUERY_LIMIT_DEFAULT = Integer.MAX_VALUE;
@@ -144,6 +153,154 @@ public class KsqlConfig extends AbstractConfig {
   public static final String KSQL_COLLECT_UDF_METRICS = "ksql.udf.collect.metrics";
   public static final String KSQL_UDF_SECURITY_MANAGER_ENABLED = "ksql.udf.enable.security.manager";
 
+  public static final String KSQL_UDF_WRAPPED_FUNCTIONS_CONFIG = "ksql.udf.wrapped.functions";
+  private static final String KSQL_UDF_WRAPPED_FUNCTIONS_DOC =
+      "A list of built-in UDF names whose invocations should always go through the generic UDF "
+      + "wrapper, which applies the security manager and, if enabled, UDF metrics. Other built-in "
+      + "UDFs are called directly from generated code, unless UDF metrics are being collected. "
+      + "UDFs loaded from the ext dir are always invoked through the wrapper.";
+
+  public static final String KSQL_CODEGEN_FUSED_PROJECTION_CONFIG =
+      "ksql.codegen.fused.projection.enabled";
+  private static final String KSQL_CODEGEN_FUSED_PROJECTION_DOC =
+      "Whether the expressions of a projection should be compiled into a single generated class "
+      + "that reads each input column once. If compilation fails the projection falls back to "
+      + "evaluating each expression separately. Default is true.";
+
+  public static final String KSQL_CODEGEN_FUSED_FILTER_PROJECTION_CONFIG =
+      "ksql.codegen.fused.filter.projection.enabled";
+  private static final String KSQL_CODEGEN_FUSED_FILTER_PROJECTION_DOC =
+      "Whether a WHERE clause on a stream and the projection that follows it should be compiled "
+      + "into a single generated class and run as one processor, so that each row is only "
+      + "bound once and output rows are only built for rows that pass the filter. This changes "
+      + "the topology of the query. Default is false.";
+
+  public static final String KSQL_CODEGEN_EXPRESSION_OPTIMIZATION_CONFIG =
+      "ksql.codegen.expression.optimization.enabled";
+  private static final String KSQL_CODEGEN_EXPRESSION_OPTIMIZATION_DOC =
+      "Whether expressions should be optimized before code is generated for them: subexpressions "
+      + "that only combine literals are folded into a single literal, and subexpressions that "
+      + "appear more than once in the same projection or filter are only evaluated once per row. "
+      + "Rewritten expressions are shown in the EXPLAIN output. Default is true.";
+
+  public static final String KSQL_SERDE_PROJECTION_PUSHDOWN_CONFIG =
+      "ksql.serde.projection.pushdown.enabled";
+  private static final String KSQL_SERDE_PROJECTION_PUSHDOWN_DOC =
+      "Whether a query's source should only decode the value columns the query references. "
+      + "Columns that are not referenced are left null rather than converted to KSQL values. "
+      + "Default is true.";
+
+  public static final String KSQL_SERDE_FILTER_PUSHDOWN_CONFIG =
+      "ksql.serde.filter.pushdown.enabled";
+  private static final String KSQL_SERDE_FILTER_PUSHDOWN_DOC =
+      "Whether comparisons of a stream's columns against literals in the WHERE clause should be "
+      + "evaluated while the stream's JSON or DELIMITED values are deserialized, so that the rest "
+      + "of a record is only decoded if it passes them. Default is true.";
+
+  public static final String KSQL_SERDE_JSON_DIRECT_SERIALIZER_CONFIG =
+      "ksql.serde.json.direct.serializer.enabled";
+  private static final String KSQL_SERDE_JSON_DIRECT_SERIALIZER_DOC =
+      "Whether JSON values should be written straight from a row's columns into a reusable "
+      + "buffer, rather than built as a Connect struct and converted by the JsonConverter. The "
+      + "JSON is the same either way. Default is true.";
+
+  public static final String KSQL_SERDE_AVRO_DIRECT_DESERIALIZER_CONFIG =
+      "ksql.serde.avro.direct.deserializer.enabled";
+  private static final String KSQL_SERDE_AVRO_DIRECT_DESERIALIZER_DOC =
+      "Whether Avro values should be decoded straight into a row's columns, by a reader "
+      + "compiled once for each writer schema, rather than decoded to a Connect struct first. "
+      + "Writer schemas the reader can not resolve are decoded as before. Default is true.";
+
+  public static final String KSQL_INTERNAL_TOPIC_BINARY_FORMAT_CONFIG =
+      "ksql.internal.topic.binary.format.enabled";
+  private static final String KSQL_INTERNAL_TOPIC_BINARY_FORMAT_DOC =
+      "Whether the values of the repartition and changelog topics of persistent queries should "
+      + "be written in a compact, positional binary format, rather than the format of the "
+      + "query's source. Queries started by an earlier version keep using their source's "
+      + "format.";
+
+  public static final String KSQL_PARTIAL_AGGREGATION_ENABLED_CONFIG =
+      "ksql.aggregation.partial.enabled";
+  private static final String KSQL_PARTIAL_AGGREGATION_ENABLED_DOC =
+      "Whether non-windowed stream aggregations that must repartition by their GROUP BY "
+      + "columns should first combine records with the same new key in memory, and write "
+      + "partial aggregates rather than records to the repartition topic. Partial aggregates "
+      + "are flushed when the buffer is full and every "
+      + "ksql.aggregation.partial.flush.interval.ms, and the buffer is backed by a changelog "
+      + "topic. This changes the topology of the query. Default is false.";
+
+  public static final String KSQL_CODEGEN_CACHE_MAX_ENTRIES_CONFIG =
+      "ksql.codegen.cache.max.entries";
+  private static final String KSQL_CODEGEN_CACHE_MAX_ENTRIES_DOC =
+      "The number of compiled expressions the server keeps for reuse by queries, statement "
+      + "validation and command topic replay. The least recently used are evicted first.";
+
+  public static final String KSQL_PARTIAL_AGGREGATION_MAX_KEYS_CONFIG =
+      "ksql.aggregation.partial.max.keys";
+  private static final String KSQL_PARTIAL_AGGREGATION_MAX_KEYS_DOC =
+      "The number of distinct keys each stream task buffers partial aggregates for before it "
+      + "flushes them to the repartition topic.";
+
+  public static final String KSQL_PARTIAL_AGGREGATION_FLUSH_INTERVAL_MS_CONFIG =
+      "ksql.aggregation.partial.flush.interval.ms";
+  private static final String KSQL_PARTIAL_AGGREGATION_FLUSH_INTERVAL_MS_DOC =
+      "How often, in milliseconds of wall clock time, each stream task flushes the partial "
+      + "aggregates it buffers to the repartition topic. Default is 1 second.";
+
+  public static final String KSQL_HOPPING_WINDOW_PANES_ENABLED_CONFIG =
+      "ksql.aggregation.hopping.panes.enabled";
+  private static final String KSQL_HOPPING_WINDOW_PANES_ENABLED_DOC =
+      "Whether stream aggregations into hopping windows should fold each record into the one "
+      + "pane it falls in, with panes as long as the greatest common divisor of the window size "
+      + "and advance, rather than into every window that contains it. Panes are buffered as for "
+      + "ksql.aggregation.partial.enabled, and are merged into the windows that contain them as "
+      + "they are flushed to a repartition topic, so that the cost of a record does not grow with "
+      + "the number of overlapping windows: each flushed pane updates each window it overlaps "
+      + "once. Panes are flushed every ksql.aggregation.partial.flush.interval.ms, so windows "
+      + "lag the input by up to that long. Queries that EMIT FINAL do not use panes, as a pane "
+      + "flushed after its window closed would be dropped. This changes the topology of the "
+      + "query. Default is false.";
+
+  public static final String KSQL_SUPPRESS_BUFFER_SIZE_BYTES_CONFIG =
+      "ksql.suppress.buffer.size.bytes";
+  private static final String KSQL_SUPPRESS_BUFFER_SIZE_BYTES_DOC =
+      "The maximum number of bytes each task of an EMIT FINAL query may buffer windows in until "
+      + "they close. A query whose buffer fills up is shut down, rather than emit results that "
+      + "are not final. Default is 100 MB. -1 leaves the buffer unbounded.";
+
+  public static final String KSQL_SUPPRESS_GRACE_PERIOD_MS_CONFIG =
+      "ksql.suppress.grace.period.ms";
+  private static final String KSQL_SUPPRESS_GRACE_PERIOD_MS_DOC =
+      "How long after the end of a window an EMIT FINAL query still adds out-of-order records to "
+      + "it, and so how long after the end of the window its final result is emitted. Later "
+      + "records are dropped. Default is 5 seconds.";
+
+  public static final String KSQL_EMIT_RATE_LIMIT_MAX_KEYS_CONFIG =
+      "ksql.emit.rate.limit.max.keys";
+  private static final String KSQL_EMIT_RATE_LIMIT_MAX_KEYS_DOC =
+      "The number of distinct keys each task of an EMIT CHANGES EVERY query buffers updates for. "
+      + "Once the buffer is full, the update to the key buffered longest is written before the "
+      + "end of the interval.";
+
+  public static final String KSQL_TABLE_DEDUP_ENABLED_CONFIG = "ksql.table.dedup.enabled";
+  private static final String KSQL_TABLE_DEDUP_ENABLED_DOC =
+      "Whether queries that build tables should drop updates that would write the same row to "
+      + "the sink topic as the last update to the same key. Each task keeps the last row written "
+      + "for each key in a state store to compare updates with. Windowed tables are not "
+      + "deduplicated.";
+
+  public static final String KSQL_FUNCTIONS_COLLECT_SET_LIMIT_CONFIG =
+      KSQL_FUNCTIONS_PROPERTY_PREFIX + "collect_set.limit";
+  private static final String KSQL_FUNCTIONS_COLLECT_SET_LIMIT_DOC =
+      "The maximum number of distinct values COLLECT_SET gathers into each array. "
+      + "Any further values are silently ignored.";
+
+  public static final String KSQL_FUNCTIONS_COLLECT_LIST_LIMIT_CONFIG =
+      KSQL_FUNCTIONS_PROPERTY_PREFIX + "collect_list.limit";
+  private static final String KSQL_FUNCTIONS_COLLECT_LIST_LIMIT_DOC =
+      "The maximum number of values COLLECT_LIST gathers into each array. "
+      + "Any further values are silently ignored.";
+
   public static final String DEFAULT_EXT_DIR = "ext";
 
   private static final Collection<CompatibilityBreakingConfigDef> COMPATIBLY_BREAKING_CONFIG_DEFS
@@ -170,6 +327,13 @@ public class KsqlConfig extends AbstractConfig {
               false,
               ConfigDef.Importance.LOW,
               KSQL_WINDOWED_SESSION_KEY_LEGACY_DOC),
+          new CompatibilityBreakingConfigDef(
+              KSQL_GROUP_BY_KEY_LEGACY_CONFIG,
+              ConfigDef.Type.BOOLEAN,
+              true,
+              false,
+              ConfigDef.Importance.LOW,
+              KSQL_GROUP_BY_KEY_LEGACY_DOC),
           new CompatibilityBreakingConfigDef(
               KSQL_ACTIVE_PERSISTENT_QUERY_LIMIT_CONFIG,
               ConfigDef.Type.INT,
@@ -211,6 +375,14 @@ public class KsqlConfig extends AbstractConfig {
               true,
               ConfigDef.Importance.LOW,
               KSQL_USE_NAMED_AVRO_MAPS_DOC
+          ),
+          new CompatibilityBreakingConfigDef(
+              KSQL_INTERNAL_TOPIC_BINARY_FORMAT_CONFIG,
+              ConfigDef.Type.BOOLEAN,
+              false,
+              true,
+              ConfigDef.Importance.LOW,
+              KSQL_INTERNAL_TOPIC_BINARY_FORMAT_DOC
           )
   );
 
@@ -381,6 +553,127 @@ public class KsqlConfig extends AbstractConfig {
             ConfigDef.Importance.LOW,
             "Enable the security manager for UDFs. Default is true and will stop UDFs from"
                + " calling System.exit or executing processes"
+        ).define(
+            KSQL_UDF_WRAPPED_FUNCTIONS_CONFIG,
+            ConfigDef.Type.LIST,
+            "",
+            ConfigDef.Importance.LOW,
+            KSQL_UDF_WRAPPED_FUNCTIONS_DOC
+        ).define(
+            KSQL_CODEGEN_FUSED_PROJECTION_CONFIG,
+            ConfigDef.Type.BOOLEAN,
+            true,
+            ConfigDef.Importance.LOW,
+            KSQL_CODEGEN_FUSED_PROJECTION_DOC
+        ).define(
+            KSQL_CODEGEN_FUSED_FILTER_PROJECTION_CONFIG,
+            ConfigDef.Type.BOOLEAN,
+            false,
+            ConfigDef.Importance.LOW,
+            KSQL_CODEGEN_FUSED_FILTER_PROJECTION_DOC
+        ).define(
+            KSQL_CODEGEN_EXPRESSION_OPTIMIZATION_CONFIG,
+            ConfigDef.Type.BOOLEAN,
+            true,
+            ConfigDef.Importance.LOW,
+            KSQL_CODEGEN_EXPRESSION_OPTIMIZATION_DOC
+        ).define(
+            KSQL_SERDE_PROJECTION_PUSHDOWN_CONFIG,
+            ConfigDef.Type.BOOLEAN,
+            true,
+            ConfigDef.Importance.LOW,
+            KSQL_SERDE_PROJECTION_PUSHDOWN_DOC
+        ).define(
+            KSQL_SERDE_FILTER_PUSHDOWN_CONFIG,
+            ConfigDef.Type.BOOLEAN,
+            true,
+            ConfigDef.Importance.LOW,
+            KSQL_SERDE_FILTER_PUSHDOWN_DOC
+        ).define(
+            KSQL_SERDE_JSON_DIRECT_SERIALIZER_CONFIG,
+            ConfigDef.Type.BOOLEAN,
+            true,
+            ConfigDef.Importance.LOW,
+            KSQL_SERDE_JSON_DIRECT_SERIALIZER_DOC
+        ).define(
+            KSQL_SERDE_AVRO_DIRECT_DESERIALIZER_CONFIG,
+            ConfigDef.Type.BOOLEAN,
+            true,
+            ConfigDef.Importance.LOW,
+            KSQL_SERDE_AVRO_DIRECT_DESERIALIZER_DOC
+        ).define(
+            KSQL_PARTIAL_AGGREGATION_ENABLED_CONFIG,
+            ConfigDef.Type.BOOLEAN,
+            false,
+            ConfigDef.Importance.LOW,
+            KSQL_PARTIAL_AGGREGATION_ENABLED_DOC
+        ).define(
+            KSQL_CODEGEN_CACHE_MAX_ENTRIES_CONFIG,
+            ConfigDef.Type.INT,
+            5000,
+            ConfigDef.Range.atLeast(1),
+            ConfigDef.Importance.LOW,
+            KSQL_CODEGEN_CACHE_MAX_ENTRIES_DOC
+        ).define(
+            KSQL_PARTIAL_AGGREGATION_MAX_KEYS_CONFIG,
+            ConfigDef.Type.INT,
+            10000,
+            ConfigDef.Range.atLeast(1),
+            ConfigDef.Importance.LOW,
+            KSQL_PARTIAL_AGGREGATION_MAX_KEYS_DOC
+        ).define(
+            KSQL_PARTIAL_AGGREGATION_FLUSH_INTERVAL_MS_CONFIG,
+            ConfigDef.Type.LONG,
+            1000L,
+            ConfigDef.Range.atLeast(1),
+            ConfigDef.Importance.LOW,
+            KSQL_PARTIAL_AGGREGATION_FLUSH_INTERVAL_MS_DOC
+        ).define(
+            KSQL_HOPPING_WINDOW_PANES_ENABLED_CONFIG,
+            ConfigDef.Type.BOOLEAN,
+            false,
+            ConfigDef.Importance.LOW,
+            KSQL_HOPPING_WINDOW_PANES_ENABLED_DOC
+        ).define(
+            KSQL_SUPPRESS_BUFFER_SIZE_BYTES_CONFIG,
+            ConfigDef.Type.LONG,
+            100L * 1024 * 1024,
+            ConfigDef.Importance.LOW,
+            KSQL_SUPPRESS_BUFFER_SIZE_BYTES_DOC
+        ).define(
+            KSQL_SUPPRESS_GRACE_PERIOD_MS_CONFIG,
+            ConfigDef.Type.LONG,
+            5000L,
+            ConfigDef.Range.atLeast(0),
+            ConfigDef.Importance.LOW,
+            KSQL_SUPPRESS_GRACE_PERIOD_MS_DOC
+        ).define(
+            KSQL_EMIT_RATE_LIMIT_MAX_KEYS_CONFIG,
+            ConfigDef.Type.INT,
+            10000,
+            ConfigDef.Range.atLeast(1),
+            ConfigDef.Importance.LOW,
+            KSQL_EMIT_RATE_LIMIT_MAX_KEYS_DOC
+        ).define(
+            KSQL_TABLE_DEDUP_ENABLED_CONFIG,
+            ConfigDef.Type.BOOLEAN,
+            false,
+            ConfigDef.Importance.LOW,
+            KSQL_TABLE_DEDUP_ENABLED_DOC
+        ).define(
+            KSQL_FUNCTIONS_COLLECT_SET_LIMIT_CONFIG,
+            ConfigDef.Type.INT,
+            1000,
+            ConfigDef.Range.atLeast(1),
+            ConfigDef.Importance.LOW,
+            KSQL_FUNCTIONS_COLLECT_SET_LIMIT_DOC
+        ).define(
+            KSQL_FUNCTIONS_COLLECT_LIST_LIMIT_CONFIG,
+            ConfigDef.Type.INT,
+            1000,
+            ConfigDef.Range.atLeast(1),
+            ConfigDef.Importance.LOW,
+            KSQL_FUNCTIONS_COLLECT_LIST_LIMIT_DOC
         )
         .withClientSslSupport();
     for (final CompatibilityBreakingConfigDef compatibilityBreakingConfigDef
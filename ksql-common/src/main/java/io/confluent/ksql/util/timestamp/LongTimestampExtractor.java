@@ -35,6 +35,9 @@ public class LongTimestampExtractor implements TimestampExtractor {
   public long extract(final ConsumerRecord<Object, Object> consumerRecord, final long l) {
     if (timestampColumnindex < 0) {
       return 0;
+    } else if (consumerRecord.value() == null) {
+      // the deserializer dropped the record, e.g. as it failed a filter:
+      return consumerRecord.timestamp();
     } else {
       try {
         if (consumerRecord.value() instanceof GenericRow) {
@@ -40,6 +40,11 @@ public class StringTimestampExtractor implements TimestampExtractor {
   public long extract(final ConsumerRecord<Object, Object> consumerRecord,
                       final long previousTimestamp) {
     final GenericRow row = (GenericRow) consumerRecord.value();
+    if (row == null) {
+      // the deserializer dropped the record, e.g. as it failed a filter, so nothing reads the
+      // timestamp, but it must still be valid:
+      return consumerRecord.timestamp();
+    }
     final String value = row.getColumnValue(timestampColumn);
     try {
       return timestampParser.parse(value);
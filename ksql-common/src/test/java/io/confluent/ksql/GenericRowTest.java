@@ -16,10 +16,15 @@
 package io.confluent.ksql;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.hamcrest.MatcherAssert.assertThat;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import java.util.Arrays;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.SchemaBuilder;
 import org.apache.kafka.connect.data.Struct;
@@ -122,4 +127,124 @@ public class GenericRowTest {
 
   }
 
-}
\ No newline at end of file
+  @Test
+  public void shouldReadUnboxedColumnsAsBoxedValues() {
+    // Given:
+    final GenericRow row = GenericRow.withColumnCount(5);
+
+    // When:
+    row.setInt(0, 1);
+    row.setLong(1, 100000L);
+    row.setBoolean(2, true);
+    row.setDouble(3, 1.23);
+    row.getColumns().set(4, "StringColumn");
+
+    // Then:
+    assertThat(row.getColumns(), equalTo(Arrays.asList(1, 100000L, true, 1.23, "StringColumn")));
+    assertThat(row.getColumns().get(1), is(instanceOf(Long.class)));
+    assertThat(row, equalTo(new GenericRow(1, 100000L, true, 1.23, "StringColumn")));
+    assertThat(row.hashCode(),
+        equalTo(new GenericRow(1, 100000L, true, 1.23, "StringColumn").hashCode()));
+  }
+
+  @Test
+  public void shouldBoxUnboxedColumnOnlyOnce() {
+    // Given:
+    final GenericRow row = GenericRow.withColumnCount(1);
+    row.setLong(0, 100000L);
+
+    // When:
+    final Object first = row.getColumns().get(0);
+    final Object second = row.getColumns().get(0);
+
+    // Then:
+    assertThat(second, is(sameInstance(first)));
+    assertThat(row.getLong(0), is(100000L));
+  }
+
+  @Test
+  public void shouldReadNewValueAfterUnboxedColumnSetAgain() {
+    // Given:
+    final GenericRow row = GenericRow.withColumnCount(1);
+    row.setLong(0, 10L);
+    row.getColumns().get(0);
+
+    // When:
+    row.setLong(0, 20L);
+
+    // Then:
+    assertThat(row.getColumns().get(0), is(20L));
+    assertThat(row.getLong(0), is(20L));
+  }
+
+  @Test
+  public void shouldReadPrimitivesFromListBackedRow() {
+    // Given:
+    final GenericRow row = new GenericRow(Arrays.asList(1, 100000L, true, 1.23, null));
+
+    // Then:
+    assertThat(row.getInt(0), is(1));
+    assertThat(row.getLong(1), is(100000L));
+    assertThat(row.getBoolean(2), is(true));
+    assertThat(row.getDouble(3), is(1.23));
+    assertThat(row.isNull(3), is(false));
+    assertThat(row.isNull(4), is(true));
+  }
+
+  @Test
+  public void shouldOverwriteUnboxedColumnWithReference() {
+    // Given:
+    final GenericRow row = GenericRow.withColumnCount(1);
+    row.setLong(0, 10L);
+
+    // When:
+    row.getColumns().set(0, null);
+
+    // Then:
+    assertThat(row.isNull(0), is(true));
+    assertThat(row.getColumns().get(0), is(nullValue()));
+  }
+
+  @Test
+  public void shouldShiftUnboxedColumnsWhenColumnInserted() {
+    // Given:
+    final GenericRow row = GenericRow.withColumnCount(2);
+    row.setLong(0, 10L);
+    row.setDouble(1, 2.5);
+
+    // When:
+    row.getColumns().add(0, "key");
+
+    // Then:
+    assertThat(row.getColumns(), equalTo(Arrays.asList("key", 10L, 2.5)));
+    assertThat(row.getLong(1), is(10L));
+    assertThat(row.getDouble(2), is(2.5));
+  }
+
+  @Test
+  public void shouldCopyColumnsBetweenRows() {
+    // Given:
+    final GenericRow source = GenericRow.withColumnCount(2);
+    source.setInt(0, 7);
+    source.getColumns().set(1, "text");
+    final GenericRow target = GenericRow.withColumnCount(3);
+
+    // When:
+    target.copyColumn(2, source, 0);
+    target.copyColumn(0, source, 1);
+    target.copyColumn(1, new GenericRow(1.5), 0);
+
+    // Then:
+    assertThat(target.getColumns(), equalTo(Arrays.asList("text", 1.5, 7)));
+  }
+
+  @Test(expected = ClassCastException.class)
+  public void shouldThrowOnNumericReadOfBooleanColumn() {
+    // Given:
+    final GenericRow row = GenericRow.withColumnCount(1);
+    row.setBoolean(0, true);
+
+    // When:
+    row.getLong(0);
+  }
+}
@@ -23,6 +23,7 @@ import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Collections;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.record.TimestampType;
 import org.junit.Test;
 
 @SuppressWarnings("unchecked")
@@ -45,6 +46,23 @@ public class StringTimestampExtractorTest {
     assertThat(actualTime, equalTo(expectedTime));
   }
 
+  @Test
+  public void shouldUseRecordTimestampIfRecordDropped() {
+    final StringTimestampExtractor timestampExtractor = new StringTimestampExtractor(format, 0);
+
+    final long actualTime = timestampExtractor.extract(new ConsumerRecord<>("topic",
+        1,
+        1,
+        1234L,
+        TimestampType.CREATE_TIME,
+        0L,
+        0,
+        0,
+        null,
+        null), 1);
+    assertThat(actualTime, equalTo(1234L));
+  }
+
   @Test(expected = IllegalArgumentException.class)
   public void shouldThrowIfColumnIndexIsNegative() {
     new StringTimestampExtractor(format, -1);
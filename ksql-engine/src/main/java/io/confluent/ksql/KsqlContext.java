@@ -17,6 +17,7 @@ package io.confluent.ksql;
 
 import com.google.common.annotations.VisibleForTesting;
 import io.confluent.ksql.KsqlExecutionContext.ExecuteResult;
+import io.confluent.ksql.codegen.CompiledExpressionCache;
 import io.confluent.ksql.engine.KsqlEngine;
 import io.confluent.ksql.function.InternalFunctionRegistry;
 import io.confluent.ksql.function.MutableFunctionRegistry;
@@ -62,6 +63,7 @@ public class KsqlContext {
       final ProcessingLogContext processingLogContext
   ) {
     Objects.requireNonNull(ksqlConfig, "ksqlConfig cannot be null.");
+    CompiledExpressionCache.configure(ksqlConfig);
     final ServiceContext serviceContext = DefaultServiceContext.create(ksqlConfig);
     final MutableFunctionRegistry functionRegistry = new InternalFunctionRegistry();
     UdfLoader.newInstance(ksqlConfig, functionRegistry, ".").load();
@@ -26,6 +26,7 @@ import io.confluent.ksql.parser.tree.DereferenceExpression;
 import io.confluent.ksql.parser.tree.Expression;
 import io.confluent.ksql.parser.tree.QualifiedName;
 import io.confluent.ksql.parser.tree.QualifiedNameReference;
+import io.confluent.ksql.parser.tree.ResultMaterialization;
 import io.confluent.ksql.parser.tree.WindowExpression;
 import io.confluent.ksql.planner.plan.JoinNode;
 import io.confluent.ksql.util.Pair;
@@ -35,6 +36,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Set;
 
 public class Analysis {
@@ -54,6 +56,10 @@ public class Analysis {
 
   private Expression havingExpression = null;
 
+  private ResultMaterialization resultMaterialization = ResultMaterialization.CHANGES;
+
+  private OptionalLong emitIntervalMs = OptionalLong.empty();
+
   private Integer limitClause = null;
 
 
@@ -143,6 +149,22 @@ public class Analysis {
     return intoProperties;
   }
 
+  public ResultMaterialization getResultMaterialization() {
+    return resultMaterialization;
+  }
+
+  public void setResultMaterialization(final ResultMaterialization resultMaterialization) {
+    this.resultMaterialization = resultMaterialization;
+  }
+
+  public OptionalLong getEmitIntervalMs() {
+    return emitIntervalMs;
+  }
+
+  public void setEmitIntervalMs(final OptionalLong emitIntervalMs) {
+    this.emitIntervalMs = emitIntervalMs;
+  }
+
   public Optional<Integer> getLimitClause() {
     return Optional.ofNullable(limitClause);
   }
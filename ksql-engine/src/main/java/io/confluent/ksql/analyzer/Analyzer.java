@@ -37,6 +37,7 @@ import io.confluent.ksql.parser.tree.Node;
 import io.confluent.ksql.parser.tree.QualifiedName;
 import io.confluent.ksql.parser.tree.QualifiedNameReference;
 import io.confluent.ksql.parser.tree.Query;
+import io.confluent.ksql.parser.tree.ResultMaterialization;
 import io.confluent.ksql.parser.tree.Select;
 import io.confluent.ksql.parser.tree.SelectItem;
 import io.confluent.ksql.parser.tree.SingleColumn;
@@ -103,6 +104,10 @@ class Analyzer {
   void analyze(final Query query, final Optional<Sink> sink) {
     new Visitor().process(query, null);
 
+    if (!sink.isPresent() && analysis.getEmitIntervalMs().isPresent()) {
+      throw new KsqlException("EMIT CHANGES EVERY is only supported for persistent queries.");
+    }
+
     analyzeSink(sink);
   }
 
@@ -228,7 +233,7 @@ class Analyzer {
           return new KsqlJsonTopicSerDe();
 
         case DataSource.DELIMITED_SERDE_NAME:
-          return new KsqlDelimitedTopicSerDe();
+          return getIntoDelimitedSerde(fromDataSources.get(0).getLeft());
 
         default:
           throw new KsqlException(
@@ -249,6 +254,18 @@ class Analyzer {
     return intoTopicSerde;
   }
 
+  /**
+   * A DELIMITED sink uses the delimiter of a DELIMITED source, so that the fields of its values
+   * are separated in the same way as those of the values it is built from.
+   */
+  private static KsqlTopicSerDe getIntoDelimitedSerde(final StructuredDataSource source) {
+    final KsqlTopicSerDe sourceSerde = source.getKsqlTopic().getKsqlTopicSerDe();
+    if (sourceSerde instanceof KsqlDelimitedTopicSerDe) {
+      return new KsqlDelimitedTopicSerDe(((KsqlDelimitedTopicSerDe) sourceSerde).getDelimiter());
+    }
+    return new KsqlDelimitedTopicSerDe();
+  }
+
   private void setIntoTopicName(final Sink sink) {
     String intoKafkaTopicName =
         sink.getProperties().get(DdlConfig.KAFKA_TOPIC_NAME_PROPERTY).toString();
@@ -356,6 +373,7 @@ class Analyzer {
       node.getGroupBy().ifPresent(this::analyzeGroupBy);
       node.getWindow().ifPresent(this::analyzeWindowExpression);
       node.getHaving().ifPresent(this::analyzeHaving);
+      analyzeResultMaterialization(node);
       node.getLimit().ifPresent(analysis::setLimitClause);
 
       analyzeExpressions();
@@ -643,6 +661,15 @@ class Analyzer {
       }
     }
 
+    private void analyzeResultMaterialization(final Query node) {
+      if (node.getResultMaterialization() == ResultMaterialization.FINAL
+          && !node.getWindow().isPresent()) {
+        throw new KsqlException("EMIT FINAL is only supported for windowed aggregations.");
+      }
+      analysis.setResultMaterialization(node.getResultMaterialization());
+      analysis.setEmitIntervalMs(node.getEmitIntervalMs());
+    }
+
     private void analyzeWindowExpression(final WindowExpression windowExpression) {
       analysis.setWindowExpression(windowExpression);
     }
@@ -15,6 +15,7 @@
 
 package io.confluent.ksql.codegen;
 
+import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.function.KsqlFunction;
 import io.confluent.ksql.function.UdfFactory;
@@ -30,7 +31,9 @@ import io.confluent.ksql.parser.tree.FunctionCall;
 import io.confluent.ksql.parser.tree.IsNotNullPredicate;
 import io.confluent.ksql.parser.tree.IsNullPredicate;
 import io.confluent.ksql.parser.tree.LikePredicate;
+import io.confluent.ksql.parser.tree.Literal;
 import io.confluent.ksql.parser.tree.LogicalBinaryExpression;
+import io.confluent.ksql.parser.tree.Node;
 import io.confluent.ksql.parser.tree.NotExpression;
 import io.confluent.ksql.parser.tree.QualifiedNameReference;
 import io.confluent.ksql.parser.tree.SearchedCaseExpression;
@@ -41,9 +44,15 @@ import io.confluent.ksql.util.GenericRowValueTypeEnforcer;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.SchemaUtil;
+import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
@@ -53,14 +62,18 @@ import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
 import org.codehaus.commons.compiler.CompileException;
 import org.codehaus.commons.compiler.CompilerFactoryFactory;
+import org.codehaus.commons.compiler.IClassBodyEvaluator;
 import org.codehaus.commons.compiler.IExpressionEvaluator;
 
 public class CodeGenRunner {
 
+  private static final String ROW_PROJECTOR_CLASS_NAME = "GeneratedRowProjector";
+
   private final Schema schema;
   private final FunctionRegistry functionRegistry;
   private final ExpressionTypeManager expressionTypeManager;
   private final KsqlConfig ksqlConfig;
+  private final CompiledExpressionCache cache;
 
   public static List<ExpressionMetadata> compileExpressions(
       final Stream<Expression> expressions,
@@ -80,15 +93,31 @@ public class CodeGenRunner {
       final Schema schema,
       final KsqlConfig ksqlConfig,
       final FunctionRegistry functionRegistry) {
+    this(schema, ksqlConfig, functionRegistry, CompiledExpressionCache.instance());
+  }
+
+  CodeGenRunner(
+      final Schema schema,
+      final KsqlConfig ksqlConfig,
+      final FunctionRegistry functionRegistry,
+      final CompiledExpressionCache cache) {
     this.functionRegistry = functionRegistry;
     this.schema = schema;
     this.ksqlConfig = Objects.requireNonNull(ksqlConfig, "ksqlConfig");
     this.expressionTypeManager = new ExpressionTypeManager(schema, functionRegistry);
+    this.cache = Objects.requireNonNull(cache, "cache");
   }
 
   public Set<ParameterType> getParameterInfo(final Expression expression) {
+    return getParameterInfo(expression, Collections.emptySet());
+  }
+
+  private Set<ParameterType> getParameterInfo(
+      final Expression expression,
+      final Set<Expression> substituted
+  ) {
     final Visitor visitor =
-        new Visitor(schema, functionRegistry, expressionTypeManager, ksqlConfig);
+        new Visitor(schema, functionRegistry, expressionTypeManager, ksqlConfig, substituted);
 
     visitor.process(expression, null);
     return visitor.parameters;
@@ -99,7 +128,9 @@ public class CodeGenRunner {
       final String type
   ) {
     try {
-      final Set<ParameterType> parameters = getParameterInfo(expression);
+      final List<ParameterType> parameters = getParameterInfo(expression).stream()
+          .sorted(Comparator.comparing(ParameterType::getName))
+          .collect(Collectors.toList());
 
       final String[] parameterNames = new String[parameters.size()];
       final Class[] parameterTypes = new Class[parameters.size()];
@@ -117,16 +148,13 @@ public class CodeGenRunner {
 
       final String javaCode = new SqlToJavaVisitor(schema, functionRegistry).process(expression);
 
-      final IExpressionEvaluator ee =
-          CompilerFactoryFactory.getDefaultCompilerFactory().newExpressionEvaluator();
-      ee.setDefaultImports(SqlToJavaVisitor.JAVA_IMPORTS.toArray(new String[0]));
-      ee.setParameters(parameterNames, parameterTypes);
-
       final Schema expressionType = expressionTypeManager.getExpressionSchema(expression);
 
-      ee.setExpressionType(SchemaUtil.getJavaType(expressionType));
-
-      ee.cook(javaCode);
+      final IExpressionEvaluator ee = cache.get(
+          javaCode,
+          parameterNames,
+          parameterTypes,
+          SchemaUtil.getJavaType(expressionType));
 
       return new ExpressionMetadata(
           ee,
@@ -145,6 +173,403 @@ public class CodeGenRunner {
     }
   }
 
+  /**
+   * Compile all the supplied expressions into a single {@link RowProjector}.
+   *
+   * <p>Each input column referenced by any of the expressions is read and type-enforced once,
+   * and each expression is evaluated inline in its own block, so that UDF instance names
+   * generated for different expressions do not clash.
+   */
+  public RowProjector buildRowProjector(final List<Expression> expressions) {
+    return buildRowProjector(Optional.empty(), expressions);
+  }
+
+  /**
+   * Compile an optional filter and all the supplied projection expressions into a single
+   * {@link RowProjector}.
+   *
+   * <p>The filter is evaluated first, reading only the columns it references. The remaining
+   * columns are only read, and the projection only evaluated, for rows that pass the filter.
+   *
+   * <p>If {@link KsqlConfig#KSQL_CODEGEN_EXPRESSION_OPTIMIZATION_CONFIG} is enabled, any
+   * deterministic subexpression that appears more than once is evaluated once, into a local,
+   * before the first expression that uses it. Subexpressions that are only evaluated
+   * conditionally, such as those in the right operand of AND, are not shared.
+   */
+  public RowProjector buildRowProjector(
+      final Optional<Expression> filter,
+      final List<Expression> expressions
+  ) {
+    try {
+      final Set<String> columnsRead = new HashSet<>();
+      final List<Kudf> kudfs = new ArrayList<>();
+
+      final StringBuilder classBody = new StringBuilder()
+          .append("  private final Kudf[] udfs;\n")
+          .append("  private final GenericRowValueTypeEnforcer enforcer;\n")
+          .append("  public ").append(ROW_PROJECTOR_CLASS_NAME)
+          .append("(final Kudf[] udfs, final GenericRowValueTypeEnforcer enforcer) {\n")
+          .append("    this.udfs = udfs;\n")
+          .append("    this.enforcer = enforcer;\n")
+          .append("  }\n")
+          .append("  public boolean project(final List columns, final List output) {\n");
+
+      final List<Expression> stages = new ArrayList<>();
+      filter.ifPresent(stages::add);
+      stages.addAll(expressions);
+
+      final List<CommonSubexpression> commonSubexpressions =
+          ksqlConfig.getBoolean(KsqlConfig.KSQL_CODEGEN_EXPRESSION_OPTIMIZATION_CONFIG)
+              ? findCommonSubexpressions(stages)
+              : Collections.emptyList();
+      final Map<Expression, String> substitutions = new HashMap<>();
+
+      for (int stage = 0; stage != stages.size(); ++stage) {
+        for (final CommonSubexpression subexpression : commonSubexpressions) {
+          if (subexpression.stage == stage) {
+            appendSubexpression(classBody, subexpression, substitutions, columnsRead, kudfs);
+            substitutions.put(subexpression.expression, subexpression.localName);
+          }
+        }
+
+        final Expression expression = stages.get(stage);
+        if (filter.isPresent() && stage == 0) {
+          appendEvaluation(
+              classBody,
+              expression,
+              "boolean",
+              "if (!evaluatedValue) {\n        return false;\n      }",
+              substitutions,
+              columnsRead,
+              kudfs);
+        } else {
+          final Schema expressionType = expressionTypeManager.getExpressionSchema(expression);
+          appendEvaluation(
+              classBody,
+              expression,
+              SchemaUtil.getJavaType(expressionType).getCanonicalName(),
+              "output.add(evaluatedValue);",
+              substitutions,
+              columnsRead,
+              kudfs);
+        }
+      }
+
+      classBody
+          .append("    return true;\n")
+          .append("  }\n");
+
+      final IClassBodyEvaluator cbe =
+          CompilerFactoryFactory.getDefaultCompilerFactory().newClassBodyEvaluator();
+      cbe.setClassName(ROW_PROJECTOR_CLASS_NAME);
+      cbe.setDefaultImports(ImmutableList.<String>builder()
+          .addAll(SqlToJavaVisitor.JAVA_IMPORTS)
+          .add(Kudf.class.getName())
+          .add(GenericRowValueTypeEnforcer.class.getName())
+          .build()
+          .toArray(new String[0]));
+      cbe.setImplementedInterfaces(new Class[]{RowProjector.class});
+      cbe.cook(classBody.toString());
+
+      return (RowProjector) cbe.getClazz()
+          .getConstructor(Kudf[].class, GenericRowValueTypeEnforcer.class)
+          .newInstance(kudfs.toArray(new Kudf[0]), new GenericRowValueTypeEnforcer(schema));
+    } catch (final KsqlException | CompileException e) {
+      throw new KsqlException("Code generation failed for projection: " + e.getMessage()
+          + ". filter:" + filter + ", expressions:" + expressions + ", schema:" + schema, e);
+    } catch (final Exception e) {
+      throw new RuntimeException("Unexpected error generating code for projection"
+          + ". filter:" + filter + ", expressions:" + expressions, e);
+    }
+  }
+
+  /**
+   * @return {@code true} if any deterministic subexpression appears more than once in the
+   *     supplied expressions, i.e. if a {@link RowProjector} built from them would share work.
+   */
+  public boolean hasCommonSubexpressions(final List<Expression> expressions) {
+    return !findCommonSubexpressions(expressions).isEmpty();
+  }
+
+  /**
+   * Find the subexpressions worth evaluating only once, in the order they should be evaluated.
+   *
+   * <p>A subexpression is shared if it appears more than once and at least one occurrence is not
+   * already covered by sharing the expression that contains it.
+   */
+  private List<CommonSubexpression> findCommonSubexpressions(final List<Expression> stages) {
+    final SubexpressionCollector collector = new SubexpressionCollector(functionRegistry);
+    for (int stage = 0; stage != stages.size(); ++stage) {
+      collector.stage = stage;
+      collector.process(stages.get(stage), null);
+    }
+
+    final Set<Expression> shared = new HashSet<>();
+    for (final Map.Entry<Expression, Expression> occurrence : collector.occurrences) {
+      final int count = collector.counts.get(occurrence.getKey());
+      final int parentCount = collector.counts.getOrDefault(occurrence.getValue(), 0);
+      if (count > 1 && parentCount < count) {
+        shared.add(occurrence.getKey());
+      }
+    }
+
+    final List<CommonSubexpression> result = new ArrayList<>();
+    for (final Map.Entry<Expression, Integer> e : collector.firstStages.entrySet()) {
+      if (shared.contains(e.getKey())) {
+        result.add(new CommonSubexpression(
+            e.getKey(), "subexpression" + result.size(), e.getValue()));
+      }
+    }
+    return result;
+  }
+
+  private void appendSubexpression(
+      final StringBuilder classBody,
+      final CommonSubexpression subexpression,
+      final Map<Expression, String> substitutions,
+      final Set<String> columnsRead,
+      final List<Kudf> kudfs
+  ) {
+    final Map<String, String> functionInstances = new HashMap<>();
+    for (final ParameterType param
+        : getParameterInfo(subexpression.expression, substitutions.keySet())) {
+      if (param.function.isPresent()) {
+        functionInstances.put(param.name, "udfs[" + kudfs.size() + "]");
+        kudfs.add(param.getKudf());
+      } else {
+        appendColumnRead(classBody, param, columnsRead);
+      }
+    }
+
+    final String javaCode = new SqlToJavaVisitor(
+        schema, functionRegistry, substitutions, functionInstances)
+        .process(subexpression.expression);
+
+    final Schema expressionType =
+        expressionTypeManager.getExpressionSchema(subexpression.expression);
+
+    classBody
+        .append("    final ").append(SchemaUtil.getJavaType(expressionType).getCanonicalName())
+        .append(" ").append(subexpression.localName).append(" = ")
+        .append(javaCode).append(";\n");
+  }
+
+  private void appendEvaluation(
+      final StringBuilder classBody,
+      final Expression expression,
+      final String javaType,
+      final String consumer,
+      final Map<Expression, String> substitutions,
+      final Set<String> columnsRead,
+      final List<Kudf> kudfs
+  ) {
+    final StringBuilder block = new StringBuilder("    {\n");
+    for (final ParameterType param : getParameterInfo(expression, substitutions.keySet())) {
+      if (param.function.isPresent()) {
+        block.append("      final Kudf ").append(param.name)
+            .append(" = udfs[").append(kudfs.size()).append("];\n");
+        kudfs.add(param.getKudf());
+      } else {
+        appendColumnRead(classBody, param, columnsRead);
+      }
+    }
+
+    final String javaCode = new SqlToJavaVisitor(
+        schema, functionRegistry, substitutions, Collections.emptyMap())
+        .process(expression);
+
+    classBody
+        .append(block)
+        .append("      final ").append(javaType).append(" evaluatedValue = ")
+        .append(javaCode).append(";\n")
+        .append("      ").append(consumer).append("\n")
+        .append("    }\n");
+  }
+
+  private void appendColumnRead(
+      final StringBuilder classBody,
+      final ParameterType param,
+      final Set<String> columnsRead
+  ) {
+    if (!columnsRead.add(param.name)) {
+      return;
+    }
+
+    final String columnType = param.type.getCanonicalName();
+    final int index = SchemaUtil.getFieldIndexByName(schema, param.name);
+    classBody
+        .append("    final ").append(columnType).append(" ").append(param.name)
+        .append(" = (").append(columnType).append(") enforcer.enforceFieldType(")
+        .append(index).append(", columns.get(").append(index).append("));\n");
+  }
+
+  private static final class CommonSubexpression {
+
+    private final Expression expression;
+    private final String localName;
+    private final int stage;
+
+    private CommonSubexpression(
+        final Expression expression,
+        final String localName,
+        final int stage
+    ) {
+      this.expression = expression;
+      this.localName = localName;
+      this.stage = stage;
+    }
+  }
+
+  /**
+   * Counts the occurrences of each subexpression that can be shared, recording the closest
+   * shareable expression containing each occurrence and the first stage each is used in.
+   *
+   * <p>Only deterministic expressions that are always evaluated are shareable, as a shared
+   * expression is evaluated before the expression that uses it. The branches of CASE and IN
+   * expressions are only evaluated conditionally, so the collector does not look inside them.
+   * Nor does it record anything in the right operand of AND or OR, which is only evaluated if the
+   * left operand does not decide the result, e.g. to guard a UDF against null arguments.
+   */
+  private static final class SubexpressionCollector extends AstVisitor<Boolean, Expression> {
+
+    private final FunctionRegistry functionRegistry;
+    private final Map<Expression, Integer> counts = new HashMap<>();
+    private final Map<Expression, Integer> firstStages = new LinkedHashMap<>();
+    private final List<Map.Entry<Expression, Expression>> occurrences = new ArrayList<>();
+    private int stage;
+    private int conditionalDepth;
+
+    private SubexpressionCollector(final FunctionRegistry functionRegistry) {
+      this.functionRegistry = functionRegistry;
+    }
+
+    @Override
+    protected Boolean visitNode(final Node node, final Expression parent) {
+      return false;
+    }
+
+    @Override
+    protected Boolean visitLiteral(final Literal node, final Expression parent) {
+      return true;
+    }
+
+    @Override
+    protected Boolean visitQualifiedNameReference(
+        final QualifiedNameReference node,
+        final Expression parent) {
+      return true;
+    }
+
+    @Override
+    protected Boolean visitDereferenceExpression(
+        final DereferenceExpression node,
+        final Expression parent) {
+      return true;
+    }
+
+    @Override
+    protected Boolean visitFunctionCall(final FunctionCall node, final Expression parent) {
+      final boolean deterministic = ExpressionOptimizer.isDeterministic(node, functionRegistry);
+      return visitShareable(node, parent, node.getArguments(), deterministic);
+    }
+
+    @Override
+    protected Boolean visitArithmeticBinary(
+        final ArithmeticBinaryExpression node,
+        final Expression parent) {
+      return visitShareable(node, parent, ImmutableList.of(node.getLeft(), node.getRight()), true);
+    }
+
+    @Override
+    protected Boolean visitCast(final Cast node, final Expression parent) {
+      return visitShareable(node, parent, ImmutableList.of(node.getExpression()), true);
+    }
+
+    @Override
+    protected Boolean visitSubscriptExpression(
+        final SubscriptExpression node,
+        final Expression parent) {
+      return visitShareable(
+          node, parent, ImmutableList.of(node.getBase(), node.getIndex()), true);
+    }
+
+    @Override
+    protected Boolean visitComparisonExpression(
+        final ComparisonExpression node,
+        final Expression parent) {
+      return visitChildren(parent, node.getLeft(), node.getRight());
+    }
+
+    @Override
+    protected Boolean visitLogicalBinaryExpression(
+        final LogicalBinaryExpression node,
+        final Expression parent) {
+      final boolean left = process(node.getLeft(), parent);
+      conditionalDepth++;
+      try {
+        return process(node.getRight(), parent) && left;
+      } finally {
+        conditionalDepth--;
+      }
+    }
+
+    @Override
+    protected Boolean visitNotExpression(final NotExpression node, final Expression parent) {
+      return visitChildren(parent, node.getValue());
+    }
+
+    @Override
+    protected Boolean visitIsNullPredicate(final IsNullPredicate node, final Expression parent) {
+      return visitChildren(parent, node.getValue());
+    }
+
+    @Override
+    protected Boolean visitIsNotNullPredicate(
+        final IsNotNullPredicate node,
+        final Expression parent) {
+      return visitChildren(parent, node.getValue());
+    }
+
+    @Override
+    protected Boolean visitLikePredicate(final LikePredicate node, final Expression parent) {
+      return visitChildren(parent, node.getValue());
+    }
+
+    @Override
+    protected Boolean visitBetweenPredicate(
+        final BetweenPredicate node,
+        final Expression parent) {
+      return visitChildren(parent, node.getValue(), node.getMin(), node.getMax());
+    }
+
+    private Boolean visitChildren(final Expression parent, final Expression... children) {
+      boolean deterministic = true;
+      for (final Expression child : children) {
+        deterministic &= process(child, parent);
+      }
+      return deterministic;
+    }
+
+    private Boolean visitShareable(
+        final Expression node,
+        final Expression parent,
+        final List<Expression> children,
+        final boolean deterministicNode
+    ) {
+      boolean deterministic = deterministicNode;
+      for (final Expression child : children) {
+        deterministic &= process(child, node);
+      }
+
+      if (deterministic && conditionalDepth == 0) {
+        counts.merge(node, 1, Integer::sum);
+        firstStages.putIfAbsent(node, stage);
+        occurrences.add(new AbstractMap.SimpleImmutableEntry<>(node, parent));
+      }
+      return deterministic;
+    }
+  }
+
   private static final class Visitor extends AstVisitor<Object, Object> {
 
     private final Schema schema;
@@ -153,18 +578,31 @@ public class CodeGenRunner {
     private final ExpressionTypeManager expressionTypeManager;
     private final KsqlConfig ksqlConfig;
 
+    private final Set<Expression> substituted;
+
     private int functionCounter = 0;
 
     private Visitor(
         final Schema schema,
         final FunctionRegistry functionRegistry,
         final ExpressionTypeManager expressionTypeManager,
-        final KsqlConfig ksqlConfig) {
+        final KsqlConfig ksqlConfig,
+        final Set<Expression> substituted) {
       this.schema = schema;
       this.ksqlConfig = Objects.requireNonNull(ksqlConfig, "ksqlConfig");
       this.parameters = new HashSet<>();
       this.functionRegistry = functionRegistry;
       this.expressionTypeManager = expressionTypeManager;
+      this.substituted = Objects.requireNonNull(substituted, "substituted");
+    }
+
+    @Override
+    public Object process(final Node node, final Object context) {
+      if (substituted.contains(node)) {
+        // Already evaluated into a local, so needs no parameters:
+        return null;
+      }
+      return super.process(node, context);
     }
 
     private void addParameter(final Field schemaField) {
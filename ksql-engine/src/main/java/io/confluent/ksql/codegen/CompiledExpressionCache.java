@@ -0,0 +1,172 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.codegen;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+import io.confluent.ksql.util.KsqlConfig;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import org.codehaus.commons.compiler.CompileException;
+import org.codehaus.commons.compiler.CompilerFactoryFactory;
+import org.codehaus.commons.compiler.IExpressionEvaluator;
+
+/**
+ * Process-wide cache of cooked expression evaluators.
+ *
+ * <p>Identical expressions are compiled many times over: by each query that uses them, by
+ * sandboxed validation of statements and when statements are replayed from the command topic
+ * on restart. A cooked {@link IExpressionEvaluator} holds no per-row state, so one instance is
+ * shared by every caller that asks for the same generated code, parameters and return type.
+ *
+ * <p>The cache is bounded, evicting the least recently used evaluators first. Its bound is set by
+ * {@link KsqlConfig#KSQL_CODEGEN_CACHE_MAX_ENTRIES_CONFIG}, through {@link #configure}.
+ */
+public final class CompiledExpressionCache {
+
+  private static volatile CompiledExpressionCache instance = new CompiledExpressionCache(
+      new KsqlConfig(Collections.emptyMap())
+          .getInt(KsqlConfig.KSQL_CODEGEN_CACHE_MAX_ENTRIES_CONFIG));
+
+  private final int maxEntries;
+  private final Cache<Key, IExpressionEvaluator> cache;
+
+  public static CompiledExpressionCache instance() {
+    return instance;
+  }
+
+  /**
+   * Bound the process-wide cache by the supplied server config. The cache is replaced, and so
+   * emptied, only if its bound changes.
+   */
+  public static synchronized void configure(final KsqlConfig ksqlConfig) {
+    final int maxEntries = ksqlConfig.getInt(KsqlConfig.KSQL_CODEGEN_CACHE_MAX_ENTRIES_CONFIG);
+    if (instance.maxEntries != maxEntries) {
+      instance = new CompiledExpressionCache(maxEntries);
+    }
+  }
+
+  CompiledExpressionCache(final int maxEntries) {
+    this.maxEntries = maxEntries;
+    this.cache = CacheBuilder.newBuilder()
+        .maximumSize(maxEntries)
+        .recordStats()
+        .build();
+  }
+
+  /**
+   * Get a cooked evaluator for the supplied code, compiling it if it is not already cached.
+   */
+  public IExpressionEvaluator get(
+      final String javaCode,
+      final String[] parameterNames,
+      final Class[] parameterTypes,
+      final Class expressionType
+  ) throws CompileException {
+    final Key key = new Key(javaCode, parameterNames, parameterTypes, expressionType);
+    try {
+      return cache.get(key, () -> cook(key));
+    } catch (final ExecutionException | UncheckedExecutionException e) {
+      if (e.getCause() instanceof CompileException) {
+        throw (CompileException) e.getCause();
+      }
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw new RuntimeException(e.getCause());
+    }
+  }
+
+  public long hitCount() {
+    return cache.stats().hitCount();
+  }
+
+  public long missCount() {
+    return cache.stats().missCount();
+  }
+
+  public long evictionCount() {
+    return cache.stats().evictionCount();
+  }
+
+  public long size() {
+    return cache.size();
+  }
+
+  private static IExpressionEvaluator cook(final Key key) throws CompileException {
+    final IExpressionEvaluator ee;
+    try {
+      ee = CompilerFactoryFactory.getDefaultCompilerFactory().newExpressionEvaluator();
+    } catch (final Exception e) {
+      throw new RuntimeException("Failed to create expression evaluator", e);
+    }
+    ee.setDefaultImports(SqlToJavaVisitor.JAVA_IMPORTS.toArray(new String[0]));
+    ee.setParameters(key.parameterNames, key.parameterTypes);
+    ee.setExpressionType(key.expressionType);
+    ee.cook(key.javaCode);
+    return ee;
+  }
+
+  private static final class Key {
+
+    private final String javaCode;
+    private final String[] parameterNames;
+    private final Class[] parameterTypes;
+    private final Class expressionType;
+    private final int hashCode;
+
+    private Key(
+        final String javaCode,
+        final String[] parameterNames,
+        final Class[] parameterTypes,
+        final Class expressionType
+    ) {
+      this.javaCode = Objects.requireNonNull(javaCode, "javaCode");
+      this.parameterNames = parameterNames.clone();
+      this.parameterTypes = parameterTypes.clone();
+      this.expressionType = Objects.requireNonNull(expressionType, "expressionType");
+      this.hashCode = Objects.hash(
+          javaCode,
+          Arrays.hashCode(parameterNames),
+          Arrays.hashCode(parameterTypes),
+          expressionType);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      final Key that = (Key) o;
+      return hashCode == that.hashCode
+          && javaCode.equals(that.javaCode)
+          && Arrays.equals(parameterNames, that.parameterNames)
+          && Arrays.equals(parameterTypes, that.parameterTypes)
+          && expressionType.equals(that.expressionType);
+    }
+
+    @Override
+    public int hashCode() {
+      return hashCode;
+    }
+  }
+}
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.codegen;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.function.FunctionRegistry;
+import io.confluent.ksql.function.KsqlFunction;
+import io.confluent.ksql.function.UdfFactory;
+import io.confluent.ksql.parser.tree.ArithmeticBinaryExpression;
+import io.confluent.ksql.parser.tree.ArithmeticUnaryExpression;
+import io.confluent.ksql.parser.tree.BooleanLiteral;
+import io.confluent.ksql.parser.tree.Cast;
+import io.confluent.ksql.parser.tree.ComparisonExpression;
+import io.confluent.ksql.parser.tree.DoubleLiteral;
+import io.confluent.ksql.parser.tree.Expression;
+import io.confluent.ksql.parser.tree.ExpressionRewriter;
+import io.confluent.ksql.parser.tree.ExpressionTreeRewriter;
+import io.confluent.ksql.parser.tree.FunctionCall;
+import io.confluent.ksql.parser.tree.IntegerLiteral;
+import io.confluent.ksql.parser.tree.Literal;
+import io.confluent.ksql.parser.tree.LogicalBinaryExpression;
+import io.confluent.ksql.parser.tree.LongLiteral;
+import io.confluent.ksql.parser.tree.NotExpression;
+import io.confluent.ksql.parser.tree.NullLiteral;
+import io.confluent.ksql.parser.tree.StringLiteral;
+import io.confluent.ksql.util.ExpressionMetadata;
+import io.confluent.ksql.util.ExpressionTypeManager;
+import io.confluent.ksql.util.KsqlConfig;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import org.apache.kafka.connect.data.Schema;
+
+/**
+ * Rewrites expressions before code generation, folding subtrees that only combine literals,
+ * including calls to deterministic built-in functions with literal arguments, into a single
+ * literal, so that they are evaluated once rather than for every row.
+ *
+ * <p>A subtree is evaluated with the same generated code that would evaluate it per row. It is
+ * only replaced if that succeeds and the resulting literal has exactly the same schema as the
+ * subtree. Otherwise it is left as is, so that any error is still reported against each row.
+ */
+public final class ExpressionOptimizer {
+
+  private static final Set<String> NON_DETERMINISTIC_FUNCTIONS = ImmutableSet.of("RANDOM");
+
+  private final Schema schema;
+  private final KsqlConfig ksqlConfig;
+  private final FunctionRegistry functionRegistry;
+  private final ExpressionTypeManager expressionTypeManager;
+
+  public ExpressionOptimizer(
+      final Schema schema,
+      final KsqlConfig ksqlConfig,
+      final FunctionRegistry functionRegistry
+  ) {
+    this.schema = Objects.requireNonNull(schema, "schema");
+    this.ksqlConfig = Objects.requireNonNull(ksqlConfig, "ksqlConfig");
+    this.functionRegistry = Objects.requireNonNull(functionRegistry, "functionRegistry");
+    this.expressionTypeManager = new ExpressionTypeManager(schema, functionRegistry);
+  }
+
+  public Expression optimize(final Expression expression) {
+    return ExpressionTreeRewriter.rewriteWith(new ConstantFolder(), expression);
+  }
+
+  /**
+   * @return {@code true} if the function is known to always return the same result for the
+   *     same arguments. Only built-in functions are known to be deterministic.
+   */
+  static boolean isDeterministic(
+      final FunctionCall functionCall,
+      final FunctionRegistry functionRegistry
+  ) {
+    final String functionName = functionCall.getName().getSuffix();
+    if (functionRegistry.isAggregate(functionName)
+        || NON_DETERMINISTIC_FUNCTIONS.contains(functionName.toUpperCase())) {
+      return false;
+    }
+
+    final UdfFactory udfFactory = functionRegistry.getUdfFactory(functionName);
+    return udfFactory != null && KsqlFunction.INTERNAL_PATH.equals(udfFactory.getPath());
+  }
+
+  private Expression fold(final Expression expression, final List<Expression> operands) {
+    if (!operands.stream().allMatch(ExpressionOptimizer::isNonNullLiteral)) {
+      return expression;
+    }
+
+    try {
+      final ExpressionMetadata metadata = new CodeGenRunner(schema, ksqlConfig, functionRegistry)
+          .buildCodeGenFromParseTree(expression, "constant");
+
+      final Object value = metadata.evaluate(new GenericRow(Collections.emptyList()));
+
+      return toLiteral(value)
+          .filter(literal -> metadata.getExpressionType()
+              .equals(expressionTypeManager.getExpressionSchema(literal)))
+          .orElse(expression);
+    } catch (final Exception e) {
+      // Leave the expression to be evaluated, and fail, per row:
+      return expression;
+    }
+  }
+
+  private static boolean isNonNullLiteral(final Expression expression) {
+    return expression instanceof Literal && !(expression instanceof NullLiteral);
+  }
+
+  private static Optional<Expression> toLiteral(final Object value) {
+    if (value instanceof Integer) {
+      return Optional.of(new IntegerLiteral((Integer) value));
+    }
+    if (value instanceof Long) {
+      return Optional.of(new LongLiteral((Long) value));
+    }
+    if (value instanceof Double && Double.isFinite((Double) value)) {
+      return Optional.of(new DoubleLiteral(value.toString()));
+    }
+    if (value instanceof String) {
+      return Optional.of(new StringLiteral((String) value));
+    }
+    if (value instanceof Boolean) {
+      return Optional.of(new BooleanLiteral(value.toString()));
+    }
+    return Optional.empty();
+  }
+
+  private final class ConstantFolder extends ExpressionRewriter<Void> {
+
+    @Override
+    public Expression rewriteArithmeticUnary(
+        final ArithmeticUnaryExpression node,
+        final Void context,
+        final ExpressionTreeRewriter<Void> treeRewriter) {
+      final ArithmeticUnaryExpression rewritten = treeRewriter.defaultRewrite(node, context);
+      return fold(rewritten, ImmutableList.of(rewritten.getValue()));
+    }
+
+    @Override
+    public Expression rewriteArithmeticBinary(
+        final ArithmeticBinaryExpression node,
+        final Void context,
+        final ExpressionTreeRewriter<Void> treeRewriter) {
+      final ArithmeticBinaryExpression rewritten = treeRewriter.defaultRewrite(node, context);
+      return fold(rewritten, ImmutableList.of(rewritten.getLeft(), rewritten.getRight()));
+    }
+
+    @Override
+    public Expression rewriteComparisonExpression(
+        final ComparisonExpression node,
+        final Void context,
+        final ExpressionTreeRewriter<Void> treeRewriter) {
+      final ComparisonExpression rewritten = treeRewriter.defaultRewrite(node, context);
+      return fold(rewritten, ImmutableList.of(rewritten.getLeft(), rewritten.getRight()));
+    }
+
+    @Override
+    public Expression rewriteLogicalBinaryExpression(
+        final LogicalBinaryExpression node,
+        final Void context,
+        final ExpressionTreeRewriter<Void> treeRewriter) {
+      final LogicalBinaryExpression rewritten = treeRewriter.defaultRewrite(node, context);
+      return fold(rewritten, ImmutableList.of(rewritten.getLeft(), rewritten.getRight()));
+    }
+
+    @Override
+    public Expression rewriteNotExpression(
+        final NotExpression node,
+        final Void context,
+        final ExpressionTreeRewriter<Void> treeRewriter) {
+      final NotExpression rewritten = treeRewriter.defaultRewrite(node, context);
+      return fold(rewritten, ImmutableList.of(rewritten.getValue()));
+    }
+
+    @Override
+    public Expression rewriteCast(
+        final Cast node,
+        final Void context,
+        final ExpressionTreeRewriter<Void> treeRewriter) {
+      final Cast rewritten = treeRewriter.defaultRewrite(node, context);
+      return fold(rewritten, ImmutableList.of(rewritten.getExpression()));
+    }
+
+    @Override
+    public Expression rewriteFunctionCall(
+        final FunctionCall node,
+        final Void context,
+        final ExpressionTreeRewriter<Void> treeRewriter) {
+      final FunctionCall rewritten = treeRewriter.defaultRewrite(node, context);
+      if (rewritten.getArguments().isEmpty() || !isDeterministic(rewritten, functionRegistry)) {
+        return rewritten;
+      }
+      return fold(rewritten, rewritten.getArguments());
+    }
+  }
+}
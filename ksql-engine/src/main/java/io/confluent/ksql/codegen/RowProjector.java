@@ -0,0 +1,37 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.codegen;
+
+import java.util.List;
+
+/**
+ * A whole projection compiled into a single generated class.
+ *
+ * <p>Implementations are generated by {@link CodeGenRunner#buildRowProjector}. Each referenced
+ * input column is read and type-enforced once, and every projected expression is appended to
+ * the output in order. Any failure aborts the whole row, leaving the caller to decide how to
+ * report it.
+ */
+public interface RowProjector {
+
+  /**
+   * Project the supplied columns into {@code output}.
+   *
+   * @return {@code false} if the row was rejected by the projector's filter, in which case
+   *     nothing is written to {@code output}.
+   */
+  boolean project(List<Object> columns, List<Object> output);
+}
@@ -20,9 +20,12 @@ import static java.lang.String.format;
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.primitives.Primitives;
 import io.confluent.ksql.function.FunctionRegistry;
+import io.confluent.ksql.function.KsqlFunction;
 import io.confluent.ksql.function.KsqlFunctionException;
 import io.confluent.ksql.function.UdfFactory;
+import io.confluent.ksql.function.UdfTemplate;
 import io.confluent.ksql.function.udf.caseexpression.SearchedCaseFunction;
 import io.confluent.ksql.function.udf.structfieldextractor.FetchFieldFromStruct;
 import io.confluent.ksql.parser.tree.AllColumns;
@@ -58,11 +61,16 @@ import io.confluent.ksql.util.ExpressionTypeManager;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.Pair;
 import io.confluent.ksql.util.SchemaUtil;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.apache.commons.lang3.StringEscapeUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.text.StrSubstitutor;
@@ -75,6 +83,8 @@ public class SqlToJavaVisitor {
       "org.apache.kafka.connect.data.Struct",
       "io.confluent.ksql.function.udf.caseexpression.SearchedCaseFunction",
       "io.confluent.ksql.function.udf.caseexpression.SearchedCaseFunction.LazyWhenClause",
+      "io.confluent.ksql.function.udf.PluggableUdf",
+      "io.confluent.ksql.function.UdfTemplate",
       "java.util.HashMap",
       "java.util.Map",
       "java.util.List",
@@ -84,12 +94,31 @@ public class SqlToJavaVisitor {
 
   private final Schema schema;
   private final FunctionRegistry functionRegistry;
+  private final Map<Expression, String> substitutions;
+  private final Map<String, String> functionInstances;
 
   private final ExpressionTypeManager expressionTypeManager;
 
   public SqlToJavaVisitor(final Schema schema, final FunctionRegistry functionRegistry) {
+    this(schema, functionRegistry, Collections.emptyMap(), Collections.emptyMap());
+  }
+
+  /**
+   * @param substitutions subexpressions that have already been evaluated, mapped to the name of
+   *     the local variable holding the result.
+   * @param functionInstances the code to use to reference a UDF instance, keyed on the instance
+   *     name that would otherwise be used.
+   */
+  SqlToJavaVisitor(
+      final Schema schema,
+      final FunctionRegistry functionRegistry,
+      final Map<Expression, String> substitutions,
+      final Map<String, String> functionInstances
+  ) {
     this.schema = schema;
     this.functionRegistry = functionRegistry;
+    this.substitutions = Objects.requireNonNull(substitutions, "substitutions");
+    this.functionInstances = Objects.requireNonNull(functionInstances, "functionInstances");
     this.expressionTypeManager =
         new ExpressionTypeManager(schema, functionRegistry);
   }
@@ -114,6 +143,17 @@ public class SqlToJavaVisitor {
       this.functionRegistry = functionRegistry;
     }
 
+    @Override
+    public Pair<String, Schema> process(final Node node, final Void context) {
+      final String substitution = substitutions.get(node);
+      if (substitution != null) {
+        return new Pair<>(
+            substitution,
+            expressionTypeManager.getExpressionSchema((Expression) node));
+      }
+      return super.process(node, context);
+    }
+
     @Override
     protected Pair<String, Schema> visitNode(final Node node, final Void context) {
       throw new UnsupportedOperationException();
@@ -218,29 +258,78 @@ public class SqlToJavaVisitor {
         final Void context) {
       final String functionName = node.getName().getSuffix();
 
-      final String instanceName = functionName + "_" + functionCounter++;
-      final Schema functionReturnSchema = getFunctionReturnSchema(node, functionName);
+      final String instanceName = functionInstances.getOrDefault(
+          functionName + "_" + functionCounter, functionName + "_" + functionCounter);
+      functionCounter++;
+      final KsqlFunction function = getFunction(node, functionName);
+      final Schema functionReturnSchema = getFunctionReturnSchema(node, functionName, function);
       final String javaReturnType = SchemaUtil.getJavaType(functionReturnSchema).getSimpleName();
-      final String arguments = node.getArguments().stream()
+      final List<String> arguments = node.getArguments().stream()
           .map(arg -> process(arg, context).getLeft())
-          .collect(Collectors.joining(", "));
-      final String codeString = "((" + javaReturnType + ") " + instanceName
-          + ".evaluate(" + arguments + "))";
+          .collect(Collectors.toList());
+      final String invocation = function.getDirectInvocationMethod()
+          .flatMap(method -> formatDirectInvocation(instanceName, method, arguments))
+          .orElseGet(() -> instanceName + ".evaluate(" + String.join(", ", arguments) + ")");
+      final String codeString = "((" + javaReturnType + ") " + invocation + ")";
       return new Pair<>(codeString, functionReturnSchema);
     }
 
+    private KsqlFunction getFunction(final FunctionCall node, final String functionName) {
+      final UdfFactory udfFactory = functionRegistry.getUdfFactory(functionName);
+      final List<Schema> argumentSchemas = node.getArguments().stream()
+          .map(expressionTypeManager::getExpressionSchema)
+          .collect(Collectors.toList());
+
+      return udfFactory.getFunction(argumentSchemas);
+    }
+
     private Schema getFunctionReturnSchema(
         final FunctionCall node,
-        final String functionName) {
+        final String functionName,
+        final KsqlFunction function) {
       if (functionName.equalsIgnoreCase(FetchFieldFromStruct.FUNCTION_NAME)) {
         return expressionTypeManager.getExpressionSchema(node);
       }
-      final UdfFactory udfFactory = functionRegistry.getUdfFactory(functionName);
-      final List<Schema> argumentSchemas = node.getArguments().stream()
-          .map(expressionTypeManager::getExpressionSchema)
-          .collect(Collectors.toList());
+      return function.getReturnType();
+    }
+
+    /**
+     * Call the UDF method on the instance wrapped by the {@code PluggableUdf}, rather than going
+     * through {@code Kudf.evaluate}, so that the call is statically typed and can be inlined.
+     * Each argument is coerced to its parameter type by {@link UdfTemplate}, as the wrapper does,
+     * so the call widens and fails the same way it does through the wrapper.
+     *
+     * @return the invocation, or empty if the method can not be called with the arguments as
+     *     they are, e.g. if it takes varargs, in which case the call goes through the wrapper.
+     */
+    private Optional<String> formatDirectInvocation(
+        final String instanceName,
+        final Method method,
+        final List<String> arguments) {
+      final Class<?>[] parameterTypes = method.getParameterTypes();
+      if (method.isVarArgs() || parameterTypes.length != arguments.size()) {
+        return Optional.empty();
+      }
+
+      final String args = IntStream.range(0, parameterTypes.length)
+          .mapToObj(idx -> formatDirectArgument(arguments.get(idx), parameterTypes[idx], idx))
+          .collect(Collectors.joining(", "));
 
-      return udfFactory.getFunction(argumentSchemas).getReturnType();
+      return Optional.of("((" + method.getDeclaringClass().getCanonicalName() + ") "
+          + "((PluggableUdf) " + instanceName + ").getActualUdf())."
+          + method.getName() + "(" + args + ")");
+    }
+
+    private String formatDirectArgument(
+        final String argument,
+        final Class<?> parameterType,
+        final int index) {
+      final String coerced = "((" + Primitives.wrap(parameterType).getCanonicalName() + ") "
+          + "UdfTemplate.coerceArgument(" + argument + ", "
+          + parameterType.getCanonicalName() + ".class, " + index + "))";
+      return parameterType.isPrimitive()
+          ? coerced + "." + parameterType.getName() + "Value()"
+          : coerced;
     }
 
     @Override
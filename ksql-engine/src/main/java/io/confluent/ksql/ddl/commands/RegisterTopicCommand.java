@@ -68,6 +68,16 @@ public class RegisterTopicCommand implements DdlCommand {
       throw new KsqlException(
               DdlConfig.VALUE_AVRO_SCHEMA_FULL_NAME + " is only valid for AVRO topics.");
     }
+    if (!serde.equalsIgnoreCase(DataSource.JSON_SERDE_NAME)
+        && properties.containsKey(DdlConfig.VALUE_JSON_DECODER_PROPERTY)) {
+      throw new KsqlException(
+          DdlConfig.VALUE_JSON_DECODER_PROPERTY + " is only valid for JSON topics.");
+    }
+    if (!serde.equalsIgnoreCase(DataSource.DELIMITED_SERDE_NAME)
+        && properties.containsKey(DdlConfig.VALUE_DELIMITER_PROPERTY)) {
+      throw new KsqlException(
+          DdlConfig.VALUE_DELIMITER_PROPERTY + " is only valid for DELIMITED topics.");
+    }
     switch (serde.toUpperCase()) {
       case DataSource.AVRO_SERDE_NAME:
         final Expression schemaFullNameExp =
@@ -77,14 +87,59 @@ public class RegisterTopicCommand implements DdlCommand {
                   StringUtil.cleanQuotes(schemaFullNameExp.toString());
         return new KsqlAvroTopicSerDe(schemaFullName);
       case DataSource.JSON_SERDE_NAME:
-        return new KsqlJsonTopicSerDe();
+        return new KsqlJsonTopicSerDe(isStreamingJsonDecoder(properties));
       case DataSource.DELIMITED_SERDE_NAME:
-        return new KsqlDelimitedTopicSerDe();
+        return new KsqlDelimitedTopicSerDe(getValueDelimiter(properties));
       default:
         throw new KsqlException("The specified topic serde is not supported.");
     }
   }
 
+  private static boolean isStreamingJsonDecoder(final Map<String, Expression> properties) {
+    final Expression decoderExp = properties.get(DdlConfig.VALUE_JSON_DECODER_PROPERTY);
+    if (decoderExp == null) {
+      return false;
+    }
+
+    final String decoder = StringUtil.cleanQuotes(decoderExp.toString()).toUpperCase();
+    switch (decoder) {
+      case DdlConfig.JSON_DECODER_STREAMING:
+        return true;
+      case DdlConfig.JSON_DECODER_DEFAULT:
+        return false;
+      default:
+        throw new KsqlException(
+            DdlConfig.VALUE_JSON_DECODER_PROPERTY + " property is not set correctly"
+                + ". value: " + decoder
+                + ", validValues: ["
+                + DdlConfig.JSON_DECODER_STREAMING + ", " + DdlConfig.JSON_DECODER_DEFAULT + "]");
+    }
+  }
+
+  private static char getValueDelimiter(final Map<String, Expression> properties) {
+    final Expression delimiterExp = properties.get(DdlConfig.VALUE_DELIMITER_PROPERTY);
+    if (delimiterExp == null) {
+      return ',';
+    }
+
+    final String delimiter = StringUtil.cleanQuotes(delimiterExp.toString());
+    if (delimiter.length() == 1) {
+      return delimiter.charAt(0);
+    }
+    switch (delimiter.toUpperCase()) {
+      case DdlConfig.DELIMITER_TAB:
+        return '\t';
+      case DdlConfig.DELIMITER_SPACE:
+        return ' ';
+      default:
+        throw new KsqlException(
+            DdlConfig.VALUE_DELIMITER_PROPERTY + " property is not set correctly"
+                + ". value: " + delimiter
+                + ", validValues: [a single character, "
+                + DdlConfig.DELIMITER_TAB + ", " + DdlConfig.DELIMITER_SPACE + "]");
+    }
+  }
+
   private static void enforceTopicProperties(final Map<String, Expression> properties) {
     if (!properties.containsKey(DdlConfig.VALUE_FORMAT_PROPERTY)) {
       throw new KsqlException("Topic format("
@@ -17,8 +17,10 @@ package io.confluent.ksql.function;
 
 import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.function.udaf.count.CountAggFunctionFactory;
+import io.confluent.ksql.function.udaf.countdistinct.CountDistinctAggFunctionFactory;
 import io.confluent.ksql.function.udaf.max.MaxAggFunctionFactory;
 import io.confluent.ksql.function.udaf.min.MinAggFunctionFactory;
+import io.confluent.ksql.function.udaf.percentile.PercentileAggFunctionFactory;
 import io.confluent.ksql.function.udaf.sum.SumAggFunctionFactory;
 import io.confluent.ksql.function.udaf.topk.TopKAggregateFunctionFactory;
 import io.confluent.ksql.function.udaf.topkdistinct.TopkDistinctAggFunctionFactory;
@@ -336,11 +338,19 @@ public class InternalFunctionRegistry implements MutableFunctionRegistry {
     private void addUdafFunctions() {
 
       functionRegistry.addAggregateFunctionFactory(new CountAggFunctionFactory());
+      functionRegistry.addAggregateFunctionFactory(
+          CountDistinctAggFunctionFactory.countDistinct());
+      functionRegistry.addAggregateFunctionFactory(
+          CountDistinctAggFunctionFactory.approxCountDistinct());
       functionRegistry.addAggregateFunctionFactory(new SumAggFunctionFactory());
 
       functionRegistry.addAggregateFunctionFactory(new MaxAggFunctionFactory());
       functionRegistry.addAggregateFunctionFactory(new MinAggFunctionFactory());
 
+      functionRegistry.addAggregateFunctionFactory(
+          PercentileAggFunctionFactory.percentileApprox());
+      functionRegistry.addAggregateFunctionFactory(PercentileAggFunctionFactory.quantiles());
+
       functionRegistry.addAggregateFunctionFactory(new TopKAggregateFunctionFactory());
       functionRegistry.addAggregateFunctionFactory(new TopkDistinctAggFunctionFactory());
     }
@@ -20,6 +20,7 @@ import com.squareup.javapoet.JavaFile;
 import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.ParameterizedTypeName;
 import com.squareup.javapoet.TypeSpec;
+import io.confluent.common.Configurable;
 import io.confluent.ksql.function.udaf.TableUdaf;
 import io.confluent.ksql.function.udaf.Udaf;
 import java.lang.reflect.Method;
@@ -99,12 +100,18 @@ public final class UdafTemplate {
             .addStatement("args.ensureArgCount($L, $S)", udaf.getParameters().length + 1, udafName)
             .returns(KsqlAggregateFunction.class)
             .addStatement(
-                "return new $L($T.$L($L), args.udafIndex(), getArgTypes(), getReturnType(), "
-                    + "aggregateSensor, mergeSensor)",
-                className,
+                "final $T instance = $T.$L($L)",
+                Udaf.class,
                 udaf.getDeclaringClass(),
                 udaf.getName(),
                 udafArgs)
+            .beginControlFlow("if (instance instanceof $T)", Configurable.class)
+            .addStatement("(($T) instance).configure(args.config())", Configurable.class)
+            .endControlFlow()
+            .addStatement(
+                "return new $L(instance, args.udafIndex(), getArgTypes(), getReturnType(), "
+                    + "aggregateSensor, mergeSensor)",
+                className)
             .build());
 
     return JavaFile.builder("io.confluent.ksql.function.udaf", udafTypeSpec.build())
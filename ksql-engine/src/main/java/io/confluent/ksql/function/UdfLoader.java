@@ -15,6 +15,7 @@
 
 package io.confluent.ksql.function;
 
+import com.google.common.collect.ImmutableSet;
 import io.confluent.common.Configurable;
 import io.confluent.ksql.function.udaf.UdafAggregateFunctionFactory;
 import io.confluent.ksql.function.udaf.UdafDescription;
@@ -42,9 +43,11 @@ import java.lang.reflect.Type;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -75,6 +78,7 @@ public class UdfLoader {
   @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
   private final Optional<Metrics> metrics;
   private final boolean loadCustomerUdfs;
+  private final Set<String> wrappedFunctions;
 
 
   @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
@@ -85,6 +89,25 @@ public class UdfLoader {
                    final UdfCompiler compiler,
                    final Optional<Metrics> metrics,
                    final boolean loadCustomerUdfs) {
+    this(functionRegistry,
+        pluginDir,
+        parentClassLoader,
+        blacklist,
+        compiler,
+        metrics,
+        loadCustomerUdfs,
+        Collections.emptySet());
+  }
+
+  @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+  public UdfLoader(final MutableFunctionRegistry functionRegistry,
+                   final File pluginDir,
+                   final ClassLoader parentClassLoader,
+                   final Predicate<String> blacklist,
+                   final UdfCompiler compiler,
+                   final Optional<Metrics> metrics,
+                   final boolean loadCustomerUdfs,
+                   final Set<String> wrappedFunctions) {
     this.functionRegistry = Objects
         .requireNonNull(functionRegistry, "functionRegistry can't be null");
     this.pluginDir = Objects.requireNonNull(pluginDir, "pluginDir can't be null");
@@ -94,6 +117,11 @@ public class UdfLoader {
     this.compiler = Objects.requireNonNull(compiler, "compiler can't be null");
     this.metrics = Objects.requireNonNull(metrics, "metrics can't be null");
     this.loadCustomerUdfs = loadCustomerUdfs;
+    this.wrappedFunctions = Objects
+        .requireNonNull(wrappedFunctions, "wrappedFunctions can't be null")
+        .stream()
+        .map(String::toUpperCase)
+        .collect(Collectors.toSet());
   }
 
   public void load() {
@@ -283,7 +311,25 @@ public class UdfLoader {
               theUdf,
               Time.SYSTEM)).orElse(theUdf);
         }, udfAnnotation.description(),
-        path));
+        path,
+        isDirectlyInvocable(functionName, method, path) ? Optional.of(method) : Optional.empty()));
+  }
+
+  /**
+   * Built-in UDFs are trusted and visible to the class loader of the generated code, so they can
+   * be called directly, unless their invocations are being timed or the function is configured to
+   * always go through the wrapper.
+   */
+  private boolean isDirectlyInvocable(
+      final String functionName,
+      final Method method,
+      final String path
+  ) {
+    return KsqlFunction.INTERNAL_PATH.equals(path)
+        && !metrics.isPresent()
+        && !wrappedFunctions.contains(functionName.toUpperCase())
+        && Modifier.isPublic(method.getDeclaringClass().getModifiers())
+        && method.getDeclaringClass().getCanonicalName() != null;
   }
 
   private static Object instantiateUdfClass(final Method method,
@@ -343,7 +389,8 @@ public class UdfLoader {
         new Blacklist(new File(pluginDir, "resource-blacklist.txt")),
         new UdfCompiler(metrics),
         metrics,
-        loadCustomerUdfs
+        loadCustomerUdfs,
+        ImmutableSet.copyOf(config.getList(KsqlConfig.KSQL_UDF_WRAPPED_FUNCTIONS_CONFIG))
     );
   }
 }
@@ -61,7 +61,22 @@ public final class UdfTemplate {
       final Object[] args,
       final Class<? extends T> clazz,
       final int index) {
-    final Object arg = args[index];
+    return coerceArgument(args[index], clazz, index);
+  }
+
+  /**
+   * Coerces a single argument, for generated code that calls the UDF method directly rather than
+   * through the invoker, so both calls accept and reject the same arguments.
+   *
+   * @param arg the argument.
+   * @param clazz the type of the parameter.
+   * @param index the position of the argument, for error messages.
+   * @return the argument as the type of the parameter.
+   */
+  public static <T> T coerceArgument(
+      final Object arg,
+      final Class<? extends T> clazz,
+      final int index) {
     if (arg == null) {
       if (clazz.isPrimitive()) {
         throw new KsqlFunctionException(
@@ -0,0 +1,34 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf;
+
+import io.confluent.ksql.GenericRow;
+
+/**
+ * An aggregate function whose aggregate is a primitive column of the aggregate row, which it
+ * can update in place rather than boxing a new aggregate for each record.
+ *
+ * <p>{@link #aggregateInPlace} must have the same effect as setting the aggregate column to
+ * the result of {@code aggregate} for the argument column and the aggregate column.
+ */
+public interface InPlaceAggregateFunction {
+
+  /**
+   * Fold the argument in column {@code argIndex} of {@code row} into the aggregate in column
+   * {@code aggIndex} of {@code aggRow}.
+   */
+  void aggregateInPlace(GenericRow row, int argIndex, GenericRow aggRow, int aggIndex);
+}
@@ -20,39 +20,83 @@ import io.confluent.ksql.function.KsqlAggregateFunction;
 import io.confluent.ksql.function.UdafAggregator;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 import org.apache.kafka.streams.kstream.Merger;
 
+/**
+ * Aggregates rows into aggregate rows that hold some columns copied from the input rows, such
+ * as the group by columns and the arguments of the aggregate functions, followed by the
+ * aggregates.
+ *
+ * <p>The column mappings are resolved into arrays up front, so that aggregating a record does
+ * not iterate any map. Functions that implement {@link InPlaceAggregateFunction} update their
+ * column of the aggregate row without boxing a new aggregate.
+ */
 public class KudafAggregator implements UdafAggregator {
 
-  private Map<Integer, KsqlAggregateFunction> aggValToAggFunctionMap;
-  private Map<Integer, Integer> aggValToValColumnMap;
+  private final int[] nonAggColumnIndexes;
+  private final int[] nonAggValueIndexes;
+  private final int[] aggColumnIndexes;
+  private final int[] aggArgIndexes;
+  private final KsqlAggregateFunction[] aggFunctions;
+  private final InPlaceAggregateFunction[] inPlaceFunctions;
+  private final Merger[] aggMergers;
 
   public KudafAggregator(
       final Map<Integer, KsqlAggregateFunction> aggValToAggFunctionMap,
       final Map<Integer, Integer> aggValToValColumnMap) {
-    this.aggValToAggFunctionMap = aggValToAggFunctionMap;
-    this.aggValToValColumnMap = aggValToValColumnMap;
+    this.nonAggColumnIndexes = new int[aggValToValColumnMap.size()];
+    this.nonAggValueIndexes = new int[aggValToValColumnMap.size()];
+    int idx = 0;
+    for (final Map.Entry<Integer, Integer> entry : aggValToValColumnMap.entrySet()) {
+      nonAggColumnIndexes[idx] = entry.getKey();
+      nonAggValueIndexes[idx] = entry.getValue();
+      idx++;
+    }
+
+    this.aggColumnIndexes = new int[aggValToAggFunctionMap.size()];
+    this.aggArgIndexes = new int[aggValToAggFunctionMap.size()];
+    this.aggFunctions = new KsqlAggregateFunction[aggValToAggFunctionMap.size()];
+    this.inPlaceFunctions = new InPlaceAggregateFunction[aggValToAggFunctionMap.size()];
+    this.aggMergers = new Merger[aggValToAggFunctionMap.size()];
+    idx = 0;
+    for (final Map.Entry<Integer, KsqlAggregateFunction> entry
+        : aggValToAggFunctionMap.entrySet()) {
+      final KsqlAggregateFunction function = entry.getValue();
+      aggColumnIndexes[idx] = entry.getKey();
+      aggArgIndexes[idx] = function.getArgIndexInValue();
+      aggFunctions[idx] = function;
+      inPlaceFunctions[idx] = function instanceof InPlaceAggregateFunction
+          ? (InPlaceAggregateFunction) function
+          : null;
+      aggMergers[idx] = function.getMerger();
+      idx++;
+    }
   }
 
   @SuppressWarnings("unchecked")
   @Override
   public GenericRow apply(final String s, final GenericRow rowValue, final GenericRow aggRowValue) {
     // copy over group-by and aggregate parameter columns into the output row
-    aggValToValColumnMap.forEach(
-        (key, value) ->
-            aggRowValue.getColumns().set(key, rowValue.getColumns().get(value)));
+    for (int i = 0; i < nonAggColumnIndexes.length; i++) {
+      aggRowValue.copyColumn(nonAggColumnIndexes[i], rowValue, nonAggValueIndexes[i]);
+    }
 
     // compute the aggregation and write it into the output row. Its assumed that
     // the columns written by this statement do not overlap with those written by
     // the above statement.
-    aggValToAggFunctionMap.forEach((key, value) ->
-        aggRowValue.getColumns().set(
-            key,
-            value.aggregate(
-                rowValue.getColumns().get(value.getArgIndexInValue()),
-                aggRowValue.getColumns().get(key))));
+    final List<Object> aggColumns = aggRowValue.getColumns();
+    for (int i = 0; i < aggFunctions.length; i++) {
+      final int aggIndex = aggColumnIndexes[i];
+      if (inPlaceFunctions[i] != null) {
+        inPlaceFunctions[i].aggregateInPlace(rowValue, aggArgIndexes[i], aggRowValue, aggIndex);
+      } else {
+        aggColumns.set(
+            aggIndex,
+            aggFunctions[i].aggregate(
+                rowValue.getColumns().get(aggArgIndexes[i]),
+                aggColumns.get(aggIndex)));
+      }
+    }
 
     return aggRowValue;
   }
@@ -61,28 +105,62 @@ public class KudafAggregator implements UdafAggregator {
   @Override
   public Merger<String, GenericRow> getMerger() {
     return (key, aggRowOne, aggRowTwo) -> {
-      final List<Object> columns = Stream.generate(String::new).limit(aggRowOne.getColumns().size())
-          .collect(Collectors.toList());
-      final GenericRow mergedRow = new GenericRow(columns);
-
-      aggValToValColumnMap.forEach((columnIndex, value) -> {
-        if (aggRowOne.getColumns().get(value) == null) {
-          mergedRow.getColumns().set(columnIndex, aggRowTwo.getColumns()
-              .get(value));
+      final GenericRow mergedRow = GenericRow.withColumnCount(aggRowOne.getColumns().size());
+
+      for (int i = 0; i < nonAggColumnIndexes.length; i++) {
+        final int value = nonAggValueIndexes[i];
+        if (aggRowOne.isNull(value)) {
+          mergedRow.copyColumn(nonAggColumnIndexes[i], aggRowTwo, value);
         } else {
-          mergedRow.getColumns().set(columnIndex, aggRowOne.getColumns()
-              .get(value));
+          mergedRow.copyColumn(nonAggColumnIndexes[i], aggRowOne, value);
         }
-      });
-
-      aggValToAggFunctionMap.forEach((functionIndex, ksqlAggregateFunction) ->
-          mergedRow.getColumns().set(functionIndex, ksqlAggregateFunction.getMerger()
-          .apply(key,
-              aggRowOne.getColumns().get(functionIndex),
-              aggRowTwo.getColumns().get(functionIndex))));
+      }
 
+      mergeAggregates(key, aggRowOne, aggRowTwo, mergedRow);
       return mergedRow;
     };
   }
 
+  /**
+   * @return an aggregator that folds rows already aggregated by this aggregator, rather than
+   *     input rows, into the aggregate.
+   */
+  public UdafAggregator getPartialAggregateMerger() {
+    return new UdafAggregator() {
+      @Override
+      public GenericRow apply(
+          final String key,
+          final GenericRow partialRow,
+          final GenericRow aggRowValue
+      ) {
+        for (final int columnIndex : nonAggColumnIndexes) {
+          aggRowValue.copyColumn(columnIndex, partialRow, columnIndex);
+        }
+
+        mergeAggregates(key, aggRowValue, partialRow, aggRowValue);
+        return aggRowValue;
+      }
+
+      @Override
+      public Merger<String, GenericRow> getMerger() {
+        return KudafAggregator.this.getMerger();
+      }
+    };
+  }
+
+  @SuppressWarnings("unchecked")
+  private void mergeAggregates(
+      final String key,
+      final GenericRow aggRowOne,
+      final GenericRow aggRowTwo,
+      final GenericRow mergedRow
+  ) {
+    for (int i = 0; i < aggMergers.length; i++) {
+      final int functionIndex = aggColumnIndexes[i];
+      mergedRow.getColumns().set(functionIndex, aggMergers[i]
+          .apply(key,
+              aggRowOne.getColumns().get(functionIndex),
+              aggRowTwo.getColumns().get(functionIndex)));
+    }
+  }
 }
@@ -19,13 +19,11 @@ import io.confluent.ksql.GenericRow;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.function.Supplier;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import org.apache.kafka.streams.kstream.Initializer;
 
 public class KudafInitializer implements Initializer<GenericRow> {
 
-  private final List<Supplier> aggValueSuppliers = new ArrayList<>();
+  private final List<Supplier<?>> aggValueSuppliers = new ArrayList<>();
   private final int nonAggValSize;
 
   public KudafInitializer(final int nonAggValSize) {
@@ -34,15 +32,15 @@ public class KudafInitializer implements Initializer<GenericRow> {
 
   @Override
   public GenericRow apply() {
-    final List<Object> values = IntStream.range(0, nonAggValSize)
-        .mapToObj(value -> null)
-        .collect(Collectors.toList());
-
-    aggValueSuppliers.forEach(supplier -> values.add(supplier.get()));
-    return new GenericRow(values);
+    final GenericRow row = GenericRow.withColumnCount(nonAggValSize + aggValueSuppliers.size());
+    final List<Object> values = row.getColumns();
+    for (int i = 0; i < aggValueSuppliers.size(); i++) {
+      values.set(nonAggValSize + i, aggValueSuppliers.get(i).get());
+    }
+    return row;
   }
 
-  public void addAggregateIntializer(final Supplier intialValueSupplier) {
+  public void addAggregateIntializer(final Supplier<?> intialValueSupplier) {
     aggValueSuppliers.add(intialValueSupplier);
   }
 }
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import org.apache.kafka.streams.kstream.ValueMapper;
+
+/**
+ * Maps the aggregates of functions whose aggregate type differs from their return type, e.g. a
+ * sketch, to their results, once the aggregate row has been stored.
+ */
+public final class KudafResultMapper implements ValueMapper<GenericRow, GenericRow> {
+
+  private final int[] indexes;
+  private final Function<Object, ?>[] mappers;
+
+  @SuppressWarnings("unchecked")
+  public KudafResultMapper(final Map<Integer, KsqlAggregateFunction> aggFunctionsByIndex) {
+    final int[] allIndexes = new int[aggFunctionsByIndex.size()];
+    final Function<Object, ?>[] allMappers = new Function[aggFunctionsByIndex.size()];
+    int count = 0;
+    for (final Map.Entry<Integer, KsqlAggregateFunction> e : aggFunctionsByIndex.entrySet()) {
+      final Optional<Function<Object, ?>> mapper = e.getValue().getResultMapper();
+      if (mapper.isPresent()) {
+        allIndexes[count] = e.getKey();
+        allMappers[count] = mapper.get();
+        count++;
+      }
+    }
+    this.indexes = Arrays.copyOf(allIndexes, count);
+    this.mappers = Arrays.copyOf(allMappers, count);
+  }
+
+  public boolean hasMappings() {
+    return indexes.length != 0;
+  }
+
+  @Override
+  public GenericRow apply(final GenericRow row) {
+    if (row == null) {
+      return null;
+    }
+
+    final List<Object> columns = row.getColumns();
+    for (int i = 0; i < indexes.length; i++) {
+      final Object aggregate = columns.get(indexes[i]);
+      columns.set(indexes[i], aggregate == null ? null : mappers[i].apply(aggregate));
+    }
+    return row;
+  }
+}
@@ -16,11 +16,14 @@
 package io.confluent.ksql.function.udaf.array;
 
 import com.google.common.collect.Lists;
+import io.confluent.common.Configurable;
 import io.confluent.ksql.function.udaf.TableUdaf;
 import io.confluent.ksql.function.udaf.Udaf;
 import io.confluent.ksql.function.udaf.UdafDescription;
 import io.confluent.ksql.function.udaf.UdafFactory;
+import io.confluent.ksql.util.KsqlConfig;
 import java.util.List;
+import java.util.Map;
 
 @UdafDescription(
     name = "collect_list",
@@ -28,44 +31,52 @@ import java.util.List;
         + "\nAlthough this aggregate works on both Stream and Table inputs, the order of entries"
         + " in the result array is not guaranteed when working on Table input data."
         + "\nThis version limits the size of the resultant Array to 1000 entries, beyond which"
-        + " any further values will be silently ignored.")
+        + " any further values will be silently ignored. The limit can be changed via the"
+        + " setting:\n\t" + KsqlConfig.KSQL_FUNCTIONS_COLLECT_LIST_LIMIT_CONFIG)
 public final class CollectListUdaf {
 
-  private static final int LIMIT = 1000;
-
   private CollectListUdaf() {
     // just to make the checkstyle happy
   }
 
   private static <T> TableUdaf<T, List<T>> listCollector() {
-    return new TableUdaf<T, List<T>>() {
+    return new ListCollector<>();
+  }
 
-      @Override
-      public List<T> initialize() {
-        return Lists.newArrayList();
-      }
+  private static final class ListCollector<T> implements TableUdaf<T, List<T>>, Configurable {
 
-      @Override
-      public List<T> aggregate(final T thisValue, final List<T> aggregate) {
-        if (aggregate.size() < LIMIT) {
-          aggregate.add(thisValue);
-        }
-        return aggregate;
-      }
+    private int limit = 1000;
 
-      @Override
-      public List<T> merge(final List<T> aggOne, final List<T> aggTwo) {
-        final int remainingCapacity = LIMIT - aggOne.size();
-        aggOne.addAll(aggTwo.subList(0, Math.min(remainingCapacity, aggTwo.size())));
-        return aggOne;
-      }
+    @Override
+    public void configure(final Map<String, ?> props) {
+      limit = new KsqlConfig(props).getInt(KsqlConfig.KSQL_FUNCTIONS_COLLECT_LIST_LIMIT_CONFIG);
+    }
+
+    @Override
+    public List<T> initialize() {
+      return Lists.newArrayList();
+    }
 
-      @Override
-      public List<T> undo(final T valueToUndo, final List<T> aggregateValue) {
-        aggregateValue.remove(aggregateValue.lastIndexOf(valueToUndo));
-        return aggregateValue;
+    @Override
+    public List<T> aggregate(final T thisValue, final List<T> aggregate) {
+      if (aggregate.size() < limit) {
+        aggregate.add(thisValue);
       }
-    };
+      return aggregate;
+    }
+
+    @Override
+    public List<T> merge(final List<T> aggOne, final List<T> aggTwo) {
+      final int remainingCapacity = Math.max(0, limit - aggOne.size());
+      aggOne.addAll(aggTwo.subList(0, Math.min(remainingCapacity, aggTwo.size())));
+      return aggOne;
+    }
+
+    @Override
+    public List<T> undo(final T valueToUndo, final List<T> aggregateValue) {
+      aggregateValue.remove(aggregateValue.lastIndexOf(valueToUndo));
+      return aggregateValue;
+    }
   }
 
   @UdafFactory(description = "collect values of a Bigint field into a single Array")
@@ -15,53 +15,116 @@
 
 package io.confluent.ksql.function.udaf.array;
 
-import com.google.common.collect.Lists;
+import io.confluent.common.Configurable;
 import io.confluent.ksql.function.udaf.Udaf;
 import io.confluent.ksql.function.udaf.UdafDescription;
 import io.confluent.ksql.function.udaf.UdafFactory;
+import io.confluent.ksql.util.KsqlConfig;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.Set;
 
 @UdafDescription(name = "collect_set", 
     description = "Gather all of the distinct values from an input grouping into a single Array."
         + "\nNot available for aggregating values from an input Table."
-        + "\nThis version limits the size of the resultant Array to 1000 entries, beyond which"
-        + " any further values will be silently ignored.")
+        + "\nThis version limits the size of the resultant Array to the number of entries set"
+        + " by the setting:\n\t" + KsqlConfig.KSQL_FUNCTIONS_COLLECT_SET_LIMIT_CONFIG
+        + "\nbeyond which any further values will be silently ignored.")
 public final class CollectSetUdaf {
 
-  private static final int LIMIT = 1000;
-
   private CollectSetUdaf() {
     // just to make the checkstyle happy
   }
-  
+
   private static <T> Udaf<T, List<T>> setCollector() {
-    return new Udaf<T, List<T>>() {
-      @Override
-      public List<T> initialize() {
-        return Lists.newArrayList();
+    return new SetCollector<>();
+  }
+
+  private static final class SetCollector<T> implements Udaf<T, List<T>>, Configurable {
+
+    private int limit = 1000;
+
+    @Override
+    public void configure(final Map<String, ?> props) {
+      limit = new KsqlConfig(props).getInt(KsqlConfig.KSQL_FUNCTIONS_COLLECT_SET_LIMIT_CONFIG);
+    }
+
+    @Override
+    public List<T> initialize() {
+      return new DistinctList<>(new ArrayList<>());
+    }
+
+    @Override
+    public List<T> aggregate(final T thisValue, final List<T> aggregate) {
+      final DistinctList<T> distinct = DistinctList.of(aggregate);
+      if (distinct.size() < limit) {
+        distinct.add(thisValue);
       }
+      return distinct;
+    }
 
-      @Override
-      public List<T> aggregate(final T thisValue, final List<T> aggregate) {
-        if (aggregate.size() < LIMIT && !aggregate.contains(thisValue)) {
-          aggregate.add(thisValue);
+    @Override
+    public List<T> merge(final List<T> aggOne, final List<T> aggTwo) {
+      final DistinctList<T> distinct = DistinctList.of(aggOne);
+      for (final T thisEntry : aggTwo) {
+        if (distinct.size() >= limit) {
+          break;
         }
-        return aggregate;
+        distinct.add(thisEntry);
       }
+      return distinct;
+    }
+  }
 
-      @Override
-      public List<T> merge(final List<T> aggOne, final List<T> aggTwo) {
-        for (final T thisEntry : aggTwo) {
-          if (aggOne.size() == LIMIT) {
-            break;
-          }
-          if (!aggOne.contains(thisEntry)) {
-            aggOne.add(thisEntry);
-          }
-        }
-        return aggOne;
+  /**
+   * The distinct values collected so far, in the order they were first collected, indexed by a
+   * hash set so that adding a value does not scan the values already collected.
+   *
+   * <p>An aggregate deserialized from a state store is a plain list, and is indexed once when
+   * the first value is added to it.
+   */
+  private static final class DistinctList<T> extends AbstractList<T> implements RandomAccess {
+
+    private final List<T> values;
+    private final Set<T> index;
+
+    private DistinctList(final List<T> values) {
+      this.values = values;
+      this.index = new HashSet<>(values);
+    }
+
+    static <T> DistinctList<T> of(final List<T> aggregate) {
+      return aggregate instanceof DistinctList
+          ? (DistinctList<T>) aggregate
+          : new DistinctList<>(aggregate);
+    }
+
+    @Override
+    public T get(final int i) {
+      return values.get(i);
+    }
+
+    @Override
+    public int size() {
+      return values.size();
+    }
+
+    /**
+     * @return {@code true} if the value was not already collected, and so was added.
+     */
+    @Override
+    public boolean add(final T value) {
+      if (!index.add(value)) {
+        return false;
       }
-    };
+      values.add(value);
+      modCount++;
+      return true;
+    }
   }
 
   @UdafFactory(description = "collect distinct values of a Bigint field into a single Array")
@@ -15,17 +15,20 @@
 
 package io.confluent.ksql.function.udaf.count;
 
+import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.function.AggregateFunctionArguments;
 import io.confluent.ksql.function.BaseAggregateFunction;
 import io.confluent.ksql.function.KsqlAggregateFunction;
 import io.confluent.ksql.function.TableAggregationFunction;
+import io.confluent.ksql.function.udaf.InPlaceAggregateFunction;
 import java.util.Collections;
 import java.util.List;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.streams.kstream.Merger;
 
 public class CountKudaf
-    extends BaseAggregateFunction<Object, Long> implements TableAggregationFunction<Object, Long> {
+    extends BaseAggregateFunction<Object, Long>
+    implements TableAggregationFunction<Object, Long>, InPlaceAggregateFunction {
 
   CountKudaf(final String functionName, final int argIndexInValue) {
     super(functionName, argIndexInValue, () -> 0L, Schema.OPTIONAL_INT64_SCHEMA,
@@ -42,6 +45,19 @@ public class CountKudaf
     return aggregateValue + 1;
   }
 
+  @Override
+  public void aggregateInPlace(
+      final GenericRow row,
+      final int argIndex,
+      final GenericRow aggRow,
+      final int aggIndex
+  ) {
+    if (row.isNull(argIndex)) {
+      return;
+    }
+    aggRow.setLong(aggIndex, aggRow.getLong(aggIndex) + 1);
+  }
+
   @Override
   public Merger<String, Long> getMerger() {
     return (aggKey, aggOne, aggTwo) -> aggOne + aggTwo;
@@ -0,0 +1,84 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.countdistinct;
+
+import io.confluent.ksql.function.AggregateFunctionFactory;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import io.confluent.ksql.util.KsqlException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.kafka.connect.data.Schema;
+
+/**
+ * Creates {@code COUNT_DISTINCT(col)}, which sketches with the default precision, and
+ * {@code APPROX_COUNT_DISTINCT(col, precision)}.
+ */
+public final class CountDistinctAggFunctionFactory extends AggregateFunctionFactory {
+
+  private static final String COUNT_DISTINCT = "COUNT_DISTINCT";
+  private static final String APPROX_COUNT_DISTINCT = "APPROX_COUNT_DISTINCT";
+
+  private final Map<Schema.Type, KsqlAggregateFunction<?, ?>> functions = new HashMap<>();
+
+  private CountDistinctAggFunctionFactory(final String name, final boolean precisionArg) {
+    super(name, createDescriptionFunctions(name, precisionArg));
+    eachFunction(func ->
+        functions.put(((CountDistinctKudaf<?>) func).getArgType().type(), func));
+  }
+
+  public static CountDistinctAggFunctionFactory countDistinct() {
+    return new CountDistinctAggFunctionFactory(COUNT_DISTINCT, false);
+  }
+
+  public static CountDistinctAggFunctionFactory approxCountDistinct() {
+    return new CountDistinctAggFunctionFactory(APPROX_COUNT_DISTINCT, true);
+  }
+
+  private static List<KsqlAggregateFunction<?, ?>> createDescriptionFunctions(
+      final String name,
+      final boolean precisionArg
+  ) {
+    final int precision = CountDistinctKudaf.DEFAULT_PRECISION;
+    return Arrays.asList(
+        new CountDistinctKudaf<Integer>(
+            name, -1, Schema.OPTIONAL_INT32_SCHEMA, precisionArg, precision),
+        new CountDistinctKudaf<Long>(
+            name, -1, Schema.OPTIONAL_INT64_SCHEMA, precisionArg, precision),
+        new CountDistinctKudaf<Double>(
+            name, -1, Schema.OPTIONAL_FLOAT64_SCHEMA, precisionArg, precision),
+        new CountDistinctKudaf<String>(
+            name, -1, Schema.OPTIONAL_STRING_SCHEMA, precisionArg, precision),
+        new CountDistinctKudaf<Boolean>(
+            name, -1, Schema.OPTIONAL_BOOLEAN_SCHEMA, precisionArg, precision)
+    );
+  }
+
+  @Override
+  public KsqlAggregateFunction getProperAggregateFunction(final List<Schema> argTypeList) {
+    if (argTypeList.isEmpty()) {
+      throw new KsqlException(getName() + " function should have at least one argument.");
+    }
+
+    final KsqlAggregateFunction<?, ?> function = functions.get(argTypeList.get(0).type());
+    if (function == null) {
+      throw new KsqlException("No " + getName() + " aggregate function with "
+          + argTypeList.get(0) + " argument type exists!");
+    }
+    return function;
+  }
+}
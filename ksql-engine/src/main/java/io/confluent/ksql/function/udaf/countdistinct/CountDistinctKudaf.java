@@ -0,0 +1,138 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.countdistinct;
+
+import io.confluent.ksql.function.AggregateFunctionArguments;
+import io.confluent.ksql.function.BaseAggregateFunction;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import io.confluent.ksql.util.KsqlException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.streams.kstream.Merger;
+
+/**
+ * Estimates the number of distinct values of a column with a {@link HyperLogLog} sketch, which
+ * is the aggregate, and is only mapped to the estimate once stored.
+ */
+public class CountDistinctKudaf<T> extends BaseAggregateFunction<T, List<Long>> {
+
+  static final int DEFAULT_PRECISION = 12;
+
+  private static final Schema AGGREGATE_TYPE =
+      SchemaBuilder.array(Schema.OPTIONAL_INT64_SCHEMA).optional().build();
+
+  private final Schema argType;
+  private final boolean precisionArg;
+  private final int precision;
+
+  CountDistinctKudaf(
+      final String functionName,
+      final int argIndexInValue,
+      final Schema argType,
+      final boolean precisionArg,
+      final int precision
+  ) {
+    super(
+        functionName,
+        argIndexInValue,
+        () -> HyperLogLog.empty(precision),
+        Schema.OPTIONAL_INT64_SCHEMA,
+        Collections.singletonList(argType),
+        "Estimates the number of distinct values of a column, per key, from a sketch of fixed "
+            + "size, with a standard error of 1.04 / sqrt(2^precision)."
+    );
+    this.argType = argType;
+    this.precisionArg = precisionArg;
+    this.precision = precision;
+  }
+
+  @Override
+  public Schema getAggregateType() {
+    return AGGREGATE_TYPE;
+  }
+
+  @Override
+  public Optional<Function<List<Long>, ?>> getResultMapper() {
+    return Optional.of(registers -> HyperLogLog.estimate(registers, precision));
+  }
+
+  @Override
+  public List<Long> aggregate(final T currentValue, final List<Long> aggregateValue) {
+    if (currentValue == null) {
+      return aggregateValue;
+    }
+
+    final List<Long> registers = mutable(aggregateValue);
+    HyperLogLog.add(registers, precision, HyperLogLog.hash(currentValue));
+    return registers;
+  }
+
+  @Override
+  public Merger<String, List<Long>> getMerger() {
+    return (aggKey, aggOne, aggTwo) -> {
+      final List<Long> registers = mutable(aggOne);
+      HyperLogLog.merge(registers, aggTwo);
+      return registers;
+    };
+  }
+
+  @Override
+  public KsqlAggregateFunction<T, List<Long>> getInstance(
+      final AggregateFunctionArguments aggregateFunctionArguments) {
+    final int precisionFromArg;
+    if (precisionArg) {
+      aggregateFunctionArguments.ensureArgCount(2, functionName);
+      precisionFromArg = parsePrecision(aggregateFunctionArguments.arg(1));
+    } else {
+      aggregateFunctionArguments.ensureArgCount(1, functionName);
+      precisionFromArg = DEFAULT_PRECISION;
+    }
+    return new CountDistinctKudaf<>(functionName, aggregateFunctionArguments.udafIndex(),
+        argType, precisionArg, precisionFromArg);
+  }
+
+  Schema getArgType() {
+    return argType;
+  }
+
+  private int parsePrecision(final String arg) {
+    final int parsed;
+    try {
+      parsed = Integer.parseInt(arg);
+    } catch (final NumberFormatException e) {
+      throw new KsqlException(functionName + " precision must be an integer, but was: " + arg);
+    }
+
+    if (parsed < HyperLogLog.MIN_PRECISION || parsed > HyperLogLog.MAX_PRECISION) {
+      throw new KsqlException(String.format("%s precision must be between %d and %d, but was: %d",
+          functionName, HyperLogLog.MIN_PRECISION, HyperLogLog.MAX_PRECISION, parsed));
+    }
+    return parsed;
+  }
+
+  /**
+   * @return {@code registers}, or a copy of it if it may not support {@code set}, e.g. if a
+   *     deserializer created it.
+   */
+  private static List<Long> mutable(final List<Long> registers) {
+    return registers instanceof ArrayList ? registers : new ArrayList<>(registers);
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.countdistinct;
+
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import io.confluent.ksql.util.KsqlException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * A HyperLogLog sketch, which estimates the number of distinct values added to it from a fixed
+ * number of registers, {@code 2^precision}.
+ *
+ * <p>The registers are six bits each, packed ten to a {@code long}, and the sketch is the list
+ * of those longs, so that it is stored as an {@code ARRAY<BIGINT>} by every serde. Adding a
+ * value updates at most one element of the list in place.
+ */
+final class HyperLogLog {
+
+  static final int MIN_PRECISION = 4;
+  static final int MAX_PRECISION = 16;
+
+  private static final int REGISTER_BITS = 6;
+  private static final int REGISTERS_PER_WORD = Long.SIZE / REGISTER_BITS;
+  private static final long REGISTER_MASK = (1L << REGISTER_BITS) - 1;
+
+  // The hash of a value must never change, as it is part of the sketches in state stores:
+  private static final HashFunction HASH = Hashing.murmur3_128();
+
+  private HyperLogLog() {
+  }
+
+  static List<Long> empty(final int precision) {
+    return new ArrayList<>(Collections.nCopies(wordCount(precision), 0L));
+  }
+
+  static int wordCount(final int precision) {
+    return ((1 << precision) + REGISTERS_PER_WORD - 1) / REGISTERS_PER_WORD;
+  }
+
+  static long hash(final Object value) {
+    if (value instanceof String) {
+      return HASH.hashString((String) value, StandardCharsets.UTF_8).asLong();
+    }
+    if (value instanceof Double) {
+      return HASH.hashLong(Double.doubleToLongBits((Double) value)).asLong();
+    }
+    if (value instanceof Integer || value instanceof Long) {
+      return HASH.hashLong(((Number) value).longValue()).asLong();
+    }
+    if (value instanceof Boolean) {
+      return HASH.hashInt((Boolean) value ? 1 : 0).asLong();
+    }
+    throw new KsqlException("Can not count distinct values of type: " + value.getClass());
+  }
+
+  /**
+   * Adds the value with the hash {@code hash} to the sketch {@code registers}.
+   */
+  static void add(final List<Long> registers, final int precision, final long hash) {
+    final int index = (int) (hash >>> (Long.SIZE - precision));
+    // the position of the first set bit of the rest of the hash, which is at most 65 - precision:
+    final int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+
+    final int word = index / REGISTERS_PER_WORD;
+    final int shift = (index % REGISTERS_PER_WORD) * REGISTER_BITS;
+    final long bits = registers.get(word);
+    if (((bits >>> shift) & REGISTER_MASK) < rank) {
+      registers.set(word, (bits & ~(REGISTER_MASK << shift)) | ((long) rank << shift));
+    }
+  }
+
+  /**
+   * Merges the sketch {@code other} into {@code registers}, which then estimates the number of
+   * distinct values added to either.
+   */
+  static void merge(final List<Long> registers, final List<Long> other) {
+    if (registers.size() != other.size()) {
+      throw new KsqlException("Can not merge sketches of different precisions. sizes: "
+          + registers.size() + ", " + other.size());
+    }
+
+    for (int word = 0; word < registers.size(); word++) {
+      final long bits = registers.get(word);
+      final long otherBits = other.get(word);
+      long merged = 0;
+      for (int shift = 0; shift < REGISTERS_PER_WORD * REGISTER_BITS; shift += REGISTER_BITS) {
+        merged |= Math.max((bits >>> shift) & REGISTER_MASK, (otherBits >>> shift) & REGISTER_MASK)
+            << shift;
+      }
+      if (merged != bits) {
+        registers.set(word, merged);
+      }
+    }
+  }
+
+  static long estimate(final List<Long> registers, final int precision) {
+    final int registerCount = 1 << precision;
+    double sum = 0;
+    int zeros = 0;
+    for (int index = 0; index < registerCount; index++) {
+      final int shift = (index % REGISTERS_PER_WORD) * REGISTER_BITS;
+      final int rank = (int) ((registers.get(index / REGISTERS_PER_WORD) >>> shift)
+          & REGISTER_MASK);
+      sum += Math.scalb(1.0, -rank);
+      if (rank == 0) {
+        zeros++;
+      }
+    }
+
+    final double estimate = alpha(registerCount) * registerCount * registerCount / sum;
+    if (estimate <= 2.5 * registerCount && zeros != 0) {
+      // linear counting, which is more accurate while many registers are still empty:
+      return Math.round(registerCount * Math.log((double) registerCount / zeros));
+    }
+    return Math.round(estimate);
+  }
+
+  private static double alpha(final int registerCount) {
+    switch (registerCount) {
+      case 16:
+        return 0.673;
+      case 32:
+        return 0.697;
+      case 64:
+        return 0.709;
+      default:
+        return 0.7213 / (1 + 1.079 / registerCount);
+    }
+  }
+}
@@ -15,14 +15,17 @@
 
 package io.confluent.ksql.function.udaf.max;
 
+import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.function.AggregateFunctionArguments;
 import io.confluent.ksql.function.BaseAggregateFunction;
 import io.confluent.ksql.function.KsqlAggregateFunction;
+import io.confluent.ksql.function.udaf.InPlaceAggregateFunction;
 import java.util.Collections;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.streams.kstream.Merger;
 
-public class DoubleMaxKudaf extends BaseAggregateFunction<Double, Double> {
+public class DoubleMaxKudaf
+    extends BaseAggregateFunction<Double, Double> implements InPlaceAggregateFunction {
 
   DoubleMaxKudaf(final String functionName, final int argIndexInValue) {
     super(functionName, argIndexInValue, () -> Double.NEGATIVE_INFINITY,
@@ -40,6 +43,19 @@ public class DoubleMaxKudaf extends BaseAggregateFunction<Double, Double> {
     return Math.max(currentValue, aggregateValue);
   }
 
+  @Override
+  public void aggregateInPlace(
+      final GenericRow row,
+      final int argIndex,
+      final GenericRow aggRow,
+      final int aggIndex
+  ) {
+    if (row.isNull(argIndex)) {
+      return;
+    }
+    aggRow.setDouble(aggIndex, Math.max(row.getDouble(argIndex), aggRow.getDouble(aggIndex)));
+  }
+
   @Override
   public Merger<String, Double> getMerger() {
     return (aggKey, aggOne, aggTwo) -> Math.max(aggOne, aggTwo);
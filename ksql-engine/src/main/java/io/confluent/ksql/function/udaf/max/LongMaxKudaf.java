@@ -15,14 +15,17 @@
 
 package io.confluent.ksql.function.udaf.max;
 
+import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.function.AggregateFunctionArguments;
 import io.confluent.ksql.function.BaseAggregateFunction;
 import io.confluent.ksql.function.KsqlAggregateFunction;
+import io.confluent.ksql.function.udaf.InPlaceAggregateFunction;
 import java.util.Collections;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.streams.kstream.Merger;
 
-public class LongMaxKudaf extends BaseAggregateFunction<Long, Long> {
+public class LongMaxKudaf
+    extends BaseAggregateFunction<Long, Long> implements InPlaceAggregateFunction {
 
   LongMaxKudaf(final String functionName, final int argIndexInValue) {
     super(functionName, argIndexInValue, () -> Long.MIN_VALUE, Schema.OPTIONAL_INT64_SCHEMA,
@@ -39,6 +42,19 @@ public class LongMaxKudaf extends BaseAggregateFunction<Long, Long> {
     return Math.max(currentValue, aggregateValue);
   }
 
+  @Override
+  public void aggregateInPlace(
+      final GenericRow row,
+      final int argIndex,
+      final GenericRow aggRow,
+      final int aggIndex
+  ) {
+    if (row.isNull(argIndex)) {
+      return;
+    }
+    aggRow.setLong(aggIndex, Math.max(row.getLong(argIndex), aggRow.getLong(aggIndex)));
+  }
+
   @Override
   public Merger<String, Long> getMerger() {
     return (aggKey, aggOne, aggTwo) -> Math.max(aggOne, aggTwo);
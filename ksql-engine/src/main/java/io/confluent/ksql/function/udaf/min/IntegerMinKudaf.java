@@ -15,14 +15,17 @@
 
 package io.confluent.ksql.function.udaf.min;
 
+import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.function.AggregateFunctionArguments;
 import io.confluent.ksql.function.BaseAggregateFunction;
 import io.confluent.ksql.function.KsqlAggregateFunction;
+import io.confluent.ksql.function.udaf.InPlaceAggregateFunction;
 import java.util.Collections;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.streams.kstream.Merger;
 
-public class IntegerMinKudaf extends BaseAggregateFunction<Integer, Integer> {
+public class IntegerMinKudaf
+    extends BaseAggregateFunction<Integer, Integer> implements InPlaceAggregateFunction {
 
   IntegerMinKudaf(final String functionName, final int argIndexInValue) {
     super(functionName, argIndexInValue, () -> Integer.MAX_VALUE, Schema.OPTIONAL_INT32_SCHEMA,
@@ -39,6 +42,19 @@ public class IntegerMinKudaf extends BaseAggregateFunction<Integer, Integer> {
     return Math.min(currentValue, aggregateValue);
   }
 
+  @Override
+  public void aggregateInPlace(
+      final GenericRow row,
+      final int argIndex,
+      final GenericRow aggRow,
+      final int aggIndex
+  ) {
+    if (row.isNull(argIndex)) {
+      return;
+    }
+    aggRow.setInt(aggIndex, Math.min(row.getInt(argIndex), aggRow.getInt(aggIndex)));
+  }
+
   @Override
   public Merger<String, Integer> getMerger() {
     return (aggKey, aggOne, aggTwo) -> Math.min(aggOne, aggTwo);
@@ -15,14 +15,17 @@
 
 package io.confluent.ksql.function.udaf.min;
 
+import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.function.AggregateFunctionArguments;
 import io.confluent.ksql.function.BaseAggregateFunction;
 import io.confluent.ksql.function.KsqlAggregateFunction;
+import io.confluent.ksql.function.udaf.InPlaceAggregateFunction;
 import java.util.Collections;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.streams.kstream.Merger;
 
-public class LongMinKudaf extends BaseAggregateFunction<Long, Long> {
+public class LongMinKudaf
+    extends BaseAggregateFunction<Long, Long> implements InPlaceAggregateFunction {
 
   LongMinKudaf(final String functionName, final int argIndexInValue) {
     super(functionName, argIndexInValue, () -> Long.MAX_VALUE, Schema.OPTIONAL_INT64_SCHEMA,
@@ -39,6 +42,19 @@ public class LongMinKudaf extends BaseAggregateFunction<Long, Long> {
     return Math.min(currentValue, aggregateValue);
   }
 
+  @Override
+  public void aggregateInPlace(
+      final GenericRow row,
+      final int argIndex,
+      final GenericRow aggRow,
+      final int aggIndex
+  ) {
+    if (row.isNull(argIndex)) {
+      return;
+    }
+    aggRow.setLong(aggIndex, Math.min(row.getLong(argIndex), aggRow.getLong(aggIndex)));
+  }
+
   @Override
   public Merger<String, Long> getMerger() {
     return (aggKey, aggOne, aggTwo) -> Math.min(aggOne, aggTwo);
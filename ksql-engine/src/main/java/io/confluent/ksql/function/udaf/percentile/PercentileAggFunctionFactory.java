@@ -0,0 +1,76 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.percentile;
+
+import io.confluent.ksql.function.AggregateFunctionFactory;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import io.confluent.ksql.util.KsqlException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.kafka.connect.data.Schema;
+
+/**
+ * Creates {@code PERCENTILE_APPROX(col, quantile)} and {@code QUANTILES(col, 'q1,q2,...')}.
+ */
+public final class PercentileAggFunctionFactory extends AggregateFunctionFactory {
+
+  private static final String PERCENTILE_APPROX = "PERCENTILE_APPROX";
+  private static final String QUANTILES = "QUANTILES";
+
+  private final Map<Schema.Type, KsqlAggregateFunction<?, ?>> functions = new HashMap<>();
+
+  private PercentileAggFunctionFactory(final String name, final boolean multiple) {
+    super(name, createDescriptionFunctions(name, multiple));
+    eachFunction(func ->
+        functions.put(((PercentileKudaf<?>) func).getArgType().type(), func));
+  }
+
+  public static PercentileAggFunctionFactory percentileApprox() {
+    return new PercentileAggFunctionFactory(PERCENTILE_APPROX, false);
+  }
+
+  public static PercentileAggFunctionFactory quantiles() {
+    return new PercentileAggFunctionFactory(QUANTILES, true);
+  }
+
+  private static List<KsqlAggregateFunction<?, ?>> createDescriptionFunctions(
+      final String name,
+      final boolean multiple
+  ) {
+    final double[] median = {0.5};
+    return Arrays.asList(
+        new PercentileKudaf<Integer>(name, -1, Schema.OPTIONAL_INT32_SCHEMA, multiple, median),
+        new PercentileKudaf<Long>(name, -1, Schema.OPTIONAL_INT64_SCHEMA, multiple, median),
+        new PercentileKudaf<Double>(name, -1, Schema.OPTIONAL_FLOAT64_SCHEMA, multiple, median)
+    );
+  }
+
+  @Override
+  public KsqlAggregateFunction getProperAggregateFunction(final List<Schema> argTypeList) {
+    if (argTypeList.isEmpty()) {
+      throw new KsqlException(getName() + " function should have two arguments.");
+    }
+
+    final KsqlAggregateFunction<?, ?> function = functions.get(argTypeList.get(0).type());
+    if (function == null) {
+      throw new KsqlException("No " + getName() + " aggregate function with "
+          + argTypeList.get(0) + " argument type exists!");
+    }
+    return function;
+  }
+}
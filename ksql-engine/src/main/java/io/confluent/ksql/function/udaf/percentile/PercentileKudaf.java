@@ -0,0 +1,154 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.percentile;
+
+import io.confluent.ksql.function.AggregateFunctionArguments;
+import io.confluent.ksql.function.BaseAggregateFunction;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import io.confluent.ksql.util.KsqlException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.streams.kstream.Merger;
+
+/**
+ * Estimates quantiles of a numeric column with a {@link TDigest}, which is the aggregate, and is
+ * only mapped to the quantiles once stored.
+ */
+public class PercentileKudaf<T extends Number> extends BaseAggregateFunction<T, List<Double>> {
+
+  private static final Schema DOUBLE_ARRAY =
+      SchemaBuilder.array(Schema.OPTIONAL_FLOAT64_SCHEMA).optional().build();
+
+  private final Schema argType;
+  private final boolean multiple;
+  private final double[] quantiles;
+
+  PercentileKudaf(
+      final String functionName,
+      final int argIndexInValue,
+      final Schema argType,
+      final boolean multiple,
+      final double[] quantiles
+  ) {
+    super(
+        functionName,
+        argIndexInValue,
+        TDigest::empty,
+        multiple ? DOUBLE_ARRAY : Schema.OPTIONAL_FLOAT64_SCHEMA,
+        Collections.singletonList(argType),
+        multiple
+            ? "Estimates the quantiles, listed as a string such as '0.5,0.95,0.99', of a column, "
+                + "per key, from a t-digest of bounded size."
+            : "Estimates a quantile, between 0 and 1, of a column, per key, from a t-digest of "
+                + "bounded size."
+    );
+    this.argType = argType;
+    this.multiple = multiple;
+    this.quantiles = quantiles.clone();
+  }
+
+  @Override
+  public Schema getAggregateType() {
+    return DOUBLE_ARRAY;
+  }
+
+  @Override
+  public Optional<Function<List<Double>, ?>> getResultMapper() {
+    if (multiple) {
+      return Optional.of(digest -> TDigest.quantiles(digest, quantiles));
+    }
+    return Optional.of(digest -> TDigest.quantile(digest, quantiles[0]));
+  }
+
+  @Override
+  public List<Double> aggregate(final T currentValue, final List<Double> aggregateValue) {
+    if (currentValue == null) {
+      return aggregateValue;
+    }
+
+    final List<Double> digest = mutable(aggregateValue);
+    TDigest.add(digest, currentValue.doubleValue(), TDigest.DEFAULT_COMPRESSION);
+    return digest;
+  }
+
+  @Override
+  public Merger<String, List<Double>> getMerger() {
+    return (aggKey, aggOne, aggTwo) -> {
+      final List<Double> digest = mutable(aggOne);
+      TDigest.merge(digest, aggTwo, TDigest.DEFAULT_COMPRESSION);
+      return digest;
+    };
+  }
+
+  @Override
+  public KsqlAggregateFunction<T, List<Double>> getInstance(
+      final AggregateFunctionArguments aggregateFunctionArguments) {
+    aggregateFunctionArguments.ensureArgCount(2, functionName);
+    final String arg = aggregateFunctionArguments.arg(1);
+    final double[] quantilesFromArg = multiple
+        ? parseQuantiles(unquote(arg))
+        : new double[] {parseQuantile(arg)};
+    return new PercentileKudaf<>(functionName, aggregateFunctionArguments.udafIndex(), argType,
+        multiple, quantilesFromArg);
+  }
+
+  Schema getArgType() {
+    return argType;
+  }
+
+  private double[] parseQuantiles(final String arg) {
+    final String[] parts = arg.split(",");
+    final double[] parsed = new double[parts.length];
+    for (int i = 0; i < parts.length; i++) {
+      parsed[i] = parseQuantile(parts[i].trim());
+    }
+    return parsed;
+  }
+
+  private double parseQuantile(final String arg) {
+    final double parsed;
+    try {
+      parsed = Double.parseDouble(arg);
+    } catch (final NumberFormatException e) {
+      throw new KsqlException(functionName + " quantile must be a number, but was: " + arg);
+    }
+
+    if (!(parsed >= 0 && parsed <= 1)) {
+      throw new KsqlException(
+          functionName + " quantile must be between 0 and 1, but was: " + arg);
+    }
+    return parsed;
+  }
+
+  private static String unquote(final String arg) {
+    return arg.length() >= 2 && arg.startsWith("'") && arg.endsWith("'")
+        ? arg.substring(1, arg.length() - 1)
+        : arg;
+  }
+
+  /**
+   * @return {@code digest}, or a copy of it if it may not support {@code add}, e.g. if a
+   *     deserializer created it.
+   */
+  private static List<Double> mutable(final List<Double> digest) {
+    return digest instanceof ArrayList ? digest : new ArrayList<>(digest);
+  }
+}
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.percentile;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A merging t-digest, which summarizes a distribution as a bounded number of weighted
+ * centroids, small at the tails, so that it estimates extreme quantiles accurately.
+ *
+ * <p>The digest is a list of doubles, so that it is stored as an {@code ARRAY<DOUBLE>} by every
+ * serde: the minimum and maximum values, followed by a mean and weight per centroid. Values are
+ * appended as centroids of weight one, and the centroids are compressed once there are more than
+ * the compression of them, which bounds the size of the digest, and so of the state and changelog
+ * records holding it. Compressing leaves well under that many centroids, so that adding a
+ * value still costs amortized {@code O(log n)}.
+ */
+final class TDigest {
+
+  static final double DEFAULT_COMPRESSION = 100;
+
+  private static final int MIN = 0;
+  private static final int MAX = 1;
+  private static final int HEADER_SIZE = 2;
+
+  private TDigest() {
+  }
+
+  static List<Double> empty() {
+    return new ArrayList<>();
+  }
+
+  static void add(final List<Double> digest, final double value, final double compression) {
+    if (digest.isEmpty()) {
+      digest.add(value);
+      digest.add(value);
+    } else {
+      if (value < digest.get(MIN)) {
+        digest.set(MIN, value);
+      }
+      if (value > digest.get(MAX)) {
+        digest.set(MAX, value);
+      }
+    }
+    digest.add(value);
+    digest.add(1.0);
+    maybeCompress(digest, compression);
+  }
+
+  /**
+   * Merges the digest {@code other} into {@code digest}, which then summarizes the values added
+   * to either.
+   */
+  static void merge(final List<Double> digest, final List<Double> other, final double compression) {
+    if (other.isEmpty()) {
+      return;
+    }
+    if (digest.isEmpty()) {
+      digest.addAll(other);
+    } else {
+      digest.set(MIN, Math.min(digest.get(MIN), other.get(MIN)));
+      digest.set(MAX, Math.max(digest.get(MAX), other.get(MAX)));
+      digest.addAll(other.subList(HEADER_SIZE, other.size()));
+    }
+    maybeCompress(digest, compression);
+  }
+
+  /**
+   * @return the estimated {@code quantile} of the values added to {@code digest}, or {@code null}
+   *     if it is empty.
+   */
+  static Double quantile(final List<Double> digest, final double quantile) {
+    return digest.isEmpty() ? null : quantile(sorted(digest), quantile);
+  }
+
+  static List<Double> quantiles(final List<Double> digest, final double[] quantiles) {
+    if (digest.isEmpty()) {
+      return null;
+    }
+    final Centroids centroids = sorted(digest);
+    final List<Double> result = new ArrayList<>(quantiles.length);
+    for (final double quantile : quantiles) {
+      result.add(quantile(centroids, quantile));
+    }
+    return result;
+  }
+
+  static int centroidCount(final List<Double> digest) {
+    return digest.isEmpty() ? 0 : (digest.size() - HEADER_SIZE) / 2;
+  }
+
+  private static void maybeCompress(final List<Double> digest, final double compression) {
+    if (centroidCount(digest) > compression) {
+      compress(digest, compression);
+    }
+  }
+
+  /**
+   * Merges adjacent centroids for as long as each stays within the size the scale function
+   * {@code k(q) = compression / 2pi * asin(2q - 1)} allows for its quantile.
+   */
+  private static void compress(final List<Double> digest, final double compression) {
+    final Centroids centroids = sorted(digest);
+    final double total = centroids.totalWeight;
+
+    final List<Double> compressed = new ArrayList<>(digest.size());
+    compressed.add(digest.get(MIN));
+    compressed.add(digest.get(MAX));
+
+    double mean = centroids.means[0];
+    double weight = centroids.weights[0];
+    double weightSoFar = 0;
+    double quantileLimit = quantileLimit(0, compression);
+    for (int i = 1; i < centroids.count; i++) {
+      final double nextWeight = centroids.weights[i];
+      if ((weightSoFar + weight + nextWeight) / total <= quantileLimit) {
+        weight += nextWeight;
+        mean += (centroids.means[i] - mean) * nextWeight / weight;
+      } else {
+        compressed.add(mean);
+        compressed.add(weight);
+        weightSoFar += weight;
+        quantileLimit = quantileLimit(weightSoFar / total, compression);
+        mean = centroids.means[i];
+        weight = nextWeight;
+      }
+    }
+    compressed.add(mean);
+    compressed.add(weight);
+
+    digest.clear();
+    digest.addAll(compressed);
+  }
+
+  /**
+   * @return the quantile up to which a centroid that starts at {@code quantile} may grow.
+   */
+  private static double quantileLimit(final double quantile, final double compression) {
+    final double k = compression / (2 * Math.PI) * Math.asin(2 * quantile - 1) + 1;
+    return (Math.sin(Math.min(k * 2 * Math.PI / compression, Math.PI / 2)) + 1) / 2;
+  }
+
+  private static Double quantile(final Centroids centroids, final double quantile) {
+    final double index = quantile * centroids.totalWeight;
+    if (index <= 0) {
+      return centroids.min;
+    }
+    if (index >= centroids.totalWeight) {
+      return centroids.max;
+    }
+
+    // Each centroid's mean sits at the middle of its weight, and values in between are
+    // interpolated, with the minimum and maximum at either end:
+    double previousMean = centroids.min;
+    double previousCenter = 0;
+    double weightSoFar = 0;
+    for (int i = 0; i < centroids.count; i++) {
+      final double center = weightSoFar + centroids.weights[i] / 2;
+      if (index < center) {
+        return interpolate(index, previousCenter, previousMean, center, centroids.means[i]);
+      }
+      previousMean = centroids.means[i];
+      previousCenter = center;
+      weightSoFar += centroids.weights[i];
+    }
+    return interpolate(index, previousCenter, previousMean, weightSoFar, centroids.max);
+  }
+
+  private static double interpolate(
+      final double index,
+      final double fromIndex,
+      final double fromValue,
+      final double toIndex,
+      final double toValue
+  ) {
+    if (toIndex <= fromIndex) {
+      return toValue;
+    }
+    return fromValue + (toValue - fromValue) * (index - fromIndex) / (toIndex - fromIndex);
+  }
+
+  private static Centroids sorted(final List<Double> digest) {
+    final int count = centroidCount(digest);
+    final Centroids centroids = new Centroids(count, digest.get(MIN), digest.get(MAX));
+    for (int i = 0; i < count; i++) {
+      final double weight = digest.get(HEADER_SIZE + 2 * i + 1);
+      centroids.means[i] = digest.get(HEADER_SIZE + 2 * i);
+      centroids.weights[i] = weight;
+      centroids.totalWeight += weight;
+    }
+    sort(centroids.means, centroids.weights, 0, count - 1);
+    return centroids;
+  }
+
+  /**
+   * Sorts {@code means} between {@code from} and {@code to}, inclusive, and {@code weights}
+   * along with it, without boxing either.
+   */
+  private static void sort(
+      final double[] means,
+      final double[] weights,
+      final int from,
+      final int to
+  ) {
+    if (to - from < 16) {
+      for (int i = from + 1; i <= to; i++) {
+        for (int j = i; j > from && means[j - 1] > means[j]; j--) {
+          swap(means, weights, j - 1, j);
+        }
+      }
+      return;
+    }
+
+    final double pivot = means[(from + to) >>> 1];
+    int left = from;
+    int right = to;
+    while (left <= right) {
+      while (means[left] < pivot) {
+        left++;
+      }
+      while (means[right] > pivot) {
+        right--;
+      }
+      if (left <= right) {
+        swap(means, weights, left++, right--);
+      }
+    }
+    sort(means, weights, from, right);
+    sort(means, weights, left, to);
+  }
+
+  private static void swap(final double[] means, final double[] weights, final int i, final int j) {
+    final double mean = means[i];
+    means[i] = means[j];
+    means[j] = mean;
+    final double weight = weights[i];
+    weights[i] = weights[j];
+    weights[j] = weight;
+  }
+
+  private static final class Centroids {
+
+    private final int count;
+    private final double min;
+    private final double max;
+    private final double[] means;
+    private final double[] weights;
+    private double totalWeight;
+
+    private Centroids(final int count, final double min, final double max) {
+      this.count = count;
+      this.min = min;
+      this.max = max;
+      this.means = new double[count];
+      this.weights = new double[count];
+    }
+  }
+}
@@ -15,17 +15,19 @@
 
 package io.confluent.ksql.function.udaf.sum;
 
+import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.function.AggregateFunctionArguments;
 import io.confluent.ksql.function.BaseAggregateFunction;
 import io.confluent.ksql.function.KsqlAggregateFunction;
 import io.confluent.ksql.function.TableAggregationFunction;
+import io.confluent.ksql.function.udaf.InPlaceAggregateFunction;
 import java.util.Collections;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.streams.kstream.Merger;
 
 public class DoubleSumKudaf
     extends BaseAggregateFunction<Double, Double>
-    implements TableAggregationFunction<Double, Double> {
+    implements TableAggregationFunction<Double, Double>, InPlaceAggregateFunction {
 
   DoubleSumKudaf(final String functionName, final int argIndexInValue) {
     super(functionName, argIndexInValue, () -> 0.0, Schema.OPTIONAL_FLOAT64_SCHEMA,
@@ -50,6 +52,19 @@ public class DoubleSumKudaf
     return aggregateValue - valueToUndo;
   }
 
+  @Override
+  public void aggregateInPlace(
+      final GenericRow row,
+      final int argIndex,
+      final GenericRow aggRow,
+      final int aggIndex
+  ) {
+    if (row.isNull(argIndex)) {
+      return;
+    }
+    aggRow.setDouble(aggIndex, aggRow.getDouble(aggIndex) + row.getDouble(argIndex));
+  }
+
   @Override
   public Merger<String, Double> getMerger() {
     return (aggKey, aggOne, aggTwo) -> aggOne + aggTwo;
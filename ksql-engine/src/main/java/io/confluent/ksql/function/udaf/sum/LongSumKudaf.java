@@ -15,16 +15,19 @@
 
 package io.confluent.ksql.function.udaf.sum;
 
+import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.function.AggregateFunctionArguments;
 import io.confluent.ksql.function.BaseAggregateFunction;
 import io.confluent.ksql.function.KsqlAggregateFunction;
 import io.confluent.ksql.function.TableAggregationFunction;
+import io.confluent.ksql.function.udaf.InPlaceAggregateFunction;
 import java.util.Collections;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.streams.kstream.Merger;
 
 public class LongSumKudaf
-    extends BaseAggregateFunction<Long, Long> implements TableAggregationFunction<Long, Long> {
+    extends BaseAggregateFunction<Long, Long>
+    implements TableAggregationFunction<Long, Long>, InPlaceAggregateFunction {
 
   LongSumKudaf(final String functionName, final int argIndexInValue) {
     super(functionName, argIndexInValue, () -> 0L, Schema.OPTIONAL_INT64_SCHEMA,
@@ -48,6 +51,19 @@ public class LongSumKudaf
     return aggregateValue - valueToUndo;
   }
 
+  @Override
+  public void aggregateInPlace(
+      final GenericRow row,
+      final int argIndex,
+      final GenericRow aggRow,
+      final int aggIndex
+  ) {
+    if (row.isNull(argIndex)) {
+      return;
+    }
+    aggRow.setLong(aggIndex, aggRow.getLong(aggIndex) + row.getLong(argIndex));
+  }
+
   @Override
   public Merger<String, Long> getMerger() {
     return (aggKey, aggOne, aggTwo) -> aggOne + aggTwo;
@@ -19,7 +19,6 @@ import io.confluent.ksql.function.AggregateFunctionArguments;
 import io.confluent.ksql.function.BaseAggregateFunction;
 import io.confluent.ksql.function.KsqlAggregateFunction;
 import java.util.ArrayList;
-import java.util.Comparator;
 import java.util.List;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.streams.kstream.Merger;
@@ -62,23 +61,7 @@ public class TopkKudaf<T extends Comparable<? super T>>
       return aggregateValue;
     }
 
-    final int currentSize = aggregateValue.size();
-    if (!aggregateValue.isEmpty()) {
-      final T last = aggregateValue.get(currentSize - 1);
-      if (currentValue.compareTo(last) <= 0
-          && currentSize == topKSize) {
-        return aggregateValue;
-      }
-    }
-
-    if (currentSize == topKSize) {
-      aggregateValue.set(currentSize - 1, currentValue);
-    } else {
-      aggregateValue.add(currentValue);
-    }
-
-    aggregateValue.sort(Comparator.reverseOrder());
-    return aggregateValue;
+    return TopkList.add(aggregateValue, currentValue, topKSize, false);
   }
 
   @SuppressWarnings("unchecked")
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.topk;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Updates the aggregates of the TOPK functions: lists of at most k values, in descending order.
+ *
+ * <p>The aggregate is also the function's result and what is written to the changelog, so it
+ * is kept as a sorted list. A new value is placed by binary search and inserted, which shifts
+ * the values after it, rather than appended and the whole list re-sorted.
+ */
+public final class TopkList {
+
+  private TopkList() {
+  }
+
+  /**
+   * Add a value to a top k list.
+   *
+   * @param topK the list, sorted in descending order, which is updated in place.
+   * @param value the value to add.
+   * @param k the maximum size of the list.
+   * @param distinct whether the list holds distinct values, in which case a value already in the
+   *     list is not added again.
+   * @return the list.
+   */
+  public static <T extends Comparable<? super T>> List<T> add(
+      final List<T> topK,
+      final T value,
+      final int k,
+      final boolean distinct
+  ) {
+    final int size = topK.size();
+    if (k <= 0 || (size >= k && value.compareTo(topK.get(size - 1)) <= 0)) {
+      return topK;
+    }
+
+    int position = Collections.binarySearch(topK, value, Comparator.reverseOrder());
+    if (position >= 0) {
+      if (distinct) {
+        return topK;
+      }
+    } else {
+      position = -position - 1;
+    }
+
+    if (size >= k) {
+      topK.remove(size - 1);
+    }
+    topK.add(position, value);
+    return topK;
+  }
+}
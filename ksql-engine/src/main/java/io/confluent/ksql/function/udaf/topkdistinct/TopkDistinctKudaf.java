@@ -18,9 +18,9 @@ package io.confluent.ksql.function.udaf.topkdistinct;
 import io.confluent.ksql.function.AggregateFunctionArguments;
 import io.confluent.ksql.function.BaseAggregateFunction;
 import io.confluent.ksql.function.KsqlAggregateFunction;
+import io.confluent.ksql.function.udaf.topk.TopkList;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.SchemaBuilder;
@@ -61,23 +61,7 @@ public class TopkDistinctKudaf<T extends Comparable<? super T>>
       return aggregateValue;
     }
 
-    final int currentSize = aggregateValue.size();
-    if (currentSize == tkVal && currentValue.compareTo(aggregateValue.get(currentSize - 1)) <= 0) {
-      return aggregateValue;
-    }
-
-    if (aggregateValue.contains(currentValue)) {
-      return aggregateValue;
-    }
-
-    if (currentSize == tkVal) {
-      aggregateValue.set(currentSize - 1, currentValue);
-    } else {
-      aggregateValue.add(currentValue);
-    }
-
-    aggregateValue.sort(Comparator.reverseOrder());
-    return aggregateValue;
+    return TopkList.add(aggregateValue, currentValue, tkVal, true);
   }
 
   @SuppressWarnings("unchecked")
@@ -45,4 +45,12 @@ public class PluggableUdf implements Kudf {
       ExtensionSecurityManager.INSTANCE.popOutUdf();
     }
   }
+
+  /**
+   * @return the UDF instance, for generated code that invokes the UDF method directly rather
+   *     than through {@link #evaluate}.
+   */
+  public Object getActualUdf() {
+    return actualUdf;
+  }
 }
@@ -15,6 +15,7 @@
 
 package io.confluent.ksql.internal;
 
+import io.confluent.ksql.codegen.CompiledExpressionCache;
 import io.confluent.ksql.engine.KsqlEngine;
 import io.confluent.ksql.metrics.MetricCollectors;
 import io.confluent.ksql.util.KsqlConstants;
@@ -25,6 +26,7 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
+import java.util.function.LongSupplier;
 import org.apache.kafka.common.MetricName;
 import org.apache.kafka.common.metrics.Gauge;
 import org.apache.kafka.common.metrics.MeasurableStat;
@@ -83,6 +85,7 @@ public class KsqlEngineMetrics implements Closeable {
     this.errorRate = configureErrorRate(metrics);
     Arrays.stream(State.values())
         .forEach(state -> configureNumActiveQueriesForGivenState(metrics, state));
+    configureCodeGenCacheMetrics(metrics);
   }
 
   @Override
@@ -227,6 +230,26 @@ public class KsqlEngineMetrics implements Closeable {
     );
   }
 
+  private void configureCodeGenCacheMetrics(final Metrics metrics) {
+    final Sensor sensor = createSensor(metrics, metricGroupName + "-codegen-cache");
+    sensor.add(
+        metrics.metricName(ksqlServiceId + "codegen-cache-hits", this.metricGroupName,
+            "The number of times a compiled expression was found in the code generation cache"),
+        new CacheStat(() -> CompiledExpressionCache.instance().hitCount()));
+    sensor.add(
+        metrics.metricName(ksqlServiceId + "codegen-cache-misses", this.metricGroupName,
+            "The number of times an expression had to be compiled as it was not cached"),
+        new CacheStat(() -> CompiledExpressionCache.instance().missCount()));
+    sensor.add(
+        metrics.metricName(ksqlServiceId + "codegen-cache-evictions", this.metricGroupName,
+            "The number of compiled expressions evicted from the code generation cache"),
+        new CacheStat(() -> CompiledExpressionCache.instance().evictionCount()));
+    sensor.add(
+        metrics.metricName(ksqlServiceId + "codegen-cache-size", this.metricGroupName,
+            "The number of compiled expressions currently in the code generation cache"),
+        new CacheStat(() -> CompiledExpressionCache.instance().size()));
+  }
+
   private Sensor configureIdleQueriesSensor(final Metrics metrics) {
     final Sensor sensor = createSensor(metrics, "num-idle-queries");
     sensor.add(metrics.metricName(
@@ -294,4 +317,23 @@ public class KsqlEngineMetrics implements Closeable {
       return count;
     }
   }
-}
\ No newline at end of file
+
+  private static final class CacheStat implements MeasurableStat {
+
+    private final LongSupplier supplier;
+
+    private CacheStat(final LongSupplier supplier) {
+      this.supplier = Objects.requireNonNull(supplier, "supplier");
+    }
+
+    @Override
+    public double measure(final MetricConfig metricConfig, final long now) {
+      return supplier.getAsLong();
+    }
+
+    @Override
+    public void record(final MetricConfig metricConfig, final double value, final long now) {
+      // No action for record since the cache keeps its own statistics.
+    }
+  }
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.internal;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.metrics.MetricCollectors;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.KafkaMetric;
+import org.apache.kafka.common.metrics.Measurable;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.metrics.stats.Count;
+import org.apache.kafka.common.metrics.stats.Rate;
+import org.apache.kafka.common.metrics.stats.Total;
+
+/**
+ * Creates the sensors and gauges of one operation of a query, tagged with the query id and the
+ * operation name.
+ *
+ * <p>Sensors are named after the query, so the tasks of a query share its sensors, but queries
+ * with the same operations do not. The sensors and gauges created for a query are tracked, and
+ * removed by {@link #removeQuery} when the query is closed.
+ */
+public final class QueryOperationMetrics {
+
+  private static final Map<String, Set<String>> SENSORS_BY_QUERY = new ConcurrentHashMap<>();
+  private static final Map<String, Set<MetricName>> GAUGES_BY_QUERY = new ConcurrentHashMap<>();
+
+  private final Metrics metrics;
+  private final String metricGroup;
+  private final String queryId;
+  private final String opName;
+  private final Map<String, String> tags;
+
+  QueryOperationMetrics(
+      final Metrics metrics,
+      final String metricGroup,
+      final String queryId,
+      final String opName
+  ) {
+    this.metrics = Objects.requireNonNull(metrics, "metrics");
+    this.metricGroup = Objects.requireNonNull(metricGroup, "metricGroup");
+    this.queryId = Objects.requireNonNull(queryId, "queryId");
+    this.opName = Objects.requireNonNull(opName, "opName");
+    this.tags = ImmutableMap.of(
+        "query-id", queryId,
+        "operation", opName);
+  }
+
+  public static QueryOperationMetrics create(
+      final String metricGroup,
+      final String queryId,
+      final String opName
+  ) {
+    return new QueryOperationMetrics(MetricCollectors.getMetrics(), metricGroup, queryId, opName);
+  }
+
+  /**
+   * Removes the sensors and gauges created for a query.
+   *
+   * @param queryId the id of the closed query.
+   */
+  public static void removeQuery(final String queryId) {
+    removeQuery(MetricCollectors.getMetrics(), queryId);
+  }
+
+  static void removeQuery(final Metrics metrics, final String queryId) {
+    synchronized (metrics) {
+      final Set<String> sensorNames = SENSORS_BY_QUERY.remove(queryId);
+      if (sensorNames != null) {
+        sensorNames.forEach(metrics::removeSensor);
+      }
+      final Set<MetricName> gaugeNames = GAUGES_BY_QUERY.remove(queryId);
+      if (gaugeNames != null) {
+        gaugeNames.forEach(metrics::removeMetric);
+      }
+    }
+  }
+
+  /**
+   * Gets the sensor reporting the total and the per-second rate of the events it records,
+   * creating it if the operation does not have it yet.
+   *
+   * @param metricName the name of the metric, which the total and rate metrics are named after.
+   * @param description what the sensor counts, e.g. "records read".
+   * @return the sensor.
+   */
+  public Sensor sensor(final String metricName, final String description) {
+    final String sensorName = queryId + "-" + opName + "-" + metricName;
+    synchronized (metrics) {
+      final Sensor existing = metrics.getSensor(sensorName);
+      if (existing != null) {
+        return existing;
+      }
+      final Sensor sensor = metrics.sensor(sensorName);
+      sensor.add(
+          totalName(metricName, "Total number of " + description),
+          new Total());
+      sensor.add(
+          metrics.metricName(metricName + "-rate", metricGroup,
+              "The number of " + description + " per second", tags),
+          new Rate(TimeUnit.SECONDS, new Count()));
+      SENSORS_BY_QUERY.computeIfAbsent(queryId, id -> ConcurrentHashMap.newKeySet())
+          .add(sensorName);
+      return sensor;
+    }
+  }
+
+  /**
+   * @param metricName the name of a sensor of this operation.
+   * @return the current total of the sensor, or zero if it has not been created.
+   */
+  public DoubleSupplier total(final String metricName) {
+    final MetricName name = totalName(metricName, "");
+    return () -> value(metrics.metric(name));
+  }
+
+  /**
+   * Adds a gauge, unless the operation already has it.
+   *
+   * @param metricName the name of the gauge.
+   * @param description the description of the gauge.
+   * @param value supplies the value of the gauge, typically derived from sensor totals.
+   */
+  public void gauge(final String metricName, final String description, final DoubleSupplier value) {
+    final MetricName name = metrics.metricName(metricName, metricGroup, description, tags);
+    synchronized (metrics) {
+      if (metrics.metric(name) != null) {
+        return;
+      }
+      metrics.addMetric(name, (Measurable) (config, now) -> value.getAsDouble());
+      GAUGES_BY_QUERY.computeIfAbsent(queryId, id -> ConcurrentHashMap.newKeySet())
+          .add(name);
+    }
+  }
+
+  private MetricName totalName(final String metricName, final String description) {
+    return metrics.metricName(metricName + "-total", metricGroup, description, tags);
+  }
+
+  private static double value(final KafkaMetric metric) {
+    return metric == null ? 0 : ((Number) metric.metricValue()).doubleValue();
+  }
+}
@@ -17,6 +17,7 @@ package io.confluent.ksql.physical;
 
 import io.confluent.ksql.errors.ProductionExceptionHandlerUtil;
 import io.confluent.ksql.function.FunctionRegistry;
+import io.confluent.ksql.internal.QueryOperationMetrics;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
 import io.confluent.ksql.metastore.MutableMetaStore;
@@ -215,10 +216,17 @@ public class PhysicalPlanBuilder {
         builder.build(),
         streamsProperties,
         overriddenProperties,
-        queryCloseCallback
+        closeCallback(queryId)
     );
   }
 
+  private Consumer<QueryMetadata> closeCallback(final QueryId queryId) {
+    return query -> {
+      QueryOperationMetrics.removeQuery(queryId.getId());
+      queryCloseCallback.accept(query);
+    };
+  }
+
   private QueryMetadata buildPlanForStructuredOutputNode(
       final String sqlExpression, final SchemaKStream<?> schemaKStream,
       final KsqlStructuredDataOutputNode outputNode,
@@ -291,7 +299,7 @@ public class PhysicalPlanBuilder {
         topology,
         streamsProperties,
         overriddenProperties,
-        queryCloseCallback
+        closeCallback(queryId)
     );
   }
 
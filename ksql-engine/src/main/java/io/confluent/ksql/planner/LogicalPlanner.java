@@ -23,6 +23,7 @@ import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.metastore.model.KsqlStream;
 import io.confluent.ksql.metastore.model.KsqlTable;
 import io.confluent.ksql.metastore.model.StructuredDataSource;
+import io.confluent.ksql.parser.tree.ComparisonExpression;
 import io.confluent.ksql.parser.tree.Expression;
 import io.confluent.ksql.planner.plan.AggregateNode;
 import io.confluent.ksql.planner.plan.FilterNode;
@@ -39,6 +40,8 @@ import io.confluent.ksql.util.Pair;
 import io.confluent.ksql.util.SchemaUtil;
 import io.confluent.ksql.util.timestamp.TimestampExtractionPolicy;
 import io.confluent.ksql.util.timestamp.TimestampExtractionPolicyFactory;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.SchemaBuilder;
@@ -112,6 +115,7 @@ public class LogicalPlanner {
         intoDataSource.getKsqlTopic().getKafkaTopicName(),
         intoProperties,
         analysis.getLimitClause(),
+        analysis.getEmitIntervalMs(),
         intoDataSource.isCreate()
     );
   }
@@ -150,6 +154,7 @@ public class LogicalPlanner {
         aggregateSchema,
         analysis.getGroupByExpressions(),
         analysis.getWindowExpression(),
+        analysis.getResultMaterialization(),
         aggregateAnalysis.getAggregateFunctionArguments(),
         aggregateAnalysis.getAggregateFunctions(),
         aggregateAnalysis.getRequiredColumns(),
@@ -196,8 +201,19 @@ public class LogicalPlanner {
         dataSource.right
     );
 
+    // a table's source can not drop records, as a null value would delete the row:
+    final List<ComparisonExpression> sourceFilter =
+        dataSource.left instanceof KsqlStream && analysis.getWhereExpression() != null
+            ? SourceFilterExtractor.extract(analysis.getWhereExpression())
+            : Collections.emptyList();
+
     if (dataSource.left instanceof KsqlStream || dataSource.left instanceof KsqlTable) {
-      return new StructuredDataSourceNode(new PlanNodeId("KsqlTopic"), dataSource.left, fromSchema);
+      return new StructuredDataSourceNode(
+          new PlanNodeId("KsqlTopic"),
+          dataSource.left,
+          fromSchema,
+          RequiredColumnsExtractor.extract(analysis, fromSchema),
+          sourceFilter);
     }
     throw new RuntimeException("Data source is not supported yet.");
   }
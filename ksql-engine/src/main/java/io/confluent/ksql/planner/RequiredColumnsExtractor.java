@@ -0,0 +1,94 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.planner;
+
+import io.confluent.ksql.analyzer.Analysis;
+import io.confluent.ksql.parser.DefaultTraversalVisitor;
+import io.confluent.ksql.parser.tree.DereferenceExpression;
+import io.confluent.ksql.parser.tree.Expression;
+import io.confluent.ksql.parser.tree.Node;
+import io.confluent.ksql.parser.tree.QualifiedNameReference;
+import io.confluent.ksql.util.SchemaUtil;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+
+/**
+ * Finds the columns of a query's source that are referenced anywhere in the query.
+ */
+final class RequiredColumnsExtractor {
+
+  private RequiredColumnsExtractor() {
+  }
+
+  /**
+   * @param analysis the analysis of a query with a single source.
+   * @param sourceSchema the schema of the source, with the source's alias.
+   * @return the names of the fields in {@code sourceSchema} that the query references.
+   */
+  static Set<String> extract(final Analysis analysis, final Schema sourceSchema) {
+    final List<Expression> expressions = new ArrayList<>(analysis.getSelectExpressions());
+    expressions.addAll(analysis.getGroupByExpressions());
+    if (analysis.getWhereExpression() != null) {
+      expressions.add(analysis.getWhereExpression());
+    }
+    if (analysis.getHavingExpression() != null) {
+      expressions.add(analysis.getHavingExpression());
+    }
+
+    final Set<String> referenced = new HashSet<>();
+    final ColumnReferenceCollector collector = new ColumnReferenceCollector();
+    expressions.forEach(expression -> collector.process(expression, referenced));
+
+    final Set<String> required = new HashSet<>();
+    for (final Field field : sourceSchema.fields()) {
+      if (referenced.contains(field.name())
+          || referenced.contains(SchemaUtil.getFieldNameWithNoAlias(field))) {
+        required.add(field.name());
+      }
+    }
+    return required;
+  }
+
+  private static final class ColumnReferenceCollector
+      extends DefaultTraversalVisitor<Node, Set<String>> {
+
+    @Override
+    protected Node visitDereferenceExpression(
+        final DereferenceExpression node,
+        final Set<String> referenced
+    ) {
+      if (node.getBase() instanceof QualifiedNameReference) {
+        final QualifiedNameReference base = (QualifiedNameReference) node.getBase();
+        referenced.add(base.getName().getSuffix() + "." + node.getFieldName());
+        return null;
+      }
+      return super.visitDereferenceExpression(node, referenced);
+    }
+
+    @Override
+    protected Node visitQualifiedNameReference(
+        final QualifiedNameReference node,
+        final Set<String> referenced
+    ) {
+      referenced.add(node.getName().getSuffix());
+      return null;
+    }
+  }
+}
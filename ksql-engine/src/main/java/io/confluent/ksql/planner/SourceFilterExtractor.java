@@ -0,0 +1,89 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.planner;
+
+import io.confluent.ksql.parser.tree.ComparisonExpression;
+import io.confluent.ksql.parser.tree.DereferenceExpression;
+import io.confluent.ksql.parser.tree.Expression;
+import io.confluent.ksql.parser.tree.Literal;
+import io.confluent.ksql.parser.tree.LogicalBinaryExpression;
+import io.confluent.ksql.parser.tree.NullLiteral;
+import io.confluent.ksql.parser.tree.QualifiedNameReference;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Finds the conjuncts of a WHERE clause that compare a source column against a literal.
+ *
+ * <p>Every row the WHERE clause accepts satisfies all of these conjuncts, so they can be
+ * evaluated while the source is deserialized, before the rest of the row is decoded.
+ */
+final class SourceFilterExtractor {
+
+  private SourceFilterExtractor() {
+  }
+
+  /**
+   * @return the column-versus-literal conjuncts of {@code whereExpression}, each with the column
+   *     on the left.
+   */
+  static List<ComparisonExpression> extract(final Expression whereExpression) {
+    final List<ComparisonExpression> conjuncts = new ArrayList<>();
+    collect(whereExpression, conjuncts);
+    return conjuncts;
+  }
+
+  private static void collect(
+      final Expression expression,
+      final List<ComparisonExpression> conjuncts
+  ) {
+    if (expression instanceof LogicalBinaryExpression) {
+      final LogicalBinaryExpression logical = (LogicalBinaryExpression) expression;
+      if (logical.getType() == LogicalBinaryExpression.Type.AND) {
+        collect(logical.getLeft(), conjuncts);
+        collect(logical.getRight(), conjuncts);
+      }
+      return;
+    }
+
+    if (!(expression instanceof ComparisonExpression)) {
+      return;
+    }
+
+    final ComparisonExpression comparison = (ComparisonExpression) expression;
+    if (comparison.getType() == ComparisonExpression.Type.IS_DISTINCT_FROM) {
+      return;
+    }
+
+    if (isColumn(comparison.getLeft()) && isLiteral(comparison.getRight())) {
+      conjuncts.add(comparison);
+    } else if (isLiteral(comparison.getLeft()) && isColumn(comparison.getRight())) {
+      conjuncts.add(new ComparisonExpression(
+          comparison.getType().flip(),
+          comparison.getRight(),
+          comparison.getLeft()));
+    }
+  }
+
+  private static boolean isColumn(final Expression expression) {
+    return expression instanceof DereferenceExpression
+        && ((DereferenceExpression) expression).getBase() instanceof QualifiedNameReference;
+  }
+
+  private static boolean isLiteral(final Expression expression) {
+    return expression instanceof Literal && !(expression instanceof NullLiteral);
+  }
+}
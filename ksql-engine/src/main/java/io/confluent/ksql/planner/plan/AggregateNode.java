@@ -22,6 +22,7 @@ import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.function.AggregateFunctionArguments;
 import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.function.KsqlAggregateFunction;
+import io.confluent.ksql.function.udaf.KudafAggregator;
 import io.confluent.ksql.function.udaf.KudafInitializer;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
 import io.confluent.ksql.parser.tree.DereferenceExpression;
@@ -29,13 +30,16 @@ import io.confluent.ksql.parser.tree.Expression;
 import io.confluent.ksql.parser.tree.ExpressionRewriter;
 import io.confluent.ksql.parser.tree.ExpressionTreeRewriter;
 import io.confluent.ksql.parser.tree.FunctionCall;
+import io.confluent.ksql.parser.tree.HoppingWindowExpression;
 import io.confluent.ksql.parser.tree.Literal;
 import io.confluent.ksql.parser.tree.QualifiedName;
 import io.confluent.ksql.parser.tree.QualifiedNameReference;
+import io.confluent.ksql.parser.tree.ResultMaterialization;
 import io.confluent.ksql.parser.tree.WindowExpression;
 import io.confluent.ksql.query.QueryId;
 import io.confluent.ksql.serde.DataSource.DataSourceType;
 import io.confluent.ksql.serde.KsqlTopicSerDe;
+import io.confluent.ksql.serde.binary.KsqlBinaryTopicSerDe;
 import io.confluent.ksql.services.KafkaTopicClient;
 import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.structured.QueryContext;
@@ -59,6 +63,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.connect.data.Field;
@@ -81,6 +86,7 @@ public class AggregateNode extends PlanNode {
   private final Schema schema;
   private final List<Expression> groupByExpressions;
   private final WindowExpression windowExpression;
+  private final ResultMaterialization resultMaterialization;
   private final List<Expression> aggregateFunctionArguments;
   private final List<FunctionCall> functionList;
   private final List<DereferenceExpression> requiredColumns;
@@ -94,6 +100,7 @@ public class AggregateNode extends PlanNode {
       @JsonProperty("schema") final Schema schema,
       @JsonProperty("groupby") final List<Expression> groupByExpressions,
       @JsonProperty("window") final WindowExpression windowExpression,
+      @JsonProperty("resultMaterialization") final ResultMaterialization resultMaterialization,
       @JsonProperty("aggregateFunctionArguments") final List<Expression> aggregateFunctionArguments,
       @JsonProperty("functionList") final List<FunctionCall> functionList,
       @JsonProperty("requiredColumnList") final List<DereferenceExpression> requiredColumns,
@@ -106,6 +113,8 @@ public class AggregateNode extends PlanNode {
     this.schema = schema;
     this.groupByExpressions = groupByExpressions;
     this.windowExpression = windowExpression;
+    this.resultMaterialization =
+        Objects.requireNonNull(resultMaterialization, "resultMaterialization");
     this.aggregateFunctionArguments = aggregateFunctionArguments;
     this.functionList = functionList;
     this.requiredColumns =
@@ -141,6 +150,10 @@ public class AggregateNode extends PlanNode {
     return windowExpression;
   }
 
+  public ResultMaterialization getResultMaterialization() {
+    return resultMaterialization;
+  }
+
   public List<Expression> getAggregateFunctionArguments() {
     return aggregateFunctionArguments;
   }
@@ -210,8 +223,10 @@ public class AggregateNode extends PlanNode {
 
     final QueryContext.Stacker groupByContext = contextStacker.push(GROUP_BY_OP_NAME);
 
-    final KsqlTopicSerDe ksqlTopicSerDe = streamSourceNode.getStructuredDataSource()
-        .getKsqlTopicSerde();
+    // the repartition topic and the changelog of the aggregate are internal topics:
+    final KsqlTopicSerDe ksqlTopicSerDe = KsqlBinaryTopicSerDe.forInternalTopics(
+        streamSourceNode.getStructuredDataSource().getKsqlTopicSerde(),
+        ksqlConfig);
     final Serde<GenericRow> genericRowSerde = ksqlTopicSerDe.getGenericRowSerde(
         aggregateArgExpanded.getSchema(),
         ksqlConfig,
@@ -224,11 +239,6 @@ public class AggregateNode extends PlanNode {
     final List<Expression> internalGroupByColumns = internalSchema.getInternalExpressionList(
         getGroupByExpressions());
 
-    final SchemaKGroupedStream schemaKGroupedStream =
-        aggregateArgExpanded.groupBy(
-            genericRowSerde, internalGroupByColumns,
-            groupByContext);
-
     // Aggregate computations
     final Map<Integer, Integer> aggValToValColumnMap = createAggregateValueToValueColumnMap(
         aggregateArgExpanded,
@@ -238,13 +248,24 @@ public class AggregateNode extends PlanNode {
     final Schema aggStageSchema = buildAggregateSchema(
         aggregateArgExpanded.getSchema(),
         functionRegistry,
-        internalSchema
+        internalSchema,
+        ksqlConfig,
+        KsqlAggregateFunction::getReturnType
+    );
+
+    // the schema of the aggregates in the state store, before they are mapped to results:
+    final Schema aggValueSchema = buildAggregateSchema(
+        aggregateArgExpanded.getSchema(),
+        functionRegistry,
+        internalSchema,
+        ksqlConfig,
+        KsqlAggregateFunction::getAggregateType
     );
 
     final QueryContext.Stacker aggregationContext = contextStacker.push(AGGREGATION_OP_NAME);
 
     final Serde<GenericRow> aggValueGenericRowSerde = ksqlTopicSerDe.getGenericRowSerde(
-        aggStageSchema,
+        aggValueSchema,
         ksqlConfig,
         true,
         serviceContext.getSchemaRegistryClientFactory(),
@@ -256,13 +277,47 @@ public class AggregateNode extends PlanNode {
 
     final Map<Integer, KsqlAggregateFunction> aggValToFunctionMap = createAggValToFunctionMap(
         aggregateArgExpanded, initializer, aggValToValColumnMap.size(),
-        functionRegistry, internalSchema);
+        functionRegistry, internalSchema, ksqlConfig);
+
+    final SchemaKGroupedStream schemaKGroupedStream;
+    if (getWindowExpression() == null
+        && ksqlConfig.getBoolean(KsqlConfig.KSQL_PARTIAL_AGGREGATION_ENABLED_CONFIG)) {
+      schemaKGroupedStream = aggregateArgExpanded.groupByWithPartialAggregation(
+          builder,
+          genericRowSerde,
+          aggValueGenericRowSerde,
+          internalGroupByColumns,
+          initializer,
+          new KudafAggregator(aggValToFunctionMap, aggValToValColumnMap),
+          groupByContext);
+    } else if (getWindowExpression() != null
+        && getWindowExpression().getKsqlWindowExpression() instanceof HoppingWindowExpression
+        && resultMaterialization != ResultMaterialization.FINAL
+        && ksqlConfig.getBoolean(KsqlConfig.KSQL_HOPPING_WINDOW_PANES_ENABLED_CONFIG)) {
+      // Panes are not buffered ahead of EMIT FINAL: a buffered pane could reach the
+      // suppression after its window closed, and be dropped.
+      final HoppingWindowExpression hoppingWindow =
+          (HoppingWindowExpression) getWindowExpression().getKsqlWindowExpression();
+      schemaKGroupedStream = aggregateArgExpanded.groupByWithPaneAggregation(
+          builder,
+          aggValueGenericRowSerde,
+          internalGroupByColumns,
+          hoppingWindow.getPaneSizeMs(),
+          initializer,
+          new KudafAggregator(aggValToFunctionMap, aggValToValColumnMap),
+          groupByContext);
+    } else {
+      schemaKGroupedStream = aggregateArgExpanded.groupBy(
+          genericRowSerde, internalGroupByColumns,
+          groupByContext);
+    }
 
     final SchemaKTable<?> schemaKTable = schemaKGroupedStream.aggregate(
         initializer,
         aggValToFunctionMap,
         aggValToValColumnMap,
         getWindowExpression(),
+        resultMaterialization,
         aggValueGenericRowSerde,
         aggregationContext);
 
@@ -317,7 +372,8 @@ public class AggregateNode extends PlanNode {
       final KudafInitializer initializer,
       final int initialUdafIndex,
       final FunctionRegistry functionRegistry,
-      final InternalSchema internalSchema
+      final InternalSchema internalSchema,
+      final KsqlConfig ksqlConfig
   ) {
     try {
       int udafIndexInAggSchema = initialUdafIndex;
@@ -326,7 +382,7 @@ public class AggregateNode extends PlanNode {
         final KsqlAggregateFunction aggregateFunction = getAggregateFunction(
             functionRegistry,
             internalSchema,
-            functionCall, aggregateArgExpanded.getSchema());
+            functionCall, aggregateArgExpanded.getSchema(), ksqlConfig);
 
         aggValToAggFunctionMap.put(udafIndexInAggSchema++, aggregateFunction);
         initializer.addAggregateIntializer(aggregateFunction.getInitialValueSupplier());
@@ -347,15 +403,17 @@ public class AggregateNode extends PlanNode {
       final FunctionRegistry functionRegistry,
       final InternalSchema internalSchema,
       final FunctionCall functionCall,
-      final Schema schema
+      final Schema schema,
+      final KsqlConfig ksqlConfig
   ) {
     final ExpressionTypeManager expressionTypeManager =
         new ExpressionTypeManager(schema, functionRegistry);
     final List<Expression> functionArgs = internalSchema.getInternalArgsExpressionList(
         functionCall.getArguments());
     final Schema expressionType = expressionTypeManager.getExpressionSchema(functionArgs.get(0));
+    final String functionName = functionCall.getName().toString();
     final KsqlAggregateFunction aggregateFunctionInfo = functionRegistry
-        .getAggregate(functionCall.getName().toString(), expressionType);
+        .getAggregate(functionName, expressionType);
 
     final List<String> args = functionArgs.stream()
         .map(Expression::toString)
@@ -363,13 +421,16 @@ public class AggregateNode extends PlanNode {
 
     final int udafIndex = internalSchema.internalNameToIndexMap.get(args.get(0));
 
-    return aggregateFunctionInfo.getInstance(new AggregateFunctionArguments(udafIndex, args));
+    return aggregateFunctionInfo.getInstance(new AggregateFunctionArguments(
+        udafIndex, args, ksqlConfig.getKsqlFunctionsConfigProps(functionName)));
   }
 
   private Schema buildAggregateSchema(
       final Schema schema,
       final FunctionRegistry functionRegistry,
-      final InternalSchema internalSchema
+      final InternalSchema internalSchema,
+      final KsqlConfig ksqlConfig,
+      final Function<KsqlAggregateFunction, Schema> aggregateType
   ) {
     final SchemaBuilder schemaBuilder = SchemaBuilder.struct();
     final List<Field> fields = schema.fields();
@@ -382,11 +443,12 @@ public class AggregateNode extends PlanNode {
           functionRegistry,
           internalSchema,
           getFunctionCalls().get(aggFunctionVarSuffix),
-          schema);
+          schema,
+          ksqlConfig);
       schemaBuilder.field(
           AggregateExpressionRewriter.AGGREGATE_FUNCTION_VARIABLE_PREFIX
               + aggFunctionVarSuffix,
-          aggregateFunction.getReturnType()
+          aggregateType.apply(aggregateFunction)
       );
     }
 
@@ -18,6 +18,7 @@ package io.confluent.ksql.planner.plan;
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.ddl.DdlConfig;
 import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
@@ -26,6 +27,7 @@ import io.confluent.ksql.query.QueryId;
 import io.confluent.ksql.serde.DataSource.DataSourceType;
 import io.confluent.ksql.serde.KsqlTopicSerDe;
 import io.confluent.ksql.serde.avro.KsqlAvroTopicSerDe;
+import io.confluent.ksql.serde.binary.KsqlBinaryTopicSerDe;
 import io.confluent.ksql.services.KafkaTopicClient;
 import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.structured.QueryContext;
@@ -38,13 +40,16 @@ import io.confluent.ksql.util.QueryLoggerUtil;
 import io.confluent.ksql.util.SchemaUtil;
 import io.confluent.ksql.util.StringUtil;
 import io.confluent.ksql.util.timestamp.TimestampExtractionPolicy;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.Set;
 import org.apache.kafka.clients.admin.TopicDescription;
 import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.streams.StreamsBuilder;
@@ -55,6 +60,7 @@ public class KsqlStructuredDataOutputNode extends OutputNode {
   private final Optional<Field> keyField;
   private final boolean doCreateInto;
   private final Map<String, Object> outputProperties;
+  private final OptionalLong emitIntervalMs;
 
   @JsonCreator
   public KsqlStructuredDataOutputNode(
@@ -67,12 +73,14 @@ public class KsqlStructuredDataOutputNode extends OutputNode {
       @JsonProperty("topicName") final String kafkaTopicName,
       @JsonProperty("outputProperties") final Map<String, Object> outputProperties,
       @JsonProperty("limit") final Optional<Integer> limit,
+      @JsonProperty("emitIntervalMs") final OptionalLong emitIntervalMs,
       @JsonProperty("doCreateInto") final boolean doCreateInto) {
     super(id, source, schema, limit, timestampExtractionPolicy);
     this.kafkaTopicName = kafkaTopicName;
     this.keyField = Objects.requireNonNull(keyField, "keyField");
     this.ksqlTopic = ksqlTopic;
     this.outputProperties = outputProperties;
+    this.emitIntervalMs = Objects.requireNonNull(emitIntervalMs, "emitIntervalMs");
     this.doCreateInto = doCreateInto;
   }
 
@@ -84,6 +92,14 @@ public class KsqlStructuredDataOutputNode extends OutputNode {
     return doCreateInto;
   }
 
+  /**
+   * @return the interval, in milliseconds, set by {@code EMIT CHANGES EVERY}, within which at
+   *     most one update per key is written to the sink topic.
+   */
+  public OptionalLong getEmitIntervalMs() {
+    return emitIntervalMs;
+  }
+
   @Override
   public QueryId getQueryId(final QueryIdGenerator queryIdGenerator) {
     final String base = queryIdGenerator.getNextId();
@@ -139,6 +155,10 @@ public class KsqlStructuredDataOutputNode extends OutputNode {
         outputProperties,
         contextStacker
     );
+    if (emitIntervalMs.isPresent() && !(result instanceof SchemaKTable)) {
+      throw new KsqlException(
+          "EMIT CHANGES EVERY is only supported for queries that build tables.");
+    }
 
     final KsqlStructuredDataOutputNode noRowKey = outputNodeBuilder.build();
     if (doCreateInto) {
@@ -155,18 +175,45 @@ public class KsqlStructuredDataOutputNode extends OutputNode {
           sourceTopicProperties.partitions,
           sourceTopicProperties.replicas);
     }
-    result.into(
-        noRowKey.getKafkaTopicName(),
-        noRowKey.getKsqlTopic().getKsqlTopicSerDe()
-            .getGenericRowSerde(
-                noRowKey.getSchema(),
-                ksqlConfig,
-                false,
-                serviceContext.getSchemaRegistryClientFactory(),
-                QueryLoggerUtil.queryLoggerName(contextStacker.getQueryContext()),
-                processingLogContext),
-        rowkeyIndexes
-    );
+    final Serde<GenericRow> topicValueSerDe = noRowKey.getKsqlTopic().getKsqlTopicSerDe()
+        .getGenericRowSerde(
+            noRowKey.getSchema(),
+            ksqlConfig,
+            false,
+            serviceContext.getSchemaRegistryClientFactory(),
+            QueryLoggerUtil.queryLoggerName(contextStacker.getQueryContext()),
+            processingLogContext);
+    // the changelog of the table's deduplication store is an internal topic:
+    final Serde<GenericRow> internalValueSerDe = KsqlBinaryTopicSerDe.forInternalTopics(
+        noRowKey.getKsqlTopic().getKsqlTopicSerDe(),
+        ksqlConfig)
+        .getGenericRowSerde(
+            noRowKey.getSchema(),
+            ksqlConfig,
+            true,
+            serviceContext.getSchemaRegistryClientFactory(),
+            QueryLoggerUtil.queryLoggerName(contextStacker.getQueryContext()),
+            processingLogContext);
+    if (emitIntervalMs.isPresent()) {
+      ((SchemaKTable<?>) result).intoEvery(
+          builder,
+          Duration.ofMillis(emitIntervalMs.getAsLong()),
+          noRowKey.getKafkaTopicName(),
+          topicValueSerDe,
+          internalValueSerDe,
+          rowkeyIndexes,
+          contextStacker);
+    } else if (result instanceof SchemaKTable) {
+      ((SchemaKTable<?>) result).into(
+          builder,
+          noRowKey.getKafkaTopicName(),
+          topicValueSerDe,
+          internalValueSerDe,
+          rowkeyIndexes,
+          contextStacker);
+    } else {
+      result.into(noRowKey.getKafkaTopicName(), topicValueSerDe, rowkeyIndexes);
+    }
 
     result.setOutputNode(
         outputNodeBuilder
@@ -341,6 +388,7 @@ public class KsqlStructuredDataOutputNode extends OutputNode {
     private String kafkaTopicName;
     private Map<String, Object> outputProperties;
     private Optional<Integer> limit;
+    private OptionalLong emitIntervalMs;
     private boolean doCreateInto;
 
     public KsqlStructuredDataOutputNode build() {
@@ -354,6 +402,7 @@ public class KsqlStructuredDataOutputNode extends OutputNode {
           kafkaTopicName,
           outputProperties,
           limit,
+          emitIntervalMs,
           doCreateInto);
     }
 
@@ -368,6 +417,7 @@ public class KsqlStructuredDataOutputNode extends OutputNode {
           .withKafkaTopicName(original.getKafkaTopicName())
           .withOutputProperties(original.outputProperties)
           .withLimit(original.getLimit())
+          .withEmitIntervalMs(original.getEmitIntervalMs())
           .withDoCreateInto(original.isDoCreateInto());
     }
 
@@ -376,6 +426,11 @@ public class KsqlStructuredDataOutputNode extends OutputNode {
       return this;
     }
 
+    Builder withEmitIntervalMs(final OptionalLong emitIntervalMs) {
+      this.emitIntervalMs = emitIntervalMs;
+      return this;
+    }
+
     Builder withOutputProperties(final Map<String, Object> outputProperties) {
       this.outputProperties = outputProperties;
       return this;
@@ -17,16 +17,26 @@ package io.confluent.ksql.planner.plan;
 
 import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.function.FunctionRegistry;
+import io.confluent.ksql.internal.QueryOperationMetrics;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
 import io.confluent.ksql.metastore.model.KsqlStream;
 import io.confluent.ksql.metastore.model.KsqlTable;
 import io.confluent.ksql.metastore.model.KsqlTopic;
 import io.confluent.ksql.metastore.model.StructuredDataSource;
+import io.confluent.ksql.parser.tree.ComparisonExpression;
+import io.confluent.ksql.parser.tree.DereferenceExpression;
+import io.confluent.ksql.parser.tree.Literal;
+import io.confluent.ksql.parser.tree.QualifiedNameReference;
 import io.confluent.ksql.physical.AddTimestampColumn;
 import io.confluent.ksql.query.QueryId;
 import io.confluent.ksql.serde.KsqlTopicSerDe;
+import io.confluent.ksql.serde.filter.ColumnPredicate;
+import io.confluent.ksql.serde.filter.DeserializationFilter;
+import io.confluent.ksql.serde.util.SerdeUtils;
 import io.confluent.ksql.services.KafkaTopicClient;
 import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.streams.MaterializedFactory;
@@ -39,13 +49,19 @@ import io.confluent.ksql.util.QueryLoggerUtil;
 import io.confluent.ksql.util.SchemaUtil;
 import io.confluent.ksql.util.timestamp.TimestampExtractionPolicy;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 import javax.annotation.concurrent.Immutable;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.metrics.Sensor;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.common.utils.Bytes;
 import org.apache.kafka.connect.data.Field;
@@ -63,9 +79,11 @@ import org.apache.kafka.streams.kstream.internals.SessionWindow;
 import org.apache.kafka.streams.processor.TimestampExtractor;
 import org.apache.kafka.streams.state.KeyValueStore;
 
+// CHECKSTYLE_RULES.OFF: ClassDataAbstractionCoupling
 @Immutable
 public class StructuredDataSourceNode
     extends PlanNode {
+  // CHECKSTYLE_RULES.ON: ClassDataAbstractionCoupling
 
   private static final ValueMapperWithKey<String, GenericRow, GenericRow>
       nonWindowedValueMapper = (key, row) -> {
@@ -89,9 +107,13 @@ public class StructuredDataSourceNode
 
   private static final String SOURCE_OP_NAME = "source";
   private static final String REDUCE_OP_NAME = "reduce";
+  private static final String SOURCE_METRIC_GROUP = "ksql-source";
+  private static final String SKIPPED_RECORDS_METRIC_NAME = "records-skipped-before-decode";
 
   private final StructuredDataSource<?> structuredDataSource;
   private final Schema schema;
+  private final Set<String> requiredColumns;
+  private final List<ComparisonExpression> sourceFilter;
   private final Function<KsqlConfig, MaterializedFactory> materializedFactorySupplier;
 
   // TODO: pass in the "assignments" and the "outputs" separately
@@ -102,7 +124,30 @@ public class StructuredDataSourceNode
       @JsonProperty("structuredDataSource") final StructuredDataSource structuredDataSource,
       @JsonProperty("schema") final Schema schema
   ) {
-    this(id, structuredDataSource, schema, MaterializedFactory::create);
+    this(id, structuredDataSource, schema, allColumns(schema));
+  }
+
+  /**
+   * @param requiredColumns the names of the fields in {@code schema} that the query references.
+   *     Only these columns, and the timestamp column, are decoded from the source topic.
+   * @param sourceFilter comparisons of columns, on the left, against literals, that every row
+   *     the query processes satisfies. Where the format supports it, records are checked against
+   *     these before the rest of their columns are decoded, and dropped if they fail.
+   */
+  public StructuredDataSourceNode(
+      final PlanNodeId id,
+      final StructuredDataSource structuredDataSource,
+      final Schema schema,
+      final Set<String> requiredColumns,
+      final List<ComparisonExpression> sourceFilter
+  ) {
+    this(
+        id,
+        structuredDataSource,
+        schema,
+        requiredColumns,
+        sourceFilter,
+        MaterializedFactory::create);
   }
 
   public StructuredDataSourceNode(
@@ -110,9 +155,29 @@ public class StructuredDataSourceNode
       final StructuredDataSource structuredDataSource,
       final Schema schema,
       final Function<KsqlConfig, MaterializedFactory> materializedFactorySupplier) {
+    this(
+        id,
+        structuredDataSource,
+        schema,
+        allColumns(schema),
+        Collections.emptyList(),
+        materializedFactorySupplier);
+  }
+
+  public StructuredDataSourceNode(
+      final PlanNodeId id,
+      final StructuredDataSource structuredDataSource,
+      final Schema schema,
+      final Set<String> requiredColumns,
+      final List<ComparisonExpression> sourceFilter,
+      final Function<KsqlConfig, MaterializedFactory> materializedFactorySupplier) {
     super(id, structuredDataSource.getDataSourceType());
     this.schema =
         Objects.requireNonNull(schema, "schema");
+    this.requiredColumns = ImmutableSet.copyOf(
+        Objects.requireNonNull(requiredColumns, "requiredColumns"));
+    this.sourceFilter = ImmutableList.copyOf(
+        Objects.requireNonNull(sourceFilter, "sourceFilter"));
     this.structuredDataSource =
         Objects.requireNonNull(structuredDataSource, "structuredDataSource");
     this.materializedFactorySupplier =
@@ -173,15 +238,14 @@ public class StructuredDataSourceNode
 
     final KsqlTopicSerDe ksqlTopicSerDe = getStructuredDataSource()
         .getKsqlTopic().getKsqlTopicSerDe();
-    final Serde<GenericRow> genericRowSerde =
-        ksqlTopicSerDe.getGenericRowSerde(
-            SchemaUtil.removeImplicitRowTimeRowKeyFromSchema(getSchema()),
-            ksqlConfig,
-            false,
-            serviceContext.getSchemaRegistryClientFactory(), 
-            QueryLoggerUtil.queryLoggerName(contextStacker.push(SOURCE_OP_NAME).getQueryContext()),
-            processingLogContext
-        );
+    final Serde<GenericRow> genericRowSerde = getSourceSerde(
+        ksqlTopicSerDe,
+        ksqlConfig,
+        serviceContext,
+        processingLogContext,
+        timeStampColumnIndex,
+        queryId,
+        QueryLoggerUtil.queryLoggerName(contextStacker.push(SOURCE_OP_NAME).getQueryContext()));
 
     if (getDataSourceType() == StructuredDataSource.DataSourceType.KTABLE) {
       final KsqlTable table = (KsqlTable) getStructuredDataSource();
@@ -231,6 +295,184 @@ public class StructuredDataSourceNode
     );
   }
 
+  public Set<String> getRequiredColumns() {
+    return requiredColumns;
+  }
+
+  private Serde<GenericRow> getSourceSerde(
+      final KsqlTopicSerDe ksqlTopicSerDe,
+      final KsqlConfig ksqlConfig,
+      final ServiceContext serviceContext,
+      final ProcessingLogContext processingLogContext,
+      final int timeStampColumnIndex,
+      final QueryId queryId,
+      final String sourceLoggerName
+  ) {
+    final Schema valueSchema = SchemaUtil.removeImplicitRowTimeRowKeyFromSchema(getSchema());
+    final Set<Integer> requiredValueColumns =
+        ksqlConfig.getBoolean(KsqlConfig.KSQL_SERDE_PROJECTION_PUSHDOWN_CONFIG)
+            ? getRequiredValueColumns(timeStampColumnIndex)
+            : SerdeUtils.allColumns(valueSchema);
+    final DeserializationFilter deserializationFilter =
+        getDeserializationFilter(ksqlConfig, valueSchema, queryId, sourceLoggerName);
+
+    if (!deserializationFilter.isEmpty()) {
+      return ksqlTopicSerDe.getGenericRowSerde(
+          valueSchema,
+          ksqlConfig,
+          false,
+          serviceContext.getSchemaRegistryClientFactory(),
+          sourceLoggerName,
+          processingLogContext,
+          requiredValueColumns,
+          deserializationFilter);
+    }
+    if (requiredValueColumns.size() != valueSchema.fields().size()) {
+      return ksqlTopicSerDe.getGenericRowSerde(
+          valueSchema,
+          ksqlConfig,
+          false,
+          serviceContext.getSchemaRegistryClientFactory(),
+          sourceLoggerName,
+          processingLogContext,
+          requiredValueColumns);
+    }
+    return ksqlTopicSerDe.getGenericRowSerde(
+        valueSchema,
+        ksqlConfig,
+        false,
+        serviceContext.getSchemaRegistryClientFactory(),
+        sourceLoggerName,
+        processingLogContext);
+  }
+
+  public List<ComparisonExpression> getSourceFilter() {
+    return sourceFilter;
+  }
+
+  private Set<Integer> getRequiredValueColumns(final int timeStampColumnIndex) {
+    // the key field is always decoded, as it is used to decide whether to repartition:
+    final String keyFieldName = getKeyField()
+        .map(SchemaUtil::getFieldNameWithNoAlias)
+        .orElse(null);
+
+    final Set<Integer> required = new HashSet<>();
+    getValueColumnIndexes().forEach((name, index) -> {
+      if (requiredColumns.contains(name)
+          || SchemaUtil.getFieldNameWithNoAlias(schema.field(name)).equals(keyFieldName)) {
+        required.add(index);
+      }
+    });
+    if (timeStampColumnIndex >= 0) {
+      required.add(timeStampColumnIndex);
+    }
+    return required;
+  }
+
+  /**
+   * @return the index in the value of each field of the schema, other than the implicit ones.
+   */
+  private Map<String, Integer> getValueColumnIndexes() {
+    final Map<String, Integer> indexes = new HashMap<>();
+    for (final Field field : schema.fields()) {
+      final String fieldName = SchemaUtil.getFieldNameWithNoAlias(field);
+      if (!fieldName.equalsIgnoreCase(SchemaUtil.ROWTIME_NAME)
+          && !fieldName.equalsIgnoreCase(SchemaUtil.ROWKEY_NAME)) {
+        indexes.put(field.name(), indexes.size());
+      }
+    }
+    return indexes;
+  }
+
+  private DeserializationFilter getDeserializationFilter(
+      final KsqlConfig ksqlConfig,
+      final Schema valueSchema,
+      final QueryId queryId,
+      final String sourceLoggerName
+  ) {
+    if (getDataSourceType() != StructuredDataSource.DataSourceType.KSTREAM
+        || !ksqlConfig.getBoolean(KsqlConfig.KSQL_SERDE_FILTER_PUSHDOWN_CONFIG)) {
+      return DeserializationFilter.none();
+    }
+
+    final Map<String, Integer> valueColumnIndexes = getValueColumnIndexes();
+    final List<ColumnPredicate> predicates = new ArrayList<>();
+    for (final ComparisonExpression comparison : sourceFilter) {
+      final DereferenceExpression column = (DereferenceExpression) comparison.getLeft();
+      final Integer index = valueColumnIndexes.get(
+          ((QualifiedNameReference) column.getBase()).getName().getSuffix()
+              + "." + column.getFieldName());
+      if (index == null) {
+        continue;
+      }
+      toColumnPredicate(
+          index,
+          valueSchema.fields().get(index).schema(),
+          comparison.getType(),
+          ((Literal) comparison.getRight()).getValue()
+      ).ifPresent(predicates::add);
+    }
+
+    if (predicates.isEmpty()) {
+      return DeserializationFilter.none();
+    }
+    return DeserializationFilter.of(
+        predicates,
+        Optional.of(getSkippedRecordsSensor(queryId, sourceLoggerName)));
+  }
+
+  /**
+   * @return a predicate with the same semantics as the comparison, if the column's type and the
+   *     literal's type are ones that a {@link ColumnPredicate} supports.
+   */
+  private static Optional<ColumnPredicate> toColumnPredicate(
+      final int index,
+      final Schema columnSchema,
+      final ComparisonExpression.Type type,
+      final Object literal
+  ) {
+    final boolean supported;
+    switch (columnSchema.type()) {
+      case INT32:
+      case INT64:
+      case FLOAT64:
+        supported = literal instanceof Integer
+            || literal instanceof Long
+            || literal instanceof Double;
+        break;
+      case STRING:
+        supported = literal instanceof String;
+        break;
+      case BOOLEAN:
+        supported = literal instanceof Boolean
+            && (type == ComparisonExpression.Type.EQUAL
+            || type == ComparisonExpression.Type.NOT_EQUAL);
+        break;
+      default:
+        supported = false;
+    }
+    if (!supported || type == ComparisonExpression.Type.IS_DISTINCT_FROM) {
+      return Optional.empty();
+    }
+    return Optional.of(
+        new ColumnPredicate(index, ColumnPredicate.Comparison.valueOf(type.name()), literal));
+  }
+
+  private static Sensor getSkippedRecordsSensor(
+      final QueryId queryId,
+      final String sourceLoggerName
+  ) {
+    return QueryOperationMetrics.create(SOURCE_METRIC_GROUP, queryId.getId(), sourceLoggerName)
+        .sensor(SKIPPED_RECORDS_METRIC_NAME,
+            "records dropped by the source filter before being fully decoded");
+  }
+
+  private static Set<String> allColumns(final Schema schema) {
+    return schema.fields().stream()
+        .map(Field::name)
+        .collect(Collectors.toSet());
+  }
+
   private static Topology.AutoOffsetReset getAutoOffsetReset(final Map<String, Object> props) {
     if (props.containsKey(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG)) {
       final String offestReset = props.get(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG).toString();
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.structured;
+
+import io.confluent.ksql.internal.QueryOperationMetrics;
+import java.util.Objects;
+import java.util.function.DoubleSupplier;
+import org.apache.kafka.common.metrics.Sensor;
+
+/**
+ * Counts the table updates an {@link EmitRateLimitTransformer} buffers, drops because a later
+ * update to the same key replaced them, and flushes to the sink topic, and reports the updates
+ * neither dropped nor flushed as the keys buffered.
+ *
+ * <p>The sensors are shared by all the tasks of a query.
+ */
+final class EmitRateLimitMetrics {
+
+  private static final String METRIC_GROUP = "ksql-emit-rate-limit";
+  private static final String INPUT_METRIC_NAME = "rate-limit-updates-in";
+  private static final String DROPPED_METRIC_NAME = "rate-limit-updates-dropped";
+  private static final String OUTPUT_METRIC_NAME = "rate-limit-updates-flushed";
+  private static final String BUFFERED_METRIC_NAME = "rate-limit-buffered-keys";
+
+  private final Sensor inputSensor;
+  private final Sensor droppedSensor;
+  private final Sensor outputSensor;
+
+  EmitRateLimitMetrics(
+      final Sensor inputSensor,
+      final Sensor droppedSensor,
+      final Sensor outputSensor
+  ) {
+    this.inputSensor = Objects.requireNonNull(inputSensor, "inputSensor");
+    this.droppedSensor = Objects.requireNonNull(droppedSensor, "droppedSensor");
+    this.outputSensor = Objects.requireNonNull(outputSensor, "outputSensor");
+  }
+
+  static EmitRateLimitMetrics create(final String queryId, final String opName) {
+    final QueryOperationMetrics metrics =
+        QueryOperationMetrics.create(METRIC_GROUP, queryId, opName);
+
+    final DoubleSupplier inputTotal = metrics.total(INPUT_METRIC_NAME);
+    final DoubleSupplier droppedTotal = metrics.total(DROPPED_METRIC_NAME);
+    final DoubleSupplier outputTotal = metrics.total(OUTPUT_METRIC_NAME);
+    metrics.gauge(BUFFERED_METRIC_NAME, "The number of keys with an update buffered",
+        () -> Math.max(0,
+            inputTotal.getAsDouble() - droppedTotal.getAsDouble() - outputTotal.getAsDouble()));
+
+    return new EmitRateLimitMetrics(
+        metrics.sensor(INPUT_METRIC_NAME, "table updates buffered"),
+        metrics.sensor(DROPPED_METRIC_NAME, "table updates replaced by a later update"),
+        metrics.sensor(OUTPUT_METRIC_NAME, "table updates written to the sink topic"));
+  }
+
+  void recordInput() {
+    inputSensor.record();
+  }
+
+  void recordDropped() {
+    droppedSensor.record();
+  }
+
+  void recordOutput() {
+    outputSensor.record();
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.structured;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.structured.PunctuatedBuffer.TimestampedRow;
+import java.time.Duration;
+import java.util.Objects;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.kstream.Transformer;
+import org.apache.kafka.streams.processor.ProcessorContext;
+import org.apache.kafka.streams.processor.To;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.StoreBuilder;
+
+/**
+ * Coalesces the updates to each key of a table's changelog, so that only the latest update to
+ * each key is forwarded every emit interval, and the updates it replaced are dropped. Deletes are
+ * coalesced like any other update.
+ *
+ * <p>Updates are kept in a {@link PunctuatedBuffer}, as partial aggregates are by the
+ * {@link PartialAggregateTransformer}. At most {@code maxKeys} keys are buffered: an update to
+ * another key first forwards the update to the key buffered longest.
+ */
+class EmitRateLimitTransformer<K> implements Transformer<K, GenericRow, KeyValue<K, GenericRow>> {
+
+  private final int maxKeys;
+  private final EmitRateLimitMetrics metrics;
+  private final PunctuatedBuffer<K> buffer;
+  private ProcessorContext context;
+
+  EmitRateLimitTransformer(
+      final String storeName,
+      final Duration emitInterval,
+      final int maxKeys,
+      final EmitRateLimitMetrics metrics
+  ) {
+    if (maxKeys < 1) {
+      throw new IllegalArgumentException("maxKeys must be positive: " + maxKeys);
+    }
+    this.maxKeys = maxKeys;
+    this.metrics = Objects.requireNonNull(metrics, "metrics");
+    this.buffer = new PunctuatedBuffer<>(storeName, emitInterval, this::forward);
+  }
+
+  /**
+   * @return a builder for the store that the transformer named {@code storeName} buffers the
+   *     updates in.
+   */
+  static <K> StoreBuilder<KeyValueStore<K, TimestampedRow>> storeBuilder(
+      final String storeName,
+      final Serde<K> keySerde,
+      final Serde<GenericRow> rowSerde
+  ) {
+    return PunctuatedBuffer.storeBuilder(storeName, keySerde, rowSerde);
+  }
+
+  @Override
+  public void init(final ProcessorContext context) {
+    this.context = context;
+    buffer.init(context);
+  }
+
+  @Override
+  public KeyValue<K, GenericRow> transform(final K key, final GenericRow row) {
+    metrics.recordInput();
+
+    if (buffer.put(key, row, context.timestamp())) {
+      metrics.recordDropped();
+      return null;
+    }
+
+    if (buffer.size() > maxKeys) {
+      buffer.forwardEldest();
+    }
+    return null;
+  }
+
+  @Override
+  public void close() {
+  }
+
+  private void forward(final K key, final TimestampedRow update) {
+    context.forward(key, update.row(), To.all().withTimestamp(update.timestamp()));
+    metrics.recordOutput();
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.structured;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.codegen.RowProjector;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import org.apache.kafka.streams.kstream.Predicate;
+import org.apache.kafka.streams.kstream.ValueMapperWithKey;
+
+/**
+ * Filters and projects a row in a single pass, emitting either no rows or the projected row.
+ *
+ * <p>Rows are evaluated by a {@link RowProjector} compiled from both the filter and the
+ * projection. If the projector is not available, or it fails on a row, the row is evaluated by
+ * the separate predicate and select mapper instead, so that errors are reported exactly as
+ * they would be without the fused projector.
+ */
+@SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+class FilteredSelectValueMapper<K>
+    implements ValueMapperWithKey<K, GenericRow, Iterable<GenericRow>> {
+
+  private final Optional<RowProjector> rowProjector;
+  private final Predicate<K, GenericRow> predicate;
+  private final SelectValueMapper selectValueMapper;
+  private final int numColumns;
+
+  FilteredSelectValueMapper(
+      final Optional<RowProjector> rowProjector,
+      final Predicate<K, GenericRow> predicate,
+      final SelectValueMapper selectValueMapper,
+      final int numColumns
+  ) {
+    this.rowProjector = Objects.requireNonNull(rowProjector, "rowProjector");
+    this.predicate = Objects.requireNonNull(predicate, "predicate");
+    this.selectValueMapper = Objects.requireNonNull(selectValueMapper, "selectValueMapper");
+    this.numColumns = numColumns;
+  }
+
+  @Override
+  public Iterable<GenericRow> apply(final K key, final GenericRow row) {
+    if (row == null) {
+      return Collections.emptyList();
+    }
+
+    if (!rowProjector.isPresent()) {
+      return filterAndSelect(key, row);
+    }
+
+    final List<Object> newColumns = new ArrayList<>(numColumns);
+    try {
+      return rowProjector.get().project(row.getColumns(), newColumns)
+          ? Collections.singletonList(new GenericRow(newColumns))
+          : Collections.emptyList();
+    } catch (final Exception e) {
+      return filterAndSelect(key, row);
+    }
+  }
+
+  private Iterable<GenericRow> filterAndSelect(final K key, final GenericRow row) {
+    return predicate.test(key, row)
+        ? Collections.singletonList(selectValueMapper.apply(row))
+        : Collections.emptyList();
+  }
+}
@@ -22,7 +22,6 @@ import io.confluent.ksql.util.ExpressionMetadata;
 import java.util.List;
 import java.util.Objects;
 import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 import org.apache.kafka.streams.kstream.KeyValueMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -32,21 +31,45 @@ class GroupByMapper<K> implements KeyValueMapper<K, GenericRow, String> {
   private static final Logger LOG = LoggerFactory.getLogger(GroupByMapper.class);
 
   private static final String GROUP_BY_COLUMN_SEPARATOR = "|+|";
+  private static final char SEPARATOR_CHAR = '|';
+  private static final char ESCAPE = '\\';
 
   private final List<ExpressionMetadata> expressions;
+  private final boolean legacyKeys;
 
-  GroupByMapper(final List<ExpressionMetadata> expressions) {
+  /**
+   * @param expressions the group by expressions.
+   * @param legacyKeys whether to join the values of multi-column keys as they are, rather than
+   *     escaping every backslash and '|' within them, so that the separators between the values
+   *     are the only unescaped '|' in the key.
+   */
+  GroupByMapper(final List<ExpressionMetadata> expressions, final boolean legacyKeys) {
     this.expressions = ImmutableList.copyOf(Objects.requireNonNull(expressions, "expressions"));
     if (expressions.isEmpty()) {
       throw new IllegalArgumentException("Empty group by");
     }
+    this.legacyKeys = legacyKeys;
   }
 
   @Override
   public String apply(final K key, final GenericRow row) {
-    return IntStream.range(0, expressions.size())
-        .mapToObj(idx -> processColumn(idx, expressions.get(idx), row))
-        .collect(Collectors.joining(GROUP_BY_COLUMN_SEPARATOR));
+    if (expressions.size() == 1) {
+      return processColumn(0, expressions.get(0), row);
+    }
+
+    final StringBuilder builder = new StringBuilder();
+    for (int idx = 0; idx < expressions.size(); idx++) {
+      if (idx > 0) {
+        builder.append(GROUP_BY_COLUMN_SEPARATOR);
+      }
+      final String column = processColumn(idx, expressions.get(idx), row);
+      if (legacyKeys) {
+        builder.append(column);
+      } else {
+        appendEscaped(builder, column);
+      }
+    }
+    return builder.toString();
   }
 
   static String keyNameFor(final List<Expression> groupByExpressions) {
@@ -67,4 +90,14 @@ class GroupByMapper<K> implements KeyValueMapper<K, GenericRow, String> {
       return "null";
     }
   }
+
+  private static void appendEscaped(final StringBuilder builder, final String column) {
+    for (int idx = 0; idx < column.length(); idx++) {
+      final char c = column.charAt(idx);
+      if (c == ESCAPE || c == SEPARATOR_CHAR) {
+        builder.append(ESCAPE);
+      }
+      builder.append(c);
+    }
+  }
 }
@@ -0,0 +1,243 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.structured;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.structured.PunctuatedBuffer.TimestampedRow;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.kstream.Aggregator;
+import org.apache.kafka.streams.kstream.Initializer;
+import org.apache.kafka.streams.kstream.KeyValueMapper;
+import org.apache.kafka.streams.kstream.Transformer;
+import org.apache.kafka.streams.processor.ProcessorContext;
+import org.apache.kafka.streams.processor.To;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.StoreBuilder;
+
+/**
+ * Combines records that map to the same new key into partial aggregates before they are
+ * repartitioned, so that the repartition topic carries one record per key per flush rather than
+ * one per input record.
+ *
+ * <p>Given a pane size, records are only combined with records whose timestamps fall in the same
+ * pane, so that a partial aggregate belongs to the same time windows as each of its records, as
+ * long as every window starts and ends on a pane boundary.
+ *
+ * <p>Partial aggregates are kept in a {@link PunctuatedBuffer}, which forwards them every flush
+ * interval, and are all forwarded early once {@code maxKeys} of them are buffered.
+ */
+class PartialAggregateTransformer
+    implements Transformer<Object, GenericRow, KeyValue<String, GenericRow>> {
+
+  static final long NO_PANES = 0;
+
+  private final int maxKeys;
+  private final long paneSize;
+  private final KeyValueMapper<Object, GenericRow, String> keyMapper;
+  private final Initializer<GenericRow> initializer;
+  private final Aggregator<String, GenericRow, GenericRow> aggregator;
+  private final PartialAggregationMetrics metrics;
+  private final PunctuatedBuffer<PaneKey> buffer;
+  private ProcessorContext context;
+
+  PartialAggregateTransformer(
+      final String storeName,
+      final Duration flushInterval,
+      final int maxKeys,
+      final KeyValueMapper<Object, GenericRow, String> keyMapper,
+      final Initializer<GenericRow> initializer,
+      final Aggregator<String, GenericRow, GenericRow> aggregator,
+      final PartialAggregationMetrics metrics
+  ) {
+    this(storeName, flushInterval, maxKeys, NO_PANES, keyMapper, initializer, aggregator,
+        metrics);
+  }
+
+  /**
+   * @param paneSize the size, in milliseconds, of the panes records are combined within, or
+   *     {@link #NO_PANES} to combine records whatever their timestamps.
+   */
+  PartialAggregateTransformer(
+      final String storeName,
+      final Duration flushInterval,
+      final int maxKeys,
+      final long paneSize,
+      final KeyValueMapper<Object, GenericRow, String> keyMapper,
+      final Initializer<GenericRow> initializer,
+      final Aggregator<String, GenericRow, GenericRow> aggregator,
+      final PartialAggregationMetrics metrics
+  ) {
+    if (maxKeys < 1) {
+      throw new IllegalArgumentException("maxKeys must be positive: " + maxKeys);
+    }
+    if (paneSize < 0) {
+      throw new IllegalArgumentException("paneSize must not be negative: " + paneSize);
+    }
+    this.maxKeys = maxKeys;
+    this.paneSize = paneSize;
+    this.keyMapper = Objects.requireNonNull(keyMapper, "keyMapper");
+    this.initializer = Objects.requireNonNull(initializer, "initializer");
+    this.aggregator = Objects.requireNonNull(aggregator, "aggregator");
+    this.metrics = Objects.requireNonNull(metrics, "metrics");
+    this.buffer = new PunctuatedBuffer<>(storeName, flushInterval, this::forward);
+  }
+
+  /**
+   * @return a builder for the store that the transformer named {@code storeName} buffers its
+   *     partial aggregates in.
+   */
+  static StoreBuilder<KeyValueStore<PaneKey, TimestampedRow>> storeBuilder(
+      final String storeName,
+      final Serde<GenericRow> partialAggregateSerde
+  ) {
+    return PunctuatedBuffer.storeBuilder(storeName, new PaneKeySerde(), partialAggregateSerde);
+  }
+
+  @Override
+  public void init(final ProcessorContext context) {
+    this.context = context;
+    buffer.init(context);
+  }
+
+  @Override
+  public KeyValue<String, GenericRow> transform(final Object key, final GenericRow row) {
+    if (row == null) {
+      return null;
+    }
+
+    final String newKey = keyMapper.apply(key, row);
+    final long timestamp = context.timestamp();
+    final PaneKey paneKey = new PaneKey(
+        newKey, paneSize == NO_PANES ? 0 : timestamp - timestamp % paneSize);
+    final TimestampedRow partial = buffer.get(paneKey);
+    final GenericRow aggregate = partial == null ? initializer.apply() : partial.row();
+    buffer.put(paneKey, aggregator.apply(newKey, row, aggregate), timestamp);
+    metrics.recordInput();
+
+    if (buffer.size() >= maxKeys) {
+      buffer.forwardAll();
+    }
+    return null;
+  }
+
+  @Override
+  public void close() {
+  }
+
+  private void forward(final PaneKey paneKey, final TimestampedRow partial) {
+    context.forward(paneKey.key, partial.row(), To.all().withTimestamp(partial.timestamp()));
+    metrics.recordOutput();
+  }
+
+  static final class PaneKey {
+
+    private final String key;
+    private final long paneStart;
+
+    PaneKey(final String key, final long paneStart) {
+      this.key = Objects.requireNonNull(key, "key");
+      this.paneStart = paneStart;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof PaneKey)) {
+        return false;
+      }
+      final PaneKey that = (PaneKey) o;
+      return paneStart == that.paneStart && key.equals(that.key);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * key.hashCode() + Long.hashCode(paneStart);
+    }
+  }
+
+  /**
+   * Writes the start of the pane ahead of the key.
+   */
+  static final class PaneKeySerde implements Serde<PaneKey> {
+
+    @Override
+    public void configure(final Map<String, ?> configs, final boolean isKey) {
+    }
+
+    @Override
+    public void close() {
+    }
+
+    @Override
+    public Serializer<PaneKey> serializer() {
+      return new Serializer<PaneKey>() {
+        @Override
+        public void configure(final Map<String, ?> configs, final boolean isKey) {
+        }
+
+        @Override
+        public byte[] serialize(final String topic, final PaneKey data) {
+          if (data == null) {
+            return null;
+          }
+          final byte[] key = data.key.getBytes(StandardCharsets.UTF_8);
+          return ByteBuffer.allocate(Long.BYTES + key.length)
+              .putLong(data.paneStart)
+              .put(key)
+              .array();
+        }
+
+        @Override
+        public void close() {
+        }
+      };
+    }
+
+    @Override
+    public Deserializer<PaneKey> deserializer() {
+      return new Deserializer<PaneKey>() {
+        @Override
+        public void configure(final Map<String, ?> configs, final boolean isKey) {
+        }
+
+        @Override
+        public PaneKey deserialize(final String topic, final byte[] data) {
+          if (data == null) {
+            return null;
+          }
+          final long paneStart = ByteBuffer.wrap(data).getLong();
+          return new PaneKey(
+              new String(data, Long.BYTES, data.length - Long.BYTES, StandardCharsets.UTF_8),
+              paneStart);
+        }
+
+        @Override
+        public void close() {
+        }
+      };
+    }
+  }
+}
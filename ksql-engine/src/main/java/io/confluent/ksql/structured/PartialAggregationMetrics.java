@@ -0,0 +1,68 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.structured;
+
+import io.confluent.ksql.internal.QueryOperationMetrics;
+import java.util.Objects;
+import java.util.function.DoubleSupplier;
+import org.apache.kafka.common.metrics.Sensor;
+
+/**
+ * Counts the records a {@link PartialAggregateTransformer} combines and the partial aggregates
+ * it forwards, and reports the ratio of the two as the combine ratio.
+ *
+ * <p>The sensors are shared by all the tasks of a query.
+ */
+final class PartialAggregationMetrics {
+
+  private static final String METRIC_GROUP = "ksql-partial-aggregation";
+  private static final String INPUT_METRIC_NAME = "partial-aggregation-records-in";
+  private static final String OUTPUT_METRIC_NAME = "partial-aggregation-records-out";
+  private static final String COMBINE_RATIO_METRIC_NAME = "partial-aggregation-combine-ratio";
+
+  private final Sensor inputSensor;
+  private final Sensor outputSensor;
+
+  PartialAggregationMetrics(final Sensor inputSensor, final Sensor outputSensor) {
+    this.inputSensor = Objects.requireNonNull(inputSensor, "inputSensor");
+    this.outputSensor = Objects.requireNonNull(outputSensor, "outputSensor");
+  }
+
+  static PartialAggregationMetrics create(final String queryId, final String opName) {
+    final QueryOperationMetrics metrics =
+        QueryOperationMetrics.create(METRIC_GROUP, queryId, opName);
+
+    final DoubleSupplier inputTotal = metrics.total(INPUT_METRIC_NAME);
+    final DoubleSupplier outputTotal = metrics.total(OUTPUT_METRIC_NAME);
+    metrics.gauge(COMBINE_RATIO_METRIC_NAME,
+        "The average number of records combined into each partial aggregate", () -> {
+          final double output = outputTotal.getAsDouble();
+          return output == 0 ? 0 : inputTotal.getAsDouble() / output;
+        });
+
+    return new PartialAggregationMetrics(
+        metrics.sensor(INPUT_METRIC_NAME, "records combined into partial aggregates"),
+        metrics.sensor(OUTPUT_METRIC_NAME, "partial aggregates written for repartitioning"));
+  }
+
+  void recordInput() {
+    inputSensor.record();
+  }
+
+  void recordOutput() {
+    outputSensor.record();
+  }
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.structured;
+
+import io.confluent.ksql.GenericRow;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.streams.processor.ProcessorContext;
+import org.apache.kafka.streams.processor.PunctuationType;
+import org.apache.kafka.streams.state.KeyValueIterator;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.apache.kafka.streams.state.StoreBuilder;
+import org.apache.kafka.streams.state.Stores;
+
+/**
+ * The rows a transformer holds back, one per key, until a punctuator forwards them every
+ * interval of wall clock time, or the transformer forwards them early.
+ *
+ * <p>Every row is also written to a changelogged key value store, so that rows buffered when
+ * the task commits are not lost if the task then fails: the task that takes over restores them,
+ * and forwards them at its first punctuation. Rows are forwarded in the order their keys were
+ * first buffered in, except that restored rows are forwarded in the order of the store.
+ *
+ * @param <K> the type of the keys rows are buffered by.
+ */
+final class PunctuatedBuffer<K> {
+
+  private final String storeName;
+  private final Duration interval;
+  private final Forwarder<K> forwarder;
+  private final Map<K, TimestampedRow> buffer = new LinkedHashMap<>();
+  private KeyValueStore<K, TimestampedRow> store;
+
+  /**
+   * @param storeName the name of the store built by {@link #storeBuilder}.
+   * @param interval how often to forward every buffered row.
+   * @param forwarder forwards the buffered rows.
+   */
+  PunctuatedBuffer(
+      final String storeName,
+      final Duration interval,
+      final Forwarder<K> forwarder
+  ) {
+    if (interval.isNegative() || interval.isZero()) {
+      throw new IllegalArgumentException("interval must be positive: " + interval);
+    }
+    this.storeName = Objects.requireNonNull(storeName, "storeName");
+    this.interval = interval;
+    this.forwarder = Objects.requireNonNull(forwarder, "forwarder");
+  }
+
+  /**
+   * @return a builder for the store the buffer is kept in, to add to the topology and connect
+   *     to the transformer.
+   */
+  static <K> StoreBuilder<KeyValueStore<K, TimestampedRow>> storeBuilder(
+      final String storeName,
+      final Serde<K> keySerde,
+      final Serde<GenericRow> rowSerde
+  ) {
+    return Stores
+        .keyValueStoreBuilder(
+            Stores.inMemoryKeyValueStore(storeName), keySerde, new TimestampedRowSerde(rowSerde))
+        .withCachingEnabled();
+  }
+
+  @SuppressWarnings("unchecked")
+  void init(final ProcessorContext context) {
+    store = (KeyValueStore<K, TimestampedRow>) context.getStateStore(storeName);
+    try (KeyValueIterator<K, TimestampedRow> restored = store.all()) {
+      restored.forEachRemaining(entry -> buffer.put(entry.key, entry.value));
+    }
+    context.schedule(interval, PunctuationType.WALL_CLOCK_TIME, timestamp -> forwardAll());
+  }
+
+  /**
+   * @return the row buffered for the key, or {@code null} if none is.
+   */
+  TimestampedRow get(final K key) {
+    return buffer.get(key);
+  }
+
+  /**
+   * Buffers the row for the key, replacing any row already buffered for it.
+   *
+   * @return {@code true} if a row was already buffered for the key.
+   */
+  boolean put(final K key, final GenericRow row, final long timestamp) {
+    final TimestampedRow buffered = new TimestampedRow(row, timestamp);
+    store.put(key, buffered);
+    return buffer.put(key, buffered) != null;
+  }
+
+  int size() {
+    return buffer.size();
+  }
+
+  /**
+   * Forwards the row of the key buffered longest.
+   */
+  void forwardEldest() {
+    final Iterator<Map.Entry<K, TimestampedRow>> eldest = buffer.entrySet().iterator();
+    if (eldest.hasNext()) {
+      forward(eldest.next());
+      eldest.remove();
+    }
+  }
+
+  void forwardAll() {
+    buffer.entrySet().forEach(this::forward);
+    buffer.clear();
+  }
+
+  private void forward(final Map.Entry<K, TimestampedRow> entry) {
+    store.delete(entry.getKey());
+    forwarder.forward(entry.getKey(), entry.getValue());
+  }
+
+  interface Forwarder<K> {
+
+    void forward(K key, TimestampedRow row);
+  }
+
+  /**
+   * A buffered row, which may be {@code null}, and the timestamp to forward it with.
+   */
+  static final class TimestampedRow {
+
+    private final GenericRow row;
+    private final long timestamp;
+
+    TimestampedRow(final GenericRow row, final long timestamp) {
+      this.row = row;
+      this.timestamp = timestamp;
+    }
+
+    GenericRow row() {
+      return row;
+    }
+
+    long timestamp() {
+      return timestamp;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof TimestampedRow)) {
+        return false;
+      }
+      final TimestampedRow that = (TimestampedRow) o;
+      return timestamp == that.timestamp && Objects.equals(row, that.row);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(row, timestamp);
+    }
+
+    @Override
+    public String toString() {
+      return "TimestampedRow{row=" + row + ", timestamp=" + timestamp + '}';
+    }
+  }
+
+  /**
+   * Writes the timestamp ahead of the row, and no row bytes at all for a {@code null} row.
+   */
+  static final class TimestampedRowSerde implements Serde<TimestampedRow> {
+
+    private final Serde<GenericRow> rowSerde;
+
+    TimestampedRowSerde(final Serde<GenericRow> rowSerde) {
+      this.rowSerde = Objects.requireNonNull(rowSerde, "rowSerde");
+    }
+
+    @Override
+    public void configure(final Map<String, ?> configs, final boolean isKey) {
+      rowSerde.configure(configs, isKey);
+    }
+
+    @Override
+    public void close() {
+      rowSerde.close();
+    }
+
+    @Override
+    public Serializer<TimestampedRow> serializer() {
+      final Serializer<GenericRow> rowSerializer = rowSerde.serializer();
+      return new Serializer<TimestampedRow>() {
+        @Override
+        public void configure(final Map<String, ?> configs, final boolean isKey) {
+        }
+
+        @Override
+        public byte[] serialize(final String topic, final TimestampedRow data) {
+          if (data == null) {
+            return null;
+          }
+          final byte[] row = data.row == null ? null : rowSerializer.serialize(topic, data.row);
+          final int rowLength = row == null ? 0 : row.length;
+          final ByteBuffer bytes = ByteBuffer.allocate(Long.BYTES + 1 + rowLength)
+              .putLong(data.timestamp)
+              .put((byte) (row == null ? 0 : 1));
+          if (row != null) {
+            bytes.put(row);
+          }
+          return bytes.array();
+        }
+
+        @Override
+        public void close() {
+        }
+      };
+    }
+
+    @Override
+    public Deserializer<TimestampedRow> deserializer() {
+      final Deserializer<GenericRow> rowDeserializer = rowSerde.deserializer();
+      return new Deserializer<TimestampedRow>() {
+        @Override
+        public void configure(final Map<String, ?> configs, final boolean isKey) {
+        }
+
+        @Override
+        public TimestampedRow deserialize(final String topic, final byte[] data) {
+          if (data == null) {
+            return null;
+          }
+          final ByteBuffer bytes = ByteBuffer.wrap(data);
+          final long timestamp = bytes.getLong();
+          final GenericRow row = bytes.get() == 0
+              ? null
+              : rowDeserializer.deserialize(
+                  topic, Arrays.copyOfRange(data, bytes.position(), data.length));
+          return new TimestampedRow(row, timestamp);
+        }
+
+        @Override
+        public void close() {
+        }
+      };
+    }
+  }
+}
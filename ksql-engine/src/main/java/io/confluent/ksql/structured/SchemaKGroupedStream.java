@@ -20,13 +20,18 @@ import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.function.KsqlAggregateFunction;
 import io.confluent.ksql.function.UdafAggregator;
 import io.confluent.ksql.function.udaf.KudafAggregator;
+import io.confluent.ksql.function.udaf.KudafResultMapper;
 import io.confluent.ksql.function.udaf.window.WindowSelectMapper;
 import io.confluent.ksql.metastore.SerdeFactory;
+import io.confluent.ksql.parser.tree.HoppingWindowExpression;
 import io.confluent.ksql.parser.tree.KsqlWindowExpression;
+import io.confluent.ksql.parser.tree.ResultMaterialization;
 import io.confluent.ksql.parser.tree.WindowExpression;
 import io.confluent.ksql.streams.MaterializedFactory;
 import io.confluent.ksql.streams.StreamsUtil;
 import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.KsqlException;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -36,10 +41,15 @@ import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.common.utils.Bytes;
 import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.streams.kstream.Aggregator;
 import org.apache.kafka.streams.kstream.Initializer;
 import org.apache.kafka.streams.kstream.KGroupedStream;
 import org.apache.kafka.streams.kstream.KTable;
 import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.kstream.Merger;
+import org.apache.kafka.streams.kstream.Suppressed;
+import org.apache.kafka.streams.kstream.Suppressed.BufferConfig;
+import org.apache.kafka.streams.kstream.Suppressed.StrictBufferConfig;
 import org.apache.kafka.streams.kstream.Windowed;
 import org.apache.kafka.streams.kstream.WindowedSerdes;
 import org.apache.kafka.streams.state.KeyValueStore;
@@ -47,6 +57,8 @@ import org.apache.kafka.streams.state.WindowStore;
 
 public class SchemaKGroupedStream {
 
+  private static final String SUPPRESS_OP_NAME = "suppress";
+
   final Schema schema;
   final KGroupedStream kgroupedStream;
   final Optional<Field> keyField;
@@ -54,6 +66,7 @@ public class SchemaKGroupedStream {
   final KsqlConfig ksqlConfig;
   final FunctionRegistry functionRegistry;
   final MaterializedFactory materializedFactory;
+  final boolean partiallyAggregated;
 
   SchemaKGroupedStream(
       final Schema schema,
@@ -82,6 +95,32 @@ public class SchemaKGroupedStream {
       final KsqlConfig ksqlConfig,
       final FunctionRegistry functionRegistry,
       final MaterializedFactory materializedFactory
+  ) {
+    this(
+        schema,
+        kgroupedStream,
+        keyField,
+        sourceSchemaKStreams,
+        ksqlConfig,
+        functionRegistry,
+        materializedFactory,
+        false
+    );
+  }
+
+  /**
+   * @param partiallyAggregated whether the grouped values are rows partially aggregated by the
+   *     aggregate functions this stream will be aggregated with, rather than input rows.
+   */
+  SchemaKGroupedStream(
+      final Schema schema,
+      final KGroupedStream kgroupedStream,
+      final Optional<Field> keyField,
+      final List<SchemaKStream> sourceSchemaKStreams,
+      final KsqlConfig ksqlConfig,
+      final FunctionRegistry functionRegistry,
+      final MaterializedFactory materializedFactory,
+      final boolean partiallyAggregated
   ) {
     this.schema = schema;
     this.kgroupedStream = kgroupedStream;
@@ -90,6 +129,7 @@ public class SchemaKGroupedStream {
     this.ksqlConfig = Objects.requireNonNull(ksqlConfig, "ksqlConfig");
     this.functionRegistry = functionRegistry;
     this.materializedFactory = materializedFactory;
+    this.partiallyAggregated = partiallyAggregated;
   }
 
   public Optional<Field> getKeyField() {
@@ -102,21 +142,35 @@ public class SchemaKGroupedStream {
       final Map<Integer, KsqlAggregateFunction> aggValToFunctionMap,
       final Map<Integer, Integer> aggValToValColumnMap,
       final WindowExpression windowExpression,
+      final ResultMaterialization resultMaterialization,
       final Serde<GenericRow> topicValueSerDe,
       final QueryContext.Stacker contextStacker) {
 
-    final KTable table;
+    KTable table;
     final SerdeFactory<?> keySerdeFactory;
     if (windowExpression != null) {
+      if (partiallyAggregated
+          && !(windowExpression.getKsqlWindowExpression() instanceof HoppingWindowExpression)) {
+        throw new IllegalStateException("Partial aggregates can only be windowed by panes of "
+            + "hopping windows");
+      }
+      if (partiallyAggregated && resultMaterialization == ResultMaterialization.FINAL) {
+        throw new IllegalStateException("Partial aggregates may reach the suppression of EMIT "
+            + "FINAL after their windows close, and so can not be emitted final");
+      }
       keySerdeFactory = getKeySerde(windowExpression);
       table = aggregateWindowed(
           initializer,
           aggValToFunctionMap,
           aggValToValColumnMap,
           windowExpression,
+          resultMaterialization,
           topicValueSerDe,
           contextStacker);
     } else {
+      if (resultMaterialization == ResultMaterialization.FINAL) {
+        throw new KsqlException("EMIT FINAL is only supported for windowed aggregations.");
+      }
       keySerdeFactory = (SerdeFactory)Serdes::String;
 
       table = aggregateNonWindowed(
@@ -127,6 +181,11 @@ public class SchemaKGroupedStream {
           contextStacker);
     }
 
+    final KudafResultMapper resultMapper = new KudafResultMapper(aggValToFunctionMap);
+    if (resultMapper.hasMappings()) {
+      table = table.mapValues(resultMapper);
+    }
+
     return new SchemaKTable(
         schema,
         table,
@@ -147,8 +206,11 @@ public class SchemaKGroupedStream {
       final Serde<GenericRow> topicValueSerDe,
       final QueryContext.Stacker contextStacker) {
 
-    final UdafAggregator aggregator = new KudafAggregator(
+    final KudafAggregator kudafAggregator = new KudafAggregator(
         indexToFunctionMap, indexToValueMap);
+    final Aggregator<String, GenericRow, GenericRow> aggregator = partiallyAggregated
+        ? kudafAggregator.getPartialAggregateMerger()
+        : kudafAggregator;
 
     final Materialized<String, GenericRow, KeyValueStore<Bytes, byte[]>> materialized
           = materializedFactory.create(
@@ -164,11 +226,15 @@ public class SchemaKGroupedStream {
       final Map<Integer, KsqlAggregateFunction> indexToFunctionMap,
       final Map<Integer, Integer> indexToValueMap,
       final WindowExpression windowExpression,
+      final ResultMaterialization resultMaterialization,
       final Serde<GenericRow> topicValueSerDe,
       final QueryContext.Stacker contextStacker) {
 
-    final UdafAggregator aggregator = new KudafAggregator(
+    final KudafAggregator kudafAggregator = new KudafAggregator(
         indexToFunctionMap, indexToValueMap);
+    final UdafAggregator aggregator = partiallyAggregated
+        ? kudafAggregator.getPartialAggregateMerger()
+        : kudafAggregator;
 
     final KsqlWindowExpression ksqlWindowExpression = windowExpression.getKsqlWindowExpression();
 
@@ -177,8 +243,11 @@ public class SchemaKGroupedStream {
               Serdes.String(),
               topicValueSerDe,
               StreamsUtil.buildOpName(contextStacker.getQueryContext()));
-    final KTable aggKtable = ksqlWindowExpression.applyAggregate(
-        kgroupedStream, initializer, aggregator, materialized);
+    final KTable aggKtable = resultMaterialization == ResultMaterialization.FINAL
+        ? aggregateUntilWindowsClose(
+            ksqlWindowExpression, initializer, aggregator, materialized, contextStacker)
+        : ksqlWindowExpression.applyAggregate(
+            kgroupedStream, initializer, aggregator, materialized);
 
     final WindowSelectMapper windowSelectMapper = new WindowSelectMapper(indexToFunctionMap);
     if (!windowSelectMapper.hasSelects()) {
@@ -189,6 +258,68 @@ public class SchemaKGroupedStream {
         windowSelectMapper.apply((Windowed<?>) readOnlyKey, (GenericRow) value));
   }
 
+  /**
+   * Aggregates into windows and suppresses the updates of each window until the window closes,
+   * i.e. until stream time passes its end plus its grace period, so that only its final result
+   * is emitted. The grace period is {@code ksql.suppress.grace.period.ms}, rather than the Kafka
+   * Streams default of a day less the window size, which would delay every result by about a day.
+   *
+   * <p>The suppression is applied to the aggregate itself, as it buffers windows with the serdes
+   * of the aggregate, and the windows are counted by the initializer and merger the aggregate is
+   * computed with.
+   */
+  @SuppressWarnings("unchecked")
+  private KTable aggregateUntilWindowsClose(
+      final KsqlWindowExpression ksqlWindowExpression,
+      final Initializer initializer,
+      final UdafAggregator aggregator,
+      final Materialized<String, GenericRow, WindowStore<Bytes, byte[]>> materialized,
+      final QueryContext.Stacker contextStacker) {
+
+    final QueryContext suppressContext = contextStacker.push(SUPPRESS_OP_NAME).getQueryContext();
+    final String opName = StreamsUtil.buildOpName(suppressContext);
+    final SuppressionMetrics metrics = SuppressionMetrics.create(
+        suppressContext.getQueryId().getId(),
+        opName);
+
+    final Initializer countingInitializer = () -> {
+      metrics.recordOpened();
+      return initializer.apply();
+    };
+    final UdafAggregator countingAggregator = new UdafAggregator() {
+      @Override
+      public GenericRow apply(final String key, final GenericRow value, final GenericRow agg) {
+        return aggregator.apply(key, value, agg);
+      }
+
+      @Override
+      public Merger<String, GenericRow> getMerger() {
+        final Merger<String, GenericRow> merger = aggregator.getMerger();
+        return (key, aggOne, aggTwo) -> {
+          metrics.recordMerged();
+          return merger.apply(key, aggOne, aggTwo);
+        };
+      }
+    };
+
+    return ksqlWindowExpression
+        .applyAggregate(kgroupedStream, countingInitializer, countingAggregator, materialized,
+            Optional.of(Duration.ofMillis(
+                ksqlConfig.getLong(KsqlConfig.KSQL_SUPPRESS_GRACE_PERIOD_MS_CONFIG))))
+        .suppress(Suppressed.untilWindowCloses(getSuppressBufferConfig()).withName(opName))
+        .mapValues(value -> {
+          metrics.recordEmitted();
+          return value;
+        });
+  }
+
+  private StrictBufferConfig getSuppressBufferConfig() {
+    final long maxBytes = ksqlConfig.getLong(KsqlConfig.KSQL_SUPPRESS_BUFFER_SIZE_BYTES_CONFIG);
+    return maxBytes < 0
+        ? BufferConfig.unbounded()
+        : BufferConfig.maxBytes(maxBytes).shutDownWhenFull();
+  }
+
   private SerdeFactory<Windowed<String>> getKeySerde(final WindowExpression windowExpression) {
     if (ksqlConfig.getBoolean(KsqlConfig.KSQL_WINDOWED_SESSION_KEY_LEGACY_CONFIG)) {
       return () -> WindowedSerdes.timeWindowedSerdeFrom(String.class);
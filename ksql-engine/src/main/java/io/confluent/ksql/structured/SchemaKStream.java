@@ -18,7 +18,10 @@ package io.confluent.ksql.structured;
 import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.codegen.CodeGenRunner;
+import io.confluent.ksql.codegen.ExpressionOptimizer;
+import io.confluent.ksql.codegen.RowProjector;
 import io.confluent.ksql.function.FunctionRegistry;
+import io.confluent.ksql.function.udaf.KudafAggregator;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
 import io.confluent.ksql.metastore.SerdeFactory;
@@ -26,6 +29,7 @@ import io.confluent.ksql.parser.tree.DereferenceExpression;
 import io.confluent.ksql.parser.tree.Expression;
 import io.confluent.ksql.parser.tree.QualifiedNameReference;
 import io.confluent.ksql.planner.plan.OutputNode;
+import io.confluent.ksql.streams.MaterializedFactory;
 import io.confluent.ksql.streams.StreamsFactories;
 import io.confluent.ksql.streams.StreamsUtil;
 import io.confluent.ksql.util.ExpressionMetadata;
@@ -33,6 +37,7 @@ import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.QueryLoggerUtil;
 import io.confluent.ksql.util.SchemaUtil;
 import io.confluent.ksql.util.SelectExpression;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -47,19 +52,31 @@ import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.kstream.Initializer;
 import org.apache.kafka.streams.kstream.JoinWindows;
 import org.apache.kafka.streams.kstream.KGroupedStream;
 import org.apache.kafka.streams.kstream.KStream;
+import org.apache.kafka.streams.kstream.Predicate;
 import org.apache.kafka.streams.kstream.Produced;
 import org.apache.kafka.streams.kstream.ValueJoiner;
 import org.apache.kafka.streams.kstream.WindowedSerdes;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 // CHECKSTYLE_RULES.OFF: ClassDataAbstractionCoupling
 @SuppressWarnings("OptionalUsedAsFieldOrParameterType")
 public class SchemaKStream<K> {
   // CHECKSTYLE_RULES.ON: ClassDataAbstractionCoupling
 
-  public enum Type { SOURCE, PROJECT, FILTER, AGGREGATE, SINK, REKEY, JOIN }
+  private static final Logger LOG = LoggerFactory.getLogger(SchemaKStream.class);
+
+  private static final String PARTIAL_AGGREGATION_OP_NAME = "partial";
+  private static final String PARTIAL_AGGREGATION_BUFFER_OP_NAME = "partial-buffer";
+  private static final String PANE_AGGREGATION_OP_NAME = "panes";
+  private static final String PANE_AGGREGATION_BUFFER_OP_NAME = "panes-buffer";
+
+  public enum Type { SOURCE, PROJECT, FILTER, FILTER_PROJECT, AGGREGATE, SINK, REKEY, JOIN }
 
   final Schema schema;
   final KStream<K, GenericRow> kstream;
@@ -69,6 +86,7 @@ public class SchemaKStream<K> {
   final KsqlConfig ksqlConfig;
   final FunctionRegistry functionRegistry;
   private OutputNode output;
+  private List<String> rewrittenExpressions = Collections.emptyList();
   final SerdeFactory<K> keySerdeFactory;
   final StreamsFactories streamsFactories;
   final QueryContext queryContext;
@@ -157,20 +175,12 @@ public class SchemaKStream<K> {
       final Expression filterExpression,
       final QueryContext.Stacker contextStacker,
       final ProcessingLogContext processingLogContext) {
-    final SqlPredicate predicate = new SqlPredicate(
-        filterExpression,
-        schema,
-        hasWindowedKey(),
-        ksqlConfig,
-        functionRegistry,
-        processingLogContext.getLoggerFactory().getLogger(
-            QueryLoggerUtil.queryLoggerName(
-                contextStacker.push(Type.FILTER.name()).getQueryContext())
-        )
-    );
+    final List<String> rewrites = new ArrayList<>();
+    final SqlPredicate predicate = buildSqlPredicate(
+        optimize(filterExpression, rewrites), contextStacker, processingLogContext);
 
     final KStream<K, GenericRow> filteredKStream = kstream.filter(predicate.getPredicate());
-    return new SchemaKStream<>(
+    final SchemaKStream<K> filtered = new SchemaKStream<>(
         schema,
         filteredKStream,
         keyField,
@@ -181,19 +191,22 @@ public class SchemaKStream<K> {
         functionRegistry,
         contextStacker.getQueryContext()
     );
+    filtered.setRewrittenExpressions(rewrites);
+    return filtered;
   }
 
   public SchemaKStream<K> select(
       final List<SelectExpression> selectExpressions,
       final QueryContext.Stacker contextStacker,
       final ProcessingLogContext processingLogContext) {
+    final List<String> rewrites = new ArrayList<>();
     final Selection selection = new Selection(
-        selectExpressions,
+        optimize(selectExpressions, rewrites),
         processingLogContext.getLoggerFactory().getLogger(
             QueryLoggerUtil.queryLoggerName(
                 contextStacker.push(Type.PROJECT.name()).getQueryContext()))
     );
-    return new SchemaKStream<>(
+    final SchemaKStream<K> projected = new SchemaKStream<>(
         selection.getProjectedSchema(),
         kstream.mapValues(selection.getSelectValueMapper()),
         selection.getKey(),
@@ -204,26 +217,127 @@ public class SchemaKStream<K> {
         functionRegistry,
         contextStacker.getQueryContext()
     );
+    projected.setRewrittenExpressions(rewrites);
+    return projected;
+  }
+
+  /**
+   * Filter and then project this stream.
+   *
+   * <p>When fused filter projections are enabled the predicate and the projection are compiled
+   * into a single generated class and evaluated by one processor, which only builds the output
+   * row for records that pass the filter. Otherwise this is equivalent to calling
+   * {@link #filter} followed by {@link #select}.
+   */
+  @SuppressWarnings("unchecked")
+  public SchemaKStream<K> filterAndSelect(
+      final Expression filterExpression,
+      final QueryContext.Stacker filterContextStacker,
+      final List<SelectExpression> selectExpressions,
+      final QueryContext.Stacker selectContextStacker,
+      final ProcessingLogContext processingLogContext) {
+    if (!ksqlConfig.getBoolean(KsqlConfig.KSQL_CODEGEN_FUSED_FILTER_PROJECTION_CONFIG)) {
+      return filter(filterExpression, filterContextStacker, processingLogContext)
+          .select(selectExpressions, selectContextStacker, processingLogContext);
+    }
+
+    final List<String> rewrites = new ArrayList<>();
+    final Expression optimizedFilter = optimize(filterExpression, rewrites);
+    final SqlPredicate predicate =
+        buildSqlPredicate(optimizedFilter, filterContextStacker, processingLogContext);
+
+    final Selection selection = new Selection(
+        optimize(selectExpressions, rewrites),
+        processingLogContext.getLoggerFactory().getLogger(
+            QueryLoggerUtil.queryLoggerName(
+                selectContextStacker.push(Type.PROJECT.name()).getQueryContext()))
+    );
+
+    final Predicate<K, GenericRow> fallbackPredicate = predicate.getPredicate();
+
+    final SchemaKStream<K> filteredAndProjected = new SchemaKStream<>(
+        selection.getProjectedSchema(),
+        kstream.flatMapValues(
+            selection.getFilteredSelectValueMapper(fallbackPredicate, optimizedFilter)),
+        selection.getKey(),
+        Collections.singletonList(this),
+        keySerdeFactory,
+        Type.FILTER_PROJECT,
+        ksqlConfig,
+        functionRegistry,
+        selectContextStacker.getQueryContext()
+    );
+    filteredAndProjected.setRewrittenExpressions(rewrites);
+    return filteredAndProjected;
+  }
+
+  /**
+   * Optimize an expression over this stream's schema before code is generated for it.
+   *
+   * @param expression the expression to optimize.
+   * @param rewrites the list to add a description of the rewrite to, if there is one.
+   * @return the optimized expression.
+   */
+  Expression optimize(final Expression expression, final List<String> rewrites) {
+    if (!ksqlConfig.getBoolean(KsqlConfig.KSQL_CODEGEN_EXPRESSION_OPTIMIZATION_CONFIG)) {
+      return expression;
+    }
+
+    final Expression optimized =
+        new ExpressionOptimizer(schema, ksqlConfig, functionRegistry).optimize(expression);
+    if (!optimized.equals(expression)) {
+      rewrites.add(expression + " => " + optimized);
+    }
+    return optimized;
+  }
+
+  List<SelectExpression> optimize(
+      final List<SelectExpression> selectExpressions,
+      final List<String> rewrites
+  ) {
+    return selectExpressions.stream()
+        .map(se -> SelectExpression.of(se.getName(), optimize(se.getExpression(), rewrites)))
+        .collect(Collectors.toList());
+  }
+
+  SqlPredicate buildSqlPredicate(
+      final Expression filterExpression,
+      final QueryContext.Stacker contextStacker,
+      final ProcessingLogContext processingLogContext) {
+    return new SqlPredicate(
+        filterExpression,
+        schema,
+        hasWindowedKey(),
+        ksqlConfig,
+        functionRegistry,
+        processingLogContext.getLoggerFactory().getLogger(
+            QueryLoggerUtil.queryLoggerName(
+                contextStacker.push(Type.FILTER.name()).getQueryContext())
+        )
+    );
   }
 
   class Selection {
     private final Schema schema;
     private final Optional<Field> key;
-    private final SelectValueMapper selectValueMapper;
+    private final List<Expression> expressions;
+    private final List<String> selectFieldNames;
+    private final List<ExpressionMetadata> expressionEvaluators;
+    private final ProcessingLogger processingLogger;
 
     Selection(
         final List<SelectExpression> selectExpressions,
         final ProcessingLogger processingLogger) {
       key = findKeyField(selectExpressions);
-      final List<ExpressionMetadata> expressionEvaluators = buildExpressions(selectExpressions);
+      expressionEvaluators = buildExpressions(selectExpressions);
       schema = buildSchema(selectExpressions, expressionEvaluators);
-      final List<String> selectFieldNames = selectExpressions.stream()
+      expressions = selectExpressions.stream()
+          .map(SelectExpression::getExpression)
+          .collect(Collectors.toList());
+      selectFieldNames = selectExpressions.stream()
           .map(SelectExpression::getName)
           .collect(Collectors.toList());
-      selectValueMapper = new SelectValueMapper(
-          selectFieldNames,
-          expressionEvaluators,
-          processingLogger);
+      this.processingLogger = Objects.requireNonNull(processingLogger, "processingLogger");
     }
 
     private Optional<Field> findKeyField(final List<SelectExpression> selectExpressions) {
@@ -286,6 +400,18 @@ public class SchemaKStream<K> {
           expressions, "Select", SchemaKStream.this.getSchema(), ksqlConfig, functionRegistry);
     }
 
+    private Optional<RowProjector> buildRowProjector(final Optional<Expression> filter) {
+      try {
+        return Optional.of(
+            new CodeGenRunner(SchemaKStream.this.getSchema(), ksqlConfig, functionRegistry)
+                .buildRowProjector(filter, expressions));
+      } catch (final Exception e) {
+        LOG.warn("Failed to compile fused projection, falling back to per-expression "
+            + "evaluation. filter: {}, expressions: {}", filter, expressions, e);
+        return Optional.empty();
+      }
+    }
+
     public Schema getProjectedSchema() {
       return schema;
     }
@@ -295,7 +421,27 @@ public class SchemaKStream<K> {
     }
 
     SelectValueMapper getSelectValueMapper() {
-      return selectValueMapper;
+      final Optional<RowProjector> rowProjector =
+          ksqlConfig.getBoolean(KsqlConfig.KSQL_CODEGEN_FUSED_PROJECTION_CONFIG)
+              ? buildRowProjector(Optional.empty())
+              : Optional.empty();
+
+      return new SelectValueMapper(
+          selectFieldNames,
+          expressionEvaluators,
+          rowProjector,
+          processingLogger);
+    }
+
+    <T> FilteredSelectValueMapper<T> getFilteredSelectValueMapper(
+        final Predicate<T, GenericRow> predicate,
+        final Expression filterExpression
+    ) {
+      return new FilteredSelectValueMapper<>(
+          buildRowProjector(Optional.of(filterExpression)),
+          predicate,
+          new SelectValueMapper(selectFieldNames, expressionEvaluators, processingLogger),
+          selectFieldNames.size());
     }
   }
 
@@ -594,6 +740,140 @@ public class SchemaKStream<K> {
     );
   }
 
+  /**
+   * Groups this stream as {@link #groupBy} does, except that when the records must be
+   * repartitioned by the grouping expressions they are first combined into partial aggregates,
+   * and the partial aggregates are repartitioned instead.
+   *
+   * @param builder the builder to add the state store the partial aggregation needs to.
+   * @param valSerde the serde for this stream's rows, used if no repartition is needed.
+   * @param partialAggregateSerde the serde for the aggregate rows.
+   * @param groupByExpressions the expressions to group by.
+   * @param initializer the initializer for the aggregate rows.
+   * @param aggregator the aggregator that the grouped stream will be aggregated with.
+   * @param contextStacker the context of the group by.
+   * @return the grouped stream.
+   */
+  public SchemaKGroupedStream groupByWithPartialAggregation(
+      final StreamsBuilder builder,
+      final Serde<GenericRow> valSerde,
+      final Serde<GenericRow> partialAggregateSerde,
+      final List<Expression> groupByExpressions,
+      final Initializer<GenericRow> initializer,
+      final KudafAggregator aggregator,
+      final QueryContext.Stacker contextStacker) {
+    if (!rekeyRequired(groupByExpressions)) {
+      return groupBy(valSerde, groupByExpressions, contextStacker);
+    }
+
+    // The repartition topic is named after the partial aggregation, rather than the group by,
+    // so that queries never read rows written with the partial aggregation toggled.
+    return groupByPartialAggregates(
+        builder,
+        partialAggregateSerde,
+        groupByExpressions,
+        PartialAggregateTransformer.NO_PANES,
+        initializer,
+        aggregator,
+        contextStacker.push(PARTIAL_AGGREGATION_OP_NAME),
+        contextStacker.push(PARTIAL_AGGREGATION_BUFFER_OP_NAME));
+  }
+
+  /**
+   * Groups this stream by the grouping expressions after combining its records into partial
+   * aggregates per pane, so that each record updates a single pane, and the stream can be
+   * aggregated into windows made of whole panes by merging the partial aggregates.
+   *
+   * <p>Unlike {@link #groupByWithPartialAggregation}, the partial aggregates are repartitioned
+   * even if the records would not have to be.
+   *
+   * @param builder the builder to add the state store the pane aggregation needs to.
+   * @param partialAggregateSerde the serde for the aggregate rows.
+   * @param groupByExpressions the expressions to group by.
+   * @param paneSize the size of the panes, in milliseconds.
+   * @param initializer the initializer for the aggregate rows.
+   * @param aggregator the aggregator that the grouped stream will be aggregated with.
+   * @param contextStacker the context of the group by.
+   * @return the grouped stream.
+   */
+  public SchemaKGroupedStream groupByWithPaneAggregation(
+      final StreamsBuilder builder,
+      final Serde<GenericRow> partialAggregateSerde,
+      final List<Expression> groupByExpressions,
+      final long paneSize,
+      final Initializer<GenericRow> initializer,
+      final KudafAggregator aggregator,
+      final QueryContext.Stacker contextStacker) {
+    if (paneSize <= 0) {
+      throw new IllegalArgumentException("paneSize must be positive: " + paneSize);
+    }
+
+    return groupByPartialAggregates(
+        builder,
+        partialAggregateSerde,
+        groupByExpressions,
+        paneSize,
+        initializer,
+        aggregator,
+        contextStacker.push(PANE_AGGREGATION_OP_NAME),
+        contextStacker.push(PANE_AGGREGATION_BUFFER_OP_NAME));
+  }
+
+  private SchemaKGroupedStream groupByPartialAggregates(
+      final StreamsBuilder builder,
+      final Serde<GenericRow> partialAggregateSerde,
+      final List<Expression> groupByExpressions,
+      final long paneSize,
+      final Initializer<GenericRow> initializer,
+      final KudafAggregator aggregator,
+      final QueryContext.Stacker repartitionContext,
+      final QueryContext.Stacker bufferContext) {
+    final GroupBy groupBy = new GroupBy(groupByExpressions);
+
+    final String storeName = StreamsUtil.buildOpName(bufferContext.getQueryContext());
+    builder.addStateStore(
+        PartialAggregateTransformer.storeBuilder(storeName, partialAggregateSerde));
+
+    final Duration flushInterval = Duration.ofMillis(
+        ksqlConfig.getLong(KsqlConfig.KSQL_PARTIAL_AGGREGATION_FLUSH_INTERVAL_MS_CONFIG));
+    final int maxKeys = ksqlConfig.getInt(KsqlConfig.KSQL_PARTIAL_AGGREGATION_MAX_KEYS_CONFIG);
+    final PartialAggregationMetrics metrics = PartialAggregationMetrics.create(
+        bufferContext.getQueryContext().getQueryId().getId(),
+        storeName);
+
+    final KGroupedStream kgroupedStream = kstream
+        .transform(
+            () -> new PartialAggregateTransformer(
+                storeName,
+                flushInterval,
+                maxKeys,
+                paneSize,
+                groupBy.mapper,
+                initializer,
+                aggregator,
+                metrics),
+            storeName)
+        .groupByKey(
+            streamsFactories.getGroupedFactory().create(
+                StreamsUtil.buildOpName(repartitionContext.getQueryContext()),
+                Serdes.String(),
+                partialAggregateSerde)
+        );
+
+    final Field newKeyField = new Field(
+        groupBy.aggregateKeyName, -1, Schema.OPTIONAL_STRING_SCHEMA);
+    return new SchemaKGroupedStream(
+        schema,
+        kgroupedStream,
+        Optional.of(newKeyField),
+        Collections.singletonList(this),
+        ksqlConfig,
+        functionRegistry,
+        MaterializedFactory.create(ksqlConfig),
+        true
+    );
+  }
+
   public Optional<Field> getKeyField() {
     return keyField;
   }
@@ -616,8 +896,11 @@ public class SchemaKStream<K> {
         .append(" > [ ")
         .append(type).append(" ] | Schema: ")
         .append(SchemaUtil.getSchemaDefinitionString(schema))
-        .append(" | Logger: ").append(QueryLoggerUtil.queryLoggerName(queryContext))
-        .append("\n");
+        .append(" | Logger: ").append(QueryLoggerUtil.queryLoggerName(queryContext));
+    if (!rewrittenExpressions.isEmpty()) {
+      stringBuilder.append(" | Rewritten: ").append(String.join(", ", rewrittenExpressions));
+    }
+    stringBuilder.append("\n");
     for (final SchemaKStream schemaKStream : sourceSchemaKStreams) {
       stringBuilder
           .append("\t")
@@ -635,6 +918,10 @@ public class SchemaKStream<K> {
     this.output = output;
   }
 
+  void setRewrittenExpressions(final List<String> rewrittenExpressions) {
+    this.rewrittenExpressions = ImmutableList.copyOf(rewrittenExpressions);
+  }
+
   public Type getType() {
     return type;
   }
@@ -652,7 +939,8 @@ public class SchemaKStream<K> {
       final List<ExpressionMetadata> groupBy = CodeGenRunner.compileExpressions(
           expressions.stream(), "Group By", schema, ksqlConfig, functionRegistry);
 
-      this.mapper = new GroupByMapper<>(groupBy);
+      this.mapper = new GroupByMapper<>(
+          groupBy, ksqlConfig.getBoolean(KsqlConfig.KSQL_GROUP_BY_KEY_LEGACY_CONFIG));
       this.aggregateKeyName = GroupByMapper.keyNameFor(expressions);
     }
   }
@@ -669,25 +957,30 @@ public class SchemaKStream<K> {
 
     @Override
     public GenericRow apply(final GenericRow left, final GenericRow right) {
-      final List<Object> columns = new ArrayList<>();
-      if (left != null) {
-        columns.addAll(left.getColumns());
-      } else {
-        fillWithNulls(columns, leftSchema.fields().size());
-      }
-
-      if (right != null) {
-        columns.addAll(right.getColumns());
-      } else {
-        fillWithNulls(columns, rightSchema.fields().size());
-      }
-
-      return new GenericRow(columns);
+      final int leftCount = left != null
+          ? left.getColumns().size()
+          : leftSchema.fields().size();
+      final int rightCount = right != null
+          ? right.getColumns().size()
+          : rightSchema.fields().size();
+
+      // Copying column by column keeps unboxed values unboxed. Missing sides are left null:
+      final GenericRow joined = GenericRow.withColumnCount(leftCount + rightCount);
+      copyColumns(left, joined, 0);
+      copyColumns(right, joined, leftCount);
+      return joined;
     }
 
-    private static void fillWithNulls(final List<Object> columns, final int numToFill) {
-      for (int i = 0; i < numToFill; ++i) {
-        columns.add(null);
+    private static void copyColumns(
+        final GenericRow source,
+        final GenericRow target,
+        final int offset
+    ) {
+      if (source == null) {
+        return;
+      }
+      for (int i = 0; i < source.getColumns().size(); i++) {
+        target.copyColumn(offset + i, source, i);
       }
     }
   }
@@ -26,6 +26,7 @@ import io.confluent.ksql.streams.StreamsUtil;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.QueryLoggerUtil;
 import io.confluent.ksql.util.SelectExpression;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -36,14 +37,20 @@ import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.StreamsBuilder;
 import org.apache.kafka.streams.kstream.KGroupedTable;
 import org.apache.kafka.streams.kstream.KStream;
 import org.apache.kafka.streams.kstream.KTable;
 import org.apache.kafka.streams.kstream.Produced;
+import org.apache.kafka.streams.state.Stores;
 
 // CHECKSTYLE_RULES.OFF: ClassDataAbstractionCoupling
 public class SchemaKTable<K> extends SchemaKStream<K> {
   // CHECKSTYLE_RULES.ON: ClassDataAbstractionCoupling
+
+  private static final String RATE_LIMIT_OP_NAME = "rate-limit";
+  private static final String DEDUP_OP_NAME = "dedup";
+
   private final KTable<K, GenericRow> ktable;
 
   public SchemaKTable(
@@ -106,7 +113,128 @@ public class SchemaKTable<K> extends SchemaKStream<K> {
       final Set<Integer> rowkeyIndexes
   ) {
 
-    ktable.toStream()
+    withoutRowKeyColumns(rowkeyIndexes)
+        .to(kafkaTopicName, Produced.with(keySerdeFactory.create(), topicValueSerDe));
+
+    return this;
+  }
+
+  /**
+   * Writes the table's changelog to the topic like {@link #into(String, Serde, Set)}, but, if
+   * {@link KsqlConfig#KSQL_TABLE_DEDUP_ENABLED_CONFIG} is set, drops any update that would write
+   * the same row as the last one written for its key.
+   *
+   * <p>Windowed tables are not deduplicated, as the last row written for each window would be
+   * kept forever.
+   *
+   * @param builder the builder to add the state store the deduplication needs to.
+   * @param kafkaTopicName the topic to write to.
+   * @param topicValueSerDe the serde for the rows written.
+   * @param internalValueSerDe the serde for the rows kept by the deduplication.
+   * @param rowkeyIndexes the indexes of the implicit columns to remove from the rows.
+   * @param contextStacker the context of the sink.
+   * @return this table.
+   */
+  public SchemaKTable<K> into(
+      final StreamsBuilder builder,
+      final String kafkaTopicName,
+      final Serde<GenericRow> topicValueSerDe,
+      final Serde<GenericRow> internalValueSerDe,
+      final Set<Integer> rowkeyIndexes,
+      final QueryContext.Stacker contextStacker
+  ) {
+    to(withoutRowKeyColumns(rowkeyIndexes),
+        builder, kafkaTopicName, topicValueSerDe, internalValueSerDe, contextStacker);
+
+    return this;
+  }
+
+  /**
+   * Writes the table's changelog to the topic like {@link #into(StreamsBuilder, String, Serde,
+   * Set, QueryContext.Stacker)}, but coalesces the updates to each key so that at most one is
+   * written per key each emit interval.
+   *
+   * <p>Updates are buffered per key until the end of the interval, or until the buffer holds more
+   * than {@link KsqlConfig#KSQL_EMIT_RATE_LIMIT_MAX_KEYS_CONFIG} keys, when the key buffered
+   * longest is written early. The buffer is changelogged, so it is independent of the query's
+   * commit interval.
+   *
+   * @param builder the builder to add the state stores the buffer and deduplication need to.
+   * @param emitInterval how often to write the buffered updates.
+   * @param kafkaTopicName the topic to write to.
+   * @param topicValueSerDe the serde for the rows written.
+   * @param internalValueSerDe the serde for the rows kept by the deduplication.
+   * @param rowkeyIndexes the indexes of the implicit columns to remove from the rows.
+   * @param contextStacker the context of the sink.
+   * @return this table.
+   */
+  public SchemaKTable<K> intoEvery(
+      final StreamsBuilder builder,
+      final Duration emitInterval,
+      final String kafkaTopicName,
+      final Serde<GenericRow> topicValueSerDe,
+      final Serde<GenericRow> internalValueSerDe,
+      final Set<Integer> rowkeyIndexes,
+      final QueryContext.Stacker contextStacker
+  ) {
+    final QueryContext rateLimitContext =
+        contextStacker.push(RATE_LIMIT_OP_NAME).getQueryContext();
+    final String storeName = StreamsUtil.buildOpName(rateLimitContext);
+    builder.addStateStore(EmitRateLimitTransformer.storeBuilder(
+        storeName, keySerdeFactory.create(), internalValueSerDe));
+
+    final int maxKeys = ksqlConfig.getInt(KsqlConfig.KSQL_EMIT_RATE_LIMIT_MAX_KEYS_CONFIG);
+    final EmitRateLimitMetrics metrics = EmitRateLimitMetrics.create(
+        rateLimitContext.getQueryId().getId(),
+        storeName);
+
+    final KStream<K, GenericRow> rateLimited = withoutRowKeyColumns(rowkeyIndexes)
+        .transform(
+            () -> new EmitRateLimitTransformer<K>(storeName, emitInterval, maxKeys, metrics),
+            storeName);
+    to(rateLimited, builder, kafkaTopicName, topicValueSerDe, internalValueSerDe,
+        contextStacker);
+
+    return this;
+  }
+
+  private void to(
+      final KStream<K, GenericRow> stream,
+      final StreamsBuilder builder,
+      final String kafkaTopicName,
+      final Serde<GenericRow> topicValueSerDe,
+      final Serde<GenericRow> internalValueSerDe,
+      final QueryContext.Stacker contextStacker
+  ) {
+    final Serde<K> keySerde = keySerdeFactory.create();
+    final KStream<K, GenericRow> output =
+        ksqlConfig.getBoolean(KsqlConfig.KSQL_TABLE_DEDUP_ENABLED_CONFIG) && !hasWindowedKey()
+            ? dedup(stream, builder, keySerde, internalValueSerDe, contextStacker)
+            : stream;
+    output.to(kafkaTopicName, Produced.with(keySerde, topicValueSerDe));
+  }
+
+  private KStream<K, GenericRow> dedup(
+      final KStream<K, GenericRow> stream,
+      final StreamsBuilder builder,
+      final Serde<K> keySerde,
+      final Serde<GenericRow> valueSerde,
+      final QueryContext.Stacker contextStacker
+  ) {
+    final QueryContext dedupContext = contextStacker.push(DEDUP_OP_NAME).getQueryContext();
+    final String storeName = StreamsUtil.buildOpName(dedupContext);
+    builder.addStateStore(Stores.keyValueStoreBuilder(
+        Stores.persistentKeyValueStore(storeName), keySerde, valueSerde));
+
+    final TableDedupMetrics metrics = TableDedupMetrics.create(
+        dedupContext.getQueryId().getId(),
+        storeName);
+
+    return stream.transform(() -> new TableDedupTransformer<K>(storeName, metrics), storeName);
+  }
+
+  private KStream<K, GenericRow> withoutRowKeyColumns(final Set<Integer> rowkeyIndexes) {
+    return ktable.toStream()
         .mapValues(row -> {
               if (row == null) {
                 return null;
@@ -119,9 +247,7 @@ public class SchemaKTable<K> extends SchemaKStream<K> {
               }
               return new GenericRow(columns);
             }
-        ).to(kafkaTopicName, Produced.with(keySerdeFactory.create(), topicValueSerDe));
-
-    return this;
+        );
   }
 
   @SuppressWarnings("unchecked")
@@ -130,8 +256,9 @@ public class SchemaKTable<K> extends SchemaKStream<K> {
       final Expression filterExpression,
       final QueryContext.Stacker contextStacker,
       final ProcessingLogContext processingLogContext) {
+    final List<String> rewrites = new ArrayList<>();
     final SqlPredicate predicate = new SqlPredicate(
-        filterExpression,
+        optimize(filterExpression, rewrites),
         schema,
         hasWindowedKey(),
         ksqlConfig,
@@ -141,7 +268,7 @@ public class SchemaKTable<K> extends SchemaKStream<K> {
                 contextStacker.push(Type.FILTER.name()).getQueryContext()))
     );
     final KTable filteredKTable = ktable.filter(predicate.getPredicate());
-    return new SchemaKTable<>(
+    final SchemaKTable<K> filtered = new SchemaKTable<>(
         schema,
         filteredKTable,
         keyField,
@@ -152,6 +279,19 @@ public class SchemaKTable<K> extends SchemaKStream<K> {
         functionRegistry,
         contextStacker.getQueryContext()
     );
+    filtered.setRewrittenExpressions(rewrites);
+    return filtered;
+  }
+
+  @Override
+  public SchemaKTable<K> filterAndSelect(
+      final Expression filterExpression,
+      final QueryContext.Stacker filterContextStacker,
+      final List<SelectExpression> selectExpressions,
+      final QueryContext.Stacker selectContextStacker,
+      final ProcessingLogContext processingLogContext) {
+    return filter(filterExpression, filterContextStacker, processingLogContext)
+        .select(selectExpressions, selectContextStacker, processingLogContext);
   }
 
   @Override
@@ -159,13 +299,14 @@ public class SchemaKTable<K> extends SchemaKStream<K> {
       final List<SelectExpression> selectExpressions,
       final QueryContext.Stacker contextStacker,
       final ProcessingLogContext processingLogContext) {
+    final List<String> rewrites = new ArrayList<>();
     final Selection selection = new Selection(
-        selectExpressions,
+        optimize(selectExpressions, rewrites),
         processingLogContext.getLoggerFactory().getLogger(
             QueryLoggerUtil.queryLoggerName(
                 contextStacker.push(Type.PROJECT.name()).getQueryContext()))
     );
-    return new SchemaKTable<>(
+    final SchemaKTable<K> projected = new SchemaKTable<>(
         selection.getProjectedSchema(),
         ktable.mapValues(selection.getSelectValueMapper()),
         selection.getKey(),
@@ -176,6 +317,8 @@ public class SchemaKTable<K> extends SchemaKStream<K> {
         functionRegistry,
         contextStacker.getQueryContext()
     );
+    projected.setRewrittenExpressions(rewrites);
+    return projected;
   }
 
   @SuppressWarnings("unchecked") // needs investigating
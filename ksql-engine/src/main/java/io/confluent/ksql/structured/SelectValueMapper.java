@@ -16,26 +16,40 @@
 package io.confluent.ksql.structured;
 
 import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.codegen.RowProjector;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
 import io.confluent.ksql.util.EngineProcessingLogMessageFactory;
 import io.confluent.ksql.util.ExpressionMetadata;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import org.apache.kafka.streams.kstream.ValueMapper;
 
+@SuppressWarnings("OptionalUsedAsFieldOrParameterType")
 class SelectValueMapper implements ValueMapper<GenericRow, GenericRow> {
   private final List<String> selectFieldNames;
   private final List<ExpressionMetadata> expressionEvaluators;
+  private final Optional<RowProjector> rowProjector;
   private final ProcessingLogger processingLogger;
 
   SelectValueMapper(
       final List<String> selectFieldNames,
       final List<ExpressionMetadata> expressionEvaluators,
       final ProcessingLogger processingLogger
+  ) {
+    this(selectFieldNames, expressionEvaluators, Optional.empty(), processingLogger);
+  }
+
+  SelectValueMapper(
+      final List<String> selectFieldNames,
+      final List<ExpressionMetadata> expressionEvaluators,
+      final Optional<RowProjector> rowProjector,
+      final ProcessingLogger processingLogger
   ) {
     this.selectFieldNames = Objects.requireNonNull(selectFieldNames);
     this.expressionEvaluators = Objects.requireNonNull(expressionEvaluators);
+    this.rowProjector = Objects.requireNonNull(rowProjector);
     this.processingLogger = Objects.requireNonNull(processingLogger);
 
     if (selectFieldNames.size() != expressionEvaluators.size()) {
@@ -49,6 +63,13 @@ class SelectValueMapper implements ValueMapper<GenericRow, GenericRow> {
       return null;
     }
 
+    if (rowProjector.isPresent()) {
+      final Optional<GenericRow> projected = tryProject(rowProjector.get(), row);
+      if (projected.isPresent()) {
+        return projected.get();
+      }
+    }
+
     final List<Object> newColumns = new ArrayList<>();
     for (int i = 0; i < selectFieldNames.size(); i++) {
       newColumns.add(processColumn(i, row));
@@ -56,6 +77,17 @@ class SelectValueMapper implements ValueMapper<GenericRow, GenericRow> {
     return new GenericRow(newColumns);
   }
 
+  private Optional<GenericRow> tryProject(final RowProjector projector, final GenericRow row) {
+    final List<Object> newColumns = new ArrayList<>(selectFieldNames.size());
+    try {
+      projector.project(row.getColumns(), newColumns);
+      return Optional.of(new GenericRow(newColumns));
+    } catch (final Exception e) {
+      // Evaluating column by column logs the failing expressions and nulls only their columns:
+      return Optional.empty();
+    }
+  }
+
   private Object processColumn(final int column, final GenericRow row) {
     try {
       return expressionEvaluators
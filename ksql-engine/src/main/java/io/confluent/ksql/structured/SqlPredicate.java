@@ -15,37 +15,37 @@
 
 package io.confluent.ksql.structured;
 
+import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.codegen.CodeGenRunner;
-import io.confluent.ksql.codegen.SqlToJavaVisitor;
+import io.confluent.ksql.codegen.RowProjector;
 import io.confluent.ksql.function.FunctionRegistry;
-import io.confluent.ksql.function.udf.Kudf;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
 import io.confluent.ksql.parser.tree.Expression;
 import io.confluent.ksql.util.EngineProcessingLogMessageFactory;
 import io.confluent.ksql.util.ExpressionMetadata;
-import io.confluent.ksql.util.GenericRowValueTypeEnforcer;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
-import io.confluent.ksql.util.SchemaUtil;
-import java.util.List;
+import java.util.Collections;
 import java.util.Objects;
-import java.util.Set;
+import java.util.Optional;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.streams.kstream.Predicate;
 import org.apache.kafka.streams.kstream.Windowed;
-import org.codehaus.commons.compiler.CompilerFactoryFactory;
-import org.codehaus.commons.compiler.IExpressionEvaluator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+@SuppressWarnings("OptionalUsedAsFieldOrParameterType")
 public class SqlPredicate {
+
+  private static final Logger LOG = LoggerFactory.getLogger(SqlPredicate.class);
+
   private final Expression filterExpression;
   private final Schema schema;
-  private final IExpressionEvaluator ee;
+  private final ExpressionMetadata expressionMetadata;
+  private final Optional<RowProjector> filterProjector;
   private final int[] columnIndexes;
   private final boolean isWindowedKey;
-  private final KsqlConfig ksqlConfig;
-  private final FunctionRegistry functionRegistry;
-  private final GenericRowValueTypeEnforcer genericRowValueTypeEnforcer;
   private final ProcessingLogger processingLogger;
 
   SqlPredicate(
@@ -58,40 +58,16 @@ public class SqlPredicate {
   ) {
     this.filterExpression = filterExpression;
     this.schema = schema;
-    this.genericRowValueTypeEnforcer = new GenericRowValueTypeEnforcer(schema);
     this.isWindowedKey = isWindowedKey;
-    this.functionRegistry = functionRegistry;
-    this.ksqlConfig = Objects.requireNonNull(ksqlConfig, "ksqlConfig");
     this.processingLogger = Objects.requireNonNull(processingLogger);
 
-    final CodeGenRunner codeGenRunner = new CodeGenRunner(schema, ksqlConfig, functionRegistry);
-    final Set<CodeGenRunner.ParameterType> parameters
-        = codeGenRunner.getParameterInfo(filterExpression);
-
-    final String[] parameterNames = new String[parameters.size()];
-    final Class[] parameterTypes = new Class[parameters.size()];
-    columnIndexes = new int[parameters.size()];
-    int index = 0;
-    for (final CodeGenRunner.ParameterType param : parameters) {
-      parameterNames[index] = param.getName();
-      parameterTypes[index] = param.getType();
-      columnIndexes[index] = SchemaUtil.getFieldIndexByName(schema, param.getName());
-      index++;
-    }
+    final CodeGenRunner codeGenRunner = new CodeGenRunner(
+        schema,
+        Objects.requireNonNull(ksqlConfig, "ksqlConfig"),
+        functionRegistry);
 
     try {
-      ee = CompilerFactoryFactory.getDefaultCompilerFactory().newExpressionEvaluator();
-      ee.setDefaultImports(SqlToJavaVisitor.JAVA_IMPORTS.toArray(new String[0]));
-      ee.setParameters(parameterNames, parameterTypes);
-
-      ee.setExpressionType(boolean.class);
-
-      final String expressionStr = new SqlToJavaVisitor(
-          schema,
-          functionRegistry
-      ).process(filterExpression);
-
-      ee.cook(expressionStr);
+      expressionMetadata = codeGenRunner.buildCodeGenFromParseTree(filterExpression, "filter");
     } catch (final Exception e) {
       throw new KsqlException(
           "Failed to generate code for SqlPredicate."
@@ -104,6 +80,40 @@ public class SqlPredicate {
           e
       );
     }
+
+    if (expressionMetadata.getExpressionType().type() != Schema.Type.BOOLEAN) {
+      throw new KsqlException(
+          "Failed to generate code for SqlPredicate."
+          + "filterExpression: "
+          + filterExpression
+          + " is not a boolean expression. type: "
+          + expressionMetadata.getExpressionType().type());
+    }
+
+    columnIndexes = expressionMetadata.getIndexes().stream()
+        .mapToInt(Integer::intValue)
+        .toArray();
+
+    filterProjector =
+        ksqlConfig.getBoolean(KsqlConfig.KSQL_CODEGEN_EXPRESSION_OPTIMIZATION_CONFIG)
+            && codeGenRunner.hasCommonSubexpressions(ImmutableList.of(filterExpression))
+            ? buildFilterProjector(codeGenRunner)
+            : Optional.empty();
+  }
+
+  /**
+   * The single expression evaluator can not hold locals, so a filter that repeats a
+   * subexpression is compiled as a projector with no output, which evaluates it once.
+   */
+  private Optional<RowProjector> buildFilterProjector(final CodeGenRunner codeGenRunner) {
+    try {
+      return Optional.of(codeGenRunner.buildRowProjector(
+          Optional.of(filterExpression), Collections.emptyList()));
+    } catch (final Exception e) {
+      LOG.warn("Failed to compile filter with shared subexpressions, falling back to the "
+          + "expression evaluator. filter: {}", filterExpression, e);
+      return Optional.empty();
+    }
   }
 
   Predicate getPredicate() {
@@ -115,63 +125,44 @@ public class SqlPredicate {
   }
 
   private Predicate<String, GenericRow> getStringKeyPredicate() {
-    final ExpressionMetadata expressionEvaluator = createExpressionMetadata();
-
-    return (key, row) -> {
-      if (row == null) {
-        return false;
-      }
-      try {
-        final List<Kudf> kudfs = expressionEvaluator.getUdfs();
-        final Object[] values = new Object[columnIndexes.length];
-        for (int i = 0; i < values.length; i++) {
-          if (columnIndexes[i] < 0) {
-            values[i] = kudfs.get(i);
-          } else {
-            values[i] = genericRowValueTypeEnforcer.enforceFieldType(columnIndexes[i], row
-                .getColumns().get(columnIndexes[i]));
-          }
-        }
-        return (Boolean) ee.evaluate(values);
-      } catch (final Exception e) {
-        logProcessingError(e, row);
-      }
-      return false;
-    };
+    return (key, row) -> test(row);
   }
 
-  private ExpressionMetadata createExpressionMetadata() {
-    final CodeGenRunner codeGenRunner = new CodeGenRunner(schema, ksqlConfig, functionRegistry);
-    return codeGenRunner.buildCodeGenFromParseTree(filterExpression, "filter");
+  private Predicate getWindowedKeyPredicate() {
+    return (Predicate<Windowed<String>, GenericRow>) (key, row) -> test(row);
   }
 
-  private Predicate getWindowedKeyPredicate() {
-    final ExpressionMetadata expressionEvaluator = createExpressionMetadata();
-    return (Predicate<Windowed<String>, GenericRow>) (key, row) -> {
-      if (row == null) {
-        return false;
-      }
-      try {
-        final List<Kudf> kudfs = expressionEvaluator.getUdfs();
-        final Object[] values = new Object[columnIndexes.length];
-        for (int i = 0; i < values.length; i++) {
-          if (columnIndexes[i] < 0) {
-            values[i] = kudfs.get(i);
-          } else {
-            values[i] = genericRowValueTypeEnforcer
-                .enforceFieldType(
-                    columnIndexes[i],
-                    row.getColumns().get(columnIndexes[i]
-                    )
-                );
-          }
-        }
-        return (Boolean) ee.evaluate(values);
-      } catch (final Exception e) {
-        logProcessingError(e, row);
-      }
+  private boolean test(final GenericRow row) {
+    if (row == null) {
       return false;
-    };
+    }
+    if (filterProjector.isPresent()) {
+      final Optional<Boolean> result = tryProject(filterProjector.get(), row);
+      if (result.isPresent()) {
+        return result.get();
+      }
+    }
+    try {
+      return (Boolean) expressionMetadata.evaluate(row);
+    } catch (final Exception e) {
+      logProcessingError(e, row);
+    }
+    return false;
+  }
+
+  /**
+   * @return the result of the filter, or empty if the projector failed, in which case the row
+   *     is evaluated again by the expression evaluator so that the error is logged as usual.
+   */
+  private static Optional<Boolean> tryProject(
+      final RowProjector projector,
+      final GenericRow row
+  ) {
+    try {
+      return Optional.of(projector.project(row.getColumns(), Collections.emptyList()));
+    } catch (final Exception e) {
+      return Optional.empty();
+    }
   }
 
   private void logProcessingError(final Exception e, final GenericRow row) {
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.structured;
+
+import io.confluent.ksql.internal.QueryOperationMetrics;
+import java.util.Objects;
+import java.util.function.DoubleSupplier;
+import org.apache.kafka.common.metrics.Sensor;
+
+/**
+ * Counts the windows an {@code EMIT FINAL} aggregation opens, merges away and emits the final
+ * result of, and reports the windows opened but neither merged nor emitted since the query
+ * started as the windows buffered until they close.
+ *
+ * <p>The buffered windows include those that are still cached by the aggregation, so are an upper
+ * bound of those in the suppression buffer. The sensors are shared by all the tasks of a query.
+ */
+final class SuppressionMetrics {
+
+  private static final String METRIC_GROUP = "ksql-suppression";
+  private static final String OPENED_METRIC_NAME = "suppression-windows-opened";
+  private static final String MERGED_METRIC_NAME = "suppression-windows-merged";
+  private static final String EMITTED_METRIC_NAME = "suppression-windows-emitted";
+  private static final String BUFFERED_METRIC_NAME = "suppression-buffered-windows";
+
+  private final Sensor openedSensor;
+  private final Sensor mergedSensor;
+  private final Sensor emittedSensor;
+
+  SuppressionMetrics(
+      final Sensor openedSensor,
+      final Sensor mergedSensor,
+      final Sensor emittedSensor
+  ) {
+    this.openedSensor = Objects.requireNonNull(openedSensor, "openedSensor");
+    this.mergedSensor = Objects.requireNonNull(mergedSensor, "mergedSensor");
+    this.emittedSensor = Objects.requireNonNull(emittedSensor, "emittedSensor");
+  }
+
+  static SuppressionMetrics create(final String queryId, final String opName) {
+    final QueryOperationMetrics metrics =
+        QueryOperationMetrics.create(METRIC_GROUP, queryId, opName);
+
+    final DoubleSupplier openedTotal = metrics.total(OPENED_METRIC_NAME);
+    final DoubleSupplier mergedTotal = metrics.total(MERGED_METRIC_NAME);
+    final DoubleSupplier emittedTotal = metrics.total(EMITTED_METRIC_NAME);
+    metrics.gauge(BUFFERED_METRIC_NAME, "The number of windows buffered until they close",
+        () -> Math.max(0,
+            openedTotal.getAsDouble() - mergedTotal.getAsDouble() - emittedTotal.getAsDouble()));
+
+    return new SuppressionMetrics(
+        metrics.sensor(OPENED_METRIC_NAME, "windows opened"),
+        metrics.sensor(MERGED_METRIC_NAME, "session windows merged into another"),
+        metrics.sensor(EMITTED_METRIC_NAME, "final results of closed windows emitted"));
+  }
+
+  void recordOpened() {
+    openedSensor.record();
+  }
+
+  void recordMerged() {
+    mergedSensor.record();
+  }
+
+  void recordEmitted() {
+    emittedSensor.record();
+  }
+}
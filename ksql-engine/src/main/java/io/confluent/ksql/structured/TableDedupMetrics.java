@@ -0,0 +1,70 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.structured;
+
+import io.confluent.ksql.internal.QueryOperationMetrics;
+import java.util.Objects;
+import java.util.function.DoubleSupplier;
+import org.apache.kafka.common.metrics.Sensor;
+
+/**
+ * Counts the table updates a {@link TableDedupTransformer} compares and those it suppresses
+ * because they would not change the row, and reports the fraction of updates suppressed as the
+ * suppression ratio.
+ *
+ * <p>The sensors are shared by all the tasks of a query.
+ */
+final class TableDedupMetrics {
+
+  private static final String METRIC_GROUP = "ksql-table-dedup";
+  private static final String INPUT_METRIC_NAME = "dedup-updates-in";
+  private static final String SUPPRESSED_METRIC_NAME = "dedup-updates-suppressed";
+  private static final String SUPPRESSION_RATIO_METRIC_NAME = "dedup-suppression-ratio";
+
+  private final Sensor inputSensor;
+  private final Sensor suppressedSensor;
+
+  TableDedupMetrics(final Sensor inputSensor, final Sensor suppressedSensor) {
+    this.inputSensor = Objects.requireNonNull(inputSensor, "inputSensor");
+    this.suppressedSensor = Objects.requireNonNull(suppressedSensor, "suppressedSensor");
+  }
+
+  static TableDedupMetrics create(final String queryId, final String opName) {
+    final QueryOperationMetrics metrics =
+        QueryOperationMetrics.create(METRIC_GROUP, queryId, opName);
+
+    final DoubleSupplier inputTotal = metrics.total(INPUT_METRIC_NAME);
+    final DoubleSupplier suppressedTotal = metrics.total(SUPPRESSED_METRIC_NAME);
+    metrics.gauge(SUPPRESSION_RATIO_METRIC_NAME,
+        "The fraction of table updates suppressed as unchanged",
+        () -> {
+          final double input = inputTotal.getAsDouble();
+          return input == 0 ? 0 : suppressedTotal.getAsDouble() / input;
+        });
+
+    return new TableDedupMetrics(
+        metrics.sensor(INPUT_METRIC_NAME, "table updates compared with the last row written"),
+        metrics.sensor(SUPPRESSED_METRIC_NAME, "table updates suppressed as unchanged"));
+  }
+
+  void recordInput() {
+    inputSensor.record();
+  }
+
+  void recordSuppressed() {
+    suppressedSensor.record();
+  }
+}
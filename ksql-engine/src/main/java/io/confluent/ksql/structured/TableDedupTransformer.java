@@ -0,0 +1,89 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.structured;
+
+import io.confluent.ksql.GenericRow;
+import java.util.List;
+import java.util.Objects;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.kstream.Transformer;
+import org.apache.kafka.streams.processor.ProcessorContext;
+import org.apache.kafka.streams.state.KeyValueStore;
+
+/**
+ * Drops the updates to a table's changelog that would not change the row last forwarded for their
+ * key, such as an aggregate whose new value equals its old one, or the delete of a key that was
+ * never written. The last row forwarded for each key is kept in a key-value store.
+ *
+ * <p>Rows are compared column by column, rather than with {@link GenericRow#equals}, which
+ * compares the rows' string representations.
+ */
+class TableDedupTransformer<K> implements Transformer<K, GenericRow, KeyValue<K, GenericRow>> {
+
+  private final String storeName;
+  private final TableDedupMetrics metrics;
+  private KeyValueStore<K, GenericRow> store;
+
+  TableDedupTransformer(final String storeName, final TableDedupMetrics metrics) {
+    this.storeName = Objects.requireNonNull(storeName, "storeName");
+    this.metrics = Objects.requireNonNull(metrics, "metrics");
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public void init(final ProcessorContext context) {
+    this.store = (KeyValueStore<K, GenericRow>) context.getStateStore(storeName);
+  }
+
+  @Override
+  public KeyValue<K, GenericRow> transform(final K key, final GenericRow row) {
+    metrics.recordInput();
+
+    if (isSameRow(store.get(key), row)) {
+      metrics.recordSuppressed();
+      return null;
+    }
+
+    if (row == null) {
+      store.delete(key);
+    } else {
+      store.put(key, row);
+    }
+    return KeyValue.pair(key, row);
+  }
+
+  @Override
+  public void close() {
+  }
+
+  static boolean isSameRow(final GenericRow previous, final GenericRow row) {
+    if (previous == null || row == null) {
+      return previous == row;
+    }
+
+    final List<Object> previousColumns = previous.getColumns();
+    final List<Object> columns = row.getColumns();
+    if (previousColumns.size() != columns.size()) {
+      return false;
+    }
+    for (int i = 0; i < columns.size(); i++) {
+      if (!Objects.deepEquals(previousColumns.get(i), columns.get(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
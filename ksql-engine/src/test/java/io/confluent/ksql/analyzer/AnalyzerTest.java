@@ -32,8 +32,11 @@ import io.confluent.ksql.parser.KsqlParserTestUtil;
 import io.confluent.ksql.parser.SqlFormatter;
 import io.confluent.ksql.parser.tree.CreateStreamAsSelect;
 import io.confluent.ksql.parser.tree.Query;
+import io.confluent.ksql.parser.tree.ResultMaterialization;
 import io.confluent.ksql.parser.tree.Statement;
+import io.confluent.ksql.serde.KsqlTopicSerDe;
 import io.confluent.ksql.serde.avro.KsqlAvroTopicSerDe;
+import io.confluent.ksql.serde.delimited.KsqlDelimitedTopicSerDe;
 import io.confluent.ksql.serde.json.KsqlJsonTopicSerDe;
 import io.confluent.ksql.util.KsqlConstants;
 import io.confluent.ksql.util.KsqlException;
@@ -41,6 +44,7 @@ import io.confluent.ksql.util.MetaStoreFixture;
 import io.confluent.ksql.util.timestamp.MetadataTimestampExtractionPolicy;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.stream.Collectors;
 import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.connect.data.Schema;
@@ -378,6 +382,85 @@ public class AnalyzerTest {
     analyzer.analyze(query, Optional.of(createStreamAsSelect.getSink()));
   }
 
+  @Test
+  public void shouldUseDelimiterOfSourceWhenFormatIsInheritedForDelimited() {
+    // Given:
+    final MutableMetaStore delimitedMetaStore = MetaStoreFixture.getNewMetaStore(
+        new InternalFunctionRegistry(), () -> new KsqlDelimitedTopicSerDe('|'));
+
+    // When:
+    final Analysis analysis =
+        analyzeQuery("CREATE STREAM S1 AS SELECT * FROM test1;", delimitedMetaStore);
+
+    // Then:
+    final KsqlTopicSerDe serde = analysis.getInto().get().getKsqlTopic().getKsqlTopicSerDe();
+    assertThat(serde, is(new KsqlDelimitedTopicSerDe('|')));
+  }
+
+  @Test
+  public void shouldUseDelimiterOfSourceWhenFormatIsSetToDelimited() {
+    // Given:
+    final MutableMetaStore delimitedMetaStore = MetaStoreFixture.getNewMetaStore(
+        new InternalFunctionRegistry(), () -> new KsqlDelimitedTopicSerDe('|'));
+
+    // When:
+    final Analysis analysis = analyzeQuery(
+        "CREATE STREAM S1 WITH (VALUE_FORMAT='DELIMITED') AS SELECT * FROM test1;",
+        delimitedMetaStore);
+
+    // Then:
+    final KsqlTopicSerDe serde = analysis.getInto().get().getKsqlTopic().getKsqlTopicSerDe();
+    assertThat(serde, is(new KsqlDelimitedTopicSerDe('|')));
+  }
+
+  @Test
+  public void shouldAnalyzeEmitFinal() {
+    // Given:
+    final String queryStr =
+        "SELECT col0 FROM test1 WINDOW TUMBLING (SIZE 10 SECONDS) GROUP BY col0 EMIT FINAL;";
+
+    // When:
+    final Analysis analysis = analyzeQuery(queryStr, jsonMetaStore);
+
+    // Then:
+    assertThat(analysis.getResultMaterialization(), is(ResultMaterialization.FINAL));
+  }
+
+  @Test
+  public void shouldFailOnEmitFinalIfNotWindowed() {
+    // Expect:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage("EMIT FINAL is only supported for windowed aggregations.");
+
+    // When:
+    analyzeQuery("SELECT col0 FROM test1 GROUP BY col0 EMIT FINAL;", jsonMetaStore);
+  }
+
+  @Test
+  public void shouldAnalyzeEmitChangesEvery() {
+    // Given:
+    final String queryStr = "CREATE TABLE FOO AS SELECT col0 FROM test1 GROUP BY col0 "
+        + "EMIT CHANGES EVERY 10 SECONDS;";
+
+    // When:
+    final Analysis analysis = analyzeQuery(queryStr, jsonMetaStore);
+
+    // Then:
+    assertThat(analysis.getEmitIntervalMs(), is(OptionalLong.of(10_000)));
+  }
+
+  @Test
+  public void shouldFailOnEmitChangesEveryIfNotPersistent() {
+    // Expect:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage(
+        "EMIT CHANGES EVERY is only supported for persistent queries.");
+
+    // When:
+    analyzeQuery("SELECT col0 FROM test1 GROUP BY col0 EMIT CHANGES EVERY 10 SECONDS;",
+        jsonMetaStore);
+  }
+
   private static List<Statement> parse(final String simpleQuery, final MetaStore metaStore) {
     return KsqlParserTestUtil.buildAst(simpleQuery, metaStore)
         .stream()
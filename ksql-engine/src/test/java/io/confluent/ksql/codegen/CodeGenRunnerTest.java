@@ -36,6 +36,7 @@ import io.confluent.ksql.analyzer.Analysis;
 import io.confluent.ksql.function.InternalFunctionRegistry;
 import io.confluent.ksql.function.KsqlFunction;
 import io.confluent.ksql.function.MutableFunctionRegistry;
+import io.confluent.ksql.function.UdfInvoker;
 import io.confluent.ksql.function.UdfLoaderUtil;
 import io.confluent.ksql.function.udf.Kudf;
 import io.confluent.ksql.metastore.MutableMetaStore;
@@ -48,6 +49,7 @@ import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
 import io.confluent.ksql.util.MetaStoreFixture;
 import io.confluent.ksql.util.timestamp.MetadataTimestampExtractionPolicy;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -94,6 +96,7 @@ public class CodeGenRunnerTest {
 
     private MutableMetaStore metaStore;
     private CodeGenRunner codeGenRunner;
+    private Schema schema;
     private final MutableFunctionRegistry functionRegistry = new InternalFunctionRegistry();
     private final KsqlConfig ksqlConfig = new KsqlConfig(Collections.emptyMap());
 
@@ -124,7 +127,7 @@ public class CodeGenRunnerTest {
         final Schema arraySchema = SchemaBuilder.array(Schema.STRING_SCHEMA).optional().build();
 
 
-        final Schema schema = SchemaBuilder.struct()
+        schema = SchemaBuilder.struct()
             .field("CODEGEN_TEST.COL0", SchemaBuilder.OPTIONAL_INT64_SCHEMA)
             .field("CODEGEN_TEST.COL1", SchemaBuilder.OPTIONAL_STRING_SCHEMA)
             .field("CODEGEN_TEST.COL2", SchemaBuilder.OPTIONAL_STRING_SCHEMA)
@@ -798,6 +801,204 @@ public class CodeGenRunnerTest {
         assertThat(columns, equalTo(Collections.singletonList("doStuffLongLongString")));
     }
 
+    @Test
+    public void shouldWidenArgumentsOfDirectlyInvokedUdfs() throws Exception {
+        // Given:
+        givenDirectlyInvocableFunction(
+            "HALF", Schema.OPTIONAL_FLOAT64_SCHEMA, ImmutableList.of(Schema.OPTIONAL_INT32_SCHEMA),
+            (udf, args) -> ((DirectUdf) udf).half((Integer) args[0]),
+            DirectUdf.class.getMethod("half", double.class));
+        givenDirectlyInvocableFunction(
+            "TWICE", Schema.OPTIONAL_INT64_SCHEMA, ImmutableList.of(Schema.OPTIONAL_INT32_SCHEMA),
+            (udf, args) -> ((DirectUdf) udf).twice((Integer) args[0]),
+            DirectUdf.class.getMethod("twice", long.class));
+
+        // When:
+        final List<Object> columns = executeExpression(
+            "SELECT half(col5), twice(col5) FROM codegen_test;",
+            ImmutableMap.of(INT32_INDEX1, 3));
+
+        // Then:
+        assertThat(columns, contains(1.5, 6L));
+    }
+
+    @Test
+    public void shouldInvokeVarargsUdfThroughKudf() throws Exception {
+        // Given:
+        givenDirectlyInvocableFunction(
+            "JOIN_STRINGS", Schema.OPTIONAL_STRING_SCHEMA,
+            ImmutableList.of(Schema.OPTIONAL_STRING_SCHEMA, Schema.OPTIONAL_STRING_SCHEMA),
+            (udf, args) -> ((DirectUdf) udf).join((String) args[0], (String) args[1]),
+            DirectUdf.class.getMethod("join", String[].class));
+
+        // When:
+        final List<Object> columns = executeExpression(
+            "SELECT join_strings(col1, col2) FROM codegen_test;",
+            ImmutableMap.of(STRING_INDEX1, "a", STRING_INDEX2, "b"));
+
+        // Then:
+        assertThat(columns, contains("a-b"));
+    }
+
+    @Test
+    public void shouldProjectAllExpressionsInOneClass() {
+        // Given:
+        final List<Expression> expressions = analyzeQuery(
+            "SELECT col0, col3 * 2.0, EXTRACTJSONFIELD(col11['address'], '$.city'), "
+                + "SUBSTRING(col1, 1, 1), SUBSTRING(col2, 1, 1) FROM codegen_test;",
+            metaStore)
+            .getSelectExpressions();
+
+        final RowProjector projector = codeGenRunner.buildRowProjector(expressions);
+        final List<Object> output = new ArrayList<>();
+
+        // When:
+        projector.project(ONE_ROW, output);
+
+        // Then:
+        assertThat(output, contains(0L, 6.2, "adelaide", "S", "S"));
+    }
+
+    @Test
+    public void shouldThrowFromRowProjectorIfAnyExpressionFails() {
+        // Given:
+        final List<Expression> expressions = analyzeQuery(
+            "SELECT col1, col0 + 1 FROM codegen_test;", metaStore)
+            .getSelectExpressions();
+
+        final RowProjector projector = codeGenRunner.buildRowProjector(expressions);
+        final List<Object> columns = new ArrayList<>(ONE_ROW);
+        columns.set(INT64_INDEX1, null);
+
+        // Then:
+        expectedException.expect(NullPointerException.class);
+
+        // When:
+        projector.project(columns, new ArrayList<>());
+    }
+
+    @Test
+    public void shouldOnlyProjectRowsThatPassTheFilter() {
+        // Given:
+        final Analysis analysis = analyzeQuery(
+            "SELECT col1, col3 * 2.0 FROM codegen_test WHERE col0 > 100;", metaStore);
+
+        final RowProjector projector = codeGenRunner.buildRowProjector(
+            Optional.of(analysis.getWhereExpression()),
+            analysis.getSelectExpressions());
+
+        final List<Object> accepted = new ArrayList<>(ONE_ROW);
+        accepted.set(INT64_INDEX1, 101L);
+        final List<Object> acceptedOutput = new ArrayList<>();
+        final List<Object> rejectedOutput = new ArrayList<>();
+
+        // When:
+        final boolean wasAccepted = projector.project(accepted, acceptedOutput);
+        final boolean wasRejected = !projector.project(ONE_ROW, rejectedOutput);
+
+        // Then:
+        assertThat(wasAccepted, is(true));
+        assertThat(acceptedOutput, contains("S1", 6.2));
+        assertThat(wasRejected, is(true));
+        assertThat(rejectedOutput, hasSize(0));
+    }
+
+    @Test
+    public void shouldProjectExpressionsSharingSubexpressions() {
+        // Given:
+        final Analysis analysis = analyzeQuery(
+            "SELECT SUBSTRING(col1, 1, 1), UCASE(SUBSTRING(col1, 1, 1)), col0 + 1, "
+                + "LEN(SUBSTRING(col1, 1, 1)) + (col0 + 1) FROM codegen_test "
+                + "WHERE LEN(SUBSTRING(col1, 1, 1)) > 0;", metaStore);
+
+        final RowProjector projector = codeGenRunner.buildRowProjector(
+            Optional.of(analysis.getWhereExpression()),
+            analysis.getSelectExpressions());
+        final List<Object> output = new ArrayList<>();
+
+        // When:
+        final boolean accepted = projector.project(ONE_ROW, output);
+
+        // Then:
+        assertThat(accepted, is(true));
+        assertThat(output, contains("S", "S", 1L, 2L));
+    }
+
+    @Test
+    public void shouldFindCommonSubexpressions() {
+        // Given:
+        final List<Expression> expressions = analyzeQuery(
+            "SELECT LCASE(col1), LCASE(col1) FROM codegen_test;", metaStore)
+            .getSelectExpressions();
+
+        // Then:
+        assertThat(codeGenRunner.hasCommonSubexpressions(expressions), is(true));
+    }
+
+    @Test
+    public void shouldNotShareNonDeterministicSubexpressions() {
+        // Given:
+        final List<Expression> expressions = analyzeQuery(
+            "SELECT RANDOM() + 1, RANDOM() + 1 FROM codegen_test;", metaStore)
+            .getSelectExpressions();
+
+        // Then:
+        assertThat(codeGenRunner.hasCommonSubexpressions(expressions), is(false));
+    }
+
+    @Test
+    public void shouldNotEvaluateNullGuardedUdfForRowsTheGuardRejects() {
+        // Given:
+        final Analysis analysis = analyzeQuery(
+            "SELECT LEN(col1), LEN(col1) + 1 FROM codegen_test "
+                + "WHERE col1 IS NOT NULL AND LEN(col1) > 0;", metaStore);
+
+        final RowProjector projector = codeGenRunner.buildRowProjector(
+            Optional.of(analysis.getWhereExpression()),
+            analysis.getSelectExpressions());
+        final List<Object> row = new ArrayList<>(ONE_ROW);
+        row.set(1, null);
+
+        // When:
+        final boolean accepted = projector.project(row, new ArrayList<>());
+
+        // Then:
+        assertThat(accepted, is(false));
+    }
+
+    @Test
+    public void shouldNotShareSubexpressionsOnlyEvaluatedConditionally() {
+        // Given:
+        final List<Expression> expressions = analyzeQuery(
+            "SELECT col1 IS NOT NULL AND LEN(col1) > 0 AND LEN(col1) < 10 FROM codegen_test;",
+            metaStore)
+            .getSelectExpressions();
+
+        // Then:
+        assertThat(codeGenRunner.hasCommonSubexpressions(expressions), is(false));
+    }
+
+    @Test
+    public void shouldNotShareSubexpressionsIfOptimizationDisabled() {
+        // Given:
+        final KsqlConfig config = new KsqlConfig(ImmutableMap.of(
+            KsqlConfig.KSQL_CODEGEN_EXPRESSION_OPTIMIZATION_CONFIG, false));
+        final List<Expression> expressions = analyzeQuery(
+            "SELECT LCASE(col1), UCASE(LCASE(col1)) FROM codegen_test;", metaStore)
+            .getSelectExpressions();
+
+        final RowProjector projector =
+            new CodeGenRunner(schema, config, functionRegistry)
+                .buildRowProjector(expressions);
+        final List<Object> output = new ArrayList<>();
+
+        // When:
+        projector.project(ONE_ROW, output);
+
+        // Then:
+        assertThat(output, contains("s1", "S1"));
+    }
+
     private List<Object> executeExpression(final String query,
                                            final Map<Integer, Object> inputValues) {
         final Analysis analysis = analyzeQuery(query, metaStore);
@@ -900,6 +1101,19 @@ public class CodeGenRunnerTest {
         return (Boolean)result0;
     }
 
+    private void givenDirectlyInvocableFunction(
+        final String functionName,
+        final Schema returnType,
+        final List<Schema> arguments,
+        final UdfInvoker invoker,
+        final Method method
+    ) {
+        final KsqlFunction function = UdfLoaderUtil.createDirectlyInvocableFunction(
+            functionName, returnType, arguments, new DirectUdf(), invoker, method);
+        functionRegistry.ensureFunctionFactory(UdfLoaderUtil.createTestUdfFactory(function));
+        functionRegistry.addFunction(function);
+    }
+
     private GenericRow buildRow(final Map<Integer, Object> overrides) {
         final List<Object> columns = new ArrayList<>(ONE_ROW);
         overrides.forEach(columns::set);
@@ -914,6 +1128,21 @@ public class CodeGenRunnerTest {
         return new GenericRow(columns);
     }
 
+    public static final class DirectUdf {
+
+        public Double half(final double value) {
+            return value / 2;
+        }
+
+        public Long twice(final long value) {
+            return value * 2;
+        }
+
+        public String join(final String... values) {
+            return String.join("-", values);
+        }
+    }
+
     public static final class WhenCondition implements Kudf {
 
         @Override
@@ -0,0 +1,119 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.codegen;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.util.KsqlConfig;
+import java.util.Collections;
+import org.codehaus.commons.compiler.CompileException;
+import org.codehaus.commons.compiler.IExpressionEvaluator;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class CompiledExpressionCacheTest {
+
+  private static final String[] NAMES = new String[]{"COL0"};
+  private static final Class[] TYPES = new Class[]{Long.class};
+
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
+  private final CompiledExpressionCache cache = new CompiledExpressionCache(2);
+
+  @Test
+  public void shouldReuseEvaluatorForSameCode() throws Exception {
+    // When:
+    final IExpressionEvaluator first = cache.get("(COL0 + 1)", NAMES, TYPES, Long.class);
+    final IExpressionEvaluator second = cache.get("(COL0 + 1)", NAMES, TYPES, Long.class);
+
+    // Then:
+    assertThat(second, is(sameInstance(first)));
+    assertThat(second.evaluate(new Object[]{1L}), is(2L));
+    assertThat(cache.missCount(), is(1L));
+    assertThat(cache.hitCount(), is(1L));
+  }
+
+  @Test
+  public void shouldNotReuseEvaluatorForDifferentParameterTypes() throws Exception {
+    // When:
+    final IExpressionEvaluator first = cache.get("(COL0 + 1)", NAMES, TYPES, Long.class);
+    final IExpressionEvaluator second = cache.get(
+        "(COL0 + 1)", NAMES, new Class[]{Integer.class}, Integer.class);
+
+    // Then:
+    assertThat(second, is(not(sameInstance(first))));
+    assertThat(cache.missCount(), is(2L));
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsed() throws Exception {
+    // Given:
+    cache.get("(COL0 + 1)", NAMES, TYPES, Long.class);
+    cache.get("(COL0 + 2)", NAMES, TYPES, Long.class);
+
+    // When:
+    cache.get("(COL0 + 3)", NAMES, TYPES, Long.class);
+
+    // Then:
+    assertThat(cache.size(), is(2L));
+    assertThat(cache.evictionCount(), is(1L));
+  }
+
+  @Test
+  public void shouldBoundProcessWideCacheByConfig() throws Exception {
+    // Given:
+    CompiledExpressionCache.configure(new KsqlConfig(ImmutableMap.of(
+        KsqlConfig.KSQL_CODEGEN_CACHE_MAX_ENTRIES_CONFIG, 1)));
+    final CompiledExpressionCache configured = CompiledExpressionCache.instance();
+
+    // When:
+    configured.get("(COL0 + 1)", NAMES, TYPES, Long.class);
+    configured.get("(COL0 + 2)", NAMES, TYPES, Long.class);
+
+    // Then:
+    assertThat(configured.size(), is(1L));
+    CompiledExpressionCache.configure(new KsqlConfig(Collections.emptyMap()));
+  }
+
+  @Test
+  public void shouldKeepProcessWideCacheIfBoundUnchanged() {
+    // Given:
+    final KsqlConfig ksqlConfig = new KsqlConfig(Collections.emptyMap());
+    CompiledExpressionCache.configure(ksqlConfig);
+    final CompiledExpressionCache cache = CompiledExpressionCache.instance();
+
+    // When:
+    CompiledExpressionCache.configure(ksqlConfig);
+
+    // Then:
+    assertThat(CompiledExpressionCache.instance(), is(sameInstance(cache)));
+  }
+
+  @Test
+  public void shouldThrowCompileExceptionOnInvalidCode() throws Exception {
+    // Then:
+    expectedException.expect(CompileException.class);
+
+    // When:
+    cache.get("(COL0 +)", NAMES, TYPES, Long.class);
+  }
+}
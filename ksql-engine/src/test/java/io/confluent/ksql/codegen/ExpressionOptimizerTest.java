@@ -0,0 +1,136 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.codegen;
+
+import static io.confluent.ksql.testutils.AnalysisTestUtil.analyzeQuery;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+import io.confluent.ksql.function.FunctionRegistry;
+import io.confluent.ksql.function.TestFunctionRegistry;
+import io.confluent.ksql.metastore.MetaStore;
+import io.confluent.ksql.parser.tree.Expression;
+import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.MetaStoreFixture;
+import java.util.Collections;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ExpressionOptimizerTest {
+
+  private static final Schema SCHEMA = SchemaBuilder.struct()
+      .field("TEST1.COL0", SchemaBuilder.OPTIONAL_INT64_SCHEMA)
+      .field("TEST1.COL1", SchemaBuilder.OPTIONAL_STRING_SCHEMA)
+      .field("TEST1.COL2", SchemaBuilder.OPTIONAL_STRING_SCHEMA)
+      .field("TEST1.COL3", SchemaBuilder.OPTIONAL_FLOAT64_SCHEMA)
+      .build();
+
+  private final FunctionRegistry functionRegistry = TestFunctionRegistry.INSTANCE.get();
+  private MetaStore metaStore;
+  private ExpressionOptimizer optimizer;
+
+  @Before
+  public void init() {
+    metaStore = MetaStoreFixture.getNewMetaStore(functionRegistry);
+    optimizer = new ExpressionOptimizer(
+        SCHEMA, new KsqlConfig(Collections.emptyMap()), functionRegistry);
+  }
+
+  @Test
+  public void shouldFoldArithmeticOnLiterals() {
+    // Given:
+    final Expression expression = selectExpression("SELECT col0 * (60 * 60 * 1000) FROM test1;");
+
+    // When:
+    final Expression optimized = optimizer.optimize(expression);
+
+    // Then:
+    assertThat(optimized.toString(), is("(TEST1.COL0 * 3600000)"));
+  }
+
+  @Test
+  public void shouldFoldComparisonOfLiterals() {
+    // Given:
+    final Expression expression = whereExpression(
+        "SELECT col0 FROM test1 WHERE col0 > 10 AND 2 > 1;");
+
+    // When:
+    final Expression optimized = optimizer.optimize(expression);
+
+    // Then:
+    assertThat(optimized.toString(), is("((TEST1.COL0 > 10) AND true)"));
+  }
+
+  @Test
+  public void shouldFoldBuiltInFunctionWithLiteralArguments() {
+    // Given:
+    final Expression expression = whereExpression(
+        "SELECT col0 FROM test1 WHERE col1 = LCASE('ABC');");
+
+    // When:
+    final Expression optimized = optimizer.optimize(expression);
+
+    // Then:
+    assertThat(optimized.toString(), is("(TEST1.COL1 = 'abc')"));
+  }
+
+  @Test
+  public void shouldNotFoldNonDeterministicFunction() {
+    // Given:
+    final Expression expression = selectExpression("SELECT RANDOM() * 10 FROM test1;");
+
+    // When:
+    final Expression optimized = optimizer.optimize(expression);
+
+    // Then:
+    assertThat(optimized, is(sameInstance(expression)));
+  }
+
+  @Test
+  public void shouldNotFoldExpressionThatFailsToEvaluate() {
+    // Given:
+    final Expression expression = selectExpression("SELECT col0 + (1 / 0) FROM test1;");
+
+    // When:
+    final Expression optimized = optimizer.optimize(expression);
+
+    // Then:
+    assertThat(optimized, is(sameInstance(expression)));
+  }
+
+  @Test
+  public void shouldReturnSameInstanceIfNothingToFold() {
+    // Given:
+    final Expression expression = selectExpression("SELECT LCASE(col1), col0 + 1 FROM test1;");
+
+    // When:
+    final Expression optimized = optimizer.optimize(expression);
+
+    // Then:
+    assertThat(optimized, is(sameInstance(expression)));
+  }
+
+  private Expression selectExpression(final String query) {
+    return analyzeQuery(query, metaStore).getSelectExpressions().get(0);
+  }
+
+  private Expression whereExpression(final String query) {
+    return analyzeQuery(query, metaStore).getWhereExpression();
+  }
+}
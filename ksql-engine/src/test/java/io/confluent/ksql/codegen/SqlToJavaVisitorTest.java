@@ -132,9 +132,47 @@ public class SqlToJavaVisitorTest {
 
     assertThat(javaExpression, is(
         "((String) CONCAT_0.evaluate("
-            + "((String) SUBSTRING_1.evaluate(TEST1_COL1, Integer.parseInt(\"1\"), Integer.parseInt(\"3\"))), "
-            + "((String) CONCAT_2.evaluate(\"-\","
-            + " ((String) SUBSTRING_3.evaluate(TEST1_COL1, Integer.parseInt(\"4\"), Integer.parseInt(\"5\")))))))"));
+            + "((String) ((io.confluent.ksql.function.udf.string.Substring) ((PluggableUdf) SUBSTRING_1).getActualUdf())"
+            + ".substring(((java.lang.String) UdfTemplate.coerceArgument(TEST1_COL1, java.lang.String.class, 0)), "
+            + "((java.lang.Integer) UdfTemplate.coerceArgument(Integer.parseInt(\"1\"), java.lang.Integer.class, 1)), "
+            + "((java.lang.Integer) UdfTemplate.coerceArgument(Integer.parseInt(\"3\"), java.lang.Integer.class, 2)))), "
+            + "((String) CONCAT_2.evaluate(\"-\", "
+            + "((String) ((io.confluent.ksql.function.udf.string.Substring) ((PluggableUdf) SUBSTRING_3).getActualUdf())"
+            + ".substring(((java.lang.String) UdfTemplate.coerceArgument(TEST1_COL1, java.lang.String.class, 0)), "
+            + "((java.lang.Integer) UdfTemplate.coerceArgument(Integer.parseInt(\"4\"), java.lang.Integer.class, 1)), "
+            + "((java.lang.Integer) UdfTemplate.coerceArgument(Integer.parseInt(\"5\"), java.lang.Integer.class, 2))))))))"));
+  }
+
+  @Test
+  public void shouldInvokeAnnotatedUdfDirectly() {
+    // Given:
+    final Analysis analysis = analyzeQuery(
+        "SELECT TIMESTAMPTOSTRING(col0, 'yyyy') FROM test1;", metaStore);
+
+    // When:
+    final String javaExpression = sqlToJavaVisitor
+        .process(analysis.getSelectExpressions().get(0));
+
+    // Then:
+    assertThat(javaExpression, is(
+        "((String) ((io.confluent.ksql.function.udf.datetime.TimestampToString) "
+            + "((PluggableUdf) TIMESTAMPTOSTRING_0).getActualUdf())"
+            + ".timestampToString("
+            + "((java.lang.Long) UdfTemplate.coerceArgument(TEST1_COL0, long.class, 0)).longValue(), "
+            + "((java.lang.String) UdfTemplate.coerceArgument(\"yyyy\", java.lang.String.class, 1))))"));
+  }
+
+  @Test
+  public void shouldInvokeLegacyUdfThroughKudf() {
+    // Given:
+    final Analysis analysis = analyzeQuery("SELECT LCASE(col1) FROM test1;", metaStore);
+
+    // When:
+    final String javaExpression = sqlToJavaVisitor
+        .process(analysis.getSelectExpressions().get(0));
+
+    // Then:
+    assertThat(javaExpression, is("((String) LCASE_0.evaluate(TEST1_COL1))"));
   }
 
   @Test
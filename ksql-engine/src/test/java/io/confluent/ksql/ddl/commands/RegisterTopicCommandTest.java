@@ -15,6 +15,8 @@
 package io.confluent.ksql.ddl.commands;
 
 import static org.easymock.MockType.NICE;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
 
 import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.ddl.DdlConfig;
@@ -24,6 +26,8 @@ import io.confluent.ksql.parser.tree.Expression;
 import io.confluent.ksql.parser.tree.QualifiedName;
 import io.confluent.ksql.parser.tree.RegisterTopic;
 import io.confluent.ksql.parser.tree.StringLiteral;
+import io.confluent.ksql.serde.delimited.KsqlDelimitedTopicSerDe;
+import io.confluent.ksql.serde.json.KsqlJsonTopicSerDe;
 import io.confluent.ksql.util.MetaStoreFixture;
 import java.util.HashMap;
 import java.util.Map;
@@ -63,6 +67,139 @@ public class RegisterTopicCommandTest {
         cmd.run(metaStore);
     }
 
+    @Test
+    public void shouldUseStreamingJsonDecoderIfConfigured() {
+        // Given:
+        givenProperties(propsWith(ImmutableMap.of(
+            DdlConfig.VALUE_JSON_DECODER_PROPERTY, new StringLiteral("streaming"))));
+        final RegisterTopicCommand cmd = createCmd();
+
+        // When:
+        cmd.run(metaStore);
+
+        // Then:
+        final KsqlJsonTopicSerDe serde =
+            (KsqlJsonTopicSerDe) metaStore.getTopic("name").getKsqlTopicSerDe();
+        assertThat(serde.isStreamingDecoder(), is(true));
+    }
+
+    @Test
+    public void shouldNotUseStreamingJsonDecoderByDefault() {
+        // Given:
+        givenProperties(propsWith(ImmutableMap.of()));
+        final RegisterTopicCommand cmd = createCmd();
+
+        // When:
+        cmd.run(metaStore);
+
+        // Then:
+        final KsqlJsonTopicSerDe serde =
+            (KsqlJsonTopicSerDe) metaStore.getTopic("name").getKsqlTopicSerDe();
+        assertThat(serde.isStreamingDecoder(), is(false));
+    }
+
+    @Test
+    public void shouldThrowOnUnknownJsonDecoder() {
+        // Given:
+        givenProperties(propsWith(ImmutableMap.of(
+            DdlConfig.VALUE_JSON_DECODER_PROPERTY, new StringLiteral("fast"))));
+
+        // Then:
+        expectedException.expectMessage("VALUE_JSON_DECODER property is not set correctly");
+
+        // When:
+        createCmd();
+    }
+
+    @Test
+    public void shouldThrowOnJsonDecoderForNonJsonTopic() {
+        // Given:
+        givenProperties(propsWith(ImmutableMap.of(
+            DdlConfig.VALUE_FORMAT_PROPERTY, new StringLiteral("Delimited"),
+            DdlConfig.VALUE_JSON_DECODER_PROPERTY, new StringLiteral("streaming"))));
+
+        // Then:
+        expectedException.expectMessage("VALUE_JSON_DECODER is only valid for JSON topics.");
+
+        // When:
+        createCmd();
+    }
+
+    @Test
+    public void shouldUseConfiguredDelimiter() {
+        // Given:
+        givenProperties(propsWith(ImmutableMap.of(
+            DdlConfig.VALUE_FORMAT_PROPERTY, new StringLiteral("Delimited"),
+            DdlConfig.VALUE_DELIMITER_PROPERTY, new StringLiteral("|"))));
+        final RegisterTopicCommand cmd = createCmd();
+
+        // When:
+        cmd.run(metaStore);
+
+        // Then:
+        final KsqlDelimitedTopicSerDe serde =
+            (KsqlDelimitedTopicSerDe) metaStore.getTopic("name").getKsqlTopicSerDe();
+        assertThat(serde.getDelimiter(), is('|'));
+    }
+
+    @Test
+    public void shouldUseTabDelimiterIfConfigured() {
+        // Given:
+        givenProperties(propsWith(ImmutableMap.of(
+            DdlConfig.VALUE_FORMAT_PROPERTY, new StringLiteral("Delimited"),
+            DdlConfig.VALUE_DELIMITER_PROPERTY, new StringLiteral("tab"))));
+        final RegisterTopicCommand cmd = createCmd();
+
+        // When:
+        cmd.run(metaStore);
+
+        // Then:
+        final KsqlDelimitedTopicSerDe serde =
+            (KsqlDelimitedTopicSerDe) metaStore.getTopic("name").getKsqlTopicSerDe();
+        assertThat(serde.getDelimiter(), is('\t'));
+    }
+
+    @Test
+    public void shouldThrowOnUnknownDelimiter() {
+        // Given:
+        givenProperties(propsWith(ImmutableMap.of(
+            DdlConfig.VALUE_FORMAT_PROPERTY, new StringLiteral("Delimited"),
+            DdlConfig.VALUE_DELIMITER_PROPERTY, new StringLiteral("pipe"))));
+
+        // Then:
+        expectedException.expectMessage("VALUE_DELIMITER property is not set correctly");
+
+        // When:
+        createCmd();
+    }
+
+    @Test
+    public void shouldThrowOnQuoteDelimiter() {
+        // Given:
+        givenProperties(propsWith(ImmutableMap.of(
+            DdlConfig.VALUE_FORMAT_PROPERTY, new StringLiteral("Delimited"),
+            DdlConfig.VALUE_DELIMITER_PROPERTY, new StringLiteral("\""))));
+
+        // Then:
+        expectedException.expectMessage("Invalid delimiter");
+
+        // When:
+        createCmd();
+    }
+
+    @Test
+    public void shouldThrowOnDelimiterForNonDelimitedTopic() {
+        // Given:
+        givenProperties(propsWith(ImmutableMap.of(
+            DdlConfig.VALUE_DELIMITER_PROPERTY, new StringLiteral("|"))));
+
+        // Then:
+        expectedException.expectMessage("VALUE_DELIMITER is only valid for DELIMITED topics.");
+
+        // When:
+        createCmd();
+    }
+
     private RegisterTopicCommand createCmd() {
         return new RegisterTopicCommand(registerTopicStatement);
     }
@@ -370,7 +370,8 @@ public class InternalFunctionRegistryTest {
   @Test
   public void shouldHaveBuiltInUDAFRegistered() {
     Collection<String> builtInUDAF = Arrays.asList(
-        "COUNT", "SUM", "MAX", "MIN", "TOPK", "TOPKDISTINCT"
+        "COUNT", "SUM", "MAX", "MIN", "TOPK", "TOPKDISTINCT", "COUNT_DISTINCT",
+        "APPROX_COUNT_DISTINCT", "PERCENTILE_APPROX", "QUANTILES"
     );
 
     Collection<String> names = Collections2.transform(functionRegistry.listAggregateFunctions(),
@@ -21,6 +21,7 @@ import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.not;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.notNullValue;
@@ -39,6 +40,7 @@ import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.KsqlException;
 import java.io.File;
 import java.lang.reflect.Field;
+import java.lang.reflect.Method;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
@@ -86,6 +88,62 @@ public class UdfLoaderTest {
     assertThat(substring2.evaluate("foo", 2, 1), equalTo("o"));
   }
 
+  @Test
+  public void shouldAllowBuiltInUdfsToBeInvokedDirectly() {
+    // When:
+    final KsqlFunction substring = functionRegistry.getUdfFactory("substring")
+        .getFunction(Arrays.asList(Schema.STRING_SCHEMA, Schema.INT32_SCHEMA));
+
+    // Then:
+    assertThat(substring.getDirectInvocationMethod().map(Method::getName),
+        is(Optional.of("substring")));
+  }
+
+  @Test
+  public void shouldNotAllowUdfsFromPluginDirToBeInvokedDirectly() {
+    // When:
+    final KsqlFunction toString = functionRegistry.getUdfFactory("tostring")
+        .getFunction(Collections.singletonList(Schema.OPTIONAL_INT32_SCHEMA));
+
+    // Then:
+    assertThat(toString.getDirectInvocationMethod(), is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldNotAllowWrappedUdfsToBeInvokedDirectly() {
+    // Given:
+    final MutableFunctionRegistry functionRegistry = new InternalFunctionRegistry();
+    new UdfLoader(functionRegistry,
+        new File("src/test/resources"),
+        parentClassLoader,
+        value -> false,
+        compiler,
+        Optional.empty(),
+        false,
+        Collections.singleton("substring")).load();
+
+    // When:
+    final KsqlFunction substring = functionRegistry.getUdfFactory("substring")
+        .getFunction(Arrays.asList(Schema.STRING_SCHEMA, Schema.INT32_SCHEMA));
+
+    // Then:
+    assertThat(substring.getDirectInvocationMethod(), is(Optional.empty()));
+  }
+
+  @Test
+  public void shouldNotAllowUdfsToBeInvokedDirectlyIfCollectingMetrics() {
+    // Given:
+    final MutableFunctionRegistry functionRegistry = new InternalFunctionRegistry();
+    createUdfLoader(functionRegistry, false, true).load();
+
+    // When:
+    final KsqlFunction substring = functionRegistry.getUdfFactory("substring")
+        .getFunction(Arrays.asList(Schema.STRING_SCHEMA, Schema.INT32_SCHEMA));
+
+    // Then:
+    assertThat(substring.getDirectInvocationMethod(), is(Optional.empty()));
+  }
+
   @SuppressWarnings("unchecked")
   @Test
   public void shouldLoadUdafs() {
@@ -98,6 +156,26 @@ public class UdfLoaderTest {
     assertThat(instance.getMerger().apply("k", 2L, 3L), equalTo(5L));
   }
 
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldConfigureConfigurableUdafsOnInstantiation() {
+    // Given:
+    final KsqlAggregateFunction aggregate
+        = functionRegistry.getAggregate("collect_set", Schema.OPTIONAL_INT64_SCHEMA);
+
+    // When:
+    final KsqlAggregateFunction<Long, List<Long>> instance = aggregate.getInstance(
+        new AggregateFunctionArguments(0, Collections.singletonList("udfIndex"), ImmutableMap.of(
+            KsqlConfig.KSQL_FUNCTIONS_COLLECT_SET_LIMIT_CONFIG, "2")));
+
+    // Then:
+    List<Long> result = instance.getInitialValueSupplier().get();
+    for (long i = 0; i < 5; i++) {
+      result = instance.aggregate(i, result);
+    }
+    assertThat(result, contains(0L, 1L));
+  }
+
   @Test
   public void shouldLoadFunctionsFromJarsInPluginDir() {
     final UdfFactory toString = functionRegistry.getUdfFactory("tostring");
@@ -15,8 +15,12 @@
 
 package io.confluent.ksql.function;
 
+import io.confluent.ksql.function.udf.PluggableUdf;
 import io.confluent.ksql.function.udf.UdfMetadata;
+import java.lang.reflect.Method;
+import java.util.List;
 import java.util.Optional;
+import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.test.TestUtils;
 
 public final class UdfLoaderUtil {
@@ -32,6 +36,25 @@ public final class UdfLoaderUtil {
     return functionRegistry;
   }
 
+  public static KsqlFunction createDirectlyInvocableFunction(
+      final String functionName,
+      final Schema returnType,
+      final List<Schema> arguments,
+      final Object udf,
+      final UdfInvoker invoker,
+      final Method method
+  ) {
+    return KsqlFunction.create(
+        returnType,
+        arguments,
+        functionName,
+        PluggableUdf.class,
+        ksqlConfig -> new PluggableUdf(invoker, udf),
+        "",
+        KsqlFunction.INTERNAL_PATH,
+        Optional.of(method));
+  }
+
   public static UdfFactory createTestUdfFactory(final KsqlFunction udf) {
     final UdfMetadata metadata = new UdfMetadata(
         udf.getFunctionName(),
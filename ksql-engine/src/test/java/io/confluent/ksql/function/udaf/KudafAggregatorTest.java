@@ -0,0 +1,124 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import org.apache.kafka.streams.kstream.Merger;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class KudafAggregatorTest {
+
+  @Mock
+  private KsqlAggregateFunction sumFunction;
+
+  @Rule
+  public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+  private KudafAggregator aggregator;
+
+  @SuppressWarnings("unchecked")
+  @Before
+  public void setUp() {
+    when(sumFunction.getArgIndexInValue()).thenReturn(1);
+    when(sumFunction.aggregate(2L, 0L)).thenReturn(2L);
+    when(sumFunction.getMerger()).thenReturn((Merger<String, Long>) (key, one, two) -> one + two);
+
+    // Aggregate rows are the group by column followed by the sum of the input's second column:
+    aggregator = new KudafAggregator(
+        ImmutableMap.of(1, sumFunction),
+        ImmutableMap.of(0, 0));
+  }
+
+  @Test
+  public void shouldAggregateInputRow() {
+    // When:
+    final GenericRow result = aggregator.apply("a", row("a", 2L), row(null, 0L));
+
+    // Then:
+    assertThat(result, is(row("a", 2L)));
+  }
+
+  @Test
+  public void shouldMergePartialAggregateIntoAggregate() {
+    // When:
+    final GenericRow result = aggregator.getPartialAggregateMerger()
+        .apply("a", row("a", 5L), row("a", 3L));
+
+    // Then:
+    assertThat(result, is(row("a", 8L)));
+  }
+
+  @Test
+  public void shouldCopyColumnsFromPartialAggregateIntoInitialAggregate() {
+    // When:
+    final GenericRow result = aggregator.getPartialAggregateMerger()
+        .apply("a", row("a", 5L), row(null, 0L));
+
+    // Then:
+    assertThat(result, is(row("a", 5L)));
+  }
+
+  @Test
+  public void shouldMergeSessionAggregates() {
+    // When:
+    final GenericRow result = aggregator.getMerger()
+        .apply("a", row("a", 5L), row("a", 3L));
+
+    // Then:
+    assertThat(result, is(row("a", 8L)));
+  }
+
+  @Test
+  public void shouldAggregateInPlaceIfFunctionSupportsIt() {
+    // Given:
+    final KsqlAggregateFunction inPlaceFunction = mock(
+        KsqlAggregateFunction.class,
+        withSettings().extraInterfaces(InPlaceAggregateFunction.class));
+    when(inPlaceFunction.getArgIndexInValue()).thenReturn(1);
+    aggregator = new KudafAggregator(ImmutableMap.of(1, inPlaceFunction), ImmutableMap.of(0, 0));
+    final GenericRow inputRow = row("a", 2L);
+    final GenericRow aggRow = row(null, 0L);
+
+    // When:
+    aggregator.apply("a", inputRow, aggRow);
+
+    // Then:
+    verify((InPlaceAggregateFunction) inPlaceFunction).aggregateInPlace(inputRow, 1, aggRow, 1);
+    verify(inPlaceFunction, never()).aggregate(any(), any());
+  }
+
+  private static GenericRow row(final Object... columns) {
+    return new GenericRow(new ArrayList<>(Arrays.asList(columns)));
+  }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf;
+
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Function;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class KudafResultMapperTest {
+
+  @Mock
+  private KsqlAggregateFunction sketchFunction;
+  @Mock
+  private KsqlAggregateFunction sumFunction;
+
+  @Rule
+  public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+  @SuppressWarnings("unchecked")
+  @Before
+  public void setUp() {
+    when(sketchFunction.getResultMapper())
+        .thenReturn(Optional.of((Function<String, Integer>) String::length));
+    when(sumFunction.getResultMapper()).thenReturn(Optional.empty());
+  }
+
+  @Test
+  public void shouldMapAggregatesOfFunctionsWithResultMappers() {
+    // Given:
+    final KudafResultMapper mapper = new KudafResultMapper(
+        ImmutableMap.of(1, sketchFunction, 2, sumFunction));
+
+    // When:
+    final GenericRow result = mapper.apply(row("key", "sketch", 10L));
+
+    // Then:
+    assertThat(mapper.hasMappings(), is(true));
+    assertThat(result, is(row("key", 6, 10L)));
+  }
+
+  @Test
+  public void shouldMapNullAggregateToNull() {
+    // Given:
+    final KudafResultMapper mapper = new KudafResultMapper(ImmutableMap.of(1, sketchFunction));
+
+    // When:
+    final GenericRow result = mapper.apply(row("key", null));
+
+    // Then:
+    assertThat(result, is(row("key", null)));
+  }
+
+  @Test
+  public void shouldHaveNoMappingsIfNoFunctionHasResultMapper() {
+    assertThat(new KudafResultMapper(ImmutableMap.of(1, sumFunction)).hasMappings(), is(false));
+  }
+
+  private static GenericRow row(final Object... columns) {
+    return new GenericRow(new ArrayList<>(Arrays.asList(columns)));
+  }
+}
@@ -20,7 +20,11 @@ import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.common.Configurable;
 import io.confluent.ksql.function.udaf.Udaf;
+import io.confluent.ksql.util.KsqlConfig;
 import java.util.List;
 import org.junit.Test;
 
@@ -72,4 +76,24 @@ public class CollectListUdafTest {
     assertThat(runningList, not(hasItem(1001)));
   }
 
+  @Test
+  public void shouldRespectConfiguredSizeLimit() {
+    // Given:
+    final Udaf<Integer, List<Integer>> udaf = CollectListUdaf.createCollectListInt();
+    ((Configurable) udaf).configure(ImmutableMap.of(
+        KsqlConfig.KSQL_FUNCTIONS_COLLECT_LIST_LIMIT_CONFIG, "2"));
+    List<Integer> lhs = udaf.initialize();
+    List<Integer> rhs = udaf.initialize();
+
+    // When:
+    for (final Integer i : new Integer[] {1, 1, 2}) {
+      lhs = udaf.aggregate(i, lhs);
+    }
+    rhs = udaf.aggregate(3, rhs);
+    final List<Integer> merged = udaf.merge(lhs, rhs);
+
+    // Then:
+    assertThat(merged, contains(1, 1));
+  }
+
 }
@@ -20,7 +20,13 @@ import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.common.Configurable;
 import io.confluent.ksql.function.udaf.Udaf;
+import io.confluent.ksql.util.KsqlConfig;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import org.junit.Test;
 
@@ -72,4 +78,63 @@ public class CollectSetUdafTest {
     assertThat(runningList, not(hasItem(1001)));
   }
 
+  @Test
+  public void shouldRespectConfiguredSizeLimit() {
+    // Given:
+    final Udaf<Integer, List<Integer>> udaf = CollectSetUdaf.createCollectSetInt();
+    ((Configurable) udaf).configure(ImmutableMap.of(
+        KsqlConfig.KSQL_FUNCTIONS_COLLECT_SET_LIMIT_CONFIG, 3));
+    List<Integer> runningList = udaf.initialize();
+
+    // When:
+    for (final Integer i : new Integer[] {1, 1, 2, 3, 4}) {
+      runningList = udaf.aggregate(i, runningList);
+    }
+
+    // Then:
+    assertThat(runningList, contains(1, 2, 3));
+  }
+
+  @Test
+  public void shouldAggregateIntoDeserializedList() {
+    // Given:
+    final Udaf<Integer, List<Integer>> udaf = CollectSetUdaf.createCollectSetInt();
+    final List<Integer> deserialized = new ArrayList<>(Arrays.asList(1, 2));
+
+    // When:
+    List<Integer> runningList = udaf.aggregate(2, deserialized);
+    runningList = udaf.aggregate(3, runningList);
+
+    // Then:
+    assertThat(runningList, contains(1, 2, 3));
+  }
+
+  @Test
+  public void shouldNotCollectValuesAgainAfterMerge() {
+    // Given:
+    final Udaf<Integer, List<Integer>> udaf = CollectSetUdaf.createCollectSetInt();
+    List<Integer> runningList = udaf.merge(
+        new ArrayList<>(Arrays.asList(1, null)),
+        new ArrayList<>(Arrays.asList(2, 1)));
+
+    // When:
+    for (final Integer i : new Integer[] {null, 2, 3, 1}) {
+      runningList = udaf.aggregate(i, runningList);
+    }
+
+    // Then:
+    assertThat(runningList, contains(1, null, 2, 3));
+  }
+
+  @Test
+  public void shouldMergeDeserializedLists() {
+    // When:
+    final List<Integer> merged = CollectSetUdaf.createCollectSetInt().merge(
+        new ArrayList<>(Arrays.asList(1, 2)),
+        new ArrayList<>(Arrays.asList(2, 3, 1, 4)));
+
+    // Then:
+    assertThat(merged, contains(1, 2, 3, 4));
+  }
+
 }
@@ -19,6 +19,7 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.junit.Assert.assertThat;
 
+import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.function.KsqlAggregateFunction;
 import java.util.Collections;
 import org.apache.kafka.connect.data.Schema;
@@ -87,6 +88,19 @@ public class CountKudafTest {
 
 
 
+  @Test
+  public void shouldCountInPlace() {
+    final CountKudaf doubleCountKudaf = getDoubleCountKudaf();
+    final GenericRow aggRow = GenericRow.withColumnCount(1);
+    aggRow.setLong(0, 0L);
+
+    doubleCountKudaf.aggregateInPlace(new GenericRow(3.0), 0, aggRow, 0);
+    doubleCountKudaf.aggregateInPlace(new GenericRow((Object) null), 0, aggRow, 0);
+    doubleCountKudaf.aggregateInPlace(new GenericRow(5.0), 0, aggRow, 0);
+
+    assertThat(aggRow.getLong(0), equalTo(2L));
+  }
+
   private CountKudaf getDoubleCountKudaf() {
     final KsqlAggregateFunction aggregateFunction = new CountAggFunctionFactory()
         .getProperAggregateFunction(Collections.singletonList(Schema.OPTIONAL_FLOAT64_SCHEMA));
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.countdistinct;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.function.AggregateFunctionArguments;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import io.confluent.ksql.util.KsqlException;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import org.apache.kafka.connect.data.Schema;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+@SuppressWarnings("unchecked")
+public class CountDistinctKudafTest {
+
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
+  private final KsqlAggregateFunction<String, List<Long>> countDistinct =
+      (KsqlAggregateFunction<String, List<Long>>) CountDistinctAggFunctionFactory.countDistinct()
+          .getProperAggregateFunction(ImmutableList.of(Schema.OPTIONAL_STRING_SCHEMA))
+          .getInstance(new AggregateFunctionArguments(0, ImmutableList.of("COL0")));
+
+  @Test
+  public void shouldReturnBigintFromArrayOfBigintAggregate() {
+    assertThat(countDistinct.getReturnType(), is(Schema.OPTIONAL_INT64_SCHEMA));
+    assertThat(countDistinct.getAggregateType().type(), is(Schema.Type.ARRAY));
+    assertThat(countDistinct.getAggregateType().valueSchema(), is(Schema.OPTIONAL_INT64_SCHEMA));
+  }
+
+  @Test
+  public void shouldCountDistinctValuesIgnoringNulls() {
+    // Given:
+    List<Long> aggregate = countDistinct.getInitialValueSupplier().get();
+
+    // When:
+    for (final String value : new String[] {"a", "b", null, "a", "c"}) {
+      aggregate = countDistinct.aggregate(value, aggregate);
+    }
+
+    // Then:
+    assertThat(result(countDistinct, aggregate), is(3L));
+  }
+
+  @Test
+  public void shouldAggregateIntoImmutableDeserializedSketch() {
+    // Given:
+    final List<Long> deserialized =
+        Collections.unmodifiableList(countDistinct.getInitialValueSupplier().get());
+
+    // When:
+    final List<Long> aggregate = countDistinct.aggregate("a", deserialized);
+
+    // Then:
+    assertThat(result(countDistinct, aggregate), is(1L));
+  }
+
+  @Test
+  public void shouldMergeSessionSketches() {
+    // Given:
+    final List<Long> one = countDistinct.aggregate("a",
+        countDistinct.aggregate("b", countDistinct.getInitialValueSupplier().get()));
+    final List<Long> two = countDistinct.aggregate("b",
+        countDistinct.aggregate("c", countDistinct.getInitialValueSupplier().get()));
+
+    // When:
+    final List<Long> merged = countDistinct.getMerger().apply("key", one, two);
+
+    // Then:
+    assertThat(result(countDistinct, merged), is(3L));
+  }
+
+  @Test
+  public void shouldUsePrecisionArgument() {
+    // When:
+    final KsqlAggregateFunction<String, List<Long>> approx = approxCountDistinct("16");
+
+    // Then:
+    assertThat(approx.getInitialValueSupplier().get(),
+        hasSize(HyperLogLog.wordCount(HyperLogLog.MAX_PRECISION)));
+  }
+
+  @Test
+  public void shouldThrowOnPrecisionOutOfRange() {
+    // Expect:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage(
+        "APPROX_COUNT_DISTINCT precision must be between 4 and 16, but was: 17");
+
+    // When:
+    approxCountDistinct("17");
+  }
+
+  @Test
+  public void shouldThrowOnMissingPrecision() {
+    // Expect:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage("Invalid parameter count for APPROX_COUNT_DISTINCT");
+
+    // When:
+    CountDistinctAggFunctionFactory.approxCountDistinct()
+        .getProperAggregateFunction(ImmutableList.of(Schema.OPTIONAL_STRING_SCHEMA))
+        .getInstance(new AggregateFunctionArguments(0, ImmutableList.of("COL0")));
+  }
+
+  private static KsqlAggregateFunction<String, List<Long>> approxCountDistinct(
+      final String precision) {
+    return (KsqlAggregateFunction<String, List<Long>>) CountDistinctAggFunctionFactory
+        .approxCountDistinct()
+        .getProperAggregateFunction(ImmutableList.of(Schema.OPTIONAL_STRING_SCHEMA))
+        .getInstance(new AggregateFunctionArguments(0, ImmutableList.of("COL0", precision)));
+  }
+
+  private static Object result(
+      final KsqlAggregateFunction<String, List<Long>> function,
+      final List<Long> aggregate) {
+    final Function<List<Long>, ?> mapper = function.getResultMapper()
+        .orElseThrow(AssertionError::new);
+    return mapper.apply(aggregate);
+  }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.countdistinct;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.Assert.assertThat;
+
+import io.confluent.ksql.util.KsqlException;
+import java.util.List;
+import org.junit.Test;
+
+public class HyperLogLogTest {
+
+  private static final int PRECISION = 12;
+
+  @Test
+  public void shouldHaveFixedSize() {
+    assertThat(HyperLogLog.empty(4), hasSize(2));
+    assertThat(HyperLogLog.empty(PRECISION), hasSize(410));
+    assertThat(HyperLogLog.empty(16), hasSize(6554));
+  }
+
+  @Test
+  public void shouldEstimateZeroForEmptySketch() {
+    assertThat(HyperLogLog.estimate(HyperLogLog.empty(PRECISION), PRECISION), is(0L));
+  }
+
+  @Test
+  public void shouldCountSmallCardinalitiesExactly() {
+    // Given:
+    final List<Long> registers = HyperLogLog.empty(HyperLogLog.MAX_PRECISION);
+
+    // When:
+    for (int i = 0; i < 10; i++) {
+      HyperLogLog.add(registers, HyperLogLog.MAX_PRECISION, HyperLogLog.hash("value-" + i));
+      HyperLogLog.add(registers, HyperLogLog.MAX_PRECISION, HyperLogLog.hash("value-" + i));
+    }
+
+    // Then:
+    assertThat(HyperLogLog.estimate(registers, HyperLogLog.MAX_PRECISION), is(10L));
+  }
+
+  @Test
+  public void shouldEstimateLargeCardinalitiesWithinErrorBounds() {
+    // Given:
+    final List<Long> registers = HyperLogLog.empty(PRECISION);
+
+    // When:
+    for (long i = 0; i < 1_000_000; i++) {
+      HyperLogLog.add(registers, PRECISION, HyperLogLog.hash(i));
+    }
+
+    // Then: within four standard errors, i.e. 4 * 1.04 / 64:
+    assertThat((double) HyperLogLog.estimate(registers, PRECISION),
+        closeTo(1_000_000, 65_000));
+    assertThat(registers, hasSize(HyperLogLog.wordCount(PRECISION)));
+  }
+
+  @Test
+  public void shouldMergeSketchesIntoSketchOfTheUnion() {
+    // Given:
+    final List<Long> one = HyperLogLog.empty(PRECISION);
+    final List<Long> two = HyperLogLog.empty(PRECISION);
+    final List<Long> union = HyperLogLog.empty(PRECISION);
+    for (long i = 0; i < 50_000; i++) {
+      HyperLogLog.add(one, PRECISION, HyperLogLog.hash(i));
+      HyperLogLog.add(two, PRECISION, HyperLogLog.hash(i + 25_000));
+      HyperLogLog.add(union, PRECISION, HyperLogLog.hash(i));
+      HyperLogLog.add(union, PRECISION, HyperLogLog.hash(i + 25_000));
+    }
+
+    // When:
+    HyperLogLog.merge(one, two);
+
+    // Then:
+    assertThat(one, is(union));
+  }
+
+  @Test
+  public void shouldHashEqualValuesOfDifferentTypesDifferently() {
+    assertThat(HyperLogLog.hash("1"), is(not(HyperLogLog.hash(1L))));
+    assertThat(HyperLogLog.hash(1.0), is(not(HyperLogLog.hash(1L))));
+    assertThat(HyperLogLog.hash(1), is(HyperLogLog.hash(1L)));
+  }
+
+  @Test(expected = KsqlException.class)
+  public void shouldThrowOnMergingSketchesOfDifferentPrecisions() {
+    HyperLogLog.merge(HyperLogLog.empty(PRECISION), HyperLogLog.empty(PRECISION + 1));
+  }
+}
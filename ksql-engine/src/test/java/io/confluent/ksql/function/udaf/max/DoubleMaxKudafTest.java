@@ -19,6 +19,7 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.junit.Assert.assertThat;
 
+import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.function.KsqlAggregateFunction;
 import java.util.Collections;
 import org.apache.kafka.connect.data.Schema;
@@ -71,6 +72,19 @@ public class DoubleMaxKudafTest {
 
   }
 
+  @Test
+  public void shouldFindCorrectMaxInPlace() {
+    final DoubleMaxKudaf doubleMaxKudaf = getDoubleMaxKudaf();
+    final GenericRow aggRow = GenericRow.withColumnCount(2);
+    aggRow.setDouble(1, Double.NEGATIVE_INFINITY);
+
+    doubleMaxKudaf.aggregateInPlace(new GenericRow(3.0), 0, aggRow, 1);
+    doubleMaxKudaf.aggregateInPlace(new GenericRow((Object) null), 0, aggRow, 1);
+    doubleMaxKudaf.aggregateInPlace(new GenericRow(8.5), 0, aggRow, 1);
+
+    assertThat(aggRow.getDouble(1), equalTo(8.5));
+  }
+
   private DoubleMaxKudaf getDoubleMaxKudaf() {
     final KsqlAggregateFunction aggregateFunction = new MaxAggFunctionFactory()
         .getProperAggregateFunction(Collections.singletonList(Schema.OPTIONAL_FLOAT64_SCHEMA));
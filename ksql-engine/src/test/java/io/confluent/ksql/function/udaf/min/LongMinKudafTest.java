@@ -19,6 +19,7 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.junit.Assert.assertThat;
 
+import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.function.KsqlAggregateFunction;
 import java.util.Collections;
 import org.apache.kafka.connect.data.Schema;
@@ -73,6 +74,18 @@ public class LongMinKudafTest {
   }
 
 
+  @Test
+  public void shouldFindCorrectMinInPlace() {
+    final LongMinKudaf longMinKudaf = getLongMinKudaf();
+    final GenericRow aggRow = new GenericRow(Long.MAX_VALUE);
+
+    longMinKudaf.aggregateInPlace(new GenericRow(3L), 0, aggRow, 0);
+    longMinKudaf.aggregateInPlace(new GenericRow((Object) null), 0, aggRow, 0);
+    longMinKudaf.aggregateInPlace(new GenericRow(5L), 0, aggRow, 0);
+
+    assertThat(aggRow.getColumns().get(0), equalTo(3L));
+  }
+
   private LongMinKudaf getLongMinKudaf() {
     final KsqlAggregateFunction aggregateFunction = new MinAggFunctionFactory()
         .getProperAggregateFunction(Collections.singletonList(Schema.OPTIONAL_INT64_SCHEMA));
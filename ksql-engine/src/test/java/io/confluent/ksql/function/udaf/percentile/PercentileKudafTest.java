@@ -0,0 +1,181 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.percentile;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.function.AggregateFunctionArguments;
+import io.confluent.ksql.function.KsqlAggregateFunction;
+import io.confluent.ksql.util.KsqlException;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import org.apache.kafka.connect.data.Schema;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+@SuppressWarnings("unchecked")
+public class PercentileKudafTest {
+
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
+  @Test
+  public void shouldReturnDoubleFromArrayOfDoubleAggregate() {
+    // When:
+    final KsqlAggregateFunction<Integer, List<Double>> median = percentileApprox("0.5");
+
+    // Then:
+    assertThat(median.getReturnType(), is(Schema.OPTIONAL_FLOAT64_SCHEMA));
+    assertThat(median.getAggregateType().type(), is(Schema.Type.ARRAY));
+    assertThat(median.getAggregateType().valueSchema(), is(Schema.OPTIONAL_FLOAT64_SCHEMA));
+  }
+
+  @Test
+  public void shouldEstimatePercentileIgnoringNulls() {
+    // Given:
+    final KsqlAggregateFunction<Integer, List<Double>> median = percentileApprox("0.5");
+
+    // When:
+    final List<Double> aggregate = aggregate(median, 5, 1, null, 4, 2, 3);
+
+    // Then:
+    assertThat(result(median, aggregate), is(3.0));
+  }
+
+  @Test
+  public void shouldReturnNullIfNoValues() {
+    // Given:
+    final KsqlAggregateFunction<Integer, List<Double>> median = percentileApprox("0.5");
+
+    // When:
+    final List<Double> aggregate = aggregate(median, (Integer) null);
+
+    // Then:
+    assertThat(result(median, aggregate), is(nullValue()));
+  }
+
+  @Test
+  public void shouldEstimateEachQuantile() {
+    // Given:
+    final KsqlAggregateFunction<Integer, List<Double>> quantiles = quantiles("'0, 0.5,1'");
+
+    // When:
+    final List<Double> aggregate = aggregate(quantiles, 5, 1, 4, 2, 3);
+
+    // Then:
+    assertThat(quantiles.getReturnType().valueSchema(), is(Schema.OPTIONAL_FLOAT64_SCHEMA));
+    assertThat((List<Double>) result(quantiles, aggregate), contains(1.0, 3.0, 5.0));
+  }
+
+  @Test
+  public void shouldAggregateIntoImmutableDeserializedDigest() {
+    // Given:
+    final KsqlAggregateFunction<Integer, List<Double>> median = percentileApprox("0.5");
+    final List<Double> deserialized = Collections.unmodifiableList(aggregate(median, 1));
+
+    // When:
+    final List<Double> aggregate = median.aggregate(3, deserialized);
+
+    // Then:
+    assertThat(result(median, aggregate), is(2.0));
+  }
+
+  @Test
+  public void shouldMergeSessionDigests() {
+    // Given:
+    final KsqlAggregateFunction<Integer, List<Double>> median = percentileApprox("0.5");
+    final List<Double> one = Collections.unmodifiableList(aggregate(median, 1, 2));
+    final List<Double> two = aggregate(median, 3, 4, 5);
+
+    // When:
+    final List<Double> merged = median.getMerger().apply("key", one, two);
+
+    // Then:
+    assertThat(result(median, merged), is(3.0));
+  }
+
+  @Test
+  public void shouldThrowOnQuantileOutOfRange() {
+    // Expect:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage(
+        "PERCENTILE_APPROX quantile must be between 0 and 1, but was: 1.5");
+
+    // When:
+    percentileApprox("1.5");
+  }
+
+  @Test
+  public void shouldThrowOnInvalidQuantileInList() {
+    // Expect:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage("QUANTILES quantile must be a number, but was: p99");
+
+    // When:
+    quantiles("'0.5,p99'");
+  }
+
+  @Test
+  public void shouldThrowOnMissingQuantile() {
+    // Expect:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage("Invalid parameter count for PERCENTILE_APPROX");
+
+    // When:
+    PercentileAggFunctionFactory.percentileApprox()
+        .getProperAggregateFunction(ImmutableList.of(Schema.OPTIONAL_INT32_SCHEMA))
+        .getInstance(new AggregateFunctionArguments(0, ImmutableList.of("COL0")));
+  }
+
+  private static KsqlAggregateFunction<Integer, List<Double>> percentileApprox(
+      final String quantile) {
+    return (KsqlAggregateFunction<Integer, List<Double>>) PercentileAggFunctionFactory
+        .percentileApprox()
+        .getProperAggregateFunction(ImmutableList.of(Schema.OPTIONAL_INT32_SCHEMA))
+        .getInstance(new AggregateFunctionArguments(0, ImmutableList.of("COL0", quantile)));
+  }
+
+  private static KsqlAggregateFunction<Integer, List<Double>> quantiles(final String quantiles) {
+    return (KsqlAggregateFunction<Integer, List<Double>>) PercentileAggFunctionFactory
+        .quantiles()
+        .getProperAggregateFunction(ImmutableList.of(Schema.OPTIONAL_INT32_SCHEMA))
+        .getInstance(new AggregateFunctionArguments(0, ImmutableList.of("COL0", quantiles)));
+  }
+
+  private static List<Double> aggregate(
+      final KsqlAggregateFunction<Integer, List<Double>> function,
+      final Integer... values) {
+    List<Double> aggregate = function.getInitialValueSupplier().get();
+    for (final Integer value : values) {
+      aggregate = function.aggregate(value, aggregate);
+    }
+    return aggregate;
+  }
+
+  private static Object result(
+      final KsqlAggregateFunction<Integer, List<Double>> function,
+      final List<Double> aggregate) {
+    final Function<List<Double>, ?> mapper = function.getResultMapper()
+        .orElseThrow(AssertionError::new);
+    return mapper.apply(aggregate);
+  }
+}
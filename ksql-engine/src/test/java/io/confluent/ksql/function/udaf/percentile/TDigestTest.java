@@ -0,0 +1,129 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.percentile;
+
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class TDigestTest {
+
+  private static final double COMPRESSION = TDigest.DEFAULT_COMPRESSION;
+
+  @Test
+  public void shouldReturnNullForEmptyDigest() {
+    assertThat(TDigest.quantile(TDigest.empty(), 0.5), is(nullValue()));
+    assertThat(TDigest.quantiles(TDigest.empty(), new double[] {0.5}), is(nullValue()));
+  }
+
+  @Test
+  public void shouldReturnOnlyValueForAnyQuantile() {
+    // Given:
+    final List<Double> digest = digestOf(7.0);
+
+    // Then:
+    assertThat(TDigest.quantile(digest, 0.0), is(7.0));
+    assertThat(TDigest.quantile(digest, 0.3), is(7.0));
+    assertThat(TDigest.quantile(digest, 1.0), is(7.0));
+  }
+
+  @Test
+  public void shouldReturnExactQuantilesOfFewValues() {
+    // Given:
+    final List<Double> digest = digestOf(5.0, 1.0, 4.0, 2.0, 3.0);
+
+    // Then:
+    assertThat(TDigest.quantiles(digest, new double[] {0.0, 0.5, 1.0}), contains(1.0, 3.0, 5.0));
+  }
+
+  @Test
+  public void shouldEstimateQuantilesOfManyValues() {
+    // Given:
+    final Random random = new Random(42);
+    final List<Double> digest = TDigest.empty();
+
+    // When:
+    for (int i = 0; i < 100_000; i++) {
+      TDigest.add(digest, random.nextDouble(), COMPRESSION);
+    }
+
+    // Then:
+    assertThat(TDigest.quantile(digest, 0.5), closeTo(0.5, 0.01));
+    assertThat(TDigest.quantile(digest, 0.99), closeTo(0.99, 0.002));
+    assertThat(TDigest.quantile(digest, 0.999), closeTo(0.999, 0.0005));
+  }
+
+  @Test
+  public void shouldStayBoundedInSize() {
+    // Given:
+    final List<Double> digest = TDigest.empty();
+
+    // When:
+    for (int i = 0; i < 100_000; i++) {
+      TDigest.add(digest, i, COMPRESSION);
+
+      // Then:
+      assertThat(TDigest.centroidCount(digest), lessThanOrEqualTo((int) COMPRESSION));
+    }
+  }
+
+  @Test
+  public void shouldMergeDigests() {
+    // Given:
+    final List<Double> lower = TDigest.empty();
+    final List<Double> upper = TDigest.empty();
+    for (int i = 0; i < 50_000; i++) {
+      TDigest.add(lower, i, COMPRESSION);
+      TDigest.add(upper, 50_000 + i, COMPRESSION);
+    }
+
+    // When:
+    TDigest.merge(lower, upper, COMPRESSION);
+
+    // Then:
+    assertThat(TDigest.quantile(lower, 0.0), is(0.0));
+    assertThat(TDigest.quantile(lower, 0.5), closeTo(50_000, 500));
+    assertThat(TDigest.quantile(lower, 0.99), closeTo(99_000, 200));
+    assertThat(TDigest.quantile(lower, 1.0), is(99_999.0));
+  }
+
+  @Test
+  public void shouldMergeIntoEmptyDigest() {
+    // Given:
+    final List<Double> digest = TDigest.empty();
+
+    // When:
+    TDigest.merge(digest, digestOf(1.0, 2.0), COMPRESSION);
+
+    // Then:
+    assertThat(TDigest.quantile(digest, 0.5), is(1.5));
+  }
+
+  private static List<Double> digestOf(final double... values) {
+    final List<Double> digest = TDigest.empty();
+    for (final double value : values) {
+      TDigest.add(digest, value, COMPRESSION);
+    }
+    return digest;
+  }
+}
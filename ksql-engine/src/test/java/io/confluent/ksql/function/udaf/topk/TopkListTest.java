@@ -0,0 +1,132 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.function.udaf.topk;
+
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.assertThat;
+
+import com.google.common.collect.ImmutableList;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+import org.junit.Test;
+
+public class TopkListTest {
+
+  @Test
+  public void shouldInsertValueInOrder() {
+    // Given:
+    final List<Integer> topK = new ArrayList<>(ImmutableList.of(50, 30, 10));
+
+    // When:
+    TopkList.add(topK, 40, 5, false);
+
+    // Then:
+    assertThat(topK, is(ImmutableList.of(50, 40, 30, 10)));
+  }
+
+  @Test
+  public void shouldEvictSmallestValueWhenFull() {
+    // Given:
+    final List<Integer> topK = new ArrayList<>(ImmutableList.of(50, 30, 10));
+
+    // When:
+    TopkList.add(topK, 40, 3, false);
+
+    // Then:
+    assertThat(topK, is(ImmutableList.of(50, 40, 30)));
+  }
+
+  @Test
+  public void shouldNotAddValueNoGreaterThanSmallestWhenFull() {
+    // Given:
+    final List<Integer> topK = new ArrayList<>(ImmutableList.of(50, 30, 10));
+
+    // When:
+    TopkList.add(topK, 10, 3, false);
+
+    // Then:
+    assertThat(topK, is(ImmutableList.of(50, 30, 10)));
+  }
+
+  @Test
+  public void shouldKeepDuplicatesIfNotDistinct() {
+    // Given:
+    final List<Integer> topK = new ArrayList<>(ImmutableList.of(50, 30, 10));
+
+    // When:
+    TopkList.add(topK, 30, 4, false);
+
+    // Then:
+    assertThat(topK, is(ImmutableList.of(50, 30, 30, 10)));
+  }
+
+  @Test
+  public void shouldIgnoreDuplicatesIfDistinct() {
+    // Given:
+    final List<Integer> topK = new ArrayList<>(ImmutableList.of(50, 30, 10));
+
+    // When:
+    TopkList.add(topK, 30, 4, true);
+
+    // Then:
+    assertThat(topK, is(ImmutableList.of(50, 30, 10)));
+  }
+
+  @Test
+  public void shouldNotAddAnythingIfKIsZero() {
+    // Given:
+    final List<Integer> topK = new ArrayList<>();
+
+    // When:
+    TopkList.add(topK, 30, 0, false);
+
+    // Then:
+    assertThat(topK, is(empty()));
+  }
+
+  @Test
+  public void shouldMatchSortingEveryValue() {
+    // Given:
+    final Random random = new Random(42);
+    final List<Long> values = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      values.add((long) random.nextInt(200));
+    }
+
+    // When:
+    final List<Long> topK = new ArrayList<>();
+    final List<Long> distinctTopK = new ArrayList<>();
+    values.forEach(value -> {
+      TopkList.add(topK, value, 20, false);
+      TopkList.add(distinctTopK, value, 20, true);
+    });
+
+    // Then:
+    assertThat(topK, is(values.stream()
+        .sorted(Comparator.reverseOrder())
+        .limit(20)
+        .collect(Collectors.toList())));
+    assertThat(distinctTopK, is(values.stream()
+        .distinct()
+        .sorted(Comparator.reverseOrder())
+        .limit(20)
+        .collect(Collectors.toList())));
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.internal;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import com.google.common.collect.ImmutableMap;
+import java.util.function.DoubleSupplier;
+import org.apache.kafka.common.MetricName;
+import org.apache.kafka.common.metrics.KafkaMetric;
+import org.apache.kafka.common.metrics.Metrics;
+import org.apache.kafka.common.metrics.Sensor;
+import org.junit.After;
+import org.junit.Test;
+
+public class QueryOperationMetricsTest {
+
+  private static final String GROUP = "test-group";
+  private static final String OP_NAME = "Aggregate";
+  private static final String SENSOR = "records-in";
+  private static final String GAUGE = "records-doubled";
+
+  private final Metrics metrics = new Metrics();
+  private final QueryOperationMetrics query1 =
+      new QueryOperationMetrics(metrics, GROUP, "query-1", OP_NAME);
+  private final QueryOperationMetrics query2 =
+      new QueryOperationMetrics(metrics, GROUP, "query-2", OP_NAME);
+
+  @After
+  public void tearDown() {
+    QueryOperationMetrics.removeQuery(metrics, "query-1");
+    QueryOperationMetrics.removeQuery(metrics, "query-2");
+    metrics.close();
+  }
+
+  @Test
+  public void shouldReuseSensorOfSameQueryAndOperation() {
+    // Given:
+    final Sensor sensor = query1.sensor(SENSOR, "records");
+
+    // When:
+    final Sensor result = new QueryOperationMetrics(metrics, GROUP, "query-1", OP_NAME)
+        .sensor(SENSOR, "records");
+
+    // Then:
+    assertThat(result, is(sameInstance(sensor)));
+  }
+
+  @Test
+  public void shouldNotShareSensorsBetweenQueriesWithSameOperation() {
+    // Given:
+    final Sensor sensor1 = query1.sensor(SENSOR, "records");
+    final Sensor sensor2 = query2.sensor(SENSOR, "records");
+
+    // When:
+    sensor1.record();
+    sensor1.record();
+    sensor2.record();
+
+    // Then:
+    assertThat(sensor2, is(not(sameInstance(sensor1))));
+    assertThat(query1.total(SENSOR).getAsDouble(), is(2.0));
+    assertThat(query2.total(SENSOR).getAsDouble(), is(1.0));
+  }
+
+  @Test
+  public void shouldReportZeroTotalForSensorNotCreated() {
+    assertThat(query1.total(SENSOR).getAsDouble(), is(0.0));
+  }
+
+  @Test
+  public void shouldDeriveGaugeFromTheQuerysOwnTotals() {
+    // Given:
+    givenDoublingGauge(query1);
+    givenDoublingGauge(query2);
+    query1.sensor(SENSOR, "records").record();
+
+    // Then:
+    assertThat(gaugeValue("query-1"), is(2.0));
+    assertThat(gaugeValue("query-2"), is(0.0));
+  }
+
+  @Test
+  public void shouldRemoveSensorsAndGaugesOfQuery() {
+    // Given:
+    query1.sensor(SENSOR, "records");
+    query2.sensor(SENSOR, "records");
+    givenDoublingGauge(query1);
+    givenDoublingGauge(query2);
+
+    // When:
+    QueryOperationMetrics.removeQuery(metrics, "query-1");
+
+    // Then:
+    assertThat(metrics.getSensor("query-1-" + OP_NAME + "-" + SENSOR), is(nullValue()));
+    assertThat(metrics.metric(gaugeName("query-1")), is(nullValue()));
+    assertThat(metrics.getSensor("query-2-" + OP_NAME + "-" + SENSOR), is(notNullValue()));
+    assertThat(metrics.metric(gaugeName("query-2")), is(notNullValue()));
+  }
+
+  @Test
+  public void shouldRecreateSensorsAfterQueryRemoved() {
+    // Given:
+    query1.sensor(SENSOR, "records").record();
+    QueryOperationMetrics.removeQuery(metrics, "query-1");
+
+    // When:
+    query1.sensor(SENSOR, "records");
+
+    // Then:
+    assertThat(query1.total(SENSOR).getAsDouble(), is(0.0));
+  }
+
+  private static void givenDoublingGauge(final QueryOperationMetrics operationMetrics) {
+    final DoubleSupplier total = operationMetrics.total(SENSOR);
+    operationMetrics.gauge(GAUGE, "twice the records", () -> 2 * total.getAsDouble());
+  }
+
+  private double gaugeValue(final String queryId) {
+    final KafkaMetric metric = metrics.metric(gaugeName(queryId));
+    return ((Number) metric.metricValue()).doubleValue();
+  }
+
+  private MetricName gaugeName(final String queryId) {
+    return metrics.metricName(GAUGE, GROUP, "", ImmutableMap.of(
+        "query-id", queryId,
+        "operation", OP_NAME));
+  }
+}
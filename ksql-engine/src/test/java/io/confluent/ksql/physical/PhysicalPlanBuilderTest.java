@@ -526,6 +526,35 @@ public class PhysicalPlanBuilderTest {
     shouldUseProvidedOptimizationConfig(StreamsConfig.NO_OPTIMIZATION);
   }
 
+  @Test
+  public void shouldRateLimitIfEmitChangesEvery() {
+    // Given:
+    givenKafkaTopicExists("test1");
+
+    // When:
+    final QueryMetadata queryMetadata = buildPhysicalPlan("CREATE TABLE FOO AS "
+        + "SELECT col0, count(*) FROM test1 GROUP BY col0 EMIT CHANGES EVERY 5 SECONDS;");
+
+    // Then:
+    assertThat(queryMetadata.getTopologyDescription(), containsString("KSTREAM-TRANSFORM-"));
+  }
+
+  @Test
+  public void shouldKeepCommitIntervalOverrideIfEmitChangesEvery() {
+    // Given:
+    givenKafkaTopicExists("test1");
+    physicalPlanBuilder = buildPhysicalPlanBuilder(
+        ImmutableMap.of(StreamsConfig.COMMIT_INTERVAL_MS_CONFIG, 1000L));
+
+    // When:
+    buildPhysicalPlan("CREATE TABLE FOO AS "
+        + "SELECT col0, count(*) FROM test1 GROUP BY col0 EMIT CHANGES EVERY 5 SECONDS;");
+
+    // Then:
+    final Properties props = testKafkaStreamsBuilder.getCalls().get(0).props;
+    assertThat(props.get(StreamsConfig.COMMIT_INTERVAL_MS_CONFIG), equalTo(1000L));
+  }
+
   public static class DummyConsumerInterceptor implements ConsumerInterceptor {
 
     public ConsumerRecords onConsume(final ConsumerRecords consumerRecords) {
@@ -20,6 +20,8 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.MatcherAssert.assertThat;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import io.confluent.ksql.function.InternalFunctionRegistry;
 import io.confluent.ksql.metastore.MetaStore;
 import io.confluent.ksql.metastore.model.StructuredDataSource;
@@ -34,6 +36,7 @@ import io.confluent.ksql.serde.DataSource;
 import io.confluent.ksql.serde.DataSource.DataSourceType;
 import io.confluent.ksql.testutils.AnalysisTestUtil;
 import io.confluent.ksql.util.MetaStoreFixture;
+import java.util.stream.Collectors;
 import org.apache.kafka.connect.data.Schema;
 import org.junit.Assert;
 import org.junit.Before;
@@ -64,6 +67,51 @@ public class LogicalPlannerTest {
     assertThat(structuredDataSource.getName(), equalTo("TEST2"));
   }
 
+  @Test
+  public void shouldOnlyRequireColumnsReferencedByQuery() {
+    // When:
+    final PlanNode logicalPlan = buildLogicalPlan(
+        "SELECT col0, LCASE(col2) FROM test1 WHERE col3 > 10.0;");
+
+    // Then:
+    final StructuredDataSourceNode sourceNode = (StructuredDataSourceNode) logicalPlan
+        .getSources().get(0)
+        .getSources().get(0)
+        .getSources().get(0);
+    assertThat(sourceNode.getRequiredColumns(),
+        equalTo(ImmutableSet.of("TEST1.COL0", "TEST1.COL2", "TEST1.COL3")));
+  }
+
+  @Test
+  public void shouldExtractColumnVersusLiteralConjunctsForStreamSource() {
+    // When:
+    final PlanNode logicalPlan = buildLogicalPlan(
+        "SELECT col0 FROM test1 WHERE col1 = 'a' AND 10 < col0 AND (col3 > 1.0 OR col3 < 0.0);");
+
+    // Then:
+    final StructuredDataSourceNode sourceNode = (StructuredDataSourceNode) logicalPlan
+        .getSources().get(0)
+        .getSources().get(0)
+        .getSources().get(0);
+    assertThat(sourceNode.getSourceFilter().stream()
+            .map(Object::toString)
+            .collect(Collectors.toList()),
+        equalTo(ImmutableList.of("(TEST1.COL1 = 'a')", "(TEST1.COL0 > 10)")));
+  }
+
+  @Test
+  public void shouldNotExtractSourceFilterForTableSource() {
+    // When:
+    final PlanNode logicalPlan = buildLogicalPlan("SELECT col0 FROM test2 WHERE col0 = 10;");
+
+    // Then:
+    final StructuredDataSourceNode sourceNode = (StructuredDataSourceNode) logicalPlan
+        .getSources().get(0)
+        .getSources().get(0)
+        .getSources().get(0);
+    assertThat(sourceNode.getSourceFilter(), equalTo(ImmutableList.of()));
+  }
+
   @Test
   public void testSimpleQueryLogicalPlan() {
     final String simpleQuery = "SELECT col0, col2, col3 FROM test1 WHERE col0 > 100;";
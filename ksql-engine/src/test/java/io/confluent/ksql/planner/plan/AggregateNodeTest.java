@@ -267,6 +267,32 @@ public class AggregateNodeTest {
     assertThat(source.topicSet(), hasItem(sink.topic()));
   }
 
+  @Test
+  public void shouldAggregateHoppingWindowsByPanesIfEnabled() {
+    // When:
+    buildQuery("SELECT col0, sum(col3) FROM test1 "
+            + "window HOPPING (size 10 second, advance by 4 second) "
+            + "GROUP BY col0;",
+        new KsqlConfig(ImmutableMap.of(
+            KsqlConfig.KSQL_HOPPING_WINDOW_PANES_ENABLED_CONFIG, true)));
+
+    // Then:
+    assertThat(stores(builder), hasItem(containsString("panes-buffer")));
+  }
+
+  @Test
+  public void shouldNotAggregateHoppingWindowsByPanesIfEmitFinal() {
+    // When:
+    buildQuery("SELECT col0, sum(col3) FROM test1 "
+            + "window HOPPING (size 10 second, advance by 4 second) "
+            + "GROUP BY col0 EMIT FINAL;",
+        new KsqlConfig(ImmutableMap.of(
+            KsqlConfig.KSQL_HOPPING_WINDOW_PANES_ENABLED_CONFIG, true)));
+
+    // Then:
+    assertThat(stores(builder), not(hasItem(containsString("panes-buffer"))));
+  }
+
   @Test
   public void shouldBuildCorrectAggregateSchema() {
     // When:
@@ -293,6 +319,14 @@ public class AggregateNodeTest {
     assertThat(stream.getKeySerdeFactory(), is(not(Optional.empty())));
   }
 
+  private static List<String> stores(final StreamsBuilder builder) {
+    return builder.build().describe().subtopologies().stream()
+        .flatMap(subtopology -> subtopology.nodes().stream())
+        .filter(node -> node instanceof TopologyDescription.Processor)
+        .flatMap(node -> ((TopologyDescription.Processor) node).stores().stream())
+        .collect(Collectors.toList());
+  }
+
   private SchemaKStream build() {
     return build(ksqlConfig);
   }
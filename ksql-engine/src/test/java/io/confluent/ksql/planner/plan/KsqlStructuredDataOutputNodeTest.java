@@ -68,6 +68,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.stream.Collectors;
 import org.apache.kafka.clients.admin.TopicDescription;
 import org.apache.kafka.common.Node;
@@ -79,6 +80,7 @@ import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.SchemaBuilder;
 import org.apache.kafka.streams.StreamsBuilder;
+import org.apache.kafka.streams.Topology;
 import org.apache.kafka.streams.TopologyDescription;
 import org.apache.kafka.streams.kstream.WindowedSerdes;
 import org.junit.After;
@@ -173,6 +175,7 @@ public class KsqlStructuredDataOutputNodeTest {
         SINK_KAFKA_TOPIC_NAME,
         props,
         Optional.empty(),
+        OptionalLong.empty(),
         createInto);
   }
 
@@ -287,6 +290,96 @@ public class KsqlStructuredDataOutputNodeTest {
     verify(mockTopicClient).createTopic(SINK_KAFKA_TOPIC_NAME, 4, (short) 3, Collections.emptyMap());
   }
 
+  @Test
+  public void shouldRateLimitTableChangelogIfEmitChangesEvery() {
+    // Given:
+    when(ksqlConfig.getInt(KsqlConfig.KSQL_EMIT_RATE_LIMIT_MAX_KEYS_CONFIG)).thenReturn(10);
+    outputNode = getKsqlStructuredDataOutputNodeForTable(Serdes::String, OptionalLong.of(1000));
+
+    // When:
+    stream = buildStream();
+
+    // Then:
+    final TopologyDescription.Sink sink = getSink(builder.build());
+    final TopologyDescription.Processor rateLimit =
+        (TopologyDescription.Processor) sink.predecessors().iterator().next();
+    assertThat(rateLimit.stores(), equalTo(ImmutableSet.of("0-rate-limit")));
+    assertThat(sink.topic(), equalTo(SINK_KAFKA_TOPIC_NAME));
+  }
+
+  @Test
+  public void shouldDedupTableChangelogIfEnabled() {
+    // Given:
+    when(ksqlConfig.getBoolean(KsqlConfig.KSQL_TABLE_DEDUP_ENABLED_CONFIG)).thenReturn(true);
+    outputNode = getKsqlStructuredDataOutputNodeForTable(Serdes::String);
+
+    // When:
+    stream = buildStream();
+
+    // Then:
+    final TopologyDescription.Sink sink = getSink(builder.build());
+    final TopologyDescription.Processor dedup =
+        (TopologyDescription.Processor) sink.predecessors().iterator().next();
+    assertThat(dedup.stores(), equalTo(ImmutableSet.of("0-dedup")));
+  }
+
+  @Test
+  public void shouldNotDedupWindowedTableChangelogEvenIfEnabled() {
+    // Given:
+    when(ksqlConfig.getBoolean(KsqlConfig.KSQL_TABLE_DEDUP_ENABLED_CONFIG)).thenReturn(true);
+    outputNode = getKsqlStructuredDataOutputNodeForTable(
+        () -> WindowedSerdes.timeWindowedSerdeFrom(String.class));
+
+    // When:
+    stream = buildStream();
+
+    // Then:
+    final TopologyDescription.Sink sink = getSink(builder.build());
+    final TopologyDescription.Processor mapValues =
+        (TopologyDescription.Processor) sink.predecessors().iterator().next();
+    assertThat(mapValues.stores(), equalTo(Collections.emptySet()));
+  }
+
+  @Test
+  public void shouldNotDedupTableChangelogByDefault() {
+    // Given:
+    outputNode = getKsqlStructuredDataOutputNodeForTable(Serdes::String);
+
+    // When:
+    stream = buildStream();
+
+    // Then:
+    final TopologyDescription.Sink sink = getSink(builder.build());
+    final TopologyDescription.Processor mapValues =
+        (TopologyDescription.Processor) sink.predecessors().iterator().next();
+    assertThat(mapValues.stores(), equalTo(Collections.emptySet()));
+  }
+
+  @Test
+  public void shouldThrowOnEmitChangesEveryIfNotTable() {
+    // Given:
+    outputNode = new KsqlStructuredDataOutputNode(
+        new PlanNodeId("0"),
+        sourceNode,
+        schema,
+        new LongColumnTimestampExtractionPolicy("timestamp"),
+        Optional.of(schema.field("key")),
+        new KsqlTopic(SINK_TOPIC_NAME, SINK_KAFKA_TOPIC_NAME, new KsqlJsonTopicSerDe(), true),
+        SINK_KAFKA_TOPIC_NAME,
+        Collections.emptyMap(),
+        Optional.empty(),
+        OptionalLong.of(1000),
+        true);
+
+    // Expect:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage(
+        "EMIT CHANGES EVERY is only supported for queries that build tables.");
+
+    // When:
+    buildStream();
+  }
+
   @Test
   public void shouldCreateSinkWithCorrectCleanupPolicyStream() {
     // Then:
@@ -437,6 +530,15 @@ public class KsqlStructuredDataOutputNodeTest {
     assertThat(queryId, equalTo(new QueryId("InsertQuery_" + QUERY_ID_STRING)));
   }
 
+  private static TopologyDescription.Sink getSink(final Topology topology) {
+    return topology.describe().subtopologies().stream()
+        .flatMap(subtopology -> subtopology.nodes().stream())
+        .filter(node -> node instanceof TopologyDescription.Sink)
+        .map(TopologyDescription.Sink.class::cast)
+        .findFirst()
+        .orElseThrow(AssertionError::new);
+  }
+
   private static KsqlTopic mockTopic(final KsqlTopicSerDe topicSerde) {
     final KsqlTopic ksqlTopic = mock(KsqlTopic.class);
     when(ksqlTopic.getKafkaTopicName()).thenReturn("output");
@@ -463,6 +565,7 @@ public class KsqlStructuredDataOutputNodeTest {
         "output",
         Collections.emptyMap(),
         Optional.empty(),
+        OptionalLong.empty(),
         false);
 
     // When:
@@ -486,6 +589,13 @@ public class KsqlStructuredDataOutputNodeTest {
 
   private <K> KsqlStructuredDataOutputNode getKsqlStructuredDataOutputNodeForTable(
       final SerdeFactory<K> keySerdeFatory
+  ) {
+    return getKsqlStructuredDataOutputNodeForTable(keySerdeFatory, OptionalLong.empty());
+  }
+
+  private <K> KsqlStructuredDataOutputNode getKsqlStructuredDataOutputNodeForTable(
+      final SerdeFactory<K> keySerdeFatory,
+      final OptionalLong emitIntervalMs
   ) {
     final Map<String, Object> props = new HashMap<>();
     props.put(KsqlConfig.SINK_NUMBER_OF_PARTITIONS_PROPERTY, 4);
@@ -512,6 +622,7 @@ public class KsqlStructuredDataOutputNodeTest {
         SINK_KAFKA_TOPIC_NAME,
         props,
         Optional.empty(),
+        emitIntervalMs,
         true);
   }
 }
\ No newline at end of file
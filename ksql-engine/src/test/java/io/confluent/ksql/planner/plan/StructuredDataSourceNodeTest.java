@@ -26,10 +26,13 @@ import static org.junit.Assert.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableSet;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.function.InternalFunctionRegistry;
@@ -39,9 +42,16 @@ import io.confluent.ksql.logging.processing.ProcessingLoggerUtil;
 import io.confluent.ksql.metastore.model.KsqlStream;
 import io.confluent.ksql.metastore.model.KsqlTable;
 import io.confluent.ksql.metastore.model.KsqlTopic;
+import io.confluent.ksql.parser.tree.ComparisonExpression;
+import io.confluent.ksql.parser.tree.DereferenceExpression;
+import io.confluent.ksql.parser.tree.QualifiedName;
+import io.confluent.ksql.parser.tree.QualifiedNameReference;
+import io.confluent.ksql.parser.tree.StringLiteral;
 import io.confluent.ksql.query.QueryId;
 import io.confluent.ksql.serde.DataSource.DataSourceType;
 import io.confluent.ksql.serde.KsqlTopicSerDe;
+import io.confluent.ksql.serde.filter.ColumnPredicate;
+import io.confluent.ksql.serde.filter.DeserializationFilter;
 import io.confluent.ksql.serde.json.KsqlJsonTopicSerDe;
 import io.confluent.ksql.services.ServiceContext;
 import io.confluent.ksql.services.TestServiceContext;
@@ -51,6 +61,7 @@ import io.confluent.ksql.structured.SchemaKStream;
 import io.confluent.ksql.structured.SchemaKTable;
 import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.QueryLoggerUtil;
+import io.confluent.ksql.util.SchemaUtil;
 import io.confluent.ksql.util.timestamp.LongColumnTimestampExtractionPolicy;
 import io.confluent.ksql.util.timestamp.TimestampExtractionPolicy;
 import java.util.Arrays;
@@ -85,6 +96,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
@@ -218,6 +230,126 @@ public class StructuredDataSourceNodeTest {
     verify(kGroupedStream).aggregate(any(), any(), same(materialized));
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldOnlyDecodeRequiredAndTimestampColumns() {
+    // Given:
+    final Schema schema = SchemaBuilder.struct()
+        .field(SchemaUtil.ROWTIME_NAME, Schema.OPTIONAL_INT64_SCHEMA)
+        .field(SchemaUtil.ROWKEY_NAME, Schema.OPTIONAL_STRING_SCHEMA)
+        .field("field1", Schema.OPTIONAL_STRING_SCHEMA)
+        .field("field2", Schema.OPTIONAL_STRING_SCHEMA)
+        .field(TIMESTAMP_FIELD, Schema.OPTIONAL_INT64_SCHEMA)
+        .build();
+    final StructuredDataSourceNode node = new StructuredDataSourceNode(
+        realNodeId,
+        tableSource,
+        schema,
+        ImmutableSet.of("field1"),
+        Collections.emptyList(),
+        materializedFactorySupplier);
+
+    // When:
+    node.buildStream(
+        streamsBuilder,
+        realConfig,
+        serviceContext,
+        processingLogContext,
+        functionRegistry,
+        queryId
+    );
+
+    // Then:
+    verify(topicSerDe).getGenericRowSerde(
+        any(Schema.class),
+        same(realConfig),
+        eq(false),
+        any(Supplier.class),
+        anyString(),
+        same(processingLogContext),
+        eq(ImmutableSet.of(0, 2)));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldPushSimpleStreamFilterIntoDeserializer() {
+    // Given:
+    final Schema schema = SchemaUtil.buildSchemaWithAlias(realSchema, "datasource");
+    final StructuredDataSourceNode node = new StructuredDataSourceNode(
+        new PlanNodeId("0"),
+        new KsqlStream<>("sqlExpression", "datasource",
+            realSchema,
+            Optional.of(realSchema.field("key")),
+            new LongColumnTimestampExtractionPolicy("timestamp"),
+            new KsqlTopic("topic", "topic", topicSerDe, false),
+            Serdes::String),
+        schema,
+        ImmutableSet.of("datasource.field2"),
+        ImmutableList.of(new ComparisonExpression(
+            ComparisonExpression.Type.EQUAL,
+            new DereferenceExpression(
+                new QualifiedNameReference(QualifiedName.of("datasource")), "field2"),
+            new StringLiteral("purchase"))),
+        materializedFactorySupplier);
+    final ArgumentCaptor<DeserializationFilter> filterCaptor =
+        ArgumentCaptor.forClass(DeserializationFilter.class);
+    realBuilder = new StreamsBuilder();
+
+    // When:
+    build(node);
+
+    // Then:
+    verify(topicSerDe).getGenericRowSerde(
+        any(Schema.class),
+        same(realConfig),
+        eq(false),
+        any(Supplier.class),
+        anyString(),
+        same(processingLogContext),
+        any(Set.class),
+        filterCaptor.capture());
+    assertThat(filterCaptor.getValue().getPredicates(), equalTo(ImmutableList.of(
+        new ColumnPredicate(1, ColumnPredicate.Comparison.EQUAL, "purchase"))));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldNotPushFilterIntoTableDeserializer() {
+    // Given:
+    final StructuredDataSourceNode node = new StructuredDataSourceNode(
+        realNodeId,
+        tableSource,
+        SchemaUtil.buildSchemaWithAlias(realSchema, "datasource"),
+        ImmutableSet.of("datasource.field2"),
+        ImmutableList.of(new ComparisonExpression(
+            ComparisonExpression.Type.EQUAL,
+            new DereferenceExpression(
+                new QualifiedNameReference(QualifiedName.of("datasource")), "field2"),
+            new StringLiteral("purchase"))),
+        materializedFactorySupplier);
+
+    // When:
+    node.buildStream(
+        streamsBuilder,
+        realConfig,
+        serviceContext,
+        processingLogContext,
+        functionRegistry,
+        queryId
+    );
+
+    // Then:
+    verify(topicSerDe, never()).getGenericRowSerde(
+        any(Schema.class),
+        any(KsqlConfig.class),
+        any(Boolean.class),
+        any(Supplier.class),
+        anyString(),
+        any(ProcessingLogContext.class),
+        any(Set.class),
+        any(DeserializationFilter.class));
+  }
+
   @Test
   public void shouldCreateLoggerForSourceSerde() {
     assertThat(
@@ -0,0 +1,285 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.structured;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.serde.binary.KsqlBinaryDeserializer;
+import io.confluent.ksql.serde.binary.KsqlBinarySerializer;
+import io.confluent.ksql.structured.PunctuatedBuffer.TimestampedRow;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.processor.MockProcessorContext;
+import org.apache.kafka.streams.processor.MockProcessorContext.CapturedPunctuator;
+import org.apache.kafka.streams.processor.PunctuationType;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class EmitRateLimitTransformerTest {
+
+  private static final String STORE_NAME = "rate-limit";
+  private static final Duration EMIT_INTERVAL = Duration.ofSeconds(10);
+  private static final Schema ROW_SCHEMA = SchemaBuilder.struct()
+      .field("COUNT", Schema.OPTIONAL_INT64_SCHEMA)
+      .build();
+
+  @Mock
+  private Sensor inputSensor;
+  @Mock
+  private Sensor droppedSensor;
+  @Mock
+  private Sensor outputSensor;
+  @Mock
+  private Deserializer<GenericRow> legacyDeserializer;
+  @Mock
+  private ProcessingLogger recordLogger;
+
+  @Rule
+  public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+  private KeyValueStore<String, TimestampedRow> store;
+  private MockProcessorContext context;
+  private EmitRateLimitTransformer<String> transformer;
+
+  @Before
+  public void setUp() {
+    store = EmitRateLimitTransformer
+        .storeBuilder(
+            STORE_NAME,
+            Serdes.String(),
+            Serdes.serdeFrom(
+                new KsqlBinarySerializer(ROW_SCHEMA),
+                new KsqlBinaryDeserializer(ROW_SCHEMA, legacyDeserializer, recordLogger)))
+        .withCachingDisabled()
+        .withLoggingDisabled()
+        .build();
+    givenMaxKeys(2);
+  }
+
+  @Test
+  public void shouldScheduleFlushEveryEmitIntervalOfWallClockTime() {
+    // Then:
+    assertThat(context.scheduledPunctuators().size(), is(1));
+    final CapturedPunctuator punctuator = context.scheduledPunctuators().get(0);
+    assertThat(punctuator.getInterval(), is(EMIT_INTERVAL.toMillis()));
+    assertThat(punctuator.getType(), is(PunctuationType.WALL_CLOCK_TIME));
+  }
+
+  @Test
+  public void shouldForwardOnlyTheLatestUpdateToEachKeyEachInterval() {
+    // Given:
+    transform(10L, "k1", row(1L));
+    transform(20L, "k2", row(2L));
+    transform(30L, "k1", row(3L));
+    assertThat(context.forwarded(), is(empty()));
+
+    // When:
+    punctuate();
+
+    // Then:
+    assertThat(forwarded(), contains(
+        forward("k1", row(3L), 30L),
+        forward("k2", row(2L), 20L)));
+  }
+
+  @Test
+  public void shouldCoalesceDeletes() {
+    // Given:
+    transform(0L, "k1", row(1L));
+    transform(0L, "k1", null);
+
+    // When:
+    punctuate();
+
+    // Then:
+    assertThat(forwarded(), contains(forward("k1", null, 0L)));
+  }
+
+  @Test
+  public void shouldForwardTheKeyBufferedLongestOnceBufferIsFull() {
+    // Given:
+    transform(10L, "k1", row(1L));
+    transform(20L, "k2", row(2L));
+    transform(30L, "k1", row(3L));
+
+    // When:
+    transform(40L, "k3", row(4L));
+
+    // Then:
+    assertThat(forwarded(), contains(forward("k1", row(3L), 30L)));
+  }
+
+  @Test
+  public void shouldNotForwardUpdatesAgainAtNextInterval() {
+    // Given:
+    transform(0L, "k1", row(1L));
+    punctuate();
+    forwarded();
+
+    // When:
+    punctuate();
+
+    // Then:
+    assertThat(forwarded(), is(empty()));
+  }
+
+  @Test
+  public void shouldNotLoseOrReorderUpdatesBufferedAcrossCommit() {
+    // Given:
+    transform(10L, "k1", row(1L));
+    punctuate();
+    transform(20L, "k1", row(2L));
+    transform(30L, "k1", null);
+    transform(40L, "k2", row(3L));
+    context.commit();
+    final List<KeyValue<KeyValue<Object, Object>, Long>> beforeFailure = forwarded();
+
+    // When:
+    givenTaskRestartedWithStore();
+    punctuate();
+
+    // Then:
+    assertThat(beforeFailure, contains(forward("k1", row(1L), 10L)));
+    assertThat(forwarded(), contains(
+        forward("k1", null, 30L),
+        forward("k2", row(3L), 40L)));
+  }
+
+  @Test
+  public void shouldKeepUpdatesInStoreOnClose() {
+    // Given:
+    transform(10L, "k1", row(1L));
+
+    // When:
+    transformer.close();
+
+    // Then:
+    assertThat(context.forwarded(), is(empty()));
+    assertThat(store.get("k1"), is(new TimestampedRow(row(1L), 10L)));
+  }
+
+  @Test
+  public void shouldReturnNothingFromTransform() {
+    // When:
+    final Object result = transformer.transform("k1", row(1L));
+
+    // Then:
+    assertThat(result, is(nullValue()));
+  }
+
+  @Test
+  public void shouldRecordUpdatesInDroppedAndFlushed() {
+    // Given:
+    transform(0L, "k1", row(1L));
+    transform(0L, "k1", row(2L));
+    transform(0L, "k2", row(3L));
+
+    // When:
+    punctuate();
+
+    // Then:
+    verify(inputSensor, times(3)).record();
+    verify(droppedSensor, times(1)).record();
+    verify(outputSensor, times(2)).record();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldThrowIfMaxKeysNotPositive() {
+    givenMaxKeys(0);
+  }
+
+  private void givenMaxKeys(final int maxKeys) {
+    givenTransformer(maxKeys);
+  }
+
+  /**
+   * Starts a new transformer on the store as the last one left it, as a task that took over
+   * after a failure would find it once restored from the changelog.
+   */
+  private void givenTaskRestartedWithStore() {
+    givenTransformer(2);
+  }
+
+  private void givenTransformer(final int maxKeys) {
+    context = new MockProcessorContext();
+    if (!store.isOpen()) {
+      store.init(context, store);
+    }
+    context.register(store, null);
+
+    transformer = new EmitRateLimitTransformer<>(
+        STORE_NAME,
+        EMIT_INTERVAL,
+        maxKeys,
+        new EmitRateLimitMetrics(inputSensor, droppedSensor, outputSensor));
+    transformer.init(context);
+  }
+
+  private void transform(final long timestamp, final String key, final GenericRow row) {
+    context.setTimestamp(timestamp);
+    transformer.transform(key, row);
+  }
+
+  private void punctuate() {
+    context.scheduledPunctuators().get(0).getPunctuator().punctuate(0L);
+  }
+
+  private List<KeyValue<KeyValue<Object, Object>, Long>> forwarded() {
+    final List<KeyValue<KeyValue<Object, Object>, Long>> forwarded = context.forwarded().stream()
+        .map(captured -> KeyValue.pair(
+            KeyValue.pair(captured.keyValue().key, captured.keyValue().value),
+            captured.timestamp()))
+        .collect(Collectors.toList());
+    context.resetForwards();
+    return forwarded;
+  }
+
+  private static KeyValue<KeyValue<Object, Object>, Long> forward(
+      final String key,
+      final GenericRow row,
+      final long timestamp
+  ) {
+    return KeyValue.pair(KeyValue.pair(key, row), timestamp);
+  }
+
+  private static GenericRow row(final Object... columns) {
+    final ArrayList<Object> values = new ArrayList<>();
+    Collections.addAll(values, columns);
+    return new GenericRow(values);
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.structured;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.emptyIterable;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.codegen.RowProjector;
+import java.util.List;
+import java.util.Optional;
+import org.apache.kafka.streams.kstream.Predicate;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class FilteredSelectValueMapperTest {
+
+  private static final String KEY = "key";
+  private static final GenericRow ROW = new GenericRow(1L, "a");
+  private static final GenericRow PROJECTED = new GenericRow("a");
+
+  @Mock
+  private RowProjector rowProjector;
+  @Mock
+  private Predicate<String, GenericRow> predicate;
+  @Mock
+  private SelectValueMapper selectValueMapper;
+
+  @Rule
+  public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+  private FilteredSelectValueMapper<String> mapper;
+
+  @Before
+  public void setUp() {
+    mapper = new FilteredSelectValueMapper<>(
+        Optional.of(rowProjector), predicate, selectValueMapper, 1);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldEmitProjectedRowIfAccepted() {
+    // Given:
+    doAnswer(inv -> {
+      ((List<Object>) inv.getArgument(1)).add("a");
+      return true;
+    }).when(rowProjector).project(any(), any());
+
+    // When:
+    final Iterable<GenericRow> result = mapper.apply(KEY, ROW);
+
+    // Then:
+    assertThat(result, contains(PROJECTED));
+    verify(predicate, never()).test(any(), any());
+  }
+
+  @Test
+  public void shouldEmitNothingIfRejected() {
+    // Given:
+    when(rowProjector.project(any(), any())).thenReturn(false);
+
+    // When:
+    final Iterable<GenericRow> result = mapper.apply(KEY, ROW);
+
+    // Then:
+    assertThat(result, emptyIterable());
+  }
+
+  @Test
+  public void shouldEmitNothingForNullRow() {
+    // When:
+    final Iterable<GenericRow> result = mapper.apply(KEY, null);
+
+    // Then:
+    assertThat(result, emptyIterable());
+  }
+
+  @Test
+  public void shouldFallBackToPredicateAndSelectIfProjectorThrows() {
+    // Given:
+    doThrow(new NullPointerException()).when(rowProjector).project(any(), any());
+    when(predicate.test(KEY, ROW)).thenReturn(true);
+    when(selectValueMapper.apply(ROW)).thenReturn(PROJECTED);
+
+    // When:
+    final Iterable<GenericRow> result = mapper.apply(KEY, ROW);
+
+    // Then:
+    assertThat(result, contains(PROJECTED));
+  }
+
+  @Test
+  public void shouldUsePredicateAndSelectIfNoProjector() {
+    // Given:
+    mapper = new FilteredSelectValueMapper<>(
+        Optional.empty(), predicate, selectValueMapper, 1);
+    when(predicate.test(KEY, ROW)).thenReturn(false);
+
+    // When:
+    final Iterable<GenericRow> result = mapper.apply(KEY, ROW);
+
+    // Then:
+    assertThat(result, emptyIterable());
+    verify(selectValueMapper, never()).apply(any());
+  }
+}
@@ -17,6 +17,7 @@ package io.confluent.ksql.structured;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 
 import com.google.common.collect.ImmutableList;
 import io.confluent.ksql.GenericRow;
@@ -50,17 +51,17 @@ public class GroupByMapperTest {
 
   @Before
   public void setUp() {
-    mapper = new GroupByMapper<>(ImmutableList.of(groupBy0, groupBy1));
+    mapper = new GroupByMapper<>(ImmutableList.of(groupBy0, groupBy1), false);
   }
 
   @Test(expected = NullPointerException.class)
   public void shouldThrowOnNullParam() {
-    new GroupByMapper<>(null);
+    new GroupByMapper<>(null, false);
   }
 
   @Test(expected = IllegalArgumentException.class)
   public void shouldThrowOnEmptyParam() {
-    new GroupByMapper<>(Collections.emptyList());
+    new GroupByMapper<>(Collections.emptyList(), false);
   }
 
   @Test
@@ -105,6 +106,80 @@ public class GroupByMapperTest {
     assertThat(result, is("null|+|result1"));
   }
 
+  @Test
+  public void shouldNotJoinSingleColumnKey() {
+    // Given:
+    mapper = new GroupByMapper<>(ImmutableList.of(groupBy0), false);
+    EasyMock.expect(groupBy0.evaluate(row)).andReturn("a|+|b\\c");
+    EasyMock.replay(groupBy0);
+
+    // When:
+    final String result = mapper.apply("key", row);
+
+    // Then:
+    assertThat(result, is("a|+|b\\c"));
+  }
+
+  @Test
+  public void shouldEscapeSeparatorsAndEscapesWithinValues() {
+    // Given:
+    EasyMock.expect(groupBy0.evaluate(row)).andReturn("a|+|b");
+    EasyMock.expect(groupBy1.evaluate(row)).andReturn("c\\");
+    EasyMock.replay(groupBy0, groupBy1);
+
+    // When:
+    final String result = mapper.apply("key", row);
+
+    // Then:
+    assertThat(result, is("a\\|+\\|b|+|c\\\\"));
+  }
+
+  @Test
+  public void shouldNotGiveDifferentGroupsTheSameKey() {
+    // Given:
+    EasyMock.expect(groupBy0.evaluate(row)).andReturn("a|+|b").andReturn("a");
+    EasyMock.expect(groupBy1.evaluate(row)).andReturn("c").andReturn("b|+|c");
+    EasyMock.replay(groupBy0, groupBy1);
+
+    // When:
+    final String first = mapper.apply("key", row);
+    final String second = mapper.apply("key", row);
+
+    // Then:
+    assertThat(first, is(not(second)));
+  }
+
+  @Test
+  public void shouldNotGiveDifferentGroupsWithPartialSeparatorsTheSameKey() {
+    // Given:
+    EasyMock.expect(groupBy0.evaluate(row)).andReturn("a|").andReturn("a||+");
+    EasyMock.expect(groupBy1.evaluate(row)).andReturn("+|b").andReturn("b");
+    EasyMock.replay(groupBy0, groupBy1);
+
+    // When:
+    final String first = mapper.apply("key", row);
+    final String second = mapper.apply("key", row);
+
+    // Then:
+    assertThat(first, is("a\\||+|+\\|b"));
+    assertThat(second, is("a\\|\\|+|+|b"));
+  }
+
+  @Test
+  public void shouldJoinValuesAsTheyAreForLegacyKeys() {
+    // Given:
+    mapper = new GroupByMapper<>(ImmutableList.of(groupBy0, groupBy1), true);
+    EasyMock.expect(groupBy0.evaluate(row)).andReturn("a|+|b");
+    EasyMock.expect(groupBy1.evaluate(row)).andReturn("c\\");
+    EasyMock.replay(groupBy0, groupBy1);
+
+    // When:
+    final String result = mapper.apply("key", row);
+
+    // Then:
+    assertThat(result, is("a|+|b|+|c\\"));
+  }
+
   @Test
   public void shouldGetKeyName() {
     // Given:
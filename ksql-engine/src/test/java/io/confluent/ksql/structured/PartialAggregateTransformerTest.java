@@ -0,0 +1,342 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.structured;
+
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.serde.binary.KsqlBinaryDeserializer;
+import io.confluent.ksql.serde.binary.KsqlBinarySerializer;
+import io.confluent.ksql.structured.PartialAggregateTransformer.PaneKey;
+import io.confluent.ksql.structured.PartialAggregateTransformer.PaneKeySerde;
+import io.confluent.ksql.structured.PunctuatedBuffer.TimestampedRow;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.processor.MockProcessorContext;
+import org.apache.kafka.streams.processor.MockProcessorContext.CapturedPunctuator;
+import org.apache.kafka.streams.processor.PunctuationType;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class PartialAggregateTransformerTest {
+
+  private static final String STORE_NAME = "buffer";
+  private static final Duration FLUSH_INTERVAL = Duration.ofSeconds(1);
+
+  private static final Schema PARTIAL_AGGREGATE_SCHEMA = SchemaBuilder.struct()
+      .field("SUM", Schema.OPTIONAL_INT64_SCHEMA)
+      .build();
+
+  @Mock
+  private Sensor inputSensor;
+  @Mock
+  private Sensor outputSensor;
+  @Mock
+  private Deserializer<GenericRow> legacyDeserializer;
+  @Mock
+  private ProcessingLogger recordLogger;
+
+  @Rule
+  public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+  private KeyValueStore<PaneKey, TimestampedRow> store;
+  private MockProcessorContext context;
+  private PartialAggregateTransformer transformer;
+
+  @Before
+  public void setUp() {
+    final Serde<GenericRow> partialAggregateSerde = Serdes.serdeFrom(
+        new KsqlBinarySerializer(PARTIAL_AGGREGATE_SCHEMA),
+        new KsqlBinaryDeserializer(PARTIAL_AGGREGATE_SCHEMA, legacyDeserializer, recordLogger));
+    store = PartialAggregateTransformer.storeBuilder(STORE_NAME, partialAggregateSerde)
+        .withCachingDisabled()
+        .withLoggingDisabled()
+        .build();
+    givenMaxKeys(2);
+  }
+
+  @Test
+  public void shouldScheduleFlushEveryIntervalOfWallClockTime() {
+    // Then:
+    assertThat(context.scheduledPunctuators().size(), is(1));
+    final CapturedPunctuator punctuator = context.scheduledPunctuators().get(0);
+    assertThat(punctuator.getInterval(), is(FLUSH_INTERVAL.toMillis()));
+    assertThat(punctuator.getType(), is(PunctuationType.WALL_CLOCK_TIME));
+  }
+
+  @Test
+  public void shouldCombineRecordsWithTheSameNewKeyUntilPunctuation() {
+    // Given:
+    transform(10L, "k1", row(1L, "a"));
+    transform(20L, "k2", row(2L, "a"));
+    assertThat(context.forwarded(), is(empty()));
+
+    // When:
+    punctuate();
+
+    // Then:
+    assertThat(forwarded(), contains(forward("a", row(3L), 20L)));
+  }
+
+  @Test
+  public void shouldCombineRecordsOnlyWithinTheirPane() {
+    // Given:
+    givenTransformer(10, 10L);
+    transform(3L, "k1", row(1L, "a"));
+    transform(9L, "k2", row(2L, "a"));
+    transform(10L, "k3", row(4L, "a"));
+
+    // When:
+    punctuate();
+
+    // Then:
+    assertThat(forwarded(), contains(
+        forward("a", row(3L), 9L),
+        forward("a", row(4L), 10L)));
+  }
+
+  @Test
+  public void shouldCountEachPaneTowardsMaxKeys() {
+    // Given:
+    givenTransformer(2, 10L);
+    transform(5L, "k1", row(1L, "a"));
+
+    // When:
+    transform(15L, "k2", row(2L, "a"));
+
+    // Then:
+    assertThat(forwarded(), contains(
+        forward("a", row(1L), 5L),
+        forward("a", row(2L), 15L)));
+  }
+
+  @Test
+  public void shouldForwardEveryPartialAggregateOnceBufferIsFull() {
+    // Given:
+    transform(10L, "k1", row(1L, "a"));
+
+    // When:
+    transform(20L, "k2", row(2L, "b"));
+
+    // Then:
+    assertThat(forwarded(), contains(
+        forward("a", row(1L), 10L),
+        forward("b", row(2L), 20L)));
+  }
+
+  @Test
+  public void shouldStartNewPartialAggregatesAfterFlush() {
+    // Given:
+    givenMaxKeys(1);
+    transform(0L, "k1", row(1L, "a"));
+
+    // When:
+    transform(0L, "k2", row(2L, "a"));
+
+    // Then:
+    assertThat(forwarded(), contains(
+        forward("a", row(1L), 0L),
+        forward("a", row(2L), 0L)));
+  }
+
+  @Test
+  public void shouldNotLoseOrReorderPartialAggregatesBufferedAcrossCommit() {
+    // Given:
+    givenMaxKeys(10);
+    transform(10L, "k1", row(1L, "a"));
+    punctuate();
+    transform(20L, "k2", row(2L, "a"));
+    transform(30L, "k3", row(4L, "b"));
+    context.commit();
+    final List<KeyValue<KeyValue<Object, Object>, Long>> beforeFailure = forwarded();
+
+    // When:
+    givenTaskRestartedWithStore();
+    punctuate();
+
+    // Then:
+    assertThat(beforeFailure, contains(forward("a", row(1L), 10L)));
+    assertThat(forwarded(), contains(
+        forward("a", row(2L), 20L),
+        forward("b", row(4L), 30L)));
+  }
+
+  @Test
+  public void shouldKeepPartialAggregatesInStoreOnClose() {
+    // Given:
+    transform(10L, "k1", row(1L, "a"));
+
+    // When:
+    transformer.close();
+
+    // Then:
+    assertThat(context.forwarded(), is(empty()));
+    assertThat(store.get(new PaneKey("a", 0L)), is(new TimestampedRow(row(1L), 10L)));
+  }
+
+  @Test
+  public void shouldRemovePartialAggregatesFromStoreOnceForwarded() {
+    // Given:
+    transform(10L, "k1", row(1L, "a"));
+
+    // When:
+    punctuate();
+
+    // Then:
+    assertThat(store.get(new PaneKey("a", 0L)), is(nullValue()));
+  }
+
+  @Test
+  public void shouldIgnoreNullRows() {
+    // When:
+    final Object result = transformer.transform("k1", null);
+    punctuate();
+
+    // Then:
+    assertThat(result, is(nullValue()));
+    assertThat(context.forwarded(), is(empty()));
+    verify(inputSensor, never()).record();
+  }
+
+  @Test
+  public void shouldRecordRecordsInAndPartialAggregatesOut() {
+    // Given:
+    transform(0L, "k1", row(1L, "a"));
+    transform(0L, "k2", row(2L, "a"));
+    transform(0L, "k3", row(3L, "a"));
+
+    // When:
+    punctuate();
+
+    // Then:
+    verify(inputSensor, times(3)).record();
+    verify(outputSensor, times(1)).record();
+  }
+
+  @Test
+  public void shouldRoundTripPaneKeys() {
+    // Given:
+    final PaneKeySerde serde = new PaneKeySerde();
+    final PaneKey key = new PaneKey("a|+|b", 1000L);
+
+    // When:
+    final PaneKey result = serde.deserializer().deserialize(
+        "t", serde.serializer().serialize("t", key));
+
+    // Then:
+    assertThat(result, is(key));
+  }
+
+  private void givenMaxKeys(final int maxKeys) {
+    givenTransformer(maxKeys, PartialAggregateTransformer.NO_PANES);
+  }
+
+  private void givenTransformer(final int maxKeys, final long paneSize) {
+    givenTransformer(maxKeys, paneSize, new MockProcessorContext());
+  }
+
+  /**
+   * Starts a new transformer on the store as the last one left it, as a task that took over
+   * after a failure would find it once restored from the changelog.
+   */
+  private void givenTaskRestartedWithStore() {
+    givenTransformer(10, PartialAggregateTransformer.NO_PANES, new MockProcessorContext());
+  }
+
+  private void givenTransformer(
+      final int maxKeys,
+      final long paneSize,
+      final MockProcessorContext context
+  ) {
+    this.context = context;
+    if (!store.isOpen()) {
+      store.init(context, store);
+    }
+    context.register(store, null);
+
+    // Groups by the second column and sums the first:
+    transformer = new PartialAggregateTransformer(
+        STORE_NAME,
+        FLUSH_INTERVAL,
+        maxKeys,
+        paneSize,
+        (key, row) -> (String) row.getColumns().get(1),
+        () -> row(0L),
+        (key, row, aggregate) -> {
+          aggregate.getColumns().set(
+              0, (Long) aggregate.getColumns().get(0) + (Long) row.getColumns().get(0));
+          return aggregate;
+        },
+        new PartialAggregationMetrics(inputSensor, outputSensor));
+    transformer.init(context);
+  }
+
+  private void transform(final long timestamp, final String key, final GenericRow row) {
+    context.setTimestamp(timestamp);
+    transformer.transform(key, row);
+  }
+
+  private void punctuate() {
+    context.scheduledPunctuators().get(0).getPunctuator().punctuate(0L);
+  }
+
+  private List<KeyValue<KeyValue<Object, Object>, Long>> forwarded() {
+    final List<KeyValue<KeyValue<Object, Object>, Long>> forwarded = context.forwarded().stream()
+        .map(captured -> KeyValue.pair(
+            KeyValue.pair(captured.keyValue().key, captured.keyValue().value),
+            captured.timestamp()))
+        .collect(Collectors.toList());
+    context.resetForwards();
+    return forwarded;
+  }
+
+  private static KeyValue<KeyValue<Object, Object>, Long> forward(
+      final String key,
+      final GenericRow row,
+      final long timestamp
+  ) {
+    return KeyValue.pair(KeyValue.pair(key, row), timestamp);
+  }
+
+  private static GenericRow row(final Object... columns) {
+    final ArrayList<Object> values = new ArrayList<>();
+    Collections.addAll(values, columns);
+    return new GenericRow(values);
+  }
+}
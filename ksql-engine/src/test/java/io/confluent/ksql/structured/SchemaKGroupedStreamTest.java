@@ -19,11 +19,13 @@ import static java.util.Collections.emptyMap;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.sameInstance;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -32,16 +34,24 @@ import com.google.common.collect.ImmutableMap;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.function.FunctionRegistry;
 import io.confluent.ksql.function.KsqlAggregateFunction;
+import io.confluent.ksql.function.UdafAggregator;
+import io.confluent.ksql.function.udaf.KudafAggregator;
+import io.confluent.ksql.parser.tree.HoppingWindowExpression;
 import io.confluent.ksql.parser.tree.KsqlWindowExpression;
+import io.confluent.ksql.parser.tree.ResultMaterialization;
+import io.confluent.ksql.parser.tree.TumblingWindowExpression;
 import io.confluent.ksql.parser.tree.WindowExpression;
 import io.confluent.ksql.query.QueryId;
 import io.confluent.ksql.streams.MaterializedFactory;
 import io.confluent.ksql.streams.StreamsUtil;
 import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.KsqlException;
+import java.time.Duration;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.connect.data.Field;
@@ -50,6 +60,9 @@ import org.apache.kafka.streams.kstream.Initializer;
 import org.apache.kafka.streams.kstream.KGroupedStream;
 import org.apache.kafka.streams.kstream.KTable;
 import org.apache.kafka.streams.kstream.Materialized;
+import org.apache.kafka.streams.kstream.Suppressed;
+import org.apache.kafka.streams.kstream.TimeWindowedKStream;
+import org.apache.kafka.streams.kstream.TimeWindows;
 import org.apache.kafka.streams.kstream.ValueMapper;
 import org.apache.kafka.streams.kstream.ValueMapperWithKey;
 import org.apache.kafka.streams.kstream.Windowed;
@@ -57,6 +70,8 @@ import org.apache.kafka.streams.kstream.WindowedSerdes;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
@@ -106,6 +121,9 @@ public class SchemaKGroupedStreamTest {
   @Rule
   public final MockitoRule mockitoRule = MockitoJUnit.rule();
 
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
   @Before
   public void setUp() {
     schemaGroupedStream = new SchemaKGroupedStream(
@@ -165,7 +183,8 @@ public class SchemaKGroupedStreamTest {
     // When:
     final SchemaKTable result = schemaGroupedStream
         .aggregate(
-            initializer,emptyMap(), emptyMap(), null, topicValueSerDe, queryContext);
+            initializer,emptyMap(), emptyMap(), null, ResultMaterialization.CHANGES,
+            topicValueSerDe, queryContext);
 
     // Then:
     assertThat(result.getKeySerdeFactory().create(), instanceOf(Serdes.String().getClass()));
@@ -175,7 +194,8 @@ public class SchemaKGroupedStreamTest {
   public void shouldUseWindowExpressionKeySerde() {
     // When:
     final SchemaKTable result = schemaGroupedStream
-        .aggregate(initializer, emptyMap(), emptyMap(), windowExp, topicValueSerDe, queryContext);
+        .aggregate(initializer, emptyMap(), emptyMap(), windowExp, ResultMaterialization.CHANGES,
+            topicValueSerDe, queryContext);
 
     // Then:
     assertThat(result.getKeySerdeFactory().create(), is(sameInstance(windowedKeySerde)));
@@ -191,7 +211,8 @@ public class SchemaKGroupedStreamTest {
 
     // When:
     final SchemaKTable result = schemaGroupedStream
-        .aggregate(initializer, emptyMap(), emptyMap(), windowExp, topicValueSerDe, queryContext);
+        .aggregate(initializer, emptyMap(), emptyMap(), windowExp, ResultMaterialization.CHANGES,
+            topicValueSerDe, queryContext);
 
     // Then:
     assertThat(result.getKeySerdeFactory().create(),
@@ -218,7 +239,8 @@ public class SchemaKGroupedStreamTest {
 
     // When:
     final SchemaKTable result = schemaGroupedStream
-        .aggregate(initializer, funcMap, emptyMap(), windowExp, topicValueSerDe, queryContext);
+        .aggregate(initializer, funcMap, emptyMap(), windowExp, ResultMaterialization.CHANGES,
+            topicValueSerDe, queryContext);
 
     // Then:
     assertThat(result.getKtable(), is(sameInstance(table)));
@@ -236,7 +258,8 @@ public class SchemaKGroupedStreamTest {
 
     // When:
     final SchemaKTable result = schemaGroupedStream
-        .aggregate(initializer, funcMap, emptyMap(), windowExp, topicValueSerDe, queryContext);
+        .aggregate(initializer, funcMap, emptyMap(), windowExp, ResultMaterialization.CHANGES,
+            topicValueSerDe, queryContext);
 
     // Then:
     assertThat(result.getKtable(), is(sameInstance(table2)));
@@ -269,6 +292,7 @@ public class SchemaKGroupedStreamTest {
         Collections.emptyMap(),
         Collections.emptyMap(),
         null,
+        ResultMaterialization.CHANGES,
         topicValueSerDe,
         queryContext
     );
@@ -297,6 +321,7 @@ public class SchemaKGroupedStreamTest {
         Collections.emptyMap(),
         Collections.emptyMap(),
         windowExp,
+        ResultMaterialization.CHANGES,
         topicValueSerDe,
         queryContext);
 
@@ -308,4 +333,171 @@ public class SchemaKGroupedStreamTest {
             eq(StreamsUtil.buildOpName(queryContext.getQueryContext())));
     verify(ksqlWindowExp, times(1)).applyAggregate(any(), any(), any(), same(materialized));
   }
+
+  @Test
+  public void shouldMergePartialAggregatesIntoHoppingWindows() {
+    // Given:
+    final TimeWindowedKStream windowedStream = mock(TimeWindowedKStream.class);
+    when(groupedStream.windowedBy(any(TimeWindows.class))).thenReturn(windowedStream);
+    when(windowedStream.aggregate(any(), any(), any())).thenReturn(table);
+    when(windowExp.getKsqlWindowExpression()).thenReturn(
+        new HoppingWindowExpression(10, TimeUnit.SECONDS, 4, TimeUnit.SECONDS));
+
+    // When:
+    givenPartiallyAggregated().aggregate(
+        () -> null,
+        Collections.emptyMap(),
+        Collections.emptyMap(),
+        windowExp,
+        ResultMaterialization.CHANGES,
+        topicValueSerDe,
+        queryContext);
+
+    // Then:
+    final ArgumentCaptor<UdafAggregator> aggregator =
+        ArgumentCaptor.forClass(UdafAggregator.class);
+    verify(windowedStream).aggregate(any(), aggregator.capture(), same(materialized));
+    assertThat(aggregator.getValue(), is(not(instanceOf(KudafAggregator.class))));
+  }
+
+  @Test
+  public void shouldThrowIfPartialAggregatesAreNotWindowedByHoppingWindows() {
+    // Given:
+    when(windowExp.getKsqlWindowExpression()).thenReturn(
+        new TumblingWindowExpression(10, TimeUnit.SECONDS));
+
+    // Expect:
+    expectedException.expect(IllegalStateException.class);
+    expectedException.expectMessage("hopping windows");
+
+    // When:
+    givenPartiallyAggregated().aggregate(
+        () -> null,
+        Collections.emptyMap(),
+        Collections.emptyMap(),
+        windowExp,
+        ResultMaterialization.CHANGES,
+        topicValueSerDe,
+        queryContext);
+  }
+
+  @Test
+  public void shouldThrowIfPartialAggregatesOfHoppingWindowsAreEmittedFinal() {
+    // Given:
+    when(windowExp.getKsqlWindowExpression()).thenReturn(
+        new HoppingWindowExpression(10, TimeUnit.SECONDS, 4, TimeUnit.SECONDS));
+
+    // Expect:
+    expectedException.expect(IllegalStateException.class);
+    expectedException.expectMessage("EMIT FINAL");
+
+    // When:
+    givenPartiallyAggregated().aggregate(
+        () -> null,
+        Collections.emptyMap(),
+        Collections.emptyMap(),
+        windowExp,
+        ResultMaterialization.FINAL,
+        topicValueSerDe,
+        queryContext);
+  }
+
+  @Test
+  public void shouldSuppressWindowedAggregateUntilWindowsCloseIfEmitFinal() {
+    // Given:
+    final KTable suppressed = mock(KTable.class);
+    final KTable emitted = mock(KTable.class);
+    when(config.getLong(KsqlConfig.KSQL_SUPPRESS_BUFFER_SIZE_BYTES_CONFIG)).thenReturn(-1L);
+    when(ksqlWindowExp.applyAggregate(any(), any(), any(), same(materialized), any()))
+        .thenReturn(table);
+    when(table.suppress(any(Suppressed.class))).thenReturn(suppressed);
+    when(suppressed.mapValues(any(ValueMapper.class))).thenReturn(emitted);
+
+    // When:
+    final SchemaKTable result = schemaGroupedStream.aggregate(
+        () -> null,
+        Collections.emptyMap(),
+        Collections.emptyMap(),
+        windowExp,
+        ResultMaterialization.FINAL,
+        topicValueSerDe,
+        queryContext);
+
+    // Then:
+    verify(table).suppress(any(Suppressed.class));
+    assertThat(result.getKtable(), is(sameInstance(emitted)));
+  }
+
+  @Test
+  public void shouldCloseWindowsAfterConfiguredGracePeriodIfEmitFinal() {
+    // Given:
+    final KTable suppressed = mock(KTable.class);
+    when(config.getLong(KsqlConfig.KSQL_SUPPRESS_GRACE_PERIOD_MS_CONFIG)).thenReturn(5000L);
+    when(ksqlWindowExp.applyAggregate(any(), any(), any(), same(materialized), any()))
+        .thenReturn(table);
+    when(table.suppress(any(Suppressed.class))).thenReturn(suppressed);
+    when(suppressed.mapValues(any(ValueMapper.class))).thenReturn(suppressed);
+
+    // When:
+    schemaGroupedStream.aggregate(
+        () -> null,
+        Collections.emptyMap(),
+        Collections.emptyMap(),
+        windowExp,
+        ResultMaterialization.FINAL,
+        topicValueSerDe,
+        queryContext);
+
+    // Then:
+    verify(ksqlWindowExp).applyAggregate(
+        any(), any(), any(), same(materialized), eq(Optional.of(Duration.ofMillis(5000L))));
+  }
+
+  @Test
+  public void shouldNotSuppressWindowedAggregateIfEmitChanges() {
+    // Given:
+    when(ksqlWindowExp.applyAggregate(any(), any(), any(), same(materialized))).thenReturn(table);
+
+    // When:
+    schemaGroupedStream.aggregate(
+        () -> null,
+        Collections.emptyMap(),
+        Collections.emptyMap(),
+        windowExp,
+        ResultMaterialization.CHANGES,
+        topicValueSerDe,
+        queryContext);
+
+    // Then:
+    verify(table, never()).suppress(any());
+  }
+
+  @Test
+  public void shouldThrowOnEmitFinalIfNotWindowed() {
+    // Expect:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage("EMIT FINAL is only supported for windowed aggregations.");
+
+    // When:
+    schemaGroupedStream.aggregate(
+        () -> null,
+        Collections.emptyMap(),
+        Collections.emptyMap(),
+        null,
+        ResultMaterialization.FINAL,
+        topicValueSerDe,
+        queryContext);
+  }
+
+  private SchemaKGroupedStream givenPartiallyAggregated() {
+    return new SchemaKGroupedStream(
+        schema,
+        groupedStream,
+        keyField,
+        sourceStreams,
+        config,
+        funcRegistry,
+        materializedFactory,
+        true);
+  }
 }
@@ -37,6 +37,7 @@ import io.confluent.ksql.parser.tree.DereferenceExpression;
 import io.confluent.ksql.parser.tree.Expression;
 import io.confluent.ksql.parser.tree.QualifiedName;
 import io.confluent.ksql.parser.tree.QualifiedNameReference;
+import io.confluent.ksql.parser.tree.ResultMaterialization;
 import io.confluent.ksql.parser.tree.TumblingWindowExpression;
 import io.confluent.ksql.parser.tree.WindowExpression;
 import io.confluent.ksql.planner.plan.PlanNode;
@@ -153,6 +154,7 @@ public class SchemaKGroupedTableTest {
               functionRegistry.getAggregate("SUM", Schema.OPTIONAL_INT64_SCHEMA)),
           Collections.singletonMap(0, 0),
           windowExpression,
+          ResultMaterialization.CHANGES,
           new KsqlJsonTopicSerDe().getGenericRowSerde(
               ksqlTable.getSchema(),
               ksqlConfig,
@@ -184,6 +186,7 @@ public class SchemaKGroupedTableTest {
           aggValToFunctionMap,
           Collections.singletonMap(0, 0),
           null,
+          ResultMaterialization.CHANGES,
           new KsqlJsonTopicSerDe().getGenericRowSerde(
               ksqlTable.getSchema(),
               ksqlConfig,
@@ -247,6 +250,7 @@ public class SchemaKGroupedTableTest {
         Collections.emptyMap(),
         Collections.emptyMap(),
         null,
+        ResultMaterialization.CHANGES,
         valueSerde,
         queryContext);
 
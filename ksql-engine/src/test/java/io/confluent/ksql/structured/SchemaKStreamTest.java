@@ -19,6 +19,7 @@ import static io.confluent.ksql.metastore.model.StructuredDataSourceMatchers.Fie
 import static io.confluent.ksql.metastore.model.StructuredDataSourceMatchers.FieldMatchers.hasName;
 import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.junit.Assert.assertEquals;
@@ -27,13 +28,17 @@ import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.same;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.function.InternalFunctionRegistry;
+import io.confluent.ksql.function.udaf.KudafAggregator;
+import io.confluent.ksql.function.udaf.KudafInitializer;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
 import io.confluent.ksql.metastore.MetaStore;
 import io.confluent.ksql.metastore.model.KsqlStream;
@@ -83,6 +88,8 @@ import org.apache.kafka.streams.kstream.KStream;
 import org.apache.kafka.streams.kstream.KTable;
 import org.apache.kafka.streams.kstream.KeyValueMapper;
 import org.apache.kafka.streams.kstream.Predicate;
+import org.apache.kafka.streams.kstream.TransformerSupplier;
+import org.apache.kafka.streams.state.StoreBuilder;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -313,6 +320,24 @@ public class SchemaKStreamTest {
         .assertSame(projectedSchemaKStream.getSourceSchemaKStreams().get(0), initialSchemaKStream);
   }
 
+  @Test
+  public void shouldShowRewrittenExpressionsInExecutionPlan() {
+    // Given:
+    final PlanNode logicalPlan = givenInitialKStreamOf(
+        "SELECT col0 * (60 * 60) FROM test1 WHERE col0 > 100;");
+    final ProjectNode projectNode = (ProjectNode) logicalPlan.getSources().get(0);
+
+    // When:
+    final SchemaKStream projectedSchemaKStream = initialSchemaKStream.select(
+        projectNode.getProjectSelectExpressions(),
+        childContextStacker,
+        processingLogContext);
+
+    // Then:
+    assertThat(projectedSchemaKStream.getExecutionPlan(""), containsString(
+        " | Rewritten: (TEST1.COL0 * (60 * 60)) => (TEST1.COL0 * 3600)\n"));
+  }
+
   @Test
   public void testFilter() {
     final PlanNode logicalPlan = givenInitialKStreamOf(
@@ -345,6 +370,62 @@ public class SchemaKStreamTest {
     Assert.assertSame(filteredSchemaKStream.getSourceSchemaKStreams().get(0), initialSchemaKStream);
   }
 
+  @Test
+  public void shouldFilterThenSelectIfFusedFilterProjectionDisabled() {
+    // Given:
+    final PlanNode logicalPlan = givenInitialKStreamOf(
+        "SELECT col0, col2, col3 FROM test1 WHERE col0 > 100;");
+    final ProjectNode projectNode = (ProjectNode) logicalPlan.getSources().get(0);
+    final FilterNode filterNode = (FilterNode) projectNode.getSources().get(0);
+
+    // When:
+    final SchemaKStream result = initialSchemaKStream.filterAndSelect(
+        filterNode.getPredicate(),
+        childContextStacker,
+        projectNode.getProjectSelectExpressions(),
+        childContextStacker,
+        processingLogContext);
+
+    // Then:
+    assertThat(result.getType(), is(Type.PROJECT));
+    final SchemaKStream filtered = (SchemaKStream) result.getSourceSchemaKStreams().get(0);
+    assertThat(filtered.getType(), is(Type.FILTER));
+    assertThat(filtered.getSourceSchemaKStreams().get(0), is(initialSchemaKStream));
+  }
+
+  @Test
+  public void shouldFuseFilterAndSelectIfEnabled() {
+    // Given:
+    final PlanNode logicalPlan = givenInitialKStreamOf(
+        "SELECT col0, col2, col3 FROM test1 WHERE col0 > 100;");
+    final ProjectNode projectNode = (ProjectNode) logicalPlan.getSources().get(0);
+    final FilterNode filterNode = (FilterNode) projectNode.getSources().get(0);
+    final SchemaKStream fusingSchemaKStream = new SchemaKStream(
+        initialSchemaKStream.getSchema(),
+        kStream,
+        ksqlStream.getKeyField(),
+        new ArrayList<>(),
+        Serdes::String,
+        SchemaKStream.Type.SOURCE,
+        new KsqlConfig(ImmutableMap.of(
+            KsqlConfig.KSQL_CODEGEN_FUSED_FILTER_PROJECTION_CONFIG, true)),
+        functionRegistry,
+        queryContext.push("source").getQueryContext());
+
+    // When:
+    final SchemaKStream result = fusingSchemaKStream.filterAndSelect(
+        filterNode.getPredicate(),
+        childContextStacker,
+        projectNode.getProjectSelectExpressions(),
+        childContextStacker,
+        processingLogContext);
+
+    // Then:
+    assertThat(result.getType(), is(Type.FILTER_PROJECT));
+    assertThat(result.getSchema().fields().size(), is(3));
+    assertThat(result.getSourceSchemaKStreams().get(0), is(fusingSchemaKStream));
+  }
+
   @Test
   public void testSelectKey() {
     givenInitialKStreamOf("SELECT col0, col2, col3 FROM test1 WHERE col0 > 100;");
@@ -473,6 +554,109 @@ public class SchemaKStreamTest {
     verify(mockKStream).groupBy(any(KeyValueMapper.class), same(grouped));
   }
 
+  @Test
+  public void shouldPartiallyAggregateBeforeRepartitioning() {
+    // Given:
+    final StreamsBuilder builder = mock(StreamsBuilder.class);
+    final KStream partialStream = mock(KStream.class);
+    when(mockKStream.transform(any(TransformerSupplier.class), anyString()))
+        .thenReturn(partialStream);
+    final KGroupedStream groupedStream = mock(KGroupedStream.class);
+    when(partialStream.groupByKey(any(Grouped.class))).thenReturn(groupedStream);
+    final Expression col0Expression = new DereferenceExpression(
+        new QualifiedNameReference(QualifiedName.of(ksqlStream.getName())), "COL0");
+    final Expression col1Expression = new DereferenceExpression(
+        new QualifiedNameReference(QualifiedName.of(ksqlStream.getName())), "COL1");
+    final List<Expression> groupByExpressions = Arrays.asList(col1Expression, col0Expression);
+    initialSchemaKStream =
+        buildSchemaKStream(mockKStream, mockGroupedFactory, mockJoinedFactory);
+
+    // When:
+    final SchemaKGroupedStream result = initialSchemaKStream.groupByWithPartialAggregation(
+        builder,
+        leftSerde,
+        rightSerde,
+        groupByExpressions,
+        new KudafInitializer(0),
+        new KudafAggregator(Collections.emptyMap(), Collections.emptyMap()),
+        childContextStacker);
+
+    // Then:
+    verify(builder).addStateStore(any(StoreBuilder.class));
+    verify(mockGroupedFactory).create(
+        eq(StreamsUtil.buildOpName(childContextStacker.push("partial").getQueryContext())),
+        any(StringSerde.class),
+        same(rightSerde));
+    verify(partialStream).groupByKey(same(grouped));
+    assertThat(result.partiallyAggregated, is(true));
+  }
+
+  @Test
+  public void shouldNotPartiallyAggregateIfNoRepartitionIsRequired() {
+    // Given:
+    final StreamsBuilder builder = mock(StreamsBuilder.class);
+    final KGroupedStream groupedStream = mock(KGroupedStream.class);
+    when(mockKStream.groupByKey(any(Grouped.class))).thenReturn(groupedStream);
+    final Expression keyExpression = new DereferenceExpression(
+        new QualifiedNameReference(QualifiedName.of(ksqlStream.getName())),
+        ksqlStream.getKeyField().get().name());
+    initialSchemaKStream
+        = buildSchemaKStream(mockKStream, mockGroupedFactory, mockJoinedFactory);
+
+    // When:
+    final SchemaKGroupedStream result = initialSchemaKStream.groupByWithPartialAggregation(
+        builder,
+        leftSerde,
+        rightSerde,
+        Collections.singletonList(keyExpression),
+        new KudafInitializer(0),
+        new KudafAggregator(Collections.emptyMap(), Collections.emptyMap()),
+        childContextStacker);
+
+    // Then:
+    verify(mockKStream, never()).transform(any(TransformerSupplier.class), anyString());
+    verify(mockGroupedFactory).create(
+        eq(StreamsUtil.buildOpName(childContextStacker.getQueryContext())),
+        any(StringSerde.class),
+        same(leftSerde));
+    assertThat(result.partiallyAggregated, is(false));
+  }
+
+  @Test
+  public void shouldAggregateIntoPanesEvenIfNoRepartitionIsRequired() {
+    // Given:
+    final StreamsBuilder builder = mock(StreamsBuilder.class);
+    final KStream paneStream = mock(KStream.class);
+    when(mockKStream.transform(any(TransformerSupplier.class), anyString()))
+        .thenReturn(paneStream);
+    final KGroupedStream groupedStream = mock(KGroupedStream.class);
+    when(paneStream.groupByKey(any(Grouped.class))).thenReturn(groupedStream);
+    final Expression keyExpression = new DereferenceExpression(
+        new QualifiedNameReference(QualifiedName.of(ksqlStream.getName())),
+        ksqlStream.getKeyField().get().name());
+    initialSchemaKStream
+        = buildSchemaKStream(mockKStream, mockGroupedFactory, mockJoinedFactory);
+
+    // When:
+    final SchemaKGroupedStream result = initialSchemaKStream.groupByWithPaneAggregation(
+        builder,
+        rightSerde,
+        Collections.singletonList(keyExpression),
+        60_000L,
+        new KudafInitializer(0),
+        new KudafAggregator(Collections.emptyMap(), Collections.emptyMap()),
+        childContextStacker);
+
+    // Then:
+    verify(builder).addStateStore(any(StoreBuilder.class));
+    verify(mockGroupedFactory).create(
+        eq(StreamsUtil.buildOpName(childContextStacker.push("panes").getQueryContext())),
+        any(StringSerde.class),
+        same(rightSerde));
+    verify(paneStream).groupByKey(same(grouped));
+    assertThat(result.partiallyAggregated, is(true));
+  }
+
   @SuppressWarnings("unchecked")
   @Test
   public void shouldPerformStreamToStreamLeftJoin() {
@@ -19,10 +19,12 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.verify;
 
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.codegen.CodeGenRunner;
+import io.confluent.ksql.codegen.RowProjector;
 import io.confluent.ksql.function.InternalFunctionRegistry;
 import io.confluent.ksql.logging.processing.ProcessingLogConfig;
 import io.confluent.ksql.logging.processing.ProcessingLogMessageSchema;
@@ -40,6 +42,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.apache.kafka.connect.data.Schema;
@@ -136,7 +139,47 @@ public class SelectValueMapperTest {
     );
   }
 
+  @Test
+  public void shouldSelectChosenColumnsWithRowProjector() {
+    // Given:
+    final SelectValueMapper selectMapper = givenProjectingSelectMapperFor(
+        "SELECT col0, col2, col3, CEIL(col3) FROM test1 WHERE col0 > 100;");
+
+    // When:
+    final GenericRow transformed = selectMapper.apply(
+        genericRow(1521834663L, "key1", 1L, "hi", "bye", 2.5F, "blah"));
+
+    // Then:
+    assertThat(transformed, is(genericRow(1L, "bye", 2.5F, 3.0F)));
+  }
+
+  @Test
+  public void shouldFallBackToPerExpressionEvaluationIfRowProjectorFails() {
+    // Given:
+    final SelectValueMapper selectMapper = givenProjectingSelectMapperFor(
+        "SELECT col0, col1, col2, CEIL(col3) FROM test1 WHERE col0 > 100;");
+
+    // When:
+    final GenericRow row = selectMapper.apply(
+        genericRow(0L, "key", 2L, "foo", "whatever", null, "boo", "hoo"));
+
+    // Then:
+    assertThat(row, is(genericRow(2L, "foo", "whatever", null)));
+    verify(processingLogger).error(any());
+  }
+
   private SelectValueMapper givenSelectMapperFor(final String query) {
+    return givenSelectMapperFor(query, false);
+  }
+
+  private SelectValueMapper givenProjectingSelectMapperFor(final String query) {
+    return givenSelectMapperFor(query, true);
+  }
+
+  private SelectValueMapper givenSelectMapperFor(
+      final String query,
+      final boolean withRowProjector
+  ) {
     final PlanNode planNode = AnalysisTestUtil.buildLogicalPlan(query, metaStore);
     final ProjectNode projectNode = (ProjectNode) planNode.getSources().get(0);
     final Schema schema = planNode.getTheSourceNode().getSchema();
@@ -145,9 +188,16 @@ public class SelectValueMapperTest {
     final List<String> selectFieldNames = selectExpressions.stream()
         .map(SelectExpression::getName)
         .collect(Collectors.toList());
+    final Optional<RowProjector> rowProjector = withRowProjector
+        ? Optional.of(new CodeGenRunner(schema, ksqlConfig, new InternalFunctionRegistry())
+            .buildRowProjector(selectExpressions.stream()
+                .map(SelectExpression::getExpression)
+                .collect(Collectors.toList())))
+        : Optional.empty();
     return new SelectValueMapper(
         selectFieldNames,
         metadata,
+        rowProjector,
         processingLogger
     );
   }
@@ -0,0 +1,171 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.structured;
+
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableList;
+import io.confluent.ksql.GenericRow;
+import java.util.ArrayList;
+import java.util.Collections;
+import org.apache.kafka.common.metrics.Sensor;
+import org.apache.kafka.streams.KeyValue;
+import org.apache.kafka.streams.processor.ProcessorContext;
+import org.apache.kafka.streams.state.KeyValueStore;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class TableDedupTransformerTest {
+
+  private static final String STORE_NAME = "dedup";
+
+  @Mock
+  private ProcessorContext context;
+  @Mock
+  private KeyValueStore<String, GenericRow> store;
+  @Mock
+  private Sensor inputSensor;
+  @Mock
+  private Sensor suppressedSensor;
+
+  @Rule
+  public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+  private TableDedupTransformer<String> transformer;
+
+  @Before
+  public void setUp() {
+    when(context.getStateStore(STORE_NAME)).thenReturn(store);
+    transformer = new TableDedupTransformer<>(
+        STORE_NAME,
+        new TableDedupMetrics(inputSensor, suppressedSensor));
+    transformer.init(context);
+  }
+
+  @Test
+  public void shouldForwardAndStoreFirstRowForKey() {
+    // When:
+    final KeyValue<String, GenericRow> result = transformer.transform("k1", row(1L, "a"));
+
+    // Then:
+    assertThat(result, is(KeyValue.pair("k1", row(1L, "a"))));
+    verify(store).put("k1", row(1L, "a"));
+  }
+
+  @Test
+  public void shouldSuppressUnchangedRow() {
+    // Given:
+    when(store.get("k1")).thenReturn(row(1L, "a"));
+
+    // When:
+    final KeyValue<String, GenericRow> result = transformer.transform("k1", row(1L, "a"));
+
+    // Then:
+    assertThat(result, is(nullValue()));
+    verify(store, never()).put(any(), any());
+  }
+
+  @Test
+  public void shouldForwardAndStoreChangedRow() {
+    // Given:
+    when(store.get("k1")).thenReturn(row(1L, "a"));
+
+    // When:
+    final KeyValue<String, GenericRow> result = transformer.transform("k1", row(2L, "a"));
+
+    // Then:
+    assertThat(result, is(KeyValue.pair("k1", row(2L, "a"))));
+    verify(store).put("k1", row(2L, "a"));
+  }
+
+  @Test
+  public void shouldForwardAndDeleteOnDeleteOfStoredRow() {
+    // Given:
+    when(store.get("k1")).thenReturn(row(1L, "a"));
+
+    // When:
+    final KeyValue<String, GenericRow> result = transformer.transform("k1", null);
+
+    // Then:
+    assertThat(result, is(KeyValue.pair("k1", (GenericRow) null)));
+    verify(store).delete("k1");
+  }
+
+  @Test
+  public void shouldSuppressDeleteOfKeyNotStored() {
+    // When:
+    final KeyValue<String, GenericRow> result = transformer.transform("k1", null);
+
+    // Then:
+    assertThat(result, is(nullValue()));
+    verify(store, never()).delete(any());
+  }
+
+  @Test
+  public void shouldRecordUpdatesInAndSuppressed() {
+    // Given:
+    when(store.get("k1")).thenReturn(row(1L, "a"));
+
+    // When:
+    transformer.transform("k1", row(1L, "a"));
+    transformer.transform("k1", row(2L, "a"));
+
+    // Then:
+    verify(inputSensor, times(2)).record();
+    verify(suppressedSensor, times(1)).record();
+  }
+
+  @Test
+  public void shouldCompareArrayColumnsByContent() {
+    assertThat(TableDedupTransformer.isSameRow(
+        row((Object) new Long[]{1L, 2L}),
+        row((Object) new Long[]{1L, 2L})), is(true));
+  }
+
+  @Test
+  public void shouldCompareListColumnsByContent() {
+    assertThat(TableDedupTransformer.isSameRow(
+        row(ImmutableList.of(1L, 2L)),
+        row(new ArrayList<>(ImmutableList.of(1L, 2L)))), is(true));
+  }
+
+  @Test
+  public void shouldNotTreatRowsWithDifferentColumnTypesAsSame() {
+    assertThat(TableDedupTransformer.isSameRow(row(1L), row(1)), is(false));
+  }
+
+  @Test
+  public void shouldNotTreatRowsOfDifferentSizesAsSame() {
+    assertThat(TableDedupTransformer.isSameRow(row(1L), row(1L, null)), is(false));
+  }
+
+  private static GenericRow row(final Object... columns) {
+    final ArrayList<Object> values = new ArrayList<>();
+    Collections.addAll(values, columns);
+    return new GenericRow(values);
+  }
+}
@@ -74,9 +74,15 @@ query
       (WHERE where=booleanExpression)?
       (GROUP BY groupBy)?
       (HAVING having=booleanExpression)?
+      (EMIT resultMaterialization)?
       limitClause?
     ;
 
+resultMaterialization
+    : CHANGES (EVERY number windowUnit)?
+    | FINAL
+    ;
+
 tableElement
     : identifier type
     ;
@@ -306,6 +312,7 @@ nonReserved
     | EXPLAIN | ANALYZE | TYPE
     | SET | RESET
     | IF
+    | EMIT | CHANGES | FINAL | EVERY
     ;
 
 SELECT: 'SELECT';
@@ -319,6 +326,10 @@ GROUP: 'GROUP';
 BY: 'BY';
 HAVING: 'HAVING';
 LIMIT: 'LIMIT';
+EMIT: 'EMIT';
+CHANGES: 'CHANGES';
+FINAL: 'FINAL';
+EVERY: 'EVERY';
 AT: 'AT';
 OR: 'OR';
 AND: 'AND';
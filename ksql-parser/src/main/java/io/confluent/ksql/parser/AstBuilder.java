@@ -25,6 +25,7 @@ import io.confluent.ksql.parser.SqlBaseParser.IntegerLiteralContext;
 import io.confluent.ksql.parser.SqlBaseParser.IntervalClauseContext;
 import io.confluent.ksql.parser.SqlBaseParser.LimitClauseContext;
 import io.confluent.ksql.parser.SqlBaseParser.NumberContext;
+import io.confluent.ksql.parser.SqlBaseParser.ResultMaterializationContext;
 import io.confluent.ksql.parser.SqlBaseParser.TablePropertiesContext;
 import io.confluent.ksql.parser.SqlBaseParser.TablePropertyContext;
 import io.confluent.ksql.parser.tree.AliasedRelation;
@@ -82,6 +83,7 @@ import io.confluent.ksql.parser.tree.QualifiedNameReference;
 import io.confluent.ksql.parser.tree.Query;
 import io.confluent.ksql.parser.tree.RegisterTopic;
 import io.confluent.ksql.parser.tree.Relation;
+import io.confluent.ksql.parser.tree.ResultMaterialization;
 import io.confluent.ksql.parser.tree.RunScript;
 import io.confluent.ksql.parser.tree.SearchedCaseExpression;
 import io.confluent.ksql.parser.tree.Select;
@@ -119,6 +121,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.OptionalLong;
 import java.util.concurrent.TimeUnit;
 import org.antlr.v4.runtime.ParserRuleContext;
 import org.antlr.v4.runtime.RuleContext;
@@ -306,6 +309,8 @@ public class AstBuilder extends SqlBaseBaseVisitor<Node> {
         visitIfPresent(context.where, Expression.class),
         visitIfPresent(context.groupBy(), GroupBy.class),
         visitIfPresent(context.having, Expression.class),
+        getResultMaterialization(context.resultMaterialization()),
+        getEmitIntervalMs(context.resultMaterialization()),
         limit
     );
   }
@@ -1333,6 +1338,27 @@ public class AstBuilder extends SqlBaseBaseVisitor<Node> {
         : OptionalInt.of(processIntegerNumber(limitContext.number(), "LIMIT"));
   }
 
+  private static ResultMaterialization getResultMaterialization(
+      final ResultMaterializationContext context
+  ) {
+    return context != null && context.FINAL() != null
+        ? ResultMaterialization.FINAL
+        : ResultMaterialization.CHANGES;
+  }
+
+  private OptionalLong getEmitIntervalMs(final ResultMaterializationContext context) {
+    if (context == null || context.EVERY() == null) {
+      return OptionalLong.empty();
+    }
+    final int interval = processIntegerNumber(context.number(), "EMIT CHANGES EVERY");
+    if (interval <= 0) {
+      throw new KsqlException("EMIT CHANGES EVERY interval must be positive, but was: " + interval);
+    }
+    final TimeUnit unit =
+        WindowExpression.getWindowUnit(context.windowUnit().getText().toUpperCase());
+    return OptionalLong.of(unit.toMillis(interval));
+  }
+
   private StructuredDataSource getSource(final String name, final Optional<NodeLocation> location) {
     final StructuredDataSource source = dataSourceExtractor
         .getMetaStore()
@@ -39,6 +39,7 @@ import io.confluent.ksql.parser.tree.ListFunctions;
 import io.confluent.ksql.parser.tree.Node;
 import io.confluent.ksql.parser.tree.Query;
 import io.confluent.ksql.parser.tree.Relation;
+import io.confluent.ksql.parser.tree.ResultMaterialization;
 import io.confluent.ksql.parser.tree.Select;
 import io.confluent.ksql.parser.tree.SelectItem;
 import io.confluent.ksql.parser.tree.ShowColumns;
@@ -122,6 +123,17 @@ public final class SqlFormatter {
             .append('\n');
       }
 
+      if (node.getResultMaterialization() == ResultMaterialization.FINAL) {
+        append(indent, "EMIT FINAL")
+            .append('\n');
+      }
+
+      if (node.getEmitIntervalMs().isPresent()) {
+        append(indent, "EMIT CHANGES EVERY " + node.getEmitIntervalMs().getAsLong()
+            + " MILLISECONDS")
+            .append('\n');
+      }
+
       if (node.getLimit().isPresent()) {
         append(indent, "LIMIT " + node.getLimit().getAsInt())
                 .append('\n');
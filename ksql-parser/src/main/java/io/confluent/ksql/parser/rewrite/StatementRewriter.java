@@ -155,6 +155,8 @@ public class StatementRewriter extends DefaultAstVisitor<Node, Object> {
         where,
         groupBy,
         having,
+        node.getResultMaterialization(),
+        node.getEmitIntervalMs(),
         node.getLimit()
     );
   }
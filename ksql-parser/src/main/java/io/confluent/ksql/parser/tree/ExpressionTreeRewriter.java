@@ -43,6 +43,17 @@ public final class ExpressionTreeRewriter<C> {
     return (T) visitor.process(node, new Context<>(context, false));
   }
 
+  /**
+   * Rewrite the children of the supplied {@code node}, but not the node itself.
+   *
+   * <p>Allows a rewriter to work bottom up, by first rewriting the children of a node and then
+   * inspecting the result.
+   */
+  @SuppressWarnings("unchecked")
+  public <T extends Expression> T defaultRewrite(final T node, final C context) {
+    return (T) visitor.process(node, new Context<>(context, true));
+  }
+
   // CHECKSTYLE_RULES.OFF: ClassDataAbstractionCoupling
   private class RewritingVisitor
       extends AstVisitor<Expression, Context<C>> {
@@ -17,6 +17,7 @@ package io.confluent.ksql.parser.tree;
 
 import static java.util.Objects.requireNonNull;
 
+import com.google.common.math.LongMath;
 import com.google.errorprone.annotations.Immutable;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.function.UdafAggregator;
@@ -80,6 +81,14 @@ public class HoppingWindowExpression extends KsqlWindowExpression {
     return advanceByUnit;
   }
 
+  /**
+   * @return the size, in milliseconds, of the largest panes that every window is made of, which
+   *     is the greatest common divisor of the size and the advance.
+   */
+  public long getPaneSizeMs() {
+    return LongMath.gcd(sizeUnit.toMillis(size), advanceByUnit.toMillis(advanceBy));
+  }
+
   @Override
   public <R, C> R accept(final AstVisitor<R, C> visitor, final C context) {
     return visitor.visitHoppingWindowExpression(this, context);
@@ -116,14 +125,15 @@ public class HoppingWindowExpression extends KsqlWindowExpression {
       final KGroupedStream groupedStream,
       final Initializer initializer,
       final UdafAggregator aggregator,
-      final Materialized<String, GenericRow, ?> materialized
+      final Materialized<String, GenericRow, ?> materialized,
+      final Optional<Duration> gracePeriod
   ) {
     final TimeWindows windows = TimeWindows
         .of(Duration.ofMillis(sizeUnit.toMillis(size)))
         .advanceBy(Duration.ofMillis(advanceByUnit.toMillis(advanceBy)));
 
     return groupedStream
-        .windowedBy(windows)
+        .windowedBy(gracePeriod.map(windows::grace).orElse(windows))
         .aggregate(initializer, aggregator, materialized);
   }
 
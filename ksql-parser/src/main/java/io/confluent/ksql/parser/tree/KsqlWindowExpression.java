@@ -19,6 +19,7 @@ import com.google.errorprone.annotations.Immutable;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.function.UdafAggregator;
 import io.confluent.ksql.metastore.SerdeFactory;
+import java.time.Duration;
 import java.util.Optional;
 import org.apache.kafka.streams.kstream.Initializer;
 import org.apache.kafka.streams.kstream.KGroupedStream;
@@ -33,10 +34,22 @@ public abstract class KsqlWindowExpression extends Node {
     super(location);
   }
 
+  public KTable applyAggregate(final KGroupedStream groupedStream,
+                               final Initializer initializer,
+                               final UdafAggregator aggregator,
+                               final Materialized<String, GenericRow, ?> materialized) {
+    return applyAggregate(groupedStream, initializer, aggregator, materialized, Optional.empty());
+  }
+
+  /**
+   * @param gracePeriod how long after a window ends it still accepts out-of-order records, if not
+   *     the Kafka Streams default of 24 hours less the window size.
+   */
   public abstract KTable applyAggregate(KGroupedStream groupedStream,
                                         Initializer initializer,
                                         UdafAggregator aggregator,
-                                        Materialized<String, GenericRow, ?> materialized);
+                                        Materialized<String, GenericRow, ?> materialized,
+                                        Optional<Duration> gracePeriod);
 
   public abstract <K> SerdeFactory<Windowed<K>> getKeySerdeFactory(Class<K> innerType);
 
@@ -22,6 +22,7 @@ import com.google.errorprone.annotations.Immutable;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.OptionalLong;
 
 @Immutable
 public class Query extends Statement {
@@ -32,6 +33,8 @@ public class Query extends Statement {
   private final Optional<Expression> where;
   private final Optional<GroupBy> groupBy;
   private final Optional<Expression> having;
+  private final ResultMaterialization resultMaterialization;
+  private final OptionalLong emitIntervalMs;
   private final OptionalInt limit;
 
   public Query(
@@ -41,9 +44,12 @@ public class Query extends Statement {
       final Optional<Expression> where,
       final Optional<GroupBy> groupBy,
       final Optional<Expression> having,
+      final ResultMaterialization resultMaterialization,
+      final OptionalLong emitIntervalMs,
       final OptionalInt limit
   ) {
-    this(Optional.empty(), select, from, window, where, groupBy, having, limit);
+    this(Optional.empty(), select, from, window, where, groupBy, having, resultMaterialization,
+        emitIntervalMs, limit);
   }
 
   public Query(
@@ -54,6 +60,8 @@ public class Query extends Statement {
       final Optional<Expression> where,
       final Optional<GroupBy> groupBy,
       final Optional<Expression> having,
+      final ResultMaterialization resultMaterialization,
+      final OptionalLong emitIntervalMs,
       final OptionalInt limit
   ) {
     super(location);
@@ -63,6 +71,8 @@ public class Query extends Statement {
     this.where = requireNonNull(where, "where");
     this.groupBy = requireNonNull(groupBy, "groupBy");
     this.having = requireNonNull(having, "having");
+    this.resultMaterialization = requireNonNull(resultMaterialization, "resultMaterialization");
+    this.emitIntervalMs = requireNonNull(emitIntervalMs, "emitIntervalMs");
     this.limit = requireNonNull(limit, "limit");
   }
 
@@ -90,6 +100,18 @@ public class Query extends Statement {
     return having;
   }
 
+  public ResultMaterialization getResultMaterialization() {
+    return resultMaterialization;
+  }
+
+  /**
+   * @return the interval, in milliseconds, of an {@code EMIT CHANGES EVERY} clause, which limits
+   *     how often the changes of each key are emitted.
+   */
+  public OptionalLong getEmitIntervalMs() {
+    return emitIntervalMs;
+  }
+
   public OptionalInt getLimit() {
     return limit;
   }
@@ -108,6 +130,8 @@ public class Query extends Statement {
         .add("where", where.orElse(null))
         .add("groupBy", groupBy.orElse(null))
         .add("having", having.orElse(null))
+        .add("resultMaterialization", resultMaterialization)
+        .add("emitIntervalMs", emitIntervalMs)
         .add("limit", limit)
         .omitNullValues()
         .toString();
@@ -128,11 +152,15 @@ public class Query extends Statement {
         && Objects.equals(window, o.window)
         && Objects.equals(groupBy, o.groupBy)
         && Objects.equals(having, o.having)
+        && Objects.equals(resultMaterialization, o.resultMaterialization)
+        && Objects.equals(emitIntervalMs, o.emitIntervalMs)
         && Objects.equals(limit, o.limit);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(select, from, where, window, groupBy, having, limit);
+    return Objects.hash(
+        select, from, where, window, groupBy, having, resultMaterialization, emitIntervalMs,
+        limit);
   }
 }
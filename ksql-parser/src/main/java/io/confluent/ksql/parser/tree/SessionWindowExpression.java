@@ -93,12 +93,13 @@ public class SessionWindowExpression extends KsqlWindowExpression {
   public KTable applyAggregate(final KGroupedStream groupedStream,
                                final Initializer initializer,
                                final UdafAggregator aggregator,
-                               final Materialized<String, GenericRow, ?> materialized) {
+                               final Materialized<String, GenericRow, ?> materialized,
+                               final Optional<Duration> gracePeriod) {
 
     final SessionWindows windows = SessionWindows.with(Duration.ofMillis(sizeUnit.toMillis(gap)));
 
     return groupedStream
-        .windowedBy(windows)
+        .windowedBy(gracePeriod.map(windows::grace).orElse(windows))
         .aggregate(initializer, aggregator, aggregator.getMerger(), materialized);
   }
 
@@ -93,12 +93,13 @@ public class TumblingWindowExpression extends KsqlWindowExpression {
   public KTable applyAggregate(final KGroupedStream groupedStream,
       final Initializer initializer,
       final UdafAggregator aggregator,
-      final Materialized<String, GenericRow, ?> materialized) {
+      final Materialized<String, GenericRow, ?> materialized,
+      final Optional<Duration> gracePeriod) {
 
     final TimeWindows windows = TimeWindows.of(Duration.ofMillis(sizeUnit.toMillis(size)));
 
     return groupedStream
-        .windowedBy(windows)
+        .windowedBy(gracePeriod.map(windows::grace).orElse(windows))
         .aggregate(initializer, aggregator, materialized);
 
   }
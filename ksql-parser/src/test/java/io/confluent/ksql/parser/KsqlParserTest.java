@@ -59,6 +59,7 @@ import io.confluent.ksql.parser.tree.Literal;
 import io.confluent.ksql.parser.tree.LongLiteral;
 import io.confluent.ksql.parser.tree.Query;
 import io.confluent.ksql.parser.tree.RegisterTopic;
+import io.confluent.ksql.parser.tree.ResultMaterialization;
 import io.confluent.ksql.parser.tree.SearchedCaseExpression;
 import io.confluent.ksql.parser.tree.SelectItem;
 import io.confluent.ksql.parser.tree.SetProperty;
@@ -74,6 +75,7 @@ import io.confluent.ksql.util.timestamp.MetadataTimestampExtractionPolicy;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.concurrent.TimeUnit;
 import org.apache.kafka.common.serialization.Serdes;
 import org.apache.kafka.connect.data.Schema;
@@ -688,6 +690,63 @@ public class KsqlParserTest {
                                                                  + "( 30 SECONDS ) "));
   }
 
+  @Test
+  public void shouldParseEmitFinal() {
+    // Given:
+    final String queryStr = "select itemid, sum(orderunits) from orders "
+        + "window TUMBLING ( size 30 second) group by itemid emit final;";
+
+    // When:
+    final Query query = (Query) KsqlParserTestUtil.buildSingleAst(queryStr, metaStore)
+        .getStatement();
+
+    // Then:
+    assertThat(query.getResultMaterialization(), is(ResultMaterialization.FINAL));
+  }
+
+  @Test
+  public void shouldDefaultToEmitChanges() {
+    // Given:
+    final String queryStr = "select itemid, sum(orderunits) from orders "
+        + "window TUMBLING ( size 30 second) group by itemid;";
+
+    // When:
+    final Query query = (Query) KsqlParserTestUtil.buildSingleAst(queryStr, metaStore)
+        .getStatement();
+
+    // Then:
+    assertThat(query.getResultMaterialization(), is(ResultMaterialization.CHANGES));
+  }
+
+  @Test
+  public void shouldParseEmitChangesEvery() {
+    // Given:
+    final String queryStr = "select itemid, sum(orderunits) from orders "
+        + "group by itemid emit changes every 10 seconds;";
+
+    // When:
+    final Query query = (Query) KsqlParserTestUtil.buildSingleAst(queryStr, metaStore)
+        .getStatement();
+
+    // Then:
+    assertThat(query.getResultMaterialization(), is(ResultMaterialization.CHANGES));
+    assertThat(query.getEmitIntervalMs(), is(OptionalLong.of(10_000)));
+  }
+
+  @Test
+  public void shouldThrowOnNonPositiveEmitChangesEvery() {
+    // Given:
+    final String queryStr = "select itemid, sum(orderunits) from orders "
+        + "group by itemid emit changes every 0 seconds;";
+
+    // Expect:
+    expectedException.expect(KsqlException.class);
+    expectedException.expectMessage("EMIT CHANGES EVERY interval must be positive, but was: 0");
+
+    // When:
+    KsqlParserTestUtil.buildSingleAst(queryStr, metaStore);
+  }
+
   @Test
   public void testShowTopics() {
     final String simpleQuery = "SHOW TOPICS;";
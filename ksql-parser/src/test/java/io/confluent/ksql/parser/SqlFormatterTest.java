@@ -258,6 +258,38 @@ public class SqlFormatterTest {
         + "FROM ADDRESS A"));
   }
 
+  @Test
+  public void shouldFormatEmitFinal() {
+    // Given:
+    final String statementString =
+        "CREATE TABLE S AS SELECT ITEMID FROM address "
+            + "WINDOW TUMBLING (SIZE 10 SECONDS) GROUP BY ITEMID EMIT FINAL;";
+    final Statement statement = KsqlParserTestUtil.buildSingleAst(statementString, metaStore)
+        .getStatement();
+
+    // When:
+    final String result = SqlFormatter.formatSql(statement);
+
+    // Then:
+    assertThat(result, containsString("EMIT FINAL"));
+  }
+
+  @Test
+  public void shouldFormatEmitChangesEvery() {
+    // Given:
+    final String statementString =
+        "CREATE TABLE S AS SELECT ITEMID FROM address "
+            + "GROUP BY ITEMID EMIT CHANGES EVERY 10 SECONDS;";
+    final Statement statement = KsqlParserTestUtil.buildSingleAst(statementString, metaStore)
+        .getStatement();
+
+    // When:
+    final String result = SqlFormatter.formatSql(statement);
+
+    // Then:
+    assertThat(result, containsString("EMIT CHANGES EVERY 10000 MILLISECONDS"));
+  }
+
   @Test
   public void shouldFormatSelectStarCorrectly() {
     final String statementString = "CREATE STREAM S AS SELECT * FROM address;";
@@ -82,6 +82,26 @@ public class ExpressionTreeRewriterTest {
     assertThat(result.getArguments(), is(ImmutableList.of(DEREF_2, DEREF_1)));
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  public void shouldDefaultRewriteChildrenOnly() {
+    // Given:
+    final FunctionCall original = givenFunctionCall();
+
+    when(rewriter.rewriteFunctionCall(eq(original), any(), any()))
+        .thenAnswer(inv -> ((ExpressionTreeRewriter<String>) inv.getArgument(2))
+            .defaultRewrite(original, inv.getArgument(1)));
+    when(rewriter.rewriteDereferenceExpression(eq(DEREF_1), any(), any()))
+        .thenReturn(DEREF_2);
+
+    // When:
+    final FunctionCall result = ExpressionTreeRewriter.rewriteWith(rewriter, original);
+
+    // Then:
+    assertThat(result.getName(), is(original.getName()));
+    assertThat(result.getArguments(), is(ImmutableList.of(DEREF_0, DEREF_2)));
+  }
+
   private static FunctionCall givenFunctionCall() {
     final Optional<NodeLocation> location = Optional.of(new NodeLocation(42, 6));
     final QualifiedName name = QualifiedName.of("bob");
@@ -20,6 +20,8 @@ import static java.util.concurrent.TimeUnit.MILLISECONDS;
 import static java.util.concurrent.TimeUnit.MINUTES;
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.easymock.EasyMock.same;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
 
 import com.google.common.testing.EqualsTester;
 import io.confluent.ksql.GenericRow;
@@ -85,4 +87,11 @@ public class HoppingWindowExpressionTest {
     EasyMock.verify(stream, windowedKStream);
   }
 
-}
\ No newline at end of file
+
+  @Test
+  public void shouldMakePanesOfGreatestCommonDivisorOfSizeAndAdvance() {
+    assertThat(new HoppingWindowExpression(1, HOURS, 1, MINUTES).getPaneSizeMs(), is(60_000L));
+    assertThat(new HoppingWindowExpression(10, SECONDS, 4, SECONDS).getPaneSizeMs(), is(2_000L));
+    assertThat(new HoppingWindowExpression(1, MINUTES, 7, SECONDS).getPaneSizeMs(), is(1_000L));
+  }
+}
@@ -31,6 +31,7 @@ import java.lang.reflect.Modifier;
 import java.util.Collection;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.OptionalLong;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import org.apache.kafka.streams.kstream.JoinWindows;
@@ -67,6 +68,8 @@ public class ParserModelTest {
           Optional.empty(),
           Optional.empty(),
           Optional.empty(),
+          ResultMaterialization.CHANGES,
+          OptionalLong.empty(),
           OptionalInt.empty()))
       .build();
 
@@ -21,6 +21,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.testing.EqualsTester;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.OptionalLong;
 import org.junit.Test;
 
 
@@ -47,6 +48,8 @@ public class QueryTest {
   private static final Optional<Expression> SOME_HAVING = Optional.of(
       mock(Expression.class)
   );
+  private static final ResultMaterialization SOME_EMIT = ResultMaterialization.CHANGES;
+  private static final OptionalLong SOME_INTERVAL = OptionalLong.of(1000);
   private static final OptionalInt SOME_LIMIT = OptionalInt.of(1);
 
   @Test
@@ -55,41 +58,62 @@ public class QueryTest {
         .addEqualityGroup(
             // Note: At the moment location does not take part in equality testing
             new Query(SOME_SELECT, SOME_FROM, SOME_WINDOW,
-                SOME_WHERE, SOME_GROUP_BY, SOME_HAVING, SOME_LIMIT),
+                SOME_WHERE, SOME_GROUP_BY, SOME_HAVING, SOME_EMIT, SOME_INTERVAL,
+                SOME_LIMIT),
             new Query(SOME_SELECT, SOME_FROM, SOME_WINDOW,
-                SOME_WHERE, SOME_GROUP_BY, SOME_HAVING, SOME_LIMIT),
+                SOME_WHERE, SOME_GROUP_BY, SOME_HAVING, SOME_EMIT, SOME_INTERVAL,
+                SOME_LIMIT),
             new Query(Optional.of(SOME_LOCATION), SOME_SELECT, SOME_FROM, SOME_WINDOW,
-                SOME_WHERE, SOME_GROUP_BY, SOME_HAVING, SOME_LIMIT),
+                SOME_WHERE, SOME_GROUP_BY, SOME_HAVING, SOME_EMIT, SOME_INTERVAL,
+                SOME_LIMIT),
             new Query(Optional.of(OTHER_LOCATION), SOME_SELECT, SOME_FROM, SOME_WINDOW,
-                SOME_WHERE, SOME_GROUP_BY, SOME_HAVING, SOME_LIMIT)
+                SOME_WHERE, SOME_GROUP_BY, SOME_HAVING, SOME_EMIT, SOME_INTERVAL,
+                SOME_LIMIT)
         )
         .addEqualityGroup(
             new Query(OTHER_SELECT, SOME_FROM, SOME_WINDOW,
-                SOME_WHERE, SOME_GROUP_BY, SOME_HAVING, SOME_LIMIT)
+                SOME_WHERE, SOME_GROUP_BY, SOME_HAVING, SOME_EMIT, SOME_INTERVAL,
+                SOME_LIMIT)
         )
         .addEqualityGroup(
             new Query(SOME_SELECT, OTHER_RELATION, SOME_WINDOW,
-                SOME_WHERE, SOME_GROUP_BY, SOME_HAVING, SOME_LIMIT)
+                SOME_WHERE, SOME_GROUP_BY, SOME_HAVING, SOME_EMIT, SOME_INTERVAL,
+                SOME_LIMIT)
         )
         .addEqualityGroup(
             new Query(SOME_SELECT, SOME_FROM, Optional.empty(),
-                SOME_WHERE, SOME_GROUP_BY, SOME_HAVING, SOME_LIMIT)
+                SOME_WHERE, SOME_GROUP_BY, SOME_HAVING, SOME_EMIT, SOME_INTERVAL,
+                SOME_LIMIT)
         )
         .addEqualityGroup(
             new Query(SOME_SELECT, SOME_FROM, SOME_WINDOW,
-                Optional.empty(), SOME_GROUP_BY, SOME_HAVING, SOME_LIMIT)
+                Optional.empty(), SOME_GROUP_BY, SOME_HAVING, SOME_EMIT, SOME_INTERVAL,
+                SOME_LIMIT)
         )
         .addEqualityGroup(
             new Query(SOME_SELECT, SOME_FROM, SOME_WINDOW,
-                SOME_WHERE, Optional.empty(), SOME_HAVING, SOME_LIMIT)
+                SOME_WHERE, Optional.empty(), SOME_HAVING, SOME_EMIT, SOME_INTERVAL,
+                SOME_LIMIT)
         )
         .addEqualityGroup(
             new Query(SOME_SELECT, SOME_FROM, SOME_WINDOW,
-                SOME_WHERE, SOME_GROUP_BY, Optional.empty(), SOME_LIMIT)
+                SOME_WHERE, SOME_GROUP_BY, Optional.empty(), SOME_EMIT, SOME_INTERVAL,
+                SOME_LIMIT)
         )
         .addEqualityGroup(
             new Query(SOME_SELECT, SOME_FROM, SOME_WINDOW,
-                SOME_WHERE, SOME_GROUP_BY, SOME_HAVING, OptionalInt.empty())
+                SOME_WHERE, SOME_GROUP_BY, SOME_HAVING, ResultMaterialization.FINAL,
+                SOME_INTERVAL, SOME_LIMIT)
+        )
+        .addEqualityGroup(
+            new Query(SOME_SELECT, SOME_FROM, SOME_WINDOW,
+                SOME_WHERE, SOME_GROUP_BY, SOME_HAVING, SOME_EMIT, OptionalLong.empty(),
+                SOME_LIMIT)
+        )
+        .addEqualityGroup(
+            new Query(SOME_SELECT, SOME_FROM, SOME_WINDOW,
+                SOME_WHERE, SOME_GROUP_BY, SOME_HAVING, SOME_EMIT, SOME_INTERVAL,
+                OptionalInt.empty())
         )
         .testEquals();
   }
@@ -22,6 +22,8 @@ import static org.hamcrest.MatcherAssert.assertThat;
 
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.function.UdafAggregator;
+import java.time.Duration;
+import java.util.Optional;
 import java.util.concurrent.TimeUnit;
 import org.apache.kafka.common.utils.Bytes;
 import org.apache.kafka.streams.kstream.Initializer;
@@ -79,4 +81,22 @@ public class SessionWindowExpressionTest {
 
   }
 
-}
\ No newline at end of file
+  @SuppressWarnings("unchecked")
+  @Test
+  public void shouldCreateSessionWindowedStreamWithGracePeriod() {
+    EasyMock.expect(groupedStreamMock.windowedBy(EasyMock.capture(sessionWindows))).andReturn(sessionWindowed);
+    EasyMock.expect(sessionWindowed.aggregate(same(initializer),
+        same(aggregator),
+        anyObject(Merger.class),
+        same(materialized))).andReturn(null);
+    EasyMock.replay(groupedStreamMock, aggregator, sessionWindowed);
+
+    expression.applyAggregate(groupedStreamMock, initializer, aggregator, materialized,
+        Optional.of(Duration.ofMillis(2000L)));
+
+    assertThat(sessionWindows.getValue().inactivityGap(), equalTo(5000L));
+    assertThat(sessionWindows.getValue().gracePeriodMs(), equalTo(2000L));
+    EasyMock.verify(groupedStreamMock);
+  }
+
+}
@@ -16,6 +16,7 @@
 package io.confluent.ksql.rest.server;
 
 import com.google.common.annotations.VisibleForTesting;
+import io.confluent.ksql.codegen.CompiledExpressionCache;
 import io.confluent.ksql.engine.KsqlEngine;
 import io.confluent.ksql.function.InternalFunctionRegistry;
 import io.confluent.ksql.function.MutableFunctionRegistry;
@@ -99,6 +100,7 @@ public final class StandaloneExecutorFactory {
     );
     final ConfigStore configStore = configStoreFactory.apply(configTopicName, baseConfig);
     final KsqlConfig ksqlConfig = configStore.getKsqlConfig();
+    CompiledExpressionCache.configure(ksqlConfig);
 
     final ProcessingLogConfig processingLogConfig
         = new ProcessingLogConfig(properties);
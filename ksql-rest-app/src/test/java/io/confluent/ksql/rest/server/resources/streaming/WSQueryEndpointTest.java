@@ -38,6 +38,7 @@ import io.confluent.ksql.engine.KsqlEngine;
 import io.confluent.ksql.parser.KsqlParser.PreparedStatement;
 import io.confluent.ksql.parser.tree.Query;
 import io.confluent.ksql.parser.tree.Relation;
+import io.confluent.ksql.parser.tree.ResultMaterialization;
 import io.confluent.ksql.parser.tree.Select;
 import io.confluent.ksql.parser.tree.Statement;
 import io.confluent.ksql.rest.entity.KsqlRequest;
@@ -57,6 +58,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 import java.util.OptionalInt;
+import java.util.OptionalLong;
 import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 import javax.websocket.CloseReason;
@@ -131,7 +133,8 @@ public class WSQueryEndpointTest {
   public void setUp() {
     query = new Query(
       mock(Select.class), mock(Relation.class),
-        Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), OptionalInt.empty()
+        Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(),
+        ResultMaterialization.CHANGES, OptionalLong.empty(), OptionalInt.empty()
     );
     when(session.getId()).thenReturn("session-id");
     when(statementParser.parseSingleStatement(anyString()))
@@ -49,7 +49,13 @@ public interface DataSource {
 
   }
 
-  enum DataSourceSerDe { JSON, AVRO, DELIMITED }
+  enum DataSourceSerDe {
+    JSON,
+    AVRO,
+    DELIMITED,
+    // Only used for internal topics. It has no name, so it can not be used in a WITH clause.
+    BINARY
+  }
 
   String AVRO_SERDE_NAME = "AVRO";
   String JSON_SERDE_NAME = "JSON";
@@ -19,8 +19,10 @@ import com.google.errorprone.annotations.Immutable;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
+import io.confluent.ksql.serde.filter.DeserializationFilter;
 import io.confluent.ksql.util.KsqlConfig;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Supplier;
 import org.apache.kafka.common.serialization.Serde;
 import org.apache.kafka.connect.data.Schema;
@@ -46,6 +48,55 @@ public abstract class KsqlTopicSerDe {
       String loggerNamePrefix,
       ProcessingLogContext processingLogContext);
 
+  /**
+   * Get a serde whose deserializer only decodes the columns of the value whose indexes are in
+   * {@code requiredColumns}, leaving all other columns in the row null.
+   *
+   * <p>Formats that can not skip columns return a serde that decodes all columns.
+   */
+  public Serde<GenericRow> getGenericRowSerde(
+      final Schema schemaMaybeWithSource,
+      final KsqlConfig ksqlConfig,
+      final boolean isInternal,
+      final Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
+      final String loggerNamePrefix,
+      final ProcessingLogContext processingLogContext,
+      final Set<Integer> requiredColumns) {
+    return getGenericRowSerde(
+        schemaMaybeWithSource,
+        ksqlConfig,
+        isInternal,
+        schemaRegistryClientFactory,
+        loggerNamePrefix,
+        processingLogContext);
+  }
+
+  /**
+   * Get a serde whose deserializer only decodes the {@code requiredColumns} and, before decoding
+   * any other column, decodes the columns of {@code filter} and returns {@code null} for records
+   * that fail it.
+   *
+   * <p>Formats that can not evaluate the filter during deserialization ignore it.
+   */
+  public Serde<GenericRow> getGenericRowSerde(
+      final Schema schemaMaybeWithSource,
+      final KsqlConfig ksqlConfig,
+      final boolean isInternal,
+      final Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
+      final String loggerNamePrefix,
+      final ProcessingLogContext processingLogContext,
+      final Set<Integer> requiredColumns,
+      final DeserializationFilter filter) {
+    return getGenericRowSerde(
+        schemaMaybeWithSource,
+        ksqlConfig,
+        isInternal,
+        schemaRegistryClientFactory,
+        loggerNamePrefix,
+        processingLogContext,
+        requiredColumns);
+  }
+
   @Override
   public boolean equals(final Object o) {
     if (this == o) {
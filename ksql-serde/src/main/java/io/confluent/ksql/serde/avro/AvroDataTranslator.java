@@ -20,12 +20,14 @@ import com.google.common.collect.Iterables;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.serde.connect.ConnectDataTranslator;
 import io.confluent.ksql.serde.connect.DataTranslator;
+import io.confluent.ksql.serde.util.SerdeUtils;
 
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
@@ -42,12 +44,20 @@ public class AvroDataTranslator implements DataTranslator {
       final Schema ksqlSchema,
       final String schemaFullName,
       final boolean useNamedMaps) {
+    this(ksqlSchema, schemaFullName, useNamedMaps, SerdeUtils.allColumns(ksqlSchema));
+  }
+
+  public AvroDataTranslator(
+      final Schema ksqlSchema,
+      final String schemaFullName,
+      final boolean useNamedMaps,
+      final Set<Integer> requiredColumns) {
     this.ksqlSchema = ksqlSchema;
     this.avroCompatibleSchema = buildAvroCompatibleSchema(
         ksqlSchema,
         useNamedMaps,
         new TypeNameGenerator(Collections.singleton(schemaFullName)));
-    this.innerTranslator = new ConnectDataTranslator(avroCompatibleSchema);
+    this.innerTranslator = new ConnectDataTranslator(avroCompatibleSchema, requiredColumns);
   }
 
   @Override
@@ -99,7 +109,7 @@ public class AvroDataTranslator implements DataTranslator {
     }
   }
 
-  private static String avroCompatibleFieldName(final Field field) {
+  static String avroCompatibleFieldName(final Field field) {
     // Currently the only incompatible field names expected are fully qualified
     // column identifiers. Once quoted identifier support is introduced we will
     // need to implement something more generic here.
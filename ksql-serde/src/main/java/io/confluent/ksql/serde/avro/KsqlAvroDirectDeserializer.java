@@ -0,0 +1,557 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.avro;
+
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.serde.util.SerdeUtils;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+
+/**
+ * An Avro deserializer that decodes the Avro binary encoding straight into the columns of a
+ * row, rather than decoding it to a generic record, converting that to a Connect struct and
+ * translating the struct to a row.
+ *
+ * <p>For each writer schema id seen, a reader that resolves the writer schema against the KSQL
+ * schema is compiled once, and shared by all threads. It reads each field of the writer schema
+ * in order, decoding the required columns and skipping everything else.
+ *
+ * <p>Writer schemas the reader can not resolve, e.g. ones with unions of several types, or
+ * ones that are incompatible with the KSQL schema, are handed to the Connect based
+ * deserializer, as are records that fail to decode, so the result is always the same as that
+ * deserializer's.
+ */
+@SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+public class KsqlAvroDirectDeserializer implements Deserializer<GenericRow> {
+
+  private static final byte MAGIC_BYTE = 0x0;
+  private static final int HEADER_SIZE = 5;
+
+  // The names AvroData uses for the records of Connect maps with non-string keys:
+  private static final String CONNECT_NAMESPACE = "io.confluent.connect.avro";
+  private static final String CONNECT_MAP_ENTRY_NAME = "MapEntry";
+
+  private static final ThreadLocal<BinaryDecoder> DECODER = new ThreadLocal<>();
+
+  private final SchemaRegistryClient schemaRegistryClient;
+  private final Schema ksqlSchema;
+  private final boolean[] requiredColumns;
+  private final Deserializer<GenericRow> fallback;
+  private final ConcurrentMap<Integer, Optional<RowReader>> readers = new ConcurrentHashMap<>();
+
+  /**
+   * @param ksqlSchema the schema of the row, without source aliases.
+   * @param requiredColumns the indexes of the columns to decode. Other columns are left null.
+   * @param fallback the Connect based deserializer, used for anything this one can not read.
+   */
+  public KsqlAvroDirectDeserializer(
+      final SchemaRegistryClient schemaRegistryClient,
+      final Schema ksqlSchema,
+      final Set<Integer> requiredColumns,
+      final Deserializer<GenericRow> fallback) {
+    this.schemaRegistryClient =
+        Objects.requireNonNull(schemaRegistryClient, "schemaRegistryClient");
+    this.ksqlSchema = Objects.requireNonNull(ksqlSchema, "ksqlSchema");
+    this.requiredColumns = SerdeUtils.requiredColumnMask(ksqlSchema, requiredColumns);
+    this.fallback = Objects.requireNonNull(fallback, "fallback");
+  }
+
+  @Override
+  public void configure(final Map<String, ?> map, final boolean b) {
+  }
+
+  @Override
+  public GenericRow deserialize(final String topic, final byte[] bytes) {
+    if (bytes == null || bytes.length < HEADER_SIZE || bytes[0] != MAGIC_BYTE) {
+      return fallback.deserialize(topic, bytes);
+    }
+
+    final Optional<RowReader> reader = getReader(schemaId(bytes));
+    if (!reader.isPresent()) {
+      return fallback.deserialize(topic, bytes);
+    }
+
+    try {
+      final BinaryDecoder decoder = DecoderFactory.get()
+          .binaryDecoder(bytes, HEADER_SIZE, bytes.length - HEADER_SIZE, DECODER.get());
+      DECODER.set(decoder);
+      return reader.get().read(decoder);
+    } catch (final Exception e) {
+      // Corrupt records, which the fallback logs:
+      return fallback.deserialize(topic, bytes);
+    }
+  }
+
+  @Override
+  public void close() {
+    fallback.close();
+  }
+
+  private static int schemaId(final byte[] bytes) {
+    return ((bytes[1] & 0xFF) << 24)
+        | ((bytes[2] & 0xFF) << 16)
+        | ((bytes[3] & 0xFF) << 8)
+        | (bytes[4] & 0xFF);
+  }
+
+  private Optional<RowReader> getReader(final int schemaId) {
+    final Optional<RowReader> reader = readers.get(schemaId);
+    if (reader != null) {
+      return reader;
+    }
+
+    final Optional<RowReader> compiled;
+    try {
+      compiled = compile(schemaId);
+    } catch (final Exception e) {
+      // Not cached, so that the lookup is retried for the next record. This one is handed to
+      // the fallback, which reports any error:
+      return Optional.empty();
+    }
+
+    final Optional<RowReader> existing = readers.putIfAbsent(schemaId, compiled);
+    return existing == null ? compiled : existing;
+  }
+
+  /**
+   * @return the reader for the writer schema, or empty if it can not be resolved against the
+   *     KSQL schema.
+   * @throws Exception if the writer schema can not be looked up, or the reader compiled.
+   */
+  private Optional<RowReader> compile(final int schemaId) throws Exception {
+    final org.apache.avro.Schema writerSchema = schemaRegistryClient.getById(schemaId);
+    try {
+      return Optional.of(new Compiler().rowReader(writerSchema, ksqlSchema, requiredColumns));
+    } catch (final Unresolvable e) {
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Thrown when a writer schema can not be resolved against the KSQL schema.
+   */
+  private static final class Unresolvable extends RuntimeException {
+
+    private Unresolvable(final String message) {
+      super(message, null, false, false);
+    }
+  }
+
+  /**
+   * Reads, or skips, a single value of the writer schema.
+   */
+  private interface ValueReader {
+
+    Object read(BinaryDecoder decoder) throws IOException;
+  }
+
+  private static final class RowReader {
+
+    private final int nullBranch;
+    private final RecordReader recordReader;
+
+    RowReader(final int nullBranch, final RecordReader recordReader) {
+      this.nullBranch = nullBranch;
+      this.recordReader = recordReader;
+    }
+
+    GenericRow read(final BinaryDecoder decoder) throws IOException {
+      if (nullBranch >= 0 && decoder.readIndex() == nullBranch) {
+        return null;
+      }
+
+      return new GenericRow(SerdeUtils.toRowColumns(recordReader.readValues(decoder)));
+    }
+  }
+
+  /**
+   * Reads a record of the writer schema, storing the value of each field that resolves to a
+   * field of the KSQL schema in that field's position.
+   */
+  private static final class RecordReader implements ValueReader {
+
+    private final Schema ksqlSchema;
+    private final ValueReader[] fieldReaders;
+    private final int[] targetFields;
+
+    RecordReader(
+        final Schema ksqlSchema,
+        final ValueReader[] fieldReaders,
+        final int[] targetFields
+    ) {
+      this.ksqlSchema = ksqlSchema;
+      this.fieldReaders = fieldReaders;
+      this.targetFields = targetFields;
+    }
+
+    Object[] readValues(final BinaryDecoder decoder) throws IOException {
+      final Object[] values = new Object[ksqlSchema.fields().size()];
+      for (int i = 0; i < fieldReaders.length; i++) {
+        final Object value = fieldReaders[i].read(decoder);
+        if (targetFields[i] >= 0) {
+          values[targetFields[i]] = value;
+        }
+      }
+      return values;
+    }
+
+    @Override
+    public Object read(final BinaryDecoder decoder) throws IOException {
+      final Struct struct = new Struct(ksqlSchema);
+      final List<Field> fields = ksqlSchema.fields();
+      for (int i = 0; i < fieldReaders.length; i++) {
+        final Object value = fieldReaders[i].read(decoder);
+        if (targetFields[i] >= 0) {
+          struct.put(fields.get(targetFields[i]), value);
+        }
+      }
+      return struct;
+    }
+  }
+
+  private static final class Compiler {
+
+    // records whose skippers are being compiled, to detect recursive writer schemas:
+    private final Map<org.apache.avro.Schema, Boolean> skipping = new IdentityHashMap<>();
+
+    RowReader rowReader(
+        final org.apache.avro.Schema writerSchema,
+        final Schema ksqlSchema,
+        final boolean[] requiredColumns
+    ) {
+      org.apache.avro.Schema recordSchema = writerSchema;
+      int nullBranch = -1;
+      if (writerSchema.getType() == org.apache.avro.Schema.Type.UNION) {
+        nullBranch = nullBranch(writerSchema);
+        recordSchema = writerSchema.getTypes().get(1 - nullBranch);
+      }
+      if (recordSchema.getType() != org.apache.avro.Schema.Type.RECORD) {
+        throw new Unresolvable("Top level schema must be a record");
+      }
+      return new RowReader(nullBranch, recordReader(recordSchema, ksqlSchema, requiredColumns));
+    }
+
+    private RecordReader recordReader(
+        final org.apache.avro.Schema writerSchema,
+        final Schema ksqlSchema,
+        final boolean[] requiredFields
+    ) {
+      // Writer fields match KSQL fields case insensitively. If several writer fields have the
+      // same upper-cased name, the last one wins, as it does in the Connect based translation:
+      final Map<String, org.apache.avro.Schema.Field> writerFields = new HashMap<>();
+      for (final org.apache.avro.Schema.Field field : writerSchema.getFields()) {
+        writerFields.put(field.name().toUpperCase(), field);
+      }
+
+      final Map<org.apache.avro.Schema.Field, Field> targets = new IdentityHashMap<>();
+      for (final Field field : ksqlSchema.fields()) {
+        final org.apache.avro.Schema.Field writerField =
+            writerFields.get(AvroDataTranslator.avroCompatibleFieldName(field).toUpperCase());
+        if (writerField != null) {
+          targets.put(writerField, field);
+        }
+      }
+
+      final List<org.apache.avro.Schema.Field> fields = writerSchema.getFields();
+      final ValueReader[] fieldReaders = new ValueReader[fields.size()];
+      final int[] targetFields = new int[fields.size()];
+      for (int i = 0; i < fields.size(); i++) {
+        final org.apache.avro.Schema.Field writerField = fields.get(i);
+        final Field target = targets.get(writerField);
+        if (target == null) {
+          fieldReaders[i] = skipper(writerField.schema());
+          targetFields[i] = -1;
+          continue;
+        }
+
+        // Resolved even if not required, as the Connect based translation validates the types
+        // of all columns:
+        final ValueReader reader = reader(writerField.schema(), target.schema());
+        if (requiredFields != null && !requiredFields[target.index()]) {
+          fieldReaders[i] = skipper(writerField.schema());
+          targetFields[i] = -1;
+        } else {
+          fieldReaders[i] = reader;
+          targetFields[i] = target.index();
+        }
+      }
+      return new RecordReader(ksqlSchema, fieldReaders, targetFields);
+    }
+
+    private static int nullBranch(final org.apache.avro.Schema union) {
+      final List<org.apache.avro.Schema> types = union.getTypes();
+      if (types.size() != 2) {
+        throw new Unresolvable("Only unions of null and one other type are supported");
+      }
+      for (int i = 0; i < 2; i++) {
+        if (types.get(i).getType() == org.apache.avro.Schema.Type.NULL
+            && types.get(1 - i).getType() != org.apache.avro.Schema.Type.NULL) {
+          return i;
+        }
+      }
+      throw new Unresolvable("Only unions of null and one other type are supported");
+    }
+
+    private ValueReader reader(final org.apache.avro.Schema writer, final Schema ksql) {
+      if (writer.getType() == org.apache.avro.Schema.Type.UNION) {
+        final int nullBranch = nullBranch(writer);
+        final ValueReader branchReader = reader(writer.getTypes().get(1 - nullBranch), ksql);
+        return decoder -> decoder.readIndex() == nullBranch ? null : branchReader.read(decoder);
+      }
+
+      switch (ksql.type()) {
+        case BOOLEAN:
+          if (writer.getType() == org.apache.avro.Schema.Type.BOOLEAN) {
+            return BinaryDecoder::readBoolean;
+          }
+          break;
+        case INT32:
+          if (writer.getType() == org.apache.avro.Schema.Type.INT) {
+            return BinaryDecoder::readInt;
+          }
+          break;
+        case INT64:
+          if (writer.getType() == org.apache.avro.Schema.Type.LONG) {
+            return BinaryDecoder::readLong;
+          }
+          if (writer.getType() == org.apache.avro.Schema.Type.INT) {
+            return decoder -> (long) decoder.readInt();
+          }
+          break;
+        case FLOAT64:
+          if (writer.getType() == org.apache.avro.Schema.Type.DOUBLE) {
+            return BinaryDecoder::readDouble;
+          }
+          if (writer.getType() == org.apache.avro.Schema.Type.FLOAT) {
+            return decoder -> (double) decoder.readFloat();
+          }
+          break;
+        case STRING:
+          return stringReader(writer);
+        case ARRAY:
+          if (writer.getType() == org.apache.avro.Schema.Type.ARRAY
+              && !isConnectMapEntry(writer.getElementType())) {
+            return arrayReader(reader(writer.getElementType(), ksql.valueSchema()));
+          }
+          break;
+        case MAP:
+          if (writer.getType() == org.apache.avro.Schema.Type.MAP
+              && ksql.keySchema().type() == Schema.Type.STRING) {
+            return mapReader(reader(writer.getValueType(), ksql.valueSchema()));
+          }
+          break;
+        case STRUCT:
+          if (writer.getType() == org.apache.avro.Schema.Type.RECORD) {
+            return recordReader(writer, ksql, null);
+          }
+          break;
+        default:
+          break;
+      }
+      throw new Unresolvable("Can not read " + writer.getType() + " as " + ksql.type());
+    }
+
+    private static ValueReader stringReader(final org.apache.avro.Schema writer) {
+      if (writer.getLogicalType() != null) {
+        throw new Unresolvable("Can not read " + writer.getLogicalType().getName() + " as STRING");
+      }
+      switch (writer.getType()) {
+        case STRING:
+          return BinaryDecoder::readString;
+        case ENUM:
+          final List<String> symbols = writer.getEnumSymbols();
+          return decoder -> symbols.get(decoder.readEnum());
+        case INT:
+          return decoder -> String.valueOf(decoder.readInt());
+        case LONG:
+          return decoder -> String.valueOf(decoder.readLong());
+        case BOOLEAN:
+          return decoder -> String.valueOf(decoder.readBoolean());
+        default:
+          throw new Unresolvable("Can not read " + writer.getType() + " as STRING");
+      }
+    }
+
+    private static boolean isConnectMapEntry(final org.apache.avro.Schema schema) {
+      return schema.getType() == org.apache.avro.Schema.Type.RECORD
+          && CONNECT_NAMESPACE.equals(schema.getNamespace())
+          && CONNECT_MAP_ENTRY_NAME.equals(schema.getName());
+    }
+
+    private static ValueReader arrayReader(final ValueReader elementReader) {
+      return decoder -> {
+        final List<Object> array = new ArrayList<>();
+        for (long n = decoder.readArrayStart(); n != 0; n = decoder.arrayNext()) {
+          for (long i = 0; i < n; i++) {
+            array.add(elementReader.read(decoder));
+          }
+        }
+        return array;
+      };
+    }
+
+    private static ValueReader mapReader(final ValueReader valueReader) {
+      return decoder -> {
+        final Map<Object, Object> map = new HashMap<>();
+        for (long n = decoder.readMapStart(); n != 0; n = decoder.mapNext()) {
+          for (long i = 0; i < n; i++) {
+            final String key = decoder.readString();
+            map.put(key, valueReader.read(decoder));
+          }
+        }
+        return map;
+      };
+    }
+
+    /**
+     * @return a reader that skips over a value of {@code writer}, returning {@code null}.
+     */
+    private ValueReader skipper(final org.apache.avro.Schema writer) {
+      switch (writer.getType()) {
+        case NULL:
+          return decoder -> null;
+        case BOOLEAN:
+          return decoder -> {
+            decoder.readBoolean();
+            return null;
+          };
+        case INT:
+        case ENUM:
+          return decoder -> {
+            decoder.readInt();
+            return null;
+          };
+        case LONG:
+          return decoder -> {
+            decoder.readLong();
+            return null;
+          };
+        case FLOAT:
+          return decoder -> {
+            decoder.skipFixed(4);
+            return null;
+          };
+        case DOUBLE:
+          return decoder -> {
+            decoder.skipFixed(8);
+            return null;
+          };
+        case STRING:
+          return decoder -> {
+            decoder.skipString();
+            return null;
+          };
+        case BYTES:
+          return decoder -> {
+            decoder.skipBytes();
+            return null;
+          };
+        case FIXED:
+          final int size = writer.getFixedSize();
+          return decoder -> {
+            decoder.skipFixed(size);
+            return null;
+          };
+        case ARRAY:
+          return arraySkipper(skipper(writer.getElementType()));
+        case MAP:
+          return mapSkipper(skipper(writer.getValueType()));
+        case UNION:
+          return unionSkipper(writer);
+        case RECORD:
+          return recordSkipper(writer);
+        default:
+          throw new Unresolvable("Unknown type: " + writer.getType());
+      }
+    }
+
+    private static ValueReader arraySkipper(final ValueReader elementSkipper) {
+      return decoder -> {
+        for (long n = decoder.skipArray(); n != 0; n = decoder.skipArray()) {
+          for (long i = 0; i < n; i++) {
+            elementSkipper.read(decoder);
+          }
+        }
+        return null;
+      };
+    }
+
+    private static ValueReader mapSkipper(final ValueReader valueSkipper) {
+      return decoder -> {
+        for (long n = decoder.skipMap(); n != 0; n = decoder.skipMap()) {
+          for (long i = 0; i < n; i++) {
+            decoder.skipString();
+            valueSkipper.read(decoder);
+          }
+        }
+        return null;
+      };
+    }
+
+    private ValueReader unionSkipper(final org.apache.avro.Schema writer) {
+      final List<org.apache.avro.Schema> types = writer.getTypes();
+      final ValueReader[] branchSkippers = new ValueReader[types.size()];
+      for (int i = 0; i < types.size(); i++) {
+        branchSkippers[i] = skipper(types.get(i));
+      }
+      return decoder -> branchSkippers[decoder.readIndex()].read(decoder);
+    }
+
+    private ValueReader recordSkipper(final org.apache.avro.Schema writer) {
+      if (skipping.put(writer, Boolean.TRUE) != null) {
+        throw new Unresolvable("Recursive schemas are not supported: " + writer.getFullName());
+      }
+
+      final List<org.apache.avro.Schema.Field> fields = writer.getFields();
+      final ValueReader[] fieldSkippers = new ValueReader[fields.size()];
+      for (int i = 0; i < fields.size(); i++) {
+        fieldSkippers[i] = skipper(fields.get(i).schema());
+      }
+
+      skipping.remove(writer);
+      return decoder -> {
+        for (final ValueReader fieldSkipper : fieldSkippers) {
+          fieldSkipper.read(decoder);
+        }
+        return null;
+      };
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "KsqlAvroDirectDeserializer{"
+        + "ksqlSchema=" + ksqlSchema
+        + ", writerSchemaIds=" + readers.keySet()
+        + '}';
+  }
+}
@@ -35,6 +35,7 @@ import io.confluent.ksql.util.KsqlConfig;
 import io.confluent.ksql.util.SchemaUtil;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.function.Supplier;
 import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.Serde;
@@ -75,6 +76,25 @@ public class KsqlAvroTopicSerDe extends KsqlTopicSerDe {
       final Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
       final String loggerNamePrefix,
       final ProcessingLogContext processingLogContext) {
+    return getGenericRowSerde(
+        schemaMaybeWithSource,
+        ksqlConfig,
+        isInternal,
+        schemaRegistryClientFactory,
+        loggerNamePrefix,
+        processingLogContext,
+        SerdeUtils.allColumns(schemaMaybeWithSource));
+  }
+
+  @Override
+  public Serde<GenericRow> getGenericRowSerde(
+      final Schema schemaMaybeWithSource,
+      final KsqlConfig ksqlConfig,
+      final boolean isInternal,
+      final Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
+      final String loggerNamePrefix,
+      final ProcessingLogContext processingLogContext,
+      final Set<Integer> requiredColumns) {
     final Schema schema = isInternal
         ? schemaMaybeWithSource : SchemaUtil.getSchemaWithNoAlias(schemaMaybeWithSource);
     final Serializer<GenericRow> genericRowSerializer = new ThreadLocalSerializer(
@@ -85,18 +105,24 @@ public class KsqlAvroTopicSerDe extends KsqlTopicSerDe {
                 ksqlConfig.getBoolean(KsqlConfig.KSQL_USE_NAMED_AVRO_MAPS)
             ),
             getAvroConverter(schemaRegistryClientFactory.get(), ksqlConfig)));
-    final Deserializer<GenericRow> genericRowDeserializer = new ThreadLocalDeserializer(
+    final Deserializer<GenericRow> connectDeserializer = new ThreadLocalDeserializer(
         () -> new KsqlConnectDeserializer(
             getAvroConverter(schemaRegistryClientFactory.get(), ksqlConfig),
             new AvroDataTranslator(
                 schema,
                 this.fullSchemaName,
-                ksqlConfig.getBoolean(KsqlConfig.KSQL_USE_NAMED_AVRO_MAPS)
+                ksqlConfig.getBoolean(KsqlConfig.KSQL_USE_NAMED_AVRO_MAPS),
+                requiredColumns
             ),
             processingLogContext.getLoggerFactory().getLogger(
                 join(loggerNamePrefix, SerdeUtils.DESERIALIZER_LOGGER_NAME))
         )
     );
+    final Deserializer<GenericRow> genericRowDeserializer =
+        ksqlConfig.getBoolean(KsqlConfig.KSQL_SERDE_AVRO_DIRECT_DESERIALIZER_CONFIG)
+            ? new KsqlAvroDirectDeserializer(
+                schemaRegistryClientFactory.get(), schema, requiredColumns, connectDeserializer)
+            : connectDeserializer;
     return Serdes.serdeFrom(genericRowSerializer, genericRowDeserializer);
   }
 
@@ -0,0 +1,450 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.binary;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.serde.util.SerializationBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+
+/**
+ * The binary row format used for internal topics.
+ *
+ * <p>A row is written as:
+ * <pre>
+ *   MAGIC_BYTE | VERSION | column count | null bitmap | non-null column values
+ * </pre>
+ * The column count is an unsigned varint. Bit {@code i % 8} of byte {@code i / 8} of the null
+ * bitmap is set if column {@code i} is null. Values are written in column order, without
+ * names, as:
+ * <ul>
+ *   <li>BOOLEAN: one byte, 0 or 1.</li>
+ *   <li>INT32, INT64: a zig-zag encoded varint.</li>
+ *   <li>FLOAT64: the eight bytes of its IEEE 754 bits, big endian.</li>
+ *   <li>STRING: the unsigned varint length of its UTF-8 bytes, followed by the bytes.</li>
+ *   <li>ARRAY: the unsigned varint element count, a null bitmap of the elements and the non-null
+ *   elements.</li>
+ *   <li>MAP: the unsigned varint entry count, a null bitmap of the values, and each key
+ *   followed by its value, if not null. Keys can not be null.</li>
+ *   <li>STRUCT: a null bitmap of the fields, followed by the non-null fields.</li>
+ * </ul>
+ *
+ * <p>{@code MAGIC_BYTE} is never the first byte of a JSON, DELIMITED or Avro value: it can not
+ * appear in UTF-8 text, and Avro values start with a zero byte. This lets internal topics written
+ * in a user format before the binary format was enabled still be read.
+ */
+final class BinaryRowFormat {
+
+  static final byte MAGIC_BYTE = (byte) 0xFE;
+  static final byte VERSION = 1;
+
+  private BinaryRowFormat() {
+  }
+
+  /**
+   * @return {@code true} if values of {@code schema} can be written in this format.
+   */
+  static boolean isSupported(final Schema schema) {
+    switch (schema.type()) {
+      case BOOLEAN:
+      case INT32:
+      case INT64:
+      case FLOAT64:
+      case STRING:
+        return true;
+      case ARRAY:
+        return isSupported(schema.valueSchema());
+      case MAP:
+        return isSupported(schema.keySchema()) && isSupported(schema.valueSchema());
+      case STRUCT:
+        for (final Field field : schema.fields()) {
+          if (!isSupported(field.schema())) {
+            return false;
+          }
+        }
+        return true;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * Writes the values of the format into a {@link SerializationBuffer}.
+   */
+  static final class Output {
+
+    private final SerializationBuffer buffer;
+
+    Output(final SerializationBuffer buffer) {
+      this.buffer = Objects.requireNonNull(buffer, "buffer");
+    }
+
+    void writeByte(final int b) {
+      buffer.write(b);
+    }
+
+    void writeUnsignedVarLong(final long value) {
+      long v = value;
+      while ((v & ~0x7FL) != 0) {
+        buffer.write((int) ((v & 0x7F) | 0x80));
+        v >>>= 7;
+      }
+      buffer.write((int) v);
+    }
+
+    void writeVarLong(final long value) {
+      writeUnsignedVarLong((value << 1) ^ (value >> 63));
+    }
+
+    void writeDouble(final double value) {
+      final long bits = Double.doubleToRawLongBits(value);
+      for (int shift = 56; shift >= 0; shift -= 8) {
+        buffer.write((int) (bits >>> shift));
+      }
+    }
+
+    void writeString(final String value) {
+      final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+      writeUnsignedVarLong(bytes.length);
+      buffer.write(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Reserve space for a null bitmap of {@code count} values.
+     *
+     * @return the offset of the bitmap, to pass to {@link #setNull}.
+     */
+    int reserveBitmap(final int count) {
+      return buffer.reserve((count + 7) / 8);
+    }
+
+    void setNull(final int bitmapOffset, final int index) {
+      buffer.setBits(bitmapOffset + index / 8, 1 << (index % 8));
+    }
+  }
+
+  static void writeRow(final Output output, final Schema schema, final GenericRow row) {
+    final List<Field> fields = schema.fields();
+    final int columnCount = row.getColumns().size();
+    if (columnCount > fields.size()) {
+      throw new SerializationException("Row has more columns than its schema. "
+          + "columns: " + columnCount + ", schema fields: " + fields.size());
+    }
+
+    output.writeByte(MAGIC_BYTE);
+    output.writeByte(VERSION);
+    output.writeUnsignedVarLong(fields.size());
+
+    final int bitmap = output.reserveBitmap(fields.size());
+    for (int i = 0; i < fields.size(); i++) {
+      if (i >= columnCount || row.isNull(i)) {
+        output.setNull(bitmap, i);
+        continue;
+      }
+
+      // Top level primitives are read through the row, so array-backed rows are not boxed:
+      final Schema fieldSchema = fields.get(i).schema();
+      switch (fieldSchema.type()) {
+        case BOOLEAN:
+          output.writeByte(row.getBoolean(i) ? 1 : 0);
+          break;
+        case INT32:
+          output.writeVarLong(row.getInt(i));
+          break;
+        case INT64:
+          output.writeVarLong(row.getLong(i));
+          break;
+        case FLOAT64:
+          output.writeDouble(row.getDouble(i));
+          break;
+        default:
+          writeValue(output, fieldSchema, row.getColumns().get(i));
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static void writeValue(final Output output, final Schema schema, final Object value) {
+    switch (schema.type()) {
+      case BOOLEAN:
+        output.writeByte((Boolean) value ? 1 : 0);
+        return;
+      case INT32:
+        output.writeVarLong((Integer) value);
+        return;
+      case INT64:
+        output.writeVarLong((Long) value);
+        return;
+      case FLOAT64:
+        output.writeDouble((Double) value);
+        return;
+      case STRING:
+        output.writeString((String) value);
+        return;
+      case ARRAY:
+        writeArray(output, schema.valueSchema(), (List<Object>) value);
+        return;
+      case MAP:
+        writeMap(output, schema, (Map<Object, Object>) value);
+        return;
+      case STRUCT:
+        writeStruct(output, schema, (Struct) value);
+        return;
+      default:
+        throw new SerializationException("Unsupported type: " + schema.type());
+    }
+  }
+
+  private static void writeArray(
+      final Output output,
+      final Schema elementSchema,
+      final List<Object> array
+  ) {
+    output.writeUnsignedVarLong(array.size());
+    final int bitmap = output.reserveBitmap(array.size());
+    int i = 0;
+    for (final Object element : array) {
+      if (element == null) {
+        output.setNull(bitmap, i);
+      } else {
+        writeValue(output, elementSchema, element);
+      }
+      i++;
+    }
+  }
+
+  private static void writeMap(
+      final Output output,
+      final Schema mapSchema,
+      final Map<Object, Object> map
+  ) {
+    output.writeUnsignedVarLong(map.size());
+    final int bitmap = output.reserveBitmap(map.size());
+    int i = 0;
+    for (final Map.Entry<Object, Object> entry : map.entrySet()) {
+      if (entry.getKey() == null) {
+        throw new SerializationException("Map keys can not be null");
+      }
+      writeValue(output, mapSchema.keySchema(), entry.getKey());
+      if (entry.getValue() == null) {
+        output.setNull(bitmap, i);
+      } else {
+        writeValue(output, mapSchema.valueSchema(), entry.getValue());
+      }
+      i++;
+    }
+  }
+
+  private static void writeStruct(final Output output, final Schema schema, final Struct struct) {
+    final List<Field> fields = schema.fields();
+    final int bitmap = output.reserveBitmap(fields.size());
+    for (int i = 0; i < fields.size(); i++) {
+      final Object value = struct.get(fields.get(i).name());
+      if (value == null) {
+        output.setNull(bitmap, i);
+      } else {
+        writeValue(output, fields.get(i).schema(), value);
+      }
+    }
+  }
+
+  /**
+   * Reads values from the bytes of a row.
+   */
+  static final class Input {
+
+    private final byte[] bytes;
+    private int pos;
+
+    Input(final byte[] bytes, final int offset) {
+      this.bytes = bytes;
+      this.pos = offset;
+    }
+
+    boolean isFullyRead() {
+      return pos == bytes.length;
+    }
+
+    private void require(final int count) {
+      if (count < 0 || bytes.length - pos < count) {
+        throw new SerializationException("Unexpected end of binary row");
+      }
+    }
+
+    int readByte() {
+      require(1);
+      return bytes[pos++];
+    }
+
+    long readUnsignedVarLong() {
+      long value = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        final int b = readByte();
+        value |= (long) (b & 0x7F) << shift;
+        if ((b & 0x80) == 0) {
+          return value;
+        }
+      }
+      throw new SerializationException("Malformed varint in binary row");
+    }
+
+    int readCount() {
+      final long count = readUnsignedVarLong();
+      // every element takes at least one bit of the remaining bytes:
+      if (count > (bytes.length - pos) * 8L) {
+        throw new SerializationException("Invalid count in binary row: " + count);
+      }
+      return (int) count;
+    }
+
+    long readVarLong() {
+      final long value = readUnsignedVarLong();
+      return (value >>> 1) ^ -(value & 1);
+    }
+
+    double readDouble() {
+      require(8);
+      long bits = 0;
+      for (int i = 0; i < 8; i++) {
+        bits = (bits << 8) | (bytes[pos++] & 0xFF);
+      }
+      return Double.longBitsToDouble(bits);
+    }
+
+    String readString() {
+      final int length = readCount();
+      require(length);
+      final String value = new String(bytes, pos, length, StandardCharsets.UTF_8);
+      pos += length;
+      return value;
+    }
+
+    int readBitmap(final int count) {
+      final int length = (count + 7) / 8;
+      require(length);
+      final int offset = pos;
+      pos += length;
+      return offset;
+    }
+
+    boolean isNull(final int bitmapOffset, final int index) {
+      return (bytes[bitmapOffset + index / 8] & (1 << (index % 8))) != 0;
+    }
+  }
+
+  /**
+   * @param input positioned after the header of the row.
+   */
+  static GenericRow readRow(final Input input, final Schema schema) {
+    final List<Field> fields = schema.fields();
+    final int count = input.readCount();
+    if (count != fields.size()) {
+      throw new SerializationException("Binary row has " + count + " columns, "
+          + "but its schema has " + fields.size());
+    }
+
+    final int bitmap = input.readBitmap(count);
+    final GenericRow row = GenericRow.withColumnCount(count);
+    for (int i = 0; i < count; i++) {
+      if (input.isNull(bitmap, i)) {
+        continue;
+      }
+
+      final Schema fieldSchema = fields.get(i).schema();
+      switch (fieldSchema.type()) {
+        case BOOLEAN:
+          row.setBoolean(i, input.readByte() != 0);
+          break;
+        case INT32:
+          row.setInt(i, (int) input.readVarLong());
+          break;
+        case INT64:
+          row.setLong(i, input.readVarLong());
+          break;
+        case FLOAT64:
+          row.setDouble(i, input.readDouble());
+          break;
+        default:
+          row.getColumns().set(i, readValue(input, fieldSchema));
+      }
+    }
+    return row;
+  }
+
+  private static Object readValue(final Input input, final Schema schema) {
+    switch (schema.type()) {
+      case BOOLEAN:
+        return input.readByte() != 0;
+      case INT32:
+        return (int) input.readVarLong();
+      case INT64:
+        return input.readVarLong();
+      case FLOAT64:
+        return input.readDouble();
+      case STRING:
+        return input.readString();
+      case ARRAY:
+        return readArray(input, schema.valueSchema());
+      case MAP:
+        return readMap(input, schema);
+      case STRUCT:
+        return readStruct(input, schema);
+      default:
+        throw new SerializationException("Unsupported type: " + schema.type());
+    }
+  }
+
+  private static List<Object> readArray(final Input input, final Schema elementSchema) {
+    final int count = input.readCount();
+    final int bitmap = input.readBitmap(count);
+    final List<Object> array = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      array.add(input.isNull(bitmap, i) ? null : readValue(input, elementSchema));
+    }
+    return array;
+  }
+
+  private static Map<Object, Object> readMap(final Input input, final Schema mapSchema) {
+    final int count = input.readCount();
+    final int bitmap = input.readBitmap(count);
+    final Map<Object, Object> map = new HashMap<>();
+    for (int i = 0; i < count; i++) {
+      final Object key = readValue(input, mapSchema.keySchema());
+      map.put(key, input.isNull(bitmap, i) ? null : readValue(input, mapSchema.valueSchema()));
+    }
+    return map;
+  }
+
+  private static Struct readStruct(final Input input, final Schema schema) {
+    final List<Field> fields = schema.fields();
+    final int bitmap = input.readBitmap(fields.size());
+    final Struct struct = new Struct(schema);
+    for (int i = 0; i < fields.size(); i++) {
+      if (!input.isNull(bitmap, i)) {
+        struct.put(fields.get(i), readValue(input, fields.get(i).schema()));
+      }
+    }
+    return struct;
+  }
+}
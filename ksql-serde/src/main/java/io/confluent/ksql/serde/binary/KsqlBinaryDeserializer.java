@@ -0,0 +1,88 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.binary;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.serde.util.SerdeProcessingLogMessageFactory;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.connect.data.Schema;
+
+/**
+ * Reads rows in the {@link BinaryRowFormat}.
+ *
+ * <p>Values that do not start with the format's magic byte were written in the format of the
+ * source before the binary format was enabled, and are read by the {@code legacy} deserializer.
+ */
+public class KsqlBinaryDeserializer implements Deserializer<GenericRow> {
+
+  private final Schema schema;
+  private final Deserializer<GenericRow> legacy;
+  private final ProcessingLogger recordLogger;
+
+  public KsqlBinaryDeserializer(
+      final Schema schema,
+      final Deserializer<GenericRow> legacy,
+      final ProcessingLogger recordLogger) {
+    this.schema = Objects.requireNonNull(schema, "schema");
+    this.legacy = Objects.requireNonNull(legacy, "legacy");
+    this.recordLogger = Objects.requireNonNull(recordLogger, "recordLogger");
+  }
+
+  @Override
+  public void configure(final Map<String, ?> props, final boolean isKey) {
+  }
+
+  @Override
+  public GenericRow deserialize(final String topic, final byte[] bytes) {
+    if (bytes == null) {
+      return null;
+    }
+    if (bytes.length == 0 || bytes[0] != BinaryRowFormat.MAGIC_BYTE) {
+      return legacy.deserialize(topic, bytes);
+    }
+
+    try {
+      if (bytes.length < 2 || bytes[1] != BinaryRowFormat.VERSION) {
+        throw new SerializationException("Unsupported binary row version: "
+            + (bytes.length < 2 ? "none" : bytes[1]));
+      }
+
+      final BinaryRowFormat.Input input = new BinaryRowFormat.Input(bytes, 2);
+      final GenericRow row = BinaryRowFormat.readRow(input, schema);
+      if (!input.isFullyRead()) {
+        throw new SerializationException("Unexpected bytes after binary row");
+      }
+      return row;
+    } catch (final Exception e) {
+      recordLogger.error(
+          SerdeProcessingLogMessageFactory.deserializationErrorMsg(
+              e,
+              Optional.ofNullable(bytes))
+      );
+      throw new SerializationException("Error deserializing binary row", e);
+    }
+  }
+
+  @Override
+  public void close() {
+    legacy.close();
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.binary;
+
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.serde.util.SerializationBuffer;
+import java.util.Map;
+import java.util.Objects;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.connect.data.Schema;
+
+/**
+ * Writes rows in the {@link BinaryRowFormat}.
+ */
+public class KsqlBinarySerializer implements Serializer<GenericRow> {
+
+  private final Schema schema;
+
+  public KsqlBinarySerializer(final Schema schema) {
+    this.schema = Objects.requireNonNull(schema, "schema");
+  }
+
+  @Override
+  public void configure(final Map<String, ?> props, final boolean isKey) {
+  }
+
+  @Override
+  public byte[] serialize(final String topic, final GenericRow data) {
+    if (data == null) {
+      return null;
+    }
+
+    final SerializationBuffer buffer = SerializationBuffer.acquire();
+    try {
+      BinaryRowFormat.writeRow(new BinaryRowFormat.Output(buffer), schema, data);
+      return buffer.toByteArray();
+    } catch (final SerializationException e) {
+      throw e;
+    } catch (final Exception e) {
+      throw new SerializationException("Error serializing binary row", e);
+    } finally {
+      buffer.release();
+    }
+  }
+
+  @Override
+  public void close() {
+  }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.binary;
+
+import static io.confluent.ksql.logging.processing.ProcessingLoggerUtil.join;
+
+import com.google.errorprone.annotations.Immutable;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.logging.processing.ProcessingLogContext;
+import io.confluent.ksql.serde.DataSource;
+import io.confluent.ksql.serde.KsqlTopicSerDe;
+import io.confluent.ksql.serde.util.SerdeUtils;
+import io.confluent.ksql.util.KsqlConfig;
+import java.util.Objects;
+import java.util.function.Supplier;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serdes;
+import org.apache.kafka.connect.data.Schema;
+
+/**
+ * The serde of the values of internal topics, i.e. repartition topics and the changelogs of
+ * state stores, which are only ever read by KSQL.
+ *
+ * <p>Values are written in the compact {@link BinaryRowFormat}, whatever the format of the
+ * query's source. Values in the source's format, written before the binary format was enabled,
+ * are read with the source's serde. Rows whose schema has types the binary format does not
+ * support are written in the source's format too.
+ */
+@Immutable
+public class KsqlBinaryTopicSerDe extends KsqlTopicSerDe {
+
+  private final KsqlTopicSerDe legacySerDe;
+
+  /**
+   * @param legacySerDe the serde of the query's source.
+   */
+  public KsqlBinaryTopicSerDe(final KsqlTopicSerDe legacySerDe) {
+    super(DataSource.DataSourceSerDe.BINARY);
+    this.legacySerDe = Objects.requireNonNull(legacySerDe, "legacySerDe");
+  }
+
+  /**
+   * @return the serde to use for the internal topics of a query whose source has the serde
+   *     {@code sourceSerDe}.
+   */
+  public static KsqlTopicSerDe forInternalTopics(
+      final KsqlTopicSerDe sourceSerDe,
+      final KsqlConfig ksqlConfig) {
+    return ksqlConfig.getBoolean(KsqlConfig.KSQL_INTERNAL_TOPIC_BINARY_FORMAT_CONFIG)
+        ? new KsqlBinaryTopicSerDe(sourceSerDe)
+        : sourceSerDe;
+  }
+
+  public KsqlTopicSerDe getLegacySerDe() {
+    return legacySerDe;
+  }
+
+  @Override
+  public Serde<GenericRow> getGenericRowSerde(
+      final Schema schemaMaybeWithSource,
+      final KsqlConfig ksqlConfig,
+      final boolean isInternal,
+      final Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
+      final String loggerNamePrefix,
+      final ProcessingLogContext processingLogContext) {
+    final Serde<GenericRow> legacySerde = legacySerDe.getGenericRowSerde(
+        schemaMaybeWithSource,
+        ksqlConfig,
+        isInternal,
+        schemaRegistryClientFactory,
+        loggerNamePrefix,
+        processingLogContext);
+
+    if (!BinaryRowFormat.isSupported(schemaMaybeWithSource)) {
+      return legacySerde;
+    }
+
+    return Serdes.serdeFrom(
+        new KsqlBinarySerializer(schemaMaybeWithSource),
+        new KsqlBinaryDeserializer(
+            schemaMaybeWithSource,
+            legacySerde.deserializer(),
+            processingLogContext.getLoggerFactory().getLogger(
+                join(loggerNamePrefix, SerdeUtils.DESERIALIZER_LOGGER_NAME))));
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    if (!super.equals(o)) {
+      return false;
+    }
+    final KsqlBinaryTopicSerDe that = (KsqlBinaryTopicSerDe) o;
+    return Objects.equals(legacySerDe, that.legacySerDe);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(super.hashCode(), legacySerDe);
+  }
+}
@@ -16,11 +16,14 @@
 package io.confluent.ksql.serde.connect;
 
 import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.serde.util.SerdeUtils;
 import io.confluent.ksql.util.KsqlException;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import org.apache.kafka.connect.data.ConnectSchema;
 import org.apache.kafka.connect.data.Date;
 import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
@@ -33,9 +36,18 @@ public class ConnectDataTranslator implements DataTranslator {
   private static final String PATH_SEPARATOR = "->";
 
   private final Schema schema;
+  private final boolean[] requiredColumns;
 
   public ConnectDataTranslator(final Schema schema) {
+    this(schema, SerdeUtils.allColumns(schema));
+  }
+
+  /**
+   * @param requiredColumns the indexes of the columns to convert. Other columns are left null.
+   */
+  public ConnectDataTranslator(final Schema schema, final Set<Integer> requiredColumns) {
     this.schema = schema;
+    this.requiredColumns = SerdeUtils.requiredColumnMask(schema, requiredColumns);
   }
 
   @Override
@@ -45,14 +57,37 @@ public class ConnectDataTranslator implements DataTranslator {
       throw new KsqlException("Schema for a KSQL row should be a struct");
     }
 
-    final Struct rowStruct = (Struct) toKsqlValue(schema, connectSchema, connectData, "");
-    if (rowStruct == null) {
+    if (connectSchema == null) {
+      return null;
+    }
+    validateSchema("", schema, connectSchema);
+    if (connectData == null) {
       return null;
     }
 
-    // streams are expensive, so we don't use them from serdes. build the row using forEach
+    // convert the columns straight into the row, skipping any that are not required,
+    // rather than converting the whole struct first. Each value is validated against its
+    // column's schema, as Struct.put would, so bad data fails here rather than downstream.
+    final Map<String, Field> caseInsensitiveFieldMap =
+        getCaseInsensitiveFieldMap(connectSchema);
+    final Struct connectStruct = (Struct) connectData;
     final List<Object> fields = new ArrayList<>(schema.fields().size());
-    schema.fields().forEach(field -> fields.add(rowStruct.get(field)));
+    for (final Field field : schema.fields()) {
+      final Field connectField = requiredColumns[field.index()]
+          ? caseInsensitiveFieldMap.get(field.name().toUpperCase())
+          : null;
+      if (connectField == null) {
+        fields.add(null);
+      } else {
+        final Object value = toKsqlValue(
+            field.schema(),
+            connectField.schema(),
+            connectStruct.get(connectField),
+            PATH_SEPARATOR + field.name());
+        ConnectSchema.validateValue(field.name(), field.schema(), value);
+        fields.add(value);
+      }
+    }
     return new GenericRow(fields);
   }
 
@@ -0,0 +1,299 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.delimited;
+
+import io.confluent.ksql.util.KsqlException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Splits the first line of a UTF-8 encoded delimited record into fields, in a single pass over
+ * its bytes, and converts fields to values straight from the bytes.
+ *
+ * <p>The fields are the same as those commons-csv reads with {@code CSVFormat.DEFAULT} and the
+ * same delimiter: a field starting with a double quote runs to the matching quote, with doubled
+ * quotes inside it standing for one quote, and may be followed by whitespace; any other field
+ * runs to the next delimiter or line break. Leading empty lines are skipped. Fields are not
+ * trimmed.
+ *
+ * <p>The delimiter, the quote and line breaks are all ASCII, so they can never be part of a
+ * multi-byte UTF-8 character and the bytes can be scanned without being decoded.
+ */
+final class DelimitedScanner {
+
+  static final char DEFAULT_DELIMITER = ',';
+
+  private static final byte QUOTE = '"';
+  private static final byte CR = '\r';
+  private static final byte LF = '\n';
+
+  // Doubles with at most this many digits are exactly representable as longs, and as doubles:
+  private static final int MAX_EXACT_DOUBLE_DIGITS = 15;
+  private static final double[] POWERS_OF_TEN = {
+      1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+  };
+
+  private final byte delimiter;
+
+  DelimitedScanner(final char delimiter) {
+    this.delimiter = (byte) validateDelimiter(delimiter);
+  }
+
+  /**
+   * @return {@code delimiter}, if it is an ASCII character other than a double quote or a
+   *     line break.
+   * @throws KsqlException otherwise.
+   */
+  static char validateDelimiter(final char delimiter) {
+    if (delimiter >= 0x80 || delimiter == QUOTE || delimiter == CR || delimiter == LF) {
+      throw new KsqlException("Invalid delimiter: '" + delimiter + "'. "
+          + "The delimiter must be a single ASCII character other than a double quote "
+          + "or a line break.");
+    }
+    return delimiter;
+  }
+
+  /**
+   * The bounds of the fields of a record. Only the first {@code capacity} fields are recorded,
+   * but all fields are counted.
+   */
+  static final class Fields {
+
+    private final int[] starts;
+    private final int[] ends;
+    private final boolean[] escaped;
+    private int count;
+
+    Fields(final int capacity) {
+      this.starts = new int[capacity];
+      this.ends = new int[capacity];
+      this.escaped = new boolean[capacity];
+    }
+
+    int count() {
+      return count;
+    }
+
+    private void add(final int start, final int end, final boolean hasEscapedQuotes) {
+      if (count < starts.length) {
+        starts[count] = start;
+        ends[count] = end;
+        escaped[count] = hasEscapedQuotes;
+      }
+      count++;
+    }
+  }
+
+  /**
+   * Scan the first non-empty line of {@code bytes}.
+   *
+   * @return the number of fields in the line, or zero if there is no non-empty line.
+   * @throws KsqlException if a quoted field is not terminated, or is followed by anything other
+   *     than whitespace before the next delimiter or line break.
+   */
+  int scan(final byte[] bytes, final Fields fields) {
+    fields.count = 0;
+
+    final int length = bytes.length;
+    int pos = 0;
+    while (pos < length && (bytes[pos] == CR || bytes[pos] == LF)) {
+      pos++;
+    }
+    if (pos == length) {
+      return 0;
+    }
+
+    while (true) {
+      if (pos < length && bytes[pos] == QUOTE) {
+        final int start = pos + 1;
+        boolean hasEscapedQuotes = false;
+        pos = start;
+        while (true) {
+          if (pos == length) {
+            throw new KsqlException("EOF reached before quoted field finished");
+          }
+          if (bytes[pos] == QUOTE) {
+            if (pos + 1 < length && bytes[pos + 1] == QUOTE) {
+              hasEscapedQuotes = true;
+              pos += 2;
+              continue;
+            }
+            break;
+          }
+          pos++;
+        }
+        fields.add(start, pos, hasEscapedQuotes);
+
+        pos++;
+        while (pos < length && bytes[pos] != delimiter && !isLineBreak(bytes[pos])) {
+          if (!isWhitespace(bytes[pos])) {
+            throw new KsqlException(
+                "Invalid character between quoted field and delimiter at position " + pos);
+          }
+          pos++;
+        }
+      } else {
+        final int start = pos;
+        while (pos < length && bytes[pos] != delimiter && !isLineBreak(bytes[pos])) {
+          pos++;
+        }
+        fields.add(start, pos, false);
+      }
+
+      if (pos == length || bytes[pos] != delimiter) {
+        return fields.count;
+      }
+      pos++;
+    }
+  }
+
+  private static boolean isLineBreak(final byte b) {
+    return b == CR || b == LF;
+  }
+
+  private static boolean isWhitespace(final byte b) {
+    return b >= 0 && Character.isWhitespace((char) b);
+  }
+
+  static boolean isEmpty(final Fields fields, final int index) {
+    return fields.starts[index] == fields.ends[index];
+  }
+
+  static String getString(final byte[] bytes, final Fields fields, final int index) {
+    final int start = fields.starts[index];
+    final String value =
+        new String(bytes, start, fields.ends[index] - start, StandardCharsets.UTF_8);
+    return fields.escaped[index] ? value.replace("\"\"", "\"") : value;
+  }
+
+  static boolean getBoolean(final byte[] bytes, final Fields fields, final int index) {
+    final int start = fields.starts[index];
+    if (fields.ends[index] - start != 4) {
+      return !isAscii(bytes, start, fields.ends[index])
+          && Boolean.parseBoolean(getString(bytes, fields, index));
+    }
+    return (bytes[start] | 0x20) == 't'
+        && (bytes[start + 1] | 0x20) == 'r'
+        && (bytes[start + 2] | 0x20) == 'u'
+        && (bytes[start + 3] | 0x20) == 'e';
+  }
+
+  static int getInt(final byte[] bytes, final Fields fields, final int index) {
+    final int start = fields.starts[index];
+    final int end = fields.ends[index];
+    if (end - start > 11 || fields.escaped[index]) {
+      return Integer.parseInt(getString(bytes, fields, index));
+    }
+    final long value = parseDigits(bytes, start, end);
+    return value < Integer.MIN_VALUE || value > Integer.MAX_VALUE
+        ? Integer.parseInt(getString(bytes, fields, index))
+        : (int) value;
+  }
+
+  static long getLong(final byte[] bytes, final Fields fields, final int index) {
+    final int start = fields.starts[index];
+    final int end = fields.ends[index];
+    if (end - start > 19 || fields.escaped[index]) {
+      return Long.parseLong(getString(bytes, fields, index));
+    }
+    final long value = parseDigits(bytes, start, end);
+    return value == Long.MIN_VALUE
+        ? Long.parseLong(getString(bytes, fields, index))
+        : value;
+  }
+
+  /**
+   * Parse a plain decimal, e.g. {@code -12.50}, exactly as {@link Double#parseDouble} would.
+   *
+   * <p>The digits of a decimal with at most {@value #MAX_EXACT_DOUBLE_DIGITS} digits form a long
+   * that is exactly representable as a double, as is the power of ten it must be divided by, so
+   * the single division is correctly rounded. Anything else, e.g. exponents, is parsed by
+   * {@link Double#parseDouble}.
+   */
+  static double getDouble(final byte[] bytes, final Fields fields, final int index) {
+    final int start = fields.starts[index];
+    final int end = fields.ends[index];
+    if (fields.escaped[index]) {
+      return Double.parseDouble(getString(bytes, fields, index));
+    }
+
+    int pos = start;
+    final boolean negative = pos < end && bytes[pos] == '-';
+    if (pos < end && (bytes[pos] == '-' || bytes[pos] == '+')) {
+      pos++;
+    }
+
+    long mantissa = 0;
+    int digits = 0;
+    int fractionDigits = -1;
+    for (; pos < end; pos++) {
+      final byte b = bytes[pos];
+      if (b >= '0' && b <= '9') {
+        mantissa = mantissa * 10 + (b - '0');
+        digits++;
+        if (fractionDigits >= 0) {
+          fractionDigits++;
+        }
+      } else if (b == '.' && fractionDigits < 0) {
+        fractionDigits = 0;
+      } else {
+        return Double.parseDouble(getString(bytes, fields, index));
+      }
+    }
+
+    if (digits == 0 || digits > MAX_EXACT_DOUBLE_DIGITS) {
+      return Double.parseDouble(getString(bytes, fields, index));
+    }
+
+    final double value = fractionDigits > 0
+        ? mantissa / POWERS_OF_TEN[fractionDigits]
+        : (double) mantissa;
+    return negative ? -value : value;
+  }
+
+  /**
+   * @return the value of an optionally signed run of at most 18 ASCII digits, or
+   *     {@link Long#MIN_VALUE} if the range is anything else.
+   */
+  private static long parseDigits(final byte[] bytes, final int start, final int end) {
+    int pos = start;
+    final boolean negative = pos < end && bytes[pos] == '-';
+    if (pos < end && (bytes[pos] == '-' || bytes[pos] == '+')) {
+      pos++;
+    }
+    if (pos == end || end - pos > 18) {
+      return Long.MIN_VALUE;
+    }
+
+    long value = 0;
+    for (; pos < end; pos++) {
+      final int digit = bytes[pos] - '0';
+      if (digit < 0 || digit > 9) {
+        return Long.MIN_VALUE;
+      }
+      value = value * 10 + digit;
+    }
+    return negative ? -value : value;
+  }
+
+  private static boolean isAscii(final byte[] bytes, final int start, final int end) {
+    for (int i = start; i < end; i++) {
+      if (bytes[i] < 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -17,17 +17,15 @@ package io.confluent.ksql.serde.delimited;
 
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.serde.filter.DeserializationFilter;
 import io.confluent.ksql.serde.util.SerdeProcessingLogMessageFactory;
+import io.confluent.ksql.serde.util.SerdeUtils;
 import io.confluent.ksql.util.KsqlException;
 import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
-import org.apache.commons.csv.CSVFormat;
-import org.apache.commons.csv.CSVParser;
-import org.apache.commons.csv.CSVRecord;
+import java.util.Set;
 import org.apache.kafka.common.errors.SerializationException;
 import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.connect.data.Schema;
@@ -35,12 +33,55 @@ import org.apache.kafka.connect.data.Schema;
 public class KsqlDelimitedDeserializer implements Deserializer<GenericRow> {
 
   private final Schema schema;
+  private final boolean[] requiredColumns;
+  private final DeserializationFilter filter;
+  private final boolean[] filterColumns;
+  private final DelimitedScanner scanner;
   private final ProcessingLogger recordLogger;
 
   KsqlDelimitedDeserializer(
       final Schema schema,
       final ProcessingLogger recordLogger) {
+    this(schema, SerdeUtils.allColumns(schema), recordLogger);
+  }
+
+  KsqlDelimitedDeserializer(
+      final Schema schema,
+      final Set<Integer> requiredColumns,
+      final ProcessingLogger recordLogger) {
+    this(schema, requiredColumns, DeserializationFilter.none(), recordLogger);
+  }
+
+  KsqlDelimitedDeserializer(
+      final Schema schema,
+      final Set<Integer> requiredColumns,
+      final DeserializationFilter filter,
+      final ProcessingLogger recordLogger) {
+    this(
+        schema,
+        DelimitedScanner.DEFAULT_DELIMITER,
+        requiredColumns,
+        filter,
+        recordLogger);
+  }
+
+  /**
+   * @param delimiter the character between fields.
+   * @param requiredColumns the indexes of the columns to decode. Other columns are left null.
+   * @param filter evaluated once its columns are decoded. Records that fail it are not decoded
+   *     any further, and are deserialized as {@code null}.
+   */
+  KsqlDelimitedDeserializer(
+      final Schema schema,
+      final char delimiter,
+      final Set<Integer> requiredColumns,
+      final DeserializationFilter filter,
+      final ProcessingLogger recordLogger) {
     this.schema = Objects.requireNonNull(schema);
+    this.requiredColumns = SerdeUtils.requiredColumnMask(schema, requiredColumns);
+    this.filter = Objects.requireNonNull(filter, "filter");
+    this.filterColumns = SerdeUtils.filterColumnMask(schema, filter);
+    this.scanner = new DelimitedScanner(delimiter);
     this.recordLogger = Objects.requireNonNull(recordLogger);
   }
 
@@ -53,38 +94,35 @@ public class KsqlDelimitedDeserializer implements Deserializer<GenericRow> {
     if (bytes == null) {
       return null;
     }
-    final String recordCsvString = new String(bytes, StandardCharsets.UTF_8);
     try {
-      final List<CSVRecord> csvRecords = CSVParser.parse(recordCsvString, CSVFormat.DEFAULT)
-          .getRecords();
+      final int fieldCount = schema.fields().size();
+      final DelimitedScanner.Fields fields = new DelimitedScanner.Fields(fieldCount);
+      final int count = scanner.scan(bytes, fields);
 
-      if (csvRecords == null || csvRecords.isEmpty()) {
-        throw new KsqlException("Deserialization error in the delimited line: " + recordCsvString);
-      }
-      final CSVRecord csvRecord = csvRecords.get(0);
-      if (csvRecord == null || csvRecord.size() == 0) {
-        throw new KsqlException("Deserialization error in the delimited line: " + recordCsvString);
+      if (count == 0) {
+        throw new KsqlException("Deserialization error in the delimited line: "
+            + new String(bytes, StandardCharsets.UTF_8));
       }
-      final List<Object> columns = new ArrayList<>();
-      if (csvRecord.size() != schema.fields().size()) {
+      if (count != fieldCount) {
         throw new KsqlException(
             String.format(
               "Unexpected field count, csvFields:%d schemaFields:%d line: %s",
-              csvRecord.size(),
-              schema.fields().size(),
-              recordCsvString
+              count,
+              fieldCount,
+              new String(bytes, StandardCharsets.UTF_8)
           )
         );
       }
-      for (int i = 0; i < csvRecord.size(); i++) {
-        if (csvRecord.get(i) == null) {
-          columns.add(null);
-        } else {
-          columns.add(enforceFieldType(schema.fields().get(i).schema(), csvRecord.get(i)));
+      if (!filter.isEmpty()) {
+        return getFilteredGenericRow(bytes, fields);
+      }
+      final GenericRow row = GenericRow.withColumnCount(fieldCount);
+      for (int i = 0; i < fieldCount; i++) {
+        if (requiredColumns[i]) {
+          setColumn(row, bytes, fields, i);
         }
-
       }
-      return new GenericRow(columns);
+      return row;
     } catch (final Exception e) {
       recordLogger.error(
           SerdeProcessingLogMessageFactory.deserializationErrorMsg(
@@ -92,28 +130,64 @@ public class KsqlDelimitedDeserializer implements Deserializer<GenericRow> {
               Optional.ofNullable(bytes))
       );
       throw new SerializationException(
-          "Exception in deserializing the delimited row: " + recordCsvString,
+          "Exception in deserializing the delimited row: "
+              + new String(bytes, StandardCharsets.UTF_8),
           e
       );
     }
   }
 
-  private Object enforceFieldType(final Schema fieldSchema, final String delimitedField) {
+  private GenericRow getFilteredGenericRow(
+      final byte[] bytes,
+      final DelimitedScanner.Fields fields
+  ) {
+    final int fieldCount = fields.count();
+    final GenericRow row = GenericRow.withColumnCount(fieldCount);
+    for (int i = 0; i < fieldCount; i++) {
+      if (filterColumns[i]) {
+        setColumn(row, bytes, fields, i);
+      }
+    }
 
-    if (delimitedField.isEmpty()) {
+    if (!filter.test(row.getColumns())) {
       return null;
     }
+
+    for (int i = 0; i < fieldCount; i++) {
+      if (requiredColumns[i] && !filterColumns[i]) {
+        setColumn(row, bytes, fields, i);
+      }
+    }
+    return row;
+  }
+
+  private void setColumn(
+      final GenericRow row,
+      final byte[] bytes,
+      final DelimitedScanner.Fields fields,
+      final int index
+  ) {
+    if (DelimitedScanner.isEmpty(fields, index)) {
+      return;
+    }
+
+    final Schema fieldSchema = schema.fields().get(index).schema();
     switch (fieldSchema.type()) {
       case BOOLEAN:
-        return Boolean.parseBoolean(delimitedField);
+        row.setBoolean(index, DelimitedScanner.getBoolean(bytes, fields, index));
+        return;
       case INT32:
-        return Integer.parseInt(delimitedField);
+        row.setInt(index, DelimitedScanner.getInt(bytes, fields, index));
+        return;
       case INT64:
-        return Long.parseLong(delimitedField);
+        row.setLong(index, DelimitedScanner.getLong(bytes, fields, index));
+        return;
       case FLOAT64:
-        return Double.parseDouble(delimitedField);
+        row.setDouble(index, DelimitedScanner.getDouble(bytes, fields, index));
+        return;
       case STRING:
-        return delimitedField;
+        row.getColumns().set(index, DelimitedScanner.getString(bytes, fields, index));
+        return;
       case ARRAY:
       case MAP:
       default:
@@ -23,10 +23,13 @@ import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
 import io.confluent.ksql.serde.DataSource;
 import io.confluent.ksql.serde.KsqlTopicSerDe;
+import io.confluent.ksql.serde.filter.DeserializationFilter;
 import io.confluent.ksql.serde.util.SerdeUtils;
 import io.confluent.ksql.util.KsqlConfig;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.function.Supplier;
 import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.Serde;
@@ -38,8 +41,23 @@ import org.apache.kafka.connect.data.Schema;
 @Immutable
 public class KsqlDelimitedTopicSerDe extends KsqlTopicSerDe {
 
+  private final char delimiter;
+
   public KsqlDelimitedTopicSerDe() {
+    this(DelimitedScanner.DEFAULT_DELIMITER);
+  }
+
+  /**
+   * @param delimiter the character between fields, e.g. a tab or a pipe. It must be an ASCII
+   *     character other than a double quote or a line break.
+   */
+  public KsqlDelimitedTopicSerDe(final char delimiter) {
     super(DataSource.DataSourceSerDe.DELIMITED);
+    this.delimiter = DelimitedScanner.validateDelimiter(delimiter);
+  }
+
+  public char getDelimiter() {
+    return delimiter;
   }
 
   @Override
@@ -50,13 +68,57 @@ public class KsqlDelimitedTopicSerDe extends KsqlTopicSerDe {
       final Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
       final String loggerNamePrefix,
       final ProcessingLogContext processingLogContext) {
+    return getGenericRowSerde(
+        schema,
+        ksqlConfig,
+        isInternal,
+        schemaRegistryClientFactory,
+        loggerNamePrefix,
+        processingLogContext,
+        SerdeUtils.allColumns(schema));
+  }
+
+  @Override
+  public Serde<GenericRow> getGenericRowSerde(
+      final Schema schema,
+      final KsqlConfig ksqlConfig,
+      final boolean isInternal,
+      final Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
+      final String loggerNamePrefix,
+      final ProcessingLogContext processingLogContext,
+      final Set<Integer> requiredColumns) {
+    return getGenericRowSerde(
+        schema,
+        ksqlConfig,
+        isInternal,
+        schemaRegistryClientFactory,
+        loggerNamePrefix,
+        processingLogContext,
+        requiredColumns,
+        DeserializationFilter.none());
+  }
+
+  @Override
+  public Serde<GenericRow> getGenericRowSerde(
+      final Schema schema,
+      final KsqlConfig ksqlConfig,
+      final boolean isInternal,
+      final Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
+      final String loggerNamePrefix,
+      final ProcessingLogContext processingLogContext,
+      final Set<Integer> requiredColumns,
+      final DeserializationFilter filter) {
     final Map<String, Object> serdeProps = new HashMap<>();
 
-    final Serializer<GenericRow> genericRowSerializer = new KsqlDelimitedSerializer(schema);
+    final Serializer<GenericRow> genericRowSerializer =
+        new KsqlDelimitedSerializer(schema, delimiter);
     genericRowSerializer.configure(serdeProps, false);
 
     final Deserializer<GenericRow> genericRowDeserializer = new KsqlDelimitedDeserializer(
         schema,
+        delimiter,
+        requiredColumns,
+        filter,
         processingLogContext.getLoggerFactory().getLogger(
             join(loggerNamePrefix, SerdeUtils.DESERIALIZER_LOGGER_NAME))
     );
@@ -64,4 +126,24 @@ public class KsqlDelimitedTopicSerDe extends KsqlTopicSerDe {
 
     return Serdes.serdeFrom(genericRowSerializer, genericRowDeserializer);
   }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    if (!super.equals(o)) {
+      return false;
+    }
+    final KsqlDelimitedTopicSerDe that = (KsqlDelimitedTopicSerDe) o;
+    return delimiter == that.delimiter;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(super.hashCode(), delimiter);
+  }
 }
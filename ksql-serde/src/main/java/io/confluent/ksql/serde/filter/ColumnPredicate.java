@@ -0,0 +1,161 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.filter;
+
+import java.util.Objects;
+
+/**
+ * A comparison of a single column of a row against a literal value.
+ *
+ * <p>The comparison has the same semantics as the generated code for the equivalent SQL
+ * comparison: it is {@code false} if the column is null, strings compare lexicographically and
+ * numbers compare with Java's numeric promotion.
+ */
+public final class ColumnPredicate {
+
+  public enum Comparison {
+    EQUAL,
+    NOT_EQUAL,
+    LESS_THAN,
+    LESS_THAN_OR_EQUAL,
+    GREATER_THAN,
+    GREATER_THAN_OR_EQUAL
+  }
+
+  private final int column;
+  private final Comparison comparison;
+  private final Object value;
+
+  /**
+   * @param column the index of the column in the row.
+   * @param comparison the comparison of the column's value against {@code value}.
+   * @param value the literal to compare against: a {@code Number}, {@code String} or
+   *     {@code Boolean}. Booleans only support {@code EQUAL} and {@code NOT_EQUAL}.
+   */
+  public ColumnPredicate(final int column, final Comparison comparison, final Object value) {
+    this.column = column;
+    this.comparison = Objects.requireNonNull(comparison, "comparison");
+    this.value = Objects.requireNonNull(value, "value");
+
+    if (column < 0) {
+      throw new IllegalArgumentException("column index can not be negative: " + column);
+    }
+    if (!(value instanceof Number || value instanceof String || value instanceof Boolean)) {
+      throw new IllegalArgumentException("Unsupported literal type: " + value.getClass());
+    }
+    if (value instanceof Boolean
+        && comparison != Comparison.EQUAL
+        && comparison != Comparison.NOT_EQUAL) {
+      throw new IllegalArgumentException("Booleans can only be compared for equality");
+    }
+  }
+
+  public int getColumn() {
+    return column;
+  }
+
+  public Comparison getComparison() {
+    return comparison;
+  }
+
+  public Object getValue() {
+    return value;
+  }
+
+  /**
+   * @param columnValue the decoded value of the column.
+   * @return {@code true} if the value satisfies the comparison.
+   */
+  public boolean test(final Object columnValue) {
+    if (columnValue == null) {
+      return false;
+    }
+    if (value instanceof String) {
+      return compared(((String) columnValue).compareTo((String) value));
+    }
+    if (value instanceof Boolean) {
+      return compared(Boolean.compare((Boolean) columnValue, (Boolean) value));
+    }
+    final Number number = (Number) columnValue;
+    if (number instanceof Double || value instanceof Double) {
+      return test(number.doubleValue(), ((Number) value).doubleValue());
+    }
+    return compared(Long.compare(number.longValue(), ((Number) value).longValue()));
+  }
+
+  private boolean compared(final int result) {
+    switch (comparison) {
+      case EQUAL:
+        return result == 0;
+      case NOT_EQUAL:
+        return result != 0;
+      case LESS_THAN:
+        return result < 0;
+      case LESS_THAN_OR_EQUAL:
+        return result <= 0;
+      case GREATER_THAN:
+        return result > 0;
+      default:
+        return result >= 0;
+    }
+  }
+
+  // doubles use the primitive operators, rather than Double.compare, so that NaN never matches:
+  private boolean test(final double left, final double right) {
+    switch (comparison) {
+      case EQUAL:
+        return left <= right && left >= right;
+      case NOT_EQUAL:
+        return left < right || left > right;
+      case LESS_THAN:
+        return left < right;
+      case LESS_THAN_OR_EQUAL:
+        return left <= right;
+      case GREATER_THAN:
+        return left > right;
+      default:
+        return left >= right;
+    }
+  }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    final ColumnPredicate that = (ColumnPredicate) o;
+    return column == that.column
+        && comparison == that.comparison
+        && value.equals(that.value);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(column, comparison, value);
+  }
+
+  @Override
+  public String toString() {
+    return "ColumnPredicate{"
+        + "column=" + column
+        + ", comparison=" + comparison
+        + ", value=" + value
+        + '}';
+  }
+}
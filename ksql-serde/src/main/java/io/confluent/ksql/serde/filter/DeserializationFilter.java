@@ -0,0 +1,100 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.filter;
+
+import com.google.common.collect.ImmutableList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import org.apache.kafka.common.metrics.Sensor;
+
+/**
+ * A conjunction of column predicates that a deserializer evaluates after decoding only the
+ * columns they reference. Records that fail the filter are not decoded any further, and the
+ * deserializer returns {@code null} for them.
+ *
+ * <p>A filter must only be used where a {@code null} value is dropped by the rest of the query,
+ * i.e. for a stream whose rows are filtered by a predicate that implies this filter.
+ *
+ * <p>Records whose filter columns are null are not rejected, but left to the query's own filter,
+ * which records any error evaluating it for them in the processing log.
+ */
+@SuppressWarnings("OptionalUsedAsFieldOrParameterType")
+public final class DeserializationFilter {
+
+  private static final DeserializationFilter NONE =
+      new DeserializationFilter(Collections.emptyList(), Optional.empty());
+
+  private final List<ColumnPredicate> predicates;
+  private final Optional<Sensor> skippedSensor;
+
+  /**
+   * @return a filter that accepts all records.
+   */
+  public static DeserializationFilter none() {
+    return NONE;
+  }
+
+  /**
+   * @param predicates the predicates that must all be satisfied.
+   * @param skippedSensor sensor recorded for each record the filter rejects.
+   */
+  public static DeserializationFilter of(
+      final List<ColumnPredicate> predicates,
+      final Optional<Sensor> skippedSensor
+  ) {
+    return new DeserializationFilter(predicates, skippedSensor);
+  }
+
+  private DeserializationFilter(
+      final List<ColumnPredicate> predicates,
+      final Optional<Sensor> skippedSensor
+  ) {
+    this.predicates = ImmutableList.copyOf(Objects.requireNonNull(predicates, "predicates"));
+    this.skippedSensor = Objects.requireNonNull(skippedSensor, "skippedSensor");
+  }
+
+  public boolean isEmpty() {
+    return predicates.isEmpty();
+  }
+
+  public List<ColumnPredicate> getPredicates() {
+    return predicates;
+  }
+
+  /**
+   * @param columns the row, in which at least the columns of the predicates have been decoded.
+   * @return {@code true} if the row satisfies every predicate whose column is not null.
+   */
+  public boolean test(final List<Object> columns) {
+    for (final ColumnPredicate predicate : predicates) {
+      final Object value = columns.get(predicate.getColumn());
+      if (value != null && !predicate.test(value)) {
+        skippedSensor.ifPresent(Sensor::record);
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return "DeserializationFilter{"
+        + "predicates=" + predicates
+        + '}';
+  }
+}
@@ -18,6 +18,7 @@ package io.confluent.ksql.serde.json;
 import com.google.gson.Gson;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.serde.filter.DeserializationFilter;
 import io.confluent.ksql.serde.util.SerdeProcessingLogMessageFactory;
 import io.confluent.ksql.serde.util.SerdeUtils;
 import io.confluent.ksql.util.KsqlException;
@@ -29,6 +30,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import org.apache.kafka.common.errors.SerializationException;
 import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.connect.data.Field;
@@ -43,6 +45,9 @@ public class KsqlJsonDeserializer implements Deserializer<GenericRow> {
   private static final Logger LOG = LoggerFactory.getLogger(KsqlJsonDeserializer.class);
 
   private final Schema schema;
+  private final boolean[] requiredColumns;
+  private final DeserializationFilter filter;
+  private final boolean[] filterColumns;
   private final JsonConverter jsonConverter;
   private final ProcessingLogger recordLogger;
 
@@ -52,6 +57,28 @@ public class KsqlJsonDeserializer implements Deserializer<GenericRow> {
       final Schema schema,
       final boolean isInternal,
       final ProcessingLogger recordLogger) {
+    this(schema, isInternal, SerdeUtils.allColumns(schema), recordLogger);
+  }
+
+  public KsqlJsonDeserializer(
+      final Schema schema,
+      final boolean isInternal,
+      final Set<Integer> requiredColumns,
+      final ProcessingLogger recordLogger) {
+    this(schema, isInternal, requiredColumns, DeserializationFilter.none(), recordLogger);
+  }
+
+  /**
+   * @param requiredColumns the indexes of the columns to decode. Other columns are left null.
+   * @param filter evaluated once its columns are decoded. Records that fail it are not decoded
+   *     any further, and are deserialized as {@code null}.
+   */
+  public KsqlJsonDeserializer(
+      final Schema schema,
+      final boolean isInternal,
+      final Set<Integer> requiredColumns,
+      final DeserializationFilter filter,
+      final ProcessingLogger recordLogger) {
     gson = new Gson();
     // If this is a Deserializer for an internal topic in the streams app
     if (isInternal) {
@@ -59,6 +86,9 @@ public class KsqlJsonDeserializer implements Deserializer<GenericRow> {
     } else {
       this.schema = SchemaUtil.getSchemaWithNoAlias(schema);
     }
+    this.requiredColumns = SerdeUtils.requiredColumnMask(this.schema, requiredColumns);
+    this.filter = Objects.requireNonNull(filter, "filter");
+    this.filterColumns = SerdeUtils.filterColumnMask(this.schema, filter);
     jsonConverter = new JsonConverter();
     jsonConverter.configure(Collections.singletonMap("schemas.enable", false), false);
     this.recordLogger = Objects.requireNonNull(recordLogger);
@@ -98,14 +128,54 @@ public class KsqlJsonDeserializer implements Deserializer<GenericRow> {
     final Map<String, String> caseInsensitiveFieldNameMap =
         getCaseInsensitiveFieldNameMap(valueMap, true);
 
+    if (!filter.isEmpty()) {
+      return getFilteredGenericRow(valueMap, caseInsensitiveFieldNameMap);
+    }
+
     final List<Object> columns = new ArrayList<>(schema.fields().size());
     for (final Field field : schema.fields()) {
-      final Object columnVal = valueMap.get(caseInsensitiveFieldNameMap.get(field.name()));
-      columns.add(enforceFieldType(field.schema(), columnVal));
+      if (!requiredColumns[field.index()]) {
+        columns.add(null);
+        continue;
+      }
+      columns.add(getColumn(field, valueMap, caseInsensitiveFieldNameMap));
+    }
+    return new GenericRow(columns);
+  }
+
+  private GenericRow getFilteredGenericRow(
+      final Map<String, Object> valueMap,
+      final Map<String, String> caseInsensitiveFieldNameMap
+  ) {
+    final List<Object> columns = new ArrayList<>(
+        Collections.nCopies(schema.fields().size(), null));
+    for (final Field field : schema.fields()) {
+      if (filterColumns[field.index()]) {
+        columns.set(field.index(), getColumn(field, valueMap, caseInsensitiveFieldNameMap));
+      }
+    }
+
+    if (!filter.test(columns)) {
+      return null;
+    }
+
+    for (final Field field : schema.fields()) {
+      if (requiredColumns[field.index()] && !filterColumns[field.index()]) {
+        columns.set(field.index(), getColumn(field, valueMap, caseInsensitiveFieldNameMap));
+      }
     }
     return new GenericRow(columns);
   }
 
+  private Object getColumn(
+      final Field field,
+      final Map<String, Object> valueMap,
+      final Map<String, String> caseInsensitiveFieldNameMap
+  ) {
+    final Object columnVal = valueMap.get(caseInsensitiveFieldNameMap.get(field.name()));
+    return enforceFieldType(field.schema(), columnVal);
+  }
+
   // This is a temporary requirement until we can ensure that the types that Connect JSON
   // convertor creates are supported in KSQL.
   @SuppressWarnings("unchecked")
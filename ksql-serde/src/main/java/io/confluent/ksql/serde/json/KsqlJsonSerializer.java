@@ -15,11 +15,20 @@
 
 package io.confluent.ksql.serde.json;
 
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
 import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.serde.util.SerializationBuffer;
+import java.io.IOException;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import org.apache.kafka.common.errors.SerializationException;
 import org.apache.kafka.common.serialization.Serializer;
+import org.apache.kafka.connect.data.Field;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.Struct;
 import org.apache.kafka.connect.json.JsonConverter;
@@ -30,16 +39,29 @@ public class KsqlJsonSerializer implements Serializer<GenericRow> {
 
   private static final Logger LOG = LoggerFactory.getLogger(KsqlJsonSerializer.class);
 
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
   private final Schema schema;
   private final JsonConverter jsonConverter;
+  private final StructWriter rowWriter;
 
   /**
    * Default constructor needed by Kafka
    */
   public KsqlJsonSerializer(final Schema schema) {
+    this(schema, true);
+  }
+
+  /**
+   * @param directWriter whether to write rows straight from their columns, with a writer
+   *     compiled from the schema, rather than converting them to a {@code Struct} and passing
+   *     that to a {@link JsonConverter}. Either way, the JSON is the same.
+   */
+  public KsqlJsonSerializer(final Schema schema, final boolean directWriter) {
     this.schema = schema;
     jsonConverter = new JsonConverter();
     jsonConverter.configure(Collections.singletonMap("schemas.enable", false), false);
+    rowWriter = directWriter ? StructWriter.forStruct(schema) : null;
   }
 
   @SuppressWarnings("unchecked")
@@ -56,6 +78,14 @@ public class KsqlJsonSerializer implements Serializer<GenericRow> {
     if (data == null) {
       return null;
     }
+
+    if (rowWriter != null) {
+      final byte[] bytes = writeDirect(data.getColumns());
+      if (bytes != null) {
+        return bytes;
+      }
+    }
+
     try {
       final Struct struct = new Struct(schema);
       for (int i = 0; i < data.getColumns().size(); i++) {
@@ -68,6 +98,264 @@ public class KsqlJsonSerializer implements Serializer<GenericRow> {
     }
   }
 
+  /**
+   * @return the JSON for {@code columns}, or {@code null} if it contains a value the direct
+   *     writer does not handle, which is then left to the {@code JsonConverter}.
+   */
+  private byte[] writeDirect(final List<Object> columns) {
+    final SerializationBuffer buffer = SerializationBuffer.acquire();
+    try {
+      try (JsonGenerator generator = JSON_FACTORY.createGenerator(buffer, JsonEncoding.UTF8)) {
+        if (!rowWriter.writeFields(generator, columns)) {
+          return null;
+        }
+      }
+      return buffer.toByteArray();
+    } catch (final IOException e) {
+      return null;
+    } finally {
+      buffer.release();
+    }
+  }
+
+  /**
+   * Writes a single value, which is never {@code null}.
+   *
+   * @return {@code false} if the value is not of the Java type the schema expects.
+   */
+  private interface ValueWriter {
+
+    boolean write(JsonGenerator generator, Object value) throws IOException;
+  }
+
+  private static boolean writeValue(
+      final ValueWriter writer,
+      final Schema schema,
+      final JsonGenerator generator,
+      final Object value
+  ) throws IOException {
+    if (value == null) {
+      if (!schema.isOptional()) {
+        return false;
+      }
+      generator.writeNull();
+      return true;
+    }
+    return writer.write(generator, value);
+  }
+
+  /**
+   * @return the writer for values of {@code schema}, or {@code null} if the schema uses a type,
+   *     logical type or default value that the direct writer does not handle.
+   */
+  private static ValueWriter writerFor(final Schema schema) {
+    if (schema.defaultValue() != null) {
+      return null;
+    }
+    if (schema.type().isPrimitive() && schema.name() != null) {
+      return null;
+    }
+
+    switch (schema.type()) {
+      case BOOLEAN:
+        return (generator, value) -> {
+          if (!(value instanceof Boolean)) {
+            return false;
+          }
+          generator.writeBoolean((Boolean) value);
+          return true;
+        };
+      case INT32:
+        return (generator, value) -> {
+          if (!(value instanceof Integer)) {
+            return false;
+          }
+          generator.writeNumber((Integer) value);
+          return true;
+        };
+      case INT64:
+        return (generator, value) -> {
+          if (!(value instanceof Long)) {
+            return false;
+          }
+          generator.writeNumber((Long) value);
+          return true;
+        };
+      case FLOAT64:
+        return (generator, value) -> {
+          if (!(value instanceof Double)) {
+            return false;
+          }
+          generator.writeNumber((Double) value);
+          return true;
+        };
+      case STRING:
+        return (generator, value) -> {
+          if (!(value instanceof String)) {
+            return false;
+          }
+          generator.writeString((String) value);
+          return true;
+        };
+      case ARRAY:
+        final ValueWriter elementWriter = writerFor(schema.valueSchema());
+        return elementWriter == null ? null : new ArrayWriter(schema.valueSchema(), elementWriter);
+      case MAP:
+        final ValueWriter valueWriter = writerFor(schema.valueSchema());
+        return schema.keySchema().type() != Schema.Type.STRING || valueWriter == null
+            ? null
+            : new MapWriter(schema.valueSchema(), valueWriter);
+      case STRUCT:
+        return StructWriter.forStruct(schema);
+      default:
+        return null;
+    }
+  }
+
+  private static final class ArrayWriter implements ValueWriter {
+
+    private final Schema elementSchema;
+    private final ValueWriter elementWriter;
+
+    ArrayWriter(final Schema elementSchema, final ValueWriter elementWriter) {
+      this.elementSchema = elementSchema;
+      this.elementWriter = elementWriter;
+    }
+
+    @Override
+    public boolean write(final JsonGenerator generator, final Object value) throws IOException {
+      if (!(value instanceof List)) {
+        return false;
+      }
+      generator.writeStartArray();
+      for (final Object element : (List<?>) value) {
+        if (!writeValue(elementWriter, elementSchema, generator, element)) {
+          return false;
+        }
+      }
+      generator.writeEndArray();
+      return true;
+    }
+  }
+
+  private static final class MapWriter implements ValueWriter {
+
+    private final Schema valueSchema;
+    private final ValueWriter valueWriter;
+
+    MapWriter(final Schema valueSchema, final ValueWriter valueWriter) {
+      this.valueSchema = valueSchema;
+      this.valueWriter = valueWriter;
+    }
+
+    @Override
+    public boolean write(final JsonGenerator generator, final Object value) throws IOException {
+      if (!(value instanceof Map)) {
+        return false;
+      }
+      generator.writeStartObject();
+      for (final Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+        if (!(entry.getKey() instanceof String)) {
+          return false;
+        }
+        generator.writeFieldName((String) entry.getKey());
+        if (!writeValue(valueWriter, valueSchema, generator, entry.getValue())) {
+          return false;
+        }
+      }
+      generator.writeEndObject();
+      return true;
+    }
+  }
+
+  /**
+   * Writes the fields of a row or struct as a JSON object, using field names that were quoted
+   * and encoded when the writer was built.
+   */
+  private static final class StructWriter implements ValueWriter {
+
+    private final Schema schema;
+    private final Field[] fields;
+    private final SerializableString[] names;
+    private final ValueWriter[] writers;
+
+    /**
+     * @return the writer for the fields of {@code schema}, or {@code null} if the schema
+     *     contains a type the direct writer does not handle.
+     */
+    static StructWriter forStruct(final Schema schema) {
+      final Field[] fields = schema.fields().toArray(new Field[0]);
+      final SerializableString[] names = new SerializableString[fields.length];
+      final ValueWriter[] writers = new ValueWriter[fields.length];
+      for (int i = 0; i < fields.length; i++) {
+        final ValueWriter writer = writerFor(fields[i].schema());
+        if (writer == null) {
+          return null;
+        }
+        names[i] = new SerializedString(fields[i].name());
+        writers[i] = writer;
+      }
+      return new StructWriter(schema, fields, names, writers);
+    }
+
+    private StructWriter(
+        final Schema schema,
+        final Field[] fields,
+        final SerializableString[] names,
+        final ValueWriter[] writers
+    ) {
+      this.schema = schema;
+      this.fields = fields;
+      this.names = names;
+      this.writers = writers;
+    }
+
+    @Override
+    public boolean write(final JsonGenerator generator, final Object value) throws IOException {
+      if (!(value instanceof Struct)) {
+        return false;
+      }
+      final Struct struct = (Struct) value;
+      if (struct.schema() != schema && !struct.schema().equals(schema)) {
+        return false;
+      }
+
+      generator.writeStartObject();
+      for (int i = 0; i < writers.length; i++) {
+        generator.writeFieldName(names[i]);
+        if (!writeValue(writers[i], fields[i].schema(), generator, struct.get(fields[i]))) {
+          return false;
+        }
+      }
+      generator.writeEndObject();
+      return true;
+    }
+
+    /**
+     * Writes {@code columns} as the fields of a JSON object. Missing trailing columns are
+     * written as {@code null}.
+     */
+    boolean writeFields(
+        final JsonGenerator generator,
+        final List<Object> columns
+    ) throws IOException {
+      if (columns.size() > writers.length) {
+        return false;
+      }
+
+      generator.writeStartObject();
+      for (int i = 0; i < writers.length; i++) {
+        generator.writeFieldName(names[i]);
+        final Object column = i < columns.size() ? columns.get(i) : null;
+        if (!writeValue(writers[i], fields[i].schema(), generator, column)) {
+          return false;
+        }
+      }
+      generator.writeEndObject();
+      return true;
+    }
+  }
+
   private boolean compareSchemas(final Schema schema1, final Schema schema2) {
     if (schema1.type() != schema2.type()) {
       return false;
@@ -0,0 +1,400 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.json;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.serde.filter.DeserializationFilter;
+import io.confluent.ksql.serde.util.SerdeUtils;
+import io.confluent.ksql.util.SchemaUtil;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.connect.data.Field;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.Struct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A JSON deserializer that reads the record with a streaming parser, writing each value
+ * directly into its column, rather than building a map of the whole record first.
+ *
+ * <p>The readers for the columns, including those of nested structs, arrays and maps, are
+ * compiled from the schema once. Values whose JSON type differs from the column type, e.g. a
+ * number in a {@code VARCHAR} column, duplicate fields and malformed records are handed to a
+ * {@link KsqlJsonDeserializer}, so the result is always the same as that deserializer's.
+ */
+public class KsqlJsonStreamingDeserializer implements Deserializer<GenericRow> {
+  private static final Logger LOG = LoggerFactory.getLogger(KsqlJsonStreamingDeserializer.class);
+
+  private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+  private final int columnCount;
+  private final StructReader rowReader;
+  private final boolean[] decodedColumns;
+  private final DeserializationFilter filter;
+  private final KsqlJsonDeserializer fallback;
+
+  public KsqlJsonStreamingDeserializer(
+      final Schema schema,
+      final boolean isInternal,
+      final ProcessingLogger recordLogger) {
+    this(
+        schema,
+        isInternal,
+        SerdeUtils.allColumns(schema),
+        DeserializationFilter.none(),
+        recordLogger);
+  }
+
+  /**
+   * @param requiredColumns the indexes of the columns to decode. Other columns are left null.
+   * @param filter evaluated once the record is read. Records that fail it are deserialized as
+   *     {@code null}.
+   */
+  public KsqlJsonStreamingDeserializer(
+      final Schema schema,
+      final boolean isInternal,
+      final Set<Integer> requiredColumns,
+      final DeserializationFilter filter,
+      final ProcessingLogger recordLogger) {
+    final Schema valueSchema = isInternal ? schema : SchemaUtil.getSchemaWithNoAlias(schema);
+    this.columnCount = valueSchema.fields().size();
+    this.filter = Objects.requireNonNull(filter, "filter");
+    this.fallback = new KsqlJsonDeserializer(
+        schema, isInternal, requiredColumns, filter, recordLogger);
+
+    final boolean[] required = SerdeUtils.requiredColumnMask(valueSchema, requiredColumns);
+    final boolean[] filterColumns = SerdeUtils.filterColumnMask(valueSchema, filter);
+    this.decodedColumns = new boolean[columnCount];
+    for (int i = 0; i < columnCount; i++) {
+      decodedColumns[i] = required[i] || filterColumns[i];
+    }
+    this.rowReader = StructReader.forRow(valueSchema);
+  }
+
+  @Override
+  public void configure(final Map<String, ?> map, final boolean b) {
+  }
+
+  @Override
+  public GenericRow deserialize(final String topic, final byte[] bytes) {
+    if (bytes == null || rowReader == null) {
+      return fallback.deserialize(topic, bytes);
+    }
+
+    final List<Object> columns;
+    try {
+      columns = readColumns(bytes);
+    } catch (final Exception e) {
+      // Edge cases, and malformed records, which the fallback logs:
+      return fallback.deserialize(topic, bytes);
+    }
+
+    if (columns == null || !filter.test(columns)) {
+      return null;
+    }
+
+    final GenericRow row = new GenericRow(columns);
+    if (LOG.isTraceEnabled()) {
+      LOG.trace("Deserialized row. topic:{}, row:{}", topic, row);
+    }
+    return row;
+  }
+
+  private List<Object> readColumns(final byte[] bytes) throws IOException {
+    try (JsonParser parser = JSON_FACTORY.createParser(bytes)) {
+      final JsonToken token = parser.nextToken();
+      if (token == JsonToken.VALUE_NULL) {
+        return null;
+      }
+      if (token != JsonToken.START_OBJECT) {
+        throw Unsupported.INSTANCE;
+      }
+
+      final Object[] values = new Object[columnCount];
+      rowReader.readFields(parser, values, decodedColumns);
+      return SerdeUtils.toRowColumns(values);
+    }
+  }
+
+  @Override
+  public void close() {
+  }
+
+  /**
+   * Thrown when a record can not be read by the streaming path. Shared, and without a stack
+   * trace, as it is control flow rather than an error.
+   */
+  private static final class Unsupported extends RuntimeException {
+
+    private static final Unsupported INSTANCE = new Unsupported();
+
+    private Unsupported() {
+      super("Record requires the fallback deserializer", null, false, false);
+    }
+  }
+
+  /**
+   * Reads a single value, starting at its first token, which is never {@code VALUE_NULL}.
+   */
+  private interface ValueReader {
+
+    Object read(JsonParser parser) throws IOException;
+  }
+
+  private static Object readValue(
+      final ValueReader reader,
+      final JsonParser parser
+  ) throws IOException {
+    if (parser.getCurrentToken() == JsonToken.VALUE_NULL) {
+      return null;
+    }
+    return reader.read(parser);
+  }
+
+  private static ValueReader readerFor(final Schema schema) {
+    switch (schema.type()) {
+      case BOOLEAN:
+        return KsqlJsonStreamingDeserializer::readBoolean;
+      case INT32:
+        return parser -> (int) readLong(parser);
+      case INT64:
+        return KsqlJsonStreamingDeserializer::readLong;
+      case FLOAT64:
+        return KsqlJsonStreamingDeserializer::readDouble;
+      case STRING:
+        return KsqlJsonStreamingDeserializer::readString;
+      case ARRAY:
+        final ValueReader elementReader = readerFor(schema.valueSchema());
+        return elementReader == null ? null : new ArrayReader(elementReader);
+      case MAP:
+        final ValueReader valueReader = readerFor(schema.valueSchema());
+        return schema.keySchema().type() != Schema.Type.STRING || valueReader == null
+            ? null
+            : new MapReader(valueReader);
+      case STRUCT:
+        return StructReader.forStruct(schema);
+      default:
+        return null;
+    }
+  }
+
+  private static Object readBoolean(final JsonParser parser) {
+    switch (parser.getCurrentToken()) {
+      case VALUE_TRUE:
+        return Boolean.TRUE;
+      case VALUE_FALSE:
+        return Boolean.FALSE;
+      default:
+        throw Unsupported.INSTANCE;
+    }
+  }
+
+  private static long readLong(final JsonParser parser) throws IOException {
+    if (parser.getCurrentToken() != JsonToken.VALUE_NUMBER_INT
+        || parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+      throw Unsupported.INSTANCE;
+    }
+    return parser.getLongValue();
+  }
+
+  private static double readDouble(final JsonParser parser) throws IOException {
+    if (parser.getCurrentToken() == JsonToken.VALUE_NUMBER_FLOAT) {
+      return parser.getDoubleValue();
+    }
+    return readLong(parser);
+  }
+
+  private static String readString(final JsonParser parser) throws IOException {
+    if (parser.getCurrentToken() != JsonToken.VALUE_STRING) {
+      throw Unsupported.INSTANCE;
+    }
+    return parser.getText();
+  }
+
+  private static final class ArrayReader implements ValueReader {
+
+    private final ValueReader elementReader;
+
+    ArrayReader(final ValueReader elementReader) {
+      this.elementReader = Objects.requireNonNull(elementReader, "elementReader");
+    }
+
+    @Override
+    public Object read(final JsonParser parser) throws IOException {
+      if (parser.getCurrentToken() != JsonToken.START_ARRAY) {
+        throw Unsupported.INSTANCE;
+      }
+      final List<Object> array = new ArrayList<>();
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
+        array.add(readValue(elementReader, parser));
+      }
+      return array;
+    }
+  }
+
+  private static final class MapReader implements ValueReader {
+
+    private final ValueReader valueReader;
+
+    MapReader(final ValueReader valueReader) {
+      this.valueReader = Objects.requireNonNull(valueReader, "valueReader");
+    }
+
+    @Override
+    public Object read(final JsonParser parser) throws IOException {
+      if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+        throw Unsupported.INSTANCE;
+      }
+      final Map<String, Object> map = new HashMap<>();
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        final String key = parser.getCurrentName();
+        parser.nextToken();
+        map.put(key, readValue(valueReader, parser));
+      }
+      return map;
+    }
+  }
+
+  /**
+   * Reads a JSON object into the fields of a row or struct, matching field names case
+   * insensitively through a lookup table built from the schema.
+   */
+  private static final class StructReader implements ValueReader {
+
+    private final Schema schema;
+    private final boolean isRow;
+    private final Map<String, Integer> fieldIndexes;
+    private final ValueReader[] fieldReaders;
+
+    /**
+     * @return the reader for the value of a row, or {@code null} if the schema contains a type
+     *     the streaming path does not support.
+     */
+    static StructReader forRow(final Schema schema) {
+      try {
+        return new StructReader(schema, true);
+      } catch (final Unsupported e) {
+        return null;
+      }
+    }
+
+    static StructReader forStruct(final Schema schema) {
+      return new StructReader(schema, false);
+    }
+
+    private StructReader(final Schema schema, final boolean isRow) {
+      this.schema = schema;
+      this.isRow = isRow;
+      this.fieldIndexes = new HashMap<>();
+      this.fieldReaders = new ValueReader[schema.fields().size()];
+
+      for (final Field field : schema.fields()) {
+        // Row columns only match JSON fields whose upper-cased name equals the column name,
+        // while struct fields match on their own upper-cased name:
+        final String name = field.name().toUpperCase();
+        if (isRow && !name.equals(field.name())) {
+          continue;
+        }
+        if (fieldIndexes.put(name, field.index()) != null) {
+          throw Unsupported.INSTANCE;
+        }
+
+        final ValueReader reader = readerFor(field.schema());
+        if (reader == null) {
+          throw Unsupported.INSTANCE;
+        }
+        fieldReaders[field.index()] = reader;
+      }
+    }
+
+    @Override
+    public Object read(final JsonParser parser) throws IOException {
+      if (parser.getCurrentToken() != JsonToken.START_OBJECT) {
+        throw Unsupported.INSTANCE;
+      }
+      final Object[] values = new Object[fieldReaders.length];
+      readFields(parser, values, null);
+
+      final Struct struct = new Struct(schema);
+      for (final Field field : schema.fields()) {
+        struct.put(field, values[field.index()]);
+      }
+      return struct;
+    }
+
+    /**
+     * Reads the fields of the object whose {@code START_OBJECT} token is current.
+     *
+     * @param values receives the value of each field.
+     * @param decoded the fields to decode, or {@code null} for all of them.
+     */
+    void readFields(
+        final JsonParser parser,
+        final Object[] values,
+        final boolean[] decoded
+    ) throws IOException {
+      final boolean[] seen = new boolean[values.length];
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        final Integer index = lookup(parser.getCurrentName());
+        parser.nextToken();
+
+        if (index == null) {
+          parser.skipChildren();
+          continue;
+        }
+        if (seen[index]) {
+          throw Unsupported.INSTANCE;
+        }
+        seen[index] = true;
+
+        if (decoded != null && !decoded[index]) {
+          parser.skipChildren();
+          continue;
+        }
+        values[index] = readValue(fieldReaders[index], parser);
+      }
+    }
+
+    private Integer lookup(final String jsonName) {
+      String name = jsonName;
+      if (isRow && name.startsWith("@")) {
+        if (name.length() == 1) {
+          throw Unsupported.INSTANCE;
+        }
+        name = name.substring(1);
+      }
+
+      // Field names are canonicalized by the parser, so the common case of a field name that
+      // matches exactly allocates nothing:
+      final Integer index = fieldIndexes.get(name);
+      if (index != null) {
+        return index;
+      }
+      return fieldIndexes.get(name.toUpperCase());
+    }
+  }
+}
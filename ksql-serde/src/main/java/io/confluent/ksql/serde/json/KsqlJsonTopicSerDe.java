@@ -21,12 +21,16 @@ import com.google.errorprone.annotations.Immutable;
 import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.logging.processing.ProcessingLogContext;
+import io.confluent.ksql.logging.processing.ProcessingLogger;
 import io.confluent.ksql.serde.DataSource;
 import io.confluent.ksql.serde.KsqlTopicSerDe;
+import io.confluent.ksql.serde.filter.DeserializationFilter;
 import io.confluent.ksql.serde.util.SerdeUtils;
 import io.confluent.ksql.util.KsqlConfig;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.function.Supplier;
 import org.apache.kafka.common.serialization.Deserializer;
 import org.apache.kafka.common.serialization.Serde;
@@ -37,8 +41,23 @@ import org.apache.kafka.connect.data.Schema;
 @Immutable
 public class KsqlJsonTopicSerDe extends KsqlTopicSerDe {
 
+  private final boolean streamingDecoder;
+
   public KsqlJsonTopicSerDe() {
+    this(false);
+  }
+
+  /**
+   * @param streamingDecoder whether to deserialize values with a
+   *     {@link KsqlJsonStreamingDeserializer}, rather than a {@link KsqlJsonDeserializer}.
+   */
+  public KsqlJsonTopicSerDe(final boolean streamingDecoder) {
     super(DataSource.DataSourceSerDe.JSON);
+    this.streamingDecoder = streamingDecoder;
+  }
+
+  public boolean isStreamingDecoder() {
+    return streamingDecoder;
   }
 
 
@@ -48,21 +67,80 @@ public class KsqlJsonTopicSerDe extends KsqlTopicSerDe {
       final Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
       final String loggerNamePrefix,
       final ProcessingLogContext processingLogContext) {
+    return getGenericRowSerde(
+        schema,
+        ksqlConfig,
+        isInternal,
+        schemaRegistryClientFactory,
+        loggerNamePrefix,
+        processingLogContext,
+        SerdeUtils.allColumns(schema));
+  }
+
+  @Override
+  public Serde<GenericRow> getGenericRowSerde(final Schema schema, final KsqlConfig ksqlConfig,
+      final boolean isInternal,
+      final Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
+      final String loggerNamePrefix,
+      final ProcessingLogContext processingLogContext,
+      final Set<Integer> requiredColumns) {
+    return getGenericRowSerde(
+        schema,
+        ksqlConfig,
+        isInternal,
+        schemaRegistryClientFactory,
+        loggerNamePrefix,
+        processingLogContext,
+        requiredColumns,
+        DeserializationFilter.none());
+  }
+
+  @Override
+  public Serde<GenericRow> getGenericRowSerde(final Schema schema, final KsqlConfig ksqlConfig,
+      final boolean isInternal,
+      final Supplier<SchemaRegistryClient> schemaRegistryClientFactory,
+      final String loggerNamePrefix,
+      final ProcessingLogContext processingLogContext,
+      final Set<Integer> requiredColumns,
+      final DeserializationFilter filter) {
     final Map<String, Object> serdeProps = new HashMap<>();
     serdeProps.put("JsonPOJOClass", GenericRow.class);
 
-    final Serializer<GenericRow> genericRowSerializer = new KsqlJsonSerializer(schema);
+    final Serializer<GenericRow> genericRowSerializer = new KsqlJsonSerializer(
+        schema,
+        ksqlConfig.getBoolean(KsqlConfig.KSQL_SERDE_JSON_DIRECT_SERIALIZER_CONFIG));
     genericRowSerializer.configure(serdeProps, false);
 
-    final Deserializer<GenericRow> genericRowDeserializer = new KsqlJsonDeserializer(
-        schema,
-        isInternal,
-        processingLogContext.getLoggerFactory().getLogger(
-            join(loggerNamePrefix, SerdeUtils.DESERIALIZER_LOGGER_NAME))
-    );
+    final ProcessingLogger recordLogger = processingLogContext.getLoggerFactory().getLogger(
+        join(loggerNamePrefix, SerdeUtils.DESERIALIZER_LOGGER_NAME));
+
+    final Deserializer<GenericRow> genericRowDeserializer = streamingDecoder
+        ? new KsqlJsonStreamingDeserializer(
+            schema, isInternal, requiredColumns, filter, recordLogger)
+        : new KsqlJsonDeserializer(schema, isInternal, requiredColumns, filter, recordLogger);
 
     genericRowDeserializer.configure(serdeProps, false);
 
     return Serdes.serdeFrom(genericRowSerializer, genericRowDeserializer);
   }
+
+  @Override
+  public boolean equals(final Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    if (!super.equals(o)) {
+      return false;
+    }
+    final KsqlJsonTopicSerDe that = (KsqlJsonTopicSerDe) o;
+    return streamingDecoder == that.streamingDecoder;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(super.hashCode(), streamingDecoder);
+  }
 }
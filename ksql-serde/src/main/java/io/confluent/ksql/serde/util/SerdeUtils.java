@@ -15,8 +15,17 @@
 
 package io.confluent.ksql.serde.util;
 
+import io.confluent.ksql.serde.filter.ColumnPredicate;
+import io.confluent.ksql.serde.filter.DeserializationFilter;
 import io.confluent.ksql.util.KsqlException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.apache.kafka.connect.data.Schema;
 
 public final class SerdeUtils {
   public static final String DESERIALIZER_LOGGER_NAME = "deserializer";
@@ -24,6 +33,62 @@ public final class SerdeUtils {
   private SerdeUtils() {
   }
 
+  /**
+   * @return the indexes of all the fields in the supplied struct {@code schema}.
+   */
+  public static Set<Integer> allColumns(final Schema schema) {
+    return IntStream.range(0, schema.fields().size())
+        .boxed()
+        .collect(Collectors.toSet());
+  }
+
+  /**
+   * @return a mask with an entry for each field in the supplied struct {@code schema}, which is
+   *     {@code true} if the field's index is in {@code requiredColumns}.
+   */
+  public static boolean[] requiredColumnMask(
+      final Schema schema,
+      final Set<Integer> requiredColumns
+  ) {
+    final boolean[] mask = new boolean[schema.fields().size()];
+    for (final int index : requiredColumns) {
+      if (index < 0 || index >= mask.length) {
+        throw new IllegalArgumentException("Required column index out of range: " + index);
+      }
+      mask[index] = true;
+    }
+    return mask;
+  }
+
+  /**
+   * @return a mask with an entry for each field in the supplied struct {@code schema}, which is
+   *     {@code true} if the field is referenced by the {@code filter}.
+   */
+  public static boolean[] filterColumnMask(
+      final Schema schema,
+      final DeserializationFilter filter
+  ) {
+    final Set<Integer> columns = new HashSet<>();
+    for (final ColumnPredicate predicate : filter.getPredicates()) {
+      columns.add(predicate.getColumn());
+    }
+    return requiredColumnMask(schema, columns);
+  }
+
+  /**
+   * Copies the column values a deserializer read into the list a {@code GenericRow} is built on.
+   *
+   * <p>The list is mutable, as the source adds the ROWTIME and ROWKEY columns to each row it
+   * reads, and has room for them, so that adding them does not grow it.
+   */
+  public static List<Object> toRowColumns(final Object[] values) {
+    final List<Object> columns = new ArrayList<>(values.length + 2);
+    for (final Object value : values) {
+      columns.add(value);
+    }
+    return columns;
+  }
+
   public static boolean toBoolean(final Object object) {
     Objects.requireNonNull(object, "Object cannot be null");
     if (object instanceof Boolean) {
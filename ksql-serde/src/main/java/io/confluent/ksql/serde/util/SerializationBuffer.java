@@ -0,0 +1,119 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.util;
+
+import java.io.OutputStream;
+import java.util.Arrays;
+
+/**
+ * A growable buffer that a serializer writes a record into, before copying out its bytes.
+ *
+ * <p>Each thread reuses one buffer from one record to the next: serializers {@link #acquire} it
+ * before writing a record and {@link #release} it once they have copied out the bytes, so only
+ * the copy is allocated per record. A buffer that grew beyond 1MB is dropped when it is
+ * released, so that a few large records do not pin that much memory in every thread that
+ * serializes.
+ *
+ * <p>Not thread safe: a buffer must not be used after it is released.
+ */
+public final class SerializationBuffer extends OutputStream {
+
+  static final int INITIAL_CAPACITY = 256;
+  static final int MAX_RETAINED_CAPACITY = 1024 * 1024;
+
+  private static final ThreadLocal<SerializationBuffer> BUFFERS =
+      ThreadLocal.withInitial(SerializationBuffer::new);
+
+  private byte[] buffer = new byte[INITIAL_CAPACITY];
+  private int size;
+
+  private SerializationBuffer() {
+  }
+
+  /**
+   * @return the calling thread's buffer, which is empty.
+   */
+  public static SerializationBuffer acquire() {
+    return BUFFERS.get();
+  }
+
+  /**
+   * Empties the buffer for the thread's next record, or drops it if it grew too large to keep.
+   */
+  public void release() {
+    size = 0;
+    if (buffer.length > MAX_RETAINED_CAPACITY) {
+      BUFFERS.remove();
+    }
+  }
+
+  /**
+   * @return a copy of the bytes written since the buffer was acquired.
+   */
+  public byte[] toByteArray() {
+    return Arrays.copyOf(buffer, size);
+  }
+
+  public int size() {
+    return size;
+  }
+
+  int capacity() {
+    return buffer.length;
+  }
+
+  @Override
+  public void write(final int b) {
+    ensureCapacity(1);
+    buffer[size++] = (byte) b;
+  }
+
+  @Override
+  public void write(final byte[] bytes, final int offset, final int length) {
+    ensureCapacity(length);
+    System.arraycopy(bytes, offset, buffer, size, length);
+    size += length;
+  }
+
+  /**
+   * Appends {@code length} zero bytes, to be set later with {@link #setBits}.
+   *
+   * @return the offset of the first of the bytes.
+   */
+  public int reserve(final int length) {
+    ensureCapacity(length);
+    final int offset = size;
+    Arrays.fill(buffer, offset, offset + length, (byte) 0);
+    size += length;
+    return offset;
+  }
+
+  /**
+   * Sets the bits of {@code mask} in the byte written at {@code offset}.
+   */
+  public void setBits(final int offset, final int mask) {
+    if (offset < 0 || offset >= size) {
+      throw new IndexOutOfBoundsException("offset: " + offset + ", size: " + size);
+    }
+    buffer[offset] |= (byte) mask;
+  }
+
+  private void ensureCapacity(final int extra) {
+    if (size + extra > buffer.length) {
+      buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+    }
+  }
+}
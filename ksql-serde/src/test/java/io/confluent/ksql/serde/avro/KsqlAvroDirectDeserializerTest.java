@@ -0,0 +1,336 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.avro;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.serializers.AbstractKafkaAvroSerDeConfig;
+import io.confluent.kafka.serializers.KafkaAvroSerializer;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.logging.processing.ProcessingLogContext;
+import io.confluent.ksql.serde.util.SerdeUtils;
+import io.confluent.ksql.util.KsqlConfig;
+import io.confluent.ksql.util.KsqlConstants;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class KsqlAvroDirectDeserializerTest {
+
+  private static final String TOPIC = "orders";
+
+  private static final org.apache.avro.Schema AVRO_ADDRESS_SCHEMA =
+      org.apache.avro.SchemaBuilder.record("address").fields()
+          .optionalString("street")
+          .optionalInt("zip")
+          .optionalLong("ignored")
+          .endRecord();
+
+  private static final org.apache.avro.Schema AVRO_ORDER_SCHEMA =
+      org.apache.avro.SchemaBuilder.record("orders").namespace("kql").fields()
+          .requiredLong("orderTime")
+          .requiredInt("orderId")
+          .name("itemId").type().enumeration("item").symbols("A", "B").noDefault()
+          .requiredFloat("orderUnits")
+          .name("ignored").type().map().values().array().items().stringType().noDefault()
+          .name("arrayCol").type().array().items().nullable().doubleType().noDefault()
+          .name("mapCol").type().map().values().longType().noDefault()
+          .name("address").type().unionOf().nullType().and().type(AVRO_ADDRESS_SCHEMA)
+          .endUnion().nullDefault()
+          .endRecord();
+
+  private static final Schema ADDRESS_SCHEMA = SchemaBuilder.struct()
+      .field("STREET", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("ZIP", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("CITY", Schema.OPTIONAL_STRING_SCHEMA)
+      .optional()
+      .build();
+
+  private static final Schema ORDER_SCHEMA = SchemaBuilder.struct()
+      .field("ORDERTIME", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("ORDERID", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("ITEMID", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("ORDERUNITS", Schema.OPTIONAL_FLOAT64_SCHEMA)
+      .field("ARRAYCOL", SchemaBuilder.array(Schema.OPTIONAL_FLOAT64_SCHEMA).optional().build())
+      .field("MAPCOL", SchemaBuilder
+          .map(Schema.STRING_SCHEMA, Schema.OPTIONAL_INT64_SCHEMA).optional().build())
+      .field("ADDRESS", ADDRESS_SCHEMA)
+      .field("MISSING", Schema.OPTIONAL_BOOLEAN_SCHEMA)
+      .build();
+
+  @Mock
+  private Deserializer<GenericRow> fallback;
+
+  @Rule
+  public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+  private SchemaRegistryClient schemaRegistryClient;
+  private final GenericRow fallbackRow = new GenericRow(Collections.emptyList());
+
+  @Before
+  public void setUp() {
+    schemaRegistryClient = spy(new MockSchemaRegistryClient());
+    when(fallback.deserialize(anyString(), any())).thenReturn(fallbackRow);
+  }
+
+  @Test
+  public void shouldDecodeStraightIntoRow() {
+    // Given:
+    final byte[] bytes = serialize(order());
+
+    // When:
+    final GenericRow row = directDeserializer(SerdeUtils.allColumns(ORDER_SCHEMA))
+        .deserialize(TOPIC, bytes);
+
+    // Then:
+    final Map<String, Long> map = new HashMap<>();
+    map.put("k", 10L);
+    assertThat(row.getColumns(), equalTo(Arrays.asList(
+        1511897796092L,
+        "1",
+        "B",
+        10.5,
+        Arrays.asList(1.5, null),
+        map,
+        new Struct(ADDRESS_SCHEMA).put("STREET", "Main").put("ZIP", 94301L),
+        null)));
+    verify(fallback, never()).deserialize(anyString(), any());
+  }
+
+  @Test
+  public void shouldMatchTheConnectBasedDeserializer() {
+    // Given:
+    final byte[] bytes = serialize(order());
+
+    // When:
+    final GenericRow direct = serde(true).deserialize(TOPIC, bytes);
+
+    // Then:
+    assertThat(direct, equalTo(serde(false).deserialize(TOPIC, bytes)));
+  }
+
+  @Test
+  public void shouldOnlyDecodeRequiredColumns() {
+    // Given:
+    final byte[] bytes = serialize(order());
+
+    // When:
+    final GenericRow row = directDeserializer(ImmutableSet.of(0, 6))
+        .deserialize(TOPIC, bytes);
+
+    // Then:
+    assertThat(row.getColumns(), equalTo(Arrays.asList(
+        1511897796092L,
+        null,
+        null,
+        null,
+        null,
+        null,
+        new Struct(ADDRESS_SCHEMA).put("STREET", "Main").put("ZIP", 94301L),
+        null)));
+  }
+
+  @Test
+  public void shouldReturnNullStructForNullUnionBranch() {
+    // Given:
+    final GenericRecord record = order();
+    record.put("address", null);
+
+    // When:
+    final GenericRow row = directDeserializer(SerdeUtils.allColumns(ORDER_SCHEMA))
+        .deserialize(TOPIC, serialize(record));
+
+    // Then:
+    assertThat(row.getColumns().get(6), is(nullValue()));
+  }
+
+  @Test
+  public void shouldCompileReaderOncePerWriterSchema() throws Exception {
+    // Given:
+    final Deserializer<GenericRow> deserializer =
+        directDeserializer(SerdeUtils.allColumns(ORDER_SCHEMA));
+    final byte[] bytes = serialize(order());
+
+    // When:
+    deserializer.deserialize(TOPIC, bytes);
+    deserializer.deserialize(TOPIC, bytes);
+
+    // Then:
+    verify(schemaRegistryClient, times(1)).getById(anyInt());
+  }
+
+  @Test
+  public void shouldRetryWriterSchemaLookupThatFailed() throws Exception {
+    // Given:
+    final Deserializer<GenericRow> deserializer =
+        directDeserializer(SerdeUtils.allColumns(ORDER_SCHEMA));
+    final byte[] bytes = serialize(order());
+    doThrow(new IOException("registry unavailable"))
+        .doCallRealMethod()
+        .when(schemaRegistryClient).getById(anyInt());
+
+    final GenericRow first = deserializer.deserialize(TOPIC, bytes);
+
+    // When:
+    final GenericRow second = deserializer.deserialize(TOPIC, bytes);
+
+    // Then:
+    assertThat(first, is(sameInstance(fallbackRow)));
+    assertThat(second.getColumns().get(0), is(1511897796092L));
+    verify(schemaRegistryClient, times(2)).getById(anyInt());
+    verify(fallback, times(1)).deserialize(TOPIC, bytes);
+  }
+
+  @Test
+  public void shouldFallBackForWriterSchemaOfIncompatibleType() {
+    // Given:
+    final Schema schema = SchemaBuilder.struct()
+        .field("ORDERUNITS", Schema.OPTIONAL_INT64_SCHEMA)
+        .build();
+    final byte[] bytes = serialize(order());
+
+    // When:
+    final GenericRow row = new KsqlAvroDirectDeserializer(
+        schemaRegistryClient, schema, SerdeUtils.allColumns(schema), fallback)
+        .deserialize(TOPIC, bytes);
+
+    // Then:
+    assertThat(row, is(sameInstance(fallbackRow)));
+    verify(fallback).deserialize(TOPIC, bytes);
+  }
+
+  @Test
+  public void shouldFallBackForUnionOfSeveralTypes() {
+    // Given:
+    final org.apache.avro.Schema avroSchema = org.apache.avro.SchemaBuilder.record("row")
+        .fields()
+        .name("field0").type().unionOf().intType().and().stringType().endUnion().noDefault()
+        .endRecord();
+    final GenericRecord record = new GenericData.Record(avroSchema);
+    record.put("field0", 1);
+    final byte[] bytes = serialize(record);
+
+    // When:
+    final GenericRow row = directDeserializer(SerdeUtils.allColumns(ORDER_SCHEMA))
+        .deserialize(TOPIC, bytes);
+
+    // Then:
+    assertThat(row, is(sameInstance(fallbackRow)));
+  }
+
+  @Test
+  public void shouldFallBackForRecordWithoutSchemaId() {
+    // Given:
+    final byte[] bytes = {1, 2, 3};
+
+    // When:
+    directDeserializer(SerdeUtils.allColumns(ORDER_SCHEMA)).deserialize(TOPIC, bytes);
+
+    // Then:
+    verify(fallback).deserialize(TOPIC, bytes);
+  }
+
+  @Test
+  public void shouldFallBackForTruncatedRecord() {
+    // Given:
+    final byte[] serialized = serialize(order());
+    final byte[] bytes = Arrays.copyOf(serialized, serialized.length - 3);
+
+    // When:
+    final GenericRow row = directDeserializer(SerdeUtils.allColumns(ORDER_SCHEMA))
+        .deserialize(TOPIC, bytes);
+
+    // Then:
+    assertThat(row, is(sameInstance(fallbackRow)));
+  }
+
+  private Deserializer<GenericRow> directDeserializer(final Set<Integer> columns) {
+    return new KsqlAvroDirectDeserializer(schemaRegistryClient, ORDER_SCHEMA, columns, fallback);
+  }
+
+  private Deserializer<GenericRow> serde(final boolean direct) {
+    final KsqlConfig ksqlConfig = new KsqlConfig(ImmutableMap.of(
+        KsqlConfig.SCHEMA_REGISTRY_URL_PROPERTY, "fake-schema-registry-url",
+        KsqlConfig.KSQL_SERDE_AVRO_DIRECT_DESERIALIZER_CONFIG, direct));
+    return new KsqlAvroTopicSerDe(KsqlConstants.DEFAULT_AVRO_SCHEMA_FULL_NAME)
+        .getGenericRowSerde(
+            ORDER_SCHEMA,
+            ksqlConfig,
+            false,
+            () -> schemaRegistryClient,
+            "loggerName",
+            ProcessingLogContext.create())
+        .deserializer();
+  }
+
+  private byte[] serialize(final GenericRecord record) {
+    final Map<String, Object> config = new HashMap<>();
+    config.put(AbstractKafkaAvroSerDeConfig.AUTO_REGISTER_SCHEMAS, true);
+    config.put(AbstractKafkaAvroSerDeConfig.SCHEMA_REGISTRY_URL_CONFIG, "");
+    return new KafkaAvroSerializer(schemaRegistryClient, config).serialize(TOPIC, record);
+  }
+
+  private static GenericRecord order() {
+    final GenericRecord address = new GenericData.Record(AVRO_ADDRESS_SCHEMA);
+    address.put("street", "Main");
+    address.put("zip", 94301);
+    address.put("ignored", 5L);
+
+    final GenericRecord order = new GenericData.Record(AVRO_ORDER_SCHEMA);
+    order.put("orderTime", 1511897796092L);
+    order.put("orderId", 1);
+    order.put("itemId",
+        new GenericData.EnumSymbol(AVRO_ORDER_SCHEMA.getField("itemId").schema(), "B"));
+    order.put("orderUnits", 10.5f);
+    order.put("ignored", Collections.singletonMap("x", Collections.singletonList("y")));
+    order.put("arrayCol", Arrays.asList(1.5, null));
+    order.put("mapCol", Collections.singletonMap("k", 10L));
+    order.put("address", address);
+    return order;
+  }
+}
@@ -0,0 +1,259 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.binary;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.lessThan;
+
+import com.google.common.collect.ImmutableMap;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.logging.processing.ProcessingLogContext;
+import io.confluent.ksql.serde.KsqlTopicSerDe;
+import io.confluent.ksql.serde.json.KsqlJsonTopicSerDe;
+import io.confluent.ksql.util.KsqlConfig;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.ExpectedException;
+
+public class KsqlBinaryTopicSerDeTest {
+
+  private static final Schema ADDRESS_SCHEMA = SchemaBuilder.struct()
+      .field("STREET", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("ZIP", Schema.OPTIONAL_INT64_SCHEMA)
+      .optional()
+      .build();
+
+  private static final Schema ROW_SCHEMA = SchemaBuilder.struct()
+      .field("ORDERS.ORDERTIME", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("ORDERS.ORDERID", Schema.OPTIONAL_INT32_SCHEMA)
+      .field("ORDERS.ITEMID", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("ORDERS.ORDERUNITS", Schema.OPTIONAL_FLOAT64_SCHEMA)
+      .field("ORDERS.PAID", Schema.OPTIONAL_BOOLEAN_SCHEMA)
+      .field("ORDERS.ARRAYCOL",
+          SchemaBuilder.array(Schema.OPTIONAL_FLOAT64_SCHEMA).optional().build())
+      .field("ORDERS.MAPCOL", SchemaBuilder
+          .map(Schema.OPTIONAL_STRING_SCHEMA, Schema.OPTIONAL_INT64_SCHEMA).optional().build())
+      .field("ORDERS.ADDRESS", ADDRESS_SCHEMA)
+      .build();
+
+  private static final KsqlConfig KSQL_CONFIG = new KsqlConfig(Collections.emptyMap());
+
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
+  @Test
+  public void shouldRoundTripAllTypes() {
+    // Given:
+    final Map<String, Long> map = new HashMap<>();
+    map.put("a", -1L);
+    map.put("b", null);
+    final GenericRow row = new GenericRow(Arrays.asList(
+        Long.MIN_VALUE,
+        -7,
+        "\u00e9t\u00e9",
+        Double.NaN,
+        true,
+        Arrays.asList(1.5, null, -0.0),
+        map,
+        new Struct(ADDRESS_SCHEMA).put("STREET", "Main")));
+
+    // When:
+    final GenericRow result = roundTrip(binarySerde(ROW_SCHEMA), row);
+
+    // Then:
+    assertThat(result, equalTo(row));
+  }
+
+  @Test
+  public void shouldRoundTripNulls() {
+    // Given:
+    final GenericRow row = new GenericRow(Arrays.asList(
+        null, null, null, null, null, null, null, null));
+
+    // When:
+    final GenericRow result = roundTrip(binarySerde(ROW_SCHEMA), row);
+
+    // Then:
+    assertThat(result, equalTo(row));
+  }
+
+  @Test
+  public void shouldReturnNullForNullRecord() {
+    // Given:
+    final Serde<GenericRow> serde = binarySerde(ROW_SCHEMA);
+
+    // Then:
+    assertThat(serde.serializer().serialize("t", null), is(nullValue()));
+    assertThat(serde.deserializer().deserialize("t", null), is(nullValue()));
+  }
+
+  @Test
+  public void shouldWriteFewerBytesThanJson() {
+    // Given:
+    final GenericRow row = new GenericRow(Arrays.asList(
+        1511897796092L, 1, "item_1", 10.0, false, Collections.singletonList(1.0),
+        Collections.singletonMap("k", 1L), null));
+
+    // When:
+    final byte[] binary = binarySerde(ROW_SCHEMA).serializer().serialize("t", row);
+
+    // Then:
+    final byte[] json = jsonSerde(ROW_SCHEMA).serializer().serialize("t", row);
+    assertThat(binary.length, is(lessThan(json.length / 2)));
+  }
+
+  @Test
+  public void shouldReadValuesWrittenInLegacyFormat() {
+    // Given:
+    final GenericRow row = new GenericRow(Arrays.asList(
+        1L, 2, "item", 3.5, true, null, null, null));
+    final byte[] legacyBytes = jsonSerde(ROW_SCHEMA).serializer().serialize("t", row);
+
+    // When:
+    final GenericRow result = binarySerde(ROW_SCHEMA).deserializer().deserialize("t", legacyBytes);
+
+    // Then:
+    assertThat(result, equalTo(row));
+  }
+
+  @Test
+  public void shouldThrowOnUnknownVersion() {
+    // Given:
+    final byte[] bytes = binarySerde(ROW_SCHEMA).serializer().serialize("t",
+        new GenericRow(Arrays.asList(null, null, null, null, null, null, null, null)));
+    bytes[1] = 2;
+
+    // Then:
+    expectedException.expect(SerializationException.class);
+
+    // When:
+    binarySerde(ROW_SCHEMA).deserializer().deserialize("t", bytes);
+  }
+
+  @Test
+  public void shouldThrowOnTruncatedRecord() {
+    // Given:
+    final byte[] bytes = binarySerde(ROW_SCHEMA).serializer().serialize("t",
+        new GenericRow(Arrays.asList(1L, 2, "item", null, null, null, null, null)));
+
+    // Then:
+    expectedException.expect(SerializationException.class);
+
+    // When:
+    binarySerde(ROW_SCHEMA).deserializer()
+        .deserialize("t", Arrays.copyOf(bytes, bytes.length - 1));
+  }
+
+  @Test
+  public void shouldThrowOnColumnOfWrongType() {
+    // Then:
+    expectedException.expect(SerializationException.class);
+
+    // When:
+    binarySerde(ROW_SCHEMA).serializer().serialize("t",
+        new GenericRow(Arrays.asList("not a long", null, null, null, null, null, null, null)));
+  }
+
+  @Test
+  public void shouldOnlyBeUsedWhenEnabled() {
+    // Given:
+    final KsqlTopicSerDe sourceSerDe = new KsqlJsonTopicSerDe();
+
+    // When:
+    final KsqlTopicSerDe enabled = KsqlBinaryTopicSerDe.forInternalTopics(
+        sourceSerDe,
+        new KsqlConfig(ImmutableMap.of(
+            KsqlConfig.KSQL_INTERNAL_TOPIC_BINARY_FORMAT_CONFIG, true)));
+    final KsqlTopicSerDe disabled = KsqlBinaryTopicSerDe.forInternalTopics(
+        sourceSerDe,
+        new KsqlConfig(ImmutableMap.of(
+            KsqlConfig.KSQL_INTERNAL_TOPIC_BINARY_FORMAT_CONFIG, false)));
+
+    // Then:
+    assertThat(enabled, is(instanceOf(KsqlBinaryTopicSerDe.class)));
+    assertThat(disabled, is(sourceSerDe));
+  }
+
+  @Test
+  public void shouldNotBeUsedByQueriesOfEarlierVersions() {
+    // When:
+    final KsqlConfig legacyConfig = KSQL_CONFIG
+        .overrideBreakingConfigsWithOriginalValues(Collections.emptyMap());
+
+    // Then:
+    assertThat(
+        legacyConfig.getBoolean(KsqlConfig.KSQL_INTERNAL_TOPIC_BINARY_FORMAT_CONFIG),
+        is(false));
+    assertThat(
+        KSQL_CONFIG.getBoolean(KsqlConfig.KSQL_INTERNAL_TOPIC_BINARY_FORMAT_CONFIG),
+        is(true));
+  }
+
+  @Test
+  public void shouldUseLegacySerdeForUnsupportedSchema() {
+    // Given:
+    final Schema schema = SchemaBuilder.struct()
+        .field("BYTES", Schema.OPTIONAL_BYTES_SCHEMA)
+        .build();
+
+    // When:
+    final Serde<GenericRow> serde = binarySerde(schema);
+
+    // Then:
+    assertThat(serde.serializer(), is(not(instanceOf(KsqlBinarySerializer.class))));
+  }
+
+  private static GenericRow roundTrip(final Serde<GenericRow> serde, final GenericRow row) {
+    final byte[] bytes = serde.serializer().serialize("t", row);
+    return serde.deserializer().deserialize("t", bytes);
+  }
+
+  private static Serde<GenericRow> binarySerde(final Schema schema) {
+    return new KsqlBinaryTopicSerDe(new KsqlJsonTopicSerDe())
+        .getGenericRowSerde(
+            schema,
+            KSQL_CONFIG,
+            true,
+            () -> null,
+            "logger",
+            ProcessingLogContext.create());
+  }
+
+  private static Serde<GenericRow> jsonSerde(final Schema schema) {
+    return new KsqlJsonTopicSerDe()
+        .getGenericRowSerde(
+            schema,
+            KSQL_CONFIG,
+            true,
+            () -> null,
+            "logger",
+            ProcessingLogContext.create());
+  }
+}
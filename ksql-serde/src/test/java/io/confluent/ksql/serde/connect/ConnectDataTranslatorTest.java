@@ -21,8 +21,11 @@ import static org.hamcrest.CoreMatchers.instanceOf;
 import static org.hamcrest.CoreMatchers.is;
 import static org.hamcrest.CoreMatchers.nullValue;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
 
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import io.confluent.ksql.GenericRow;
 import java.util.Arrays;
 import java.util.List;
@@ -35,6 +38,56 @@ import org.junit.Assert;
 import org.junit.Test;
 
 public class ConnectDataTranslatorTest {
+  @Test
+  public void shouldOnlyTranslateRequiredColumns() {
+    // Given:
+    final Schema rowSchema = SchemaBuilder
+        .struct()
+        .field("INT", SchemaBuilder.OPTIONAL_INT32_SCHEMA)
+        .field("BIGINT", SchemaBuilder.OPTIONAL_INT64_SCHEMA)
+        .field("STRING", SchemaBuilder.OPTIONAL_STRING_SCHEMA)
+        .optional()
+        .build();
+
+    final Struct connectStruct = new Struct(rowSchema);
+    connectStruct.put("INT", 123);
+    connectStruct.put("BIGINT", 456L);
+    connectStruct.put("STRING", "foo");
+
+    final ConnectDataTranslator connectToKsqlTranslator =
+        new ConnectDataTranslator(rowSchema, ImmutableSet.of(1));
+
+    // When:
+    final GenericRow row = connectToKsqlTranslator.toKsqlRow(rowSchema, connectStruct);
+
+    // Then:
+    assertThat(row.getColumns(), equalTo(Arrays.asList(null, 456L, null)));
+  }
+
+  @Test
+  public void shouldValidateColumnValuesAgainstRowSchema() {
+    // Given:
+    final Schema rowSchema = SchemaBuilder
+        .struct()
+        .field("BOOLEAN", SchemaBuilder.OPTIONAL_BOOLEAN_SCHEMA)
+        .optional()
+        .build();
+
+    final Struct connectStruct = mock(Struct.class);
+    when(connectStruct.get(rowSchema.field("BOOLEAN"))).thenReturn("not a boolean");
+
+    final ConnectDataTranslator connectToKsqlTranslator = new ConnectDataTranslator(rowSchema);
+
+    try {
+      // When:
+      connectToKsqlTranslator.toKsqlRow(rowSchema, connectStruct);
+      Assert.fail("Translation should fail on a value that does not match its column's schema");
+    } catch (final DataException e) {
+      // Then:
+      assertThat(e.getMessage(), containsString("BOOLEAN"));
+    }
+  }
+
   @Test
   public void shouldTranslateStructCorrectly() {
     final Schema structSchema = SchemaBuilder
@@ -19,12 +19,18 @@ import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.fail;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.logging.processing.ProcessingLogConfig;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
 import io.confluent.ksql.serde.SerdeTestUtils;
+import io.confluent.ksql.serde.filter.ColumnPredicate;
+import io.confluent.ksql.serde.filter.ColumnPredicate.Comparison;
+import io.confluent.ksql.serde.filter.DeserializationFilter;
 import io.confluent.ksql.serde.util.SerdeProcessingLogMessageFactory;
 import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Optional;
 import org.apache.kafka.common.errors.SerializationException;
@@ -77,6 +83,77 @@ public class KsqlDelimitedDeserializerTest {
     assertThat(genericRow.getColumns().get(3), equalTo(10.0));
   }
 
+  @Test
+  public void shouldOnlyDeserializeRequiredColumns() {
+    // Given:
+    final KsqlDelimitedDeserializer deserializer = new KsqlDelimitedDeserializer(
+        orderSchema,
+        ImmutableSet.of(0, 2),
+        recordLogger);
+
+    // When:
+    final GenericRow genericRow = deserializer.deserialize(
+        "",
+        "1511897796092,not-a-number,item_1,10.0\r\n".getBytes(StandardCharsets.UTF_8));
+
+    // Then:
+    assertThat(genericRow.getColumns(),
+        equalTo(Arrays.asList(1511897796092L, null, "item_1", null)));
+  }
+
+  @Test
+  public void shouldReturnNullForRecordThatFailsFilterWithoutDecodingOtherColumns() {
+    // Given:
+    final KsqlDelimitedDeserializer deserializer = new KsqlDelimitedDeserializer(
+        orderSchema,
+        ImmutableSet.of(0, 1, 2, 3),
+        DeserializationFilter.of(
+            ImmutableList.of(new ColumnPredicate(2, Comparison.EQUAL, "item_2")),
+            Optional.empty()),
+        recordLogger);
+
+    // When:
+    final GenericRow genericRow = deserializer.deserialize(
+        "",
+        "1511897796092,not-a-number,item_1,10.0\r\n".getBytes(StandardCharsets.UTF_8));
+
+    // Then:
+    assertThat(genericRow, equalTo(null));
+  }
+
+  @Test
+  public void shouldDecodeRecordThatPassesFilter() {
+    // Given:
+    final KsqlDelimitedDeserializer deserializer = new KsqlDelimitedDeserializer(
+        orderSchema,
+        ImmutableSet.of(0, 1, 2, 3),
+        DeserializationFilter.of(
+            ImmutableList.of(new ColumnPredicate(2, Comparison.EQUAL, "item_1")),
+            Optional.empty()),
+        recordLogger);
+
+    // When:
+    final GenericRow genericRow = deserializer.deserialize(
+        "",
+        "1511897796092,1,item_1,10.0\r\n".getBytes(StandardCharsets.UTF_8));
+
+    // Then:
+    assertThat(genericRow.getColumns(),
+        equalTo(Arrays.asList(1511897796092L, 1L, "item_1", 10.0)));
+  }
+
+  @Test(expected = SerializationException.class)
+  public void shouldStillValidateFieldCountWhenNotAllColumnsRequired() {
+    // Given:
+    final KsqlDelimitedDeserializer deserializer = new KsqlDelimitedDeserializer(
+        orderSchema,
+        ImmutableSet.of(0),
+        recordLogger);
+
+    // When:
+    deserializer.deserialize("", "1511897796092,1\r\n".getBytes(StandardCharsets.UTF_8));
+  }
+
   @Test
   public void shouldLogErrors() {
     Throwable cause = null;
@@ -109,4 +186,112 @@ public class KsqlDelimitedDeserializerTest {
     Assert.assertNull(genericRow.getColumns().get(3));
   }
 
+  @Test
+  public void shouldDeserializeQuotedFields() {
+    // Given:
+    final String rowString = "\"1\",\"2\" ,\"item, \"\"one\"\"\n\",\"\"\r\n";
+
+    // When:
+    final GenericRow genericRow = delimitedDeserializer.deserialize(
+        "",
+        rowString.getBytes(StandardCharsets.UTF_8));
+
+    // Then:
+    assertThat(genericRow.getColumns(),
+        equalTo(Arrays.asList(1L, 2L, "item, \"one\"\n", null)));
+  }
+
+  @Test
+  public void shouldOnlyDeserializeFirstNonEmptyLine() {
+    // When:
+    final GenericRow genericRow = delimitedDeserializer.deserialize(
+        "",
+        "\r\n\n1,2,\u00e9t\u00e9,3.5\r\n4,5,6,7".getBytes(StandardCharsets.UTF_8));
+
+    // Then:
+    assertThat(genericRow.getColumns(),
+        equalTo(Arrays.asList(1L, 2L, "\u00e9t\u00e9", 3.5)));
+  }
+
+  @Test
+  public void shouldDeserializeWithConfiguredDelimiter() {
+    // Given:
+    final KsqlDelimitedDeserializer deserializer = new KsqlDelimitedDeserializer(
+        orderSchema,
+        '|',
+        ImmutableSet.of(0, 1, 2, 3),
+        DeserializationFilter.none(),
+        recordLogger);
+
+    // When:
+    final GenericRow genericRow = deserializer.deserialize(
+        "",
+        "1511897796092|1|item,1|10.0".getBytes(StandardCharsets.UTF_8));
+
+    // Then:
+    assertThat(genericRow.getColumns(),
+        equalTo(Arrays.asList(1511897796092L, 1L, "item,1", 10.0)));
+  }
+
+  @Test
+  public void shouldParseNumbersAsJavaDoes() {
+    // Given:
+    final Schema schema = SchemaBuilder.struct()
+        .field("INT", Schema.OPTIONAL_INT32_SCHEMA)
+        .field("BIGINT", Schema.OPTIONAL_INT64_SCHEMA)
+        .field("DOUBLE", Schema.OPTIONAL_FLOAT64_SCHEMA)
+        .field("BOOLEAN", Schema.OPTIONAL_BOOLEAN_SCHEMA)
+        .build();
+    final KsqlDelimitedDeserializer deserializer =
+        new KsqlDelimitedDeserializer(schema, recordLogger);
+    final String[][] values = {
+        {"-2147483648", "-9223372036854775808", "0.1", "TRUE"},
+        {"+2147483647", "+9223372036854775807", "-0", "yes"},
+        {"0012", "000000000000000000012", "123456789.123456", "tRuE"},
+        {"7", "7", "1.7976931348623157E308", "true "},
+        {"7", "7", " 12.5 ", "false"},
+        {"7", "7", "0.30000000000000004", "truth"},
+    };
+
+    for (final String[] value : values) {
+      // When:
+      final GenericRow row = deserializer.deserialize(
+          "", String.join(",", value).getBytes(StandardCharsets.UTF_8));
+
+      // Then:
+      assertThat(row.getColumns(), equalTo(Arrays.asList(
+          Integer.parseInt(value[0]),
+          Long.parseLong(value[1]),
+          Double.parseDouble(value[2]),
+          Boolean.parseBoolean(value[3]))));
+    }
+  }
+
+  @Test(expected = SerializationException.class)
+  public void shouldThrowOnIntOverflow() {
+    // Given:
+    final Schema schema = SchemaBuilder.struct()
+        .field("INT", Schema.OPTIONAL_INT32_SCHEMA)
+        .build();
+
+    // When:
+    new KsqlDelimitedDeserializer(schema, recordLogger)
+        .deserialize("", "2147483648".getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test(expected = SerializationException.class)
+  public void shouldThrowOnUnterminatedQuotedField() {
+    // When:
+    delimitedDeserializer.deserialize(
+        "",
+        "1511897796092,1,\"item_1,10.0".getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test(expected = SerializationException.class)
+  public void shouldThrowOnCharactersAfterQuotedField() {
+    // When:
+    delimitedDeserializer.deserialize(
+        "",
+        "1511897796092,1,\"item\"_1,10.0".getBytes(StandardCharsets.UTF_8));
+  }
 }
@@ -64,4 +64,17 @@ public class KsqlDelimitedSerializerTest {
     final String delimitedString = new String(bytes, StandardCharsets.UTF_8);
     assertThat("Incorrect serialization.", delimitedString, equalTo("1511897796092,1,item_1,"));
   }
+
+  @Test
+  public void shouldSerializeRowWithConfiguredDelimiter() {
+    final List<Object> columns = Arrays.asList(1511897796092L, 1L, "item|1", 10.0);
+    final GenericRow genericRow = new GenericRow(columns);
+    final KsqlDelimitedSerializer ksqlDelimitedSerializer =
+        new KsqlDelimitedSerializer(orderSchema, '|');
+    final byte[] bytes = ksqlDelimitedSerializer.serialize("t1", genericRow);
+
+    final String delimitedString = new String(bytes, StandardCharsets.UTF_8);
+    assertThat("Incorrect serialization.", delimitedString,
+        equalTo("1511897796092|1|\"item|1\"|10.0"));
+  }
 }
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.filter;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+
+import io.confluent.ksql.serde.filter.ColumnPredicate.Comparison;
+import org.junit.Test;
+
+public class ColumnPredicateTest {
+
+  @Test
+  public void shouldNeverMatchNull() {
+    assertThat(new ColumnPredicate(0, Comparison.NOT_EQUAL, "a").test(null), is(false));
+  }
+
+  @Test
+  public void shouldCompareStrings() {
+    assertThat(new ColumnPredicate(0, Comparison.EQUAL, "b").test("b"), is(true));
+    assertThat(new ColumnPredicate(0, Comparison.EQUAL, "b").test("B"), is(false));
+    assertThat(new ColumnPredicate(0, Comparison.LESS_THAN, "b").test("a"), is(true));
+    assertThat(new ColumnPredicate(0, Comparison.GREATER_THAN_OR_EQUAL, "b").test("a"), is(false));
+  }
+
+  @Test
+  public void shouldCompareNumbersOfDifferentTypes() {
+    assertThat(new ColumnPredicate(0, Comparison.EQUAL, 10).test(10L), is(true));
+    assertThat(new ColumnPredicate(0, Comparison.GREATER_THAN, 10).test(10.5), is(true));
+    assertThat(new ColumnPredicate(0, Comparison.LESS_THAN_OR_EQUAL, 10.5).test(11), is(false));
+    assertThat(new ColumnPredicate(0, Comparison.NOT_EQUAL, 3L).test(3), is(false));
+  }
+
+  @Test
+  public void shouldNotMatchNaN() {
+    assertThat(new ColumnPredicate(0, Comparison.EQUAL, 1.0).test(Double.NaN), is(false));
+    assertThat(new ColumnPredicate(0, Comparison.NOT_EQUAL, 1.0).test(Double.NaN), is(false));
+  }
+
+  @Test
+  public void shouldCompareBooleans() {
+    assertThat(new ColumnPredicate(0, Comparison.EQUAL, true).test(true), is(true));
+    assertThat(new ColumnPredicate(0, Comparison.NOT_EQUAL, true).test(true), is(false));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldThrowOnOrderedComparisonOfBooleans() {
+    new ColumnPredicate(0, Comparison.LESS_THAN, true);
+  }
+}
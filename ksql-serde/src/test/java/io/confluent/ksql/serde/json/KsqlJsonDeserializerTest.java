@@ -23,20 +23,29 @@ import static org.junit.Assert.fail;
 
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import io.confluent.ksql.GenericRow;
 import io.confluent.ksql.logging.processing.ProcessingLogConfig;
 import io.confluent.ksql.logging.processing.ProcessingLogger;
 import io.confluent.ksql.serde.SerdeTestUtils;
+import io.confluent.ksql.serde.filter.ColumnPredicate;
+import io.confluent.ksql.serde.filter.ColumnPredicate.Comparison;
+import io.confluent.ksql.serde.filter.DeserializationFilter;
 import io.confluent.ksql.serde.util.SerdeProcessingLogMessageFactory;
+import io.confluent.ksql.util.timestamp.StringTimestampExtractionPolicy;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.record.TimestampType;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.streams.processor.TimestampExtractor;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
@@ -95,6 +104,145 @@ public class KsqlJsonDeserializerTest {
     assertThat(genericRow.getColumns().get(3), equalTo(10.0));
   }
 
+  @Test
+  public void shouldOnlyDeserializeRequiredColumns() throws JsonProcessingException {
+    // Given:
+    final Map<String, Object> orderRow = new HashMap<>();
+    orderRow.put("ordertime", 1511897796092L);
+    orderRow.put("orderid", 1L);
+    orderRow.put("itemid", "Item_1");
+    orderRow.put("orderunits", 10.0);
+    orderRow.put("arraycol", new Double[]{10.0, 20.0});
+    orderRow.put("mapcol", Collections.singletonMap("key1", 10.0));
+
+    final byte[] jsonBytes = objectMapper.writeValueAsBytes(orderRow);
+
+    final KsqlJsonDeserializer deserializer = new KsqlJsonDeserializer(
+        orderSchema,
+        false,
+        ImmutableSet.of(1, 3),
+        recordLogger);
+
+    // When:
+    final GenericRow genericRow = deserializer.deserialize("", jsonBytes);
+
+    // Then:
+    assertThat(genericRow.getColumns(),
+        equalTo(Arrays.asList(null, 1L, null, 10.0, null, null)));
+  }
+
+  @Test
+  public void shouldReturnNullForRecordThatFailsFilter() throws JsonProcessingException {
+    // Given:
+    final Map<String, Object> orderRow = new HashMap<>();
+    orderRow.put("ordertime", 1511897796092L);
+    orderRow.put("orderid", 1L);
+    orderRow.put("itemid", "Item_1");
+    orderRow.put("orderunits", 10.0);
+
+    final KsqlJsonDeserializer deserializer = new KsqlJsonDeserializer(
+        orderSchema,
+        false,
+        ImmutableSet.of(0, 1, 2, 3),
+        DeserializationFilter.of(
+            ImmutableList.of(new ColumnPredicate(2, Comparison.EQUAL, "Item_2")),
+            Optional.empty()),
+        recordLogger);
+
+    // When:
+    final GenericRow genericRow =
+        deserializer.deserialize("", objectMapper.writeValueAsBytes(orderRow));
+
+    // Then:
+    assertThat(genericRow, is(nullValue()));
+  }
+
+  @Test
+  public void shouldUseRecordTimestampForRecordThatFailsFilterOfStringTimestampSource()
+      throws JsonProcessingException {
+    // Given:
+    final Map<String, Object> orderRow = new HashMap<>();
+    orderRow.put("ordertime", 1511897796092L);
+    orderRow.put("orderid", 1L);
+    orderRow.put("itemid", "2019-01-01");
+    orderRow.put("orderunits", 10.0);
+
+    final KsqlJsonDeserializer deserializer = new KsqlJsonDeserializer(
+        orderSchema,
+        false,
+        ImmutableSet.of(0, 1, 2, 3),
+        DeserializationFilter.of(
+            ImmutableList.of(new ColumnPredicate(3, Comparison.GREATER_THAN, 20)),
+            Optional.empty()),
+        recordLogger);
+    final TimestampExtractor timestampExtractor =
+        new StringTimestampExtractionPolicy("ITEMID", "yyyy-MM-dd").create(2);
+
+    final GenericRow genericRow =
+        deserializer.deserialize("", objectMapper.writeValueAsBytes(orderRow));
+
+    // When:
+    final long timestamp = timestampExtractor.extract(new ConsumerRecord<>(
+        "topic", 0, 0, 1234L, TimestampType.CREATE_TIME, 0L, 0, 0, null, genericRow), 0);
+
+    // Then:
+    assertThat(timestamp, is(1234L));
+  }
+
+  @Test
+  public void shouldNotRejectRecordWhoseFilterColumnIsNull() throws JsonProcessingException {
+    // Given:
+    final Map<String, Object> orderRow = new HashMap<>();
+    orderRow.put("ordertime", 1511897796092L);
+    orderRow.put("orderid", 1L);
+    orderRow.put("itemid", "Item_1");
+
+    final KsqlJsonDeserializer deserializer = new KsqlJsonDeserializer(
+        orderSchema,
+        false,
+        ImmutableSet.of(0, 1, 2, 3),
+        DeserializationFilter.of(
+            ImmutableList.of(new ColumnPredicate(3, Comparison.GREATER_THAN, 5)),
+            Optional.empty()),
+        recordLogger);
+
+    // When:
+    final GenericRow genericRow =
+        deserializer.deserialize("", objectMapper.writeValueAsBytes(orderRow));
+
+    // Then:
+    assertThat(genericRow.getColumns(),
+        equalTo(Arrays.asList(1511897796092L, 1L, "Item_1", null, null, null)));
+  }
+
+  @Test
+  public void shouldDecodeRequiredColumnsOfRecordThatPassesFilter()
+      throws JsonProcessingException {
+    // Given:
+    final Map<String, Object> orderRow = new HashMap<>();
+    orderRow.put("ordertime", 1511897796092L);
+    orderRow.put("orderid", 1L);
+    orderRow.put("itemid", "Item_1");
+    orderRow.put("orderunits", 10.0);
+
+    final KsqlJsonDeserializer deserializer = new KsqlJsonDeserializer(
+        orderSchema,
+        false,
+        ImmutableSet.of(0, 2),
+        DeserializationFilter.of(
+            ImmutableList.of(new ColumnPredicate(3, Comparison.GREATER_THAN, 5)),
+            Optional.empty()),
+        recordLogger);
+
+    // When:
+    final GenericRow genericRow =
+        deserializer.deserialize("", objectMapper.writeValueAsBytes(orderRow));
+
+    // Then:
+    assertThat(genericRow.getColumns(),
+        equalTo(Arrays.asList(1511897796092L, null, "Item_1", 10.0, null, null)));
+  }
+
   @Test
   public void shouldDeserializeJsonCorrectlyWithRedundantFields() throws JsonProcessingException {
     final Map<String, Object> orderRow = new HashMap<>();
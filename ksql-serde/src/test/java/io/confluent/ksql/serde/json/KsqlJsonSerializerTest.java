@@ -16,6 +16,8 @@
 package io.confluent.ksql.serde.json;
 
 import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 import com.fasterxml.jackson.databind.JsonNode;
@@ -29,15 +31,21 @@ import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import org.apache.kafka.common.errors.SerializationException;
 import org.apache.kafka.connect.data.Schema;
 import org.apache.kafka.connect.data.SchemaBuilder;
 import org.apache.kafka.connect.data.Struct;
 import org.junit.Before;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.ExpectedException;
 
 @SuppressWarnings("unchecked")
 public class KsqlJsonSerializerTest {
 
+  @Rule
+  public final ExpectedException expectedException = ExpectedException.none();
+
   private Schema orderSchema;
 
   private Schema addressSchema;
@@ -180,5 +188,73 @@ public class KsqlJsonSerializerTest {
     assertThat(jsonNode.get("itemid").get("NAME").asText(), equalTo("Item_10"));
   }
 
+  @Test
+  public void shouldWriteSameJsonAsJsonConverter() {
+    // Given:
+    final Schema schema = getSchemaWithStruct();
+    final GenericRow genericRow = getGenericRow();
+
+    // When:
+    final byte[] direct = new KsqlJsonSerializer(schema, true).serialize("", genericRow);
+
+    // Then:
+    assertThat(direct, equalTo(new KsqlJsonSerializer(schema, false).serialize("", genericRow)));
+  }
+
+  @Test
+  public void shouldWriteSameJsonAsJsonConverterForSpecialValues() {
+    // Given:
+    final List<Object> columns = Arrays.asList(null, -1L, "quote\" \\ \n \u0001 \u00e9",
+        Double.NaN, Arrays.asList(null, Double.NEGATIVE_INFINITY),
+        Collections.singletonMap("", null));
+    final GenericRow genericRow = new GenericRow(columns);
+
+    // When:
+    final byte[] direct = new KsqlJsonSerializer(orderSchema, true).serialize("", genericRow);
+
+    // Then:
+    assertThat(direct,
+        equalTo(new KsqlJsonSerializer(orderSchema, false).serialize("", genericRow)));
+  }
+
+  @Test
+  public void shouldWriteNullForMissingTrailingColumns() {
+    // Given:
+    final GenericRow genericRow = new GenericRow(Arrays.asList(1511897796092L, 1L));
+
+    // When:
+    final byte[] bytes = new KsqlJsonSerializer(orderSchema).serialize("", genericRow);
+
+    // Then:
+    assertThat(new String(bytes, StandardCharsets.UTF_8), equalTo(
+        "{\"ORDERTIME\":1511897796092,\"ORDERID\":1,\"ITEMID\":null,\"ORDERUNITS\":null,"
+            + "\"ARRAYCOL\":null,\"MAPCOL\":null}"));
+  }
+
+  @Test
+  public void shouldReturnNewArrayForEachRow() {
+    // Given:
+    final KsqlJsonSerializer serializer = new KsqlJsonSerializer(orderSchema);
+    final GenericRow genericRow = new GenericRow(Arrays.asList(1L, 1L, "a", 1.0, null, null));
+
+    // When:
+    final byte[] first = serializer.serialize("", genericRow);
+    final byte[] second = serializer.serialize("", genericRow);
+
+    // Then:
+    assertThat(first, equalTo(second));
+    assertThat(first, not(sameInstance(second)));
+  }
+
+  @Test
+  public void shouldThrowOnValueOfWrongType() {
+    // Given:
+    final GenericRow genericRow = new GenericRow(Arrays.asList(1, 1L, "a", 1.0, null, null));
+
+    // Then:
+    expectedException.expect(SerializationException.class);
 
-}
\ No newline at end of file
+    // When:
+    new KsqlJsonSerializer(orderSchema).serialize("", genericRow);
+  }
+}
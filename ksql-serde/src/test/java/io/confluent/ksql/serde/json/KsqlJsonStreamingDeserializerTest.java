@@ -0,0 +1,252 @@
+/*
+ * Copyright 2018 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.json;
+
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import io.confluent.ksql.GenericRow;
+import io.confluent.ksql.logging.processing.ProcessingLogger;
+import io.confluent.ksql.serde.filter.ColumnPredicate;
+import io.confluent.ksql.serde.filter.ColumnPredicate.Comparison;
+import io.confluent.ksql.serde.filter.DeserializationFilter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
+import org.apache.kafka.connect.data.Struct;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+
+public class KsqlJsonStreamingDeserializerTest {
+
+  private static final Schema ADDRESS_SCHEMA = SchemaBuilder.struct()
+      .field("STREET", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("ZIP", Schema.OPTIONAL_INT32_SCHEMA)
+      .optional()
+      .build();
+
+  private static final Schema ORDER_SCHEMA = SchemaBuilder.struct()
+      .field("ORDERTIME", Schema.OPTIONAL_INT64_SCHEMA)
+      .field("ORDERID", Schema.OPTIONAL_INT32_SCHEMA)
+      .field("ITEMID", Schema.OPTIONAL_STRING_SCHEMA)
+      .field("ORDERUNITS", Schema.OPTIONAL_FLOAT64_SCHEMA)
+      .field("PAID", Schema.OPTIONAL_BOOLEAN_SCHEMA)
+      .field("ARRAYCOL", SchemaBuilder.array(Schema.OPTIONAL_FLOAT64_SCHEMA).optional().build())
+      .field("MAPCOL", SchemaBuilder
+          .map(Schema.OPTIONAL_STRING_SCHEMA, Schema.OPTIONAL_FLOAT64_SCHEMA).optional().build())
+      .field("ADDRESS", ADDRESS_SCHEMA)
+      .build();
+
+  @Mock
+  private ProcessingLogger recordLogger;
+
+  @Rule
+  public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+  @Test
+  public void shouldDeserializeAllTypes() {
+    // Given:
+    final String json = "{"
+        + "\"ordertime\": 1511897796092, \"@orderid\": 1, \"itemid\": \"Item_1\","
+        + "\"orderunits\": 10.5, \"paid\": true, \"arraycol\": [10, 20.5, null],"
+        + "\"mapcol\": {\"key1\": 1.5, \"key2\": null},"
+        + "\"address\": {\"street\": \"Main\", \"ZIP\": 94301}"
+        + "}";
+
+    // When:
+    final GenericRow row = deserialize(ORDER_SCHEMA, json);
+
+    // Then:
+    final Struct address = new Struct(ADDRESS_SCHEMA)
+        .put("STREET", "Main")
+        .put("ZIP", 94301);
+    assertThat(row.getColumns(), equalTo(Arrays.asList(
+        1511897796092L,
+        1,
+        "Item_1",
+        10.5,
+        true,
+        Arrays.asList(10.0, 20.5, null),
+        mapOf("key1", 1.5, "key2", null),
+        address)));
+  }
+
+  @Test
+  public void shouldMatchTheConnectBasedDeserializer() {
+    // Given:
+    final String json = "{"
+        + "\"ORDERTIME\": 1511897796092, \"OrderId\": 1, \"ignored\": {\"a\": [1, 2]},"
+        + "\"orderunits\": 10, \"arraycol\": [], \"address\": {\"Street\": null}"
+        + "}";
+
+    // When:
+    final GenericRow row = deserialize(ORDER_SCHEMA, json);
+
+    // Then:
+    assertThat(row, equalTo(new KsqlJsonDeserializer(ORDER_SCHEMA, false, recordLogger)
+        .deserialize("", json.getBytes(StandardCharsets.UTF_8))));
+  }
+
+  @Test
+  public void shouldReturnNullForNullRecord() {
+    assertThat(deserialize(ORDER_SCHEMA, "null"), is(nullValue()));
+  }
+
+  @Test
+  public void shouldFallBackForValueOfDifferentType() {
+    // Given:
+    final Schema schema = SchemaBuilder.struct()
+        .field("ITEMID", Schema.OPTIONAL_STRING_SCHEMA)
+        .field("ORDERID", Schema.OPTIONAL_INT64_SCHEMA)
+        .build();
+
+    // When:
+    final GenericRow row = deserialize(schema,
+        "{\"itemid\": {\"ID\": 2}, \"orderid\": \"10\"}");
+
+    // Then:
+    assertThat(row.getColumns(), equalTo(Arrays.asList("{\"ID\":2}", 10L)));
+  }
+
+  @Test
+  public void shouldFallBackForDuplicateFields() {
+    // Given:
+    final Schema schema = SchemaBuilder.struct()
+        .field("ORDERID", Schema.OPTIONAL_INT64_SCHEMA)
+        .build();
+
+    // When:
+    final GenericRow row = deserialize(schema, "{\"orderid\": 1, \"ORDERID\": 1}");
+
+    // Then:
+    assertThat(row.getColumns(), equalTo(Collections.singletonList(1L)));
+  }
+
+  @Test
+  public void shouldOnlyDeserializeRequiredColumns() {
+    // Given:
+    final KsqlJsonStreamingDeserializer deserializer = new KsqlJsonStreamingDeserializer(
+        ORDER_SCHEMA,
+        false,
+        ImmutableSet.of(1, 3),
+        DeserializationFilter.none(),
+        recordLogger);
+
+    // When:
+    final GenericRow row = deserializer.deserialize("", bytes(
+        "{\"ordertime\": 1, \"orderid\": 2, \"address\": {\"zip\": 3}, \"orderunits\": 4.0}"));
+
+    // Then:
+    assertThat(row.getColumns(),
+        equalTo(Arrays.asList(null, 2, null, 4.0, null, null, null, null)));
+  }
+
+  @Test
+  public void shouldReturnNullForRecordThatFailsFilter() {
+    // Given:
+    final KsqlJsonStreamingDeserializer deserializer = new KsqlJsonStreamingDeserializer(
+        ORDER_SCHEMA,
+        false,
+        ImmutableSet.of(0),
+        DeserializationFilter.of(
+            ImmutableList.of(new ColumnPredicate(3, Comparison.GREATER_THAN, 50)),
+            Optional.empty()),
+        recordLogger);
+
+    // When:
+    final GenericRow row = deserializer.deserialize("", bytes(
+        "{\"ordertime\": 1, \"orderunits\": 10.0}"));
+
+    // Then:
+    assertThat(row, is(nullValue()));
+  }
+
+  @Test
+  public void shouldDecodeFilterColumnsOfRecordThatPassesFilter() {
+    // Given:
+    final KsqlJsonStreamingDeserializer deserializer = new KsqlJsonStreamingDeserializer(
+        ORDER_SCHEMA,
+        false,
+        ImmutableSet.of(0),
+        DeserializationFilter.of(
+            ImmutableList.of(new ColumnPredicate(3, Comparison.GREATER_THAN, 5)),
+            Optional.empty()),
+        recordLogger);
+
+    // When:
+    final GenericRow row = deserializer.deserialize("", bytes(
+        "{\"ordertime\": 1, \"orderunits\": 10.0}"));
+
+    // Then:
+    assertThat(row.getColumns(),
+        equalTo(Arrays.asList(1L, null, null, 10.0, null, null, null, null)));
+  }
+
+  @Test
+  public void shouldThrowAndLogThroughFallbackOnMalformedRecord() {
+    try {
+      // When:
+      deserialize(ORDER_SCHEMA, "{foo");
+      fail("deserialize should have thrown");
+    } catch (final SerializationException e) {
+      // Then:
+      verify(recordLogger).error(any());
+    }
+  }
+
+  @Test
+  public void shouldNotLogForValidRecord() {
+    // When:
+    deserialize(ORDER_SCHEMA, "{\"orderid\": 1}");
+
+    // Then:
+    verify(recordLogger, never()).error(any());
+  }
+
+  private GenericRow deserialize(final Schema schema, final String json) {
+    return new KsqlJsonStreamingDeserializer(schema, false, recordLogger)
+        .deserialize("", bytes(json));
+  }
+
+  private static byte[] bytes(final String json) {
+    return json.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static Map<String, Object> mapOf(
+      final String k1, final Object v1, final String k2, final Object v2) {
+    final Map<String, Object> map = new HashMap<>();
+    map.put(k1, v1);
+    map.put(k2, v2);
+    return map;
+  }
+}
@@ -18,11 +18,28 @@ package io.confluent.ksql.serde.util;
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.junit.Assert.assertThat;
 
+import com.google.common.collect.ImmutableSet;
 import io.confluent.ksql.util.KsqlException;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.kafka.connect.data.Schema;
+import org.apache.kafka.connect.data.SchemaBuilder;
 import org.junit.Test;
 
 public class SerdeUtilsTest {
 
+  @Test
+  public void shouldCopyValuesIntoMutableRowColumns() {
+    // Given:
+    final List<Object> columns = SerdeUtils.toRowColumns(new Object[]{1, "a", null});
+
+    // When:
+    columns.add(0, 10L);
+
+    // Then:
+    assertThat(columns, equalTo(Arrays.asList(10L, 1, "a", null)));
+  }
+
   @Test
   public void shouldConvertToBooleanCorrectly() {
     final Boolean b = SerdeUtils.toBoolean(true);
@@ -135,4 +152,26 @@ public class SerdeUtilsTest {
   public void shouldFailWhenConvertingIncompatibleDouble() {
     SerdeUtils.toDouble(true);
   }
+
+  @Test
+  public void shouldBuildRequiredColumnMask() {
+    final Schema schema = SchemaBuilder.struct()
+        .field("A", Schema.OPTIONAL_INT64_SCHEMA)
+        .field("B", Schema.OPTIONAL_INT64_SCHEMA)
+        .field("C", Schema.OPTIONAL_INT64_SCHEMA)
+        .build();
+
+    final boolean[] mask = SerdeUtils.requiredColumnMask(schema, ImmutableSet.of(0, 2));
+
+    assertThat(mask, equalTo(new boolean[]{true, false, true}));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldFailOnRequiredColumnOutOfRange() {
+    final Schema schema = SchemaBuilder.struct()
+        .field("A", Schema.OPTIONAL_INT64_SCHEMA)
+        .build();
+
+    SerdeUtils.requiredColumnMask(schema, ImmutableSet.of(1));
+  }
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2019 Confluent Inc.
+ *
+ * Licensed under the Confluent Community License (the "License"); you may not use
+ * this file except in compliance with the License.  You may obtain a copy of the
+ * License at
+ *
+ * http://www.confluent.io/confluent-community-license
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OF ANY KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations under the License.
+ */
+
+package io.confluent.ksql.serde.util;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class SerializationBufferTest {
+
+  private final SerializationBuffer buffer = SerializationBuffer.acquire();
+
+  @After
+  public void tearDown() {
+    buffer.release();
+  }
+
+  @Test
+  public void shouldReturnBytesWritten() {
+    // When:
+    buffer.write(1);
+    buffer.write(new byte[]{2, 3, 4}, 1, 2);
+
+    // Then:
+    assertThat(buffer.toByteArray(), is(new byte[]{1, 3, 4}));
+  }
+
+  @Test
+  public void shouldGrowToHoldLargeRecords() {
+    // When:
+    buffer.write(new byte[SerializationBuffer.INITIAL_CAPACITY * 3], 0,
+        SerializationBuffer.INITIAL_CAPACITY * 3);
+    buffer.write(5);
+
+    // Then:
+    assertThat(buffer.size(), is(SerializationBuffer.INITIAL_CAPACITY * 3 + 1));
+    assertThat(buffer.toByteArray()[SerializationBuffer.INITIAL_CAPACITY * 3], is((byte) 5));
+  }
+
+  @Test
+  public void shouldSetBitsOfReservedBytes() {
+    // Given:
+    buffer.write(7);
+    final int offset = buffer.reserve(2);
+
+    // When:
+    buffer.setBits(offset + 1, 0x01);
+    buffer.setBits(offset + 1, 0x80);
+
+    // Then:
+    assertThat(buffer.toByteArray(), is(new byte[]{7, 0, (byte) 0x81}));
+  }
+
+  @Test
+  public void shouldReuseBufferOfThreadForNextRecord() {
+    // Given:
+    buffer.write(1);
+
+    // When:
+    buffer.release();
+
+    // Then:
+    final SerializationBuffer next = SerializationBuffer.acquire();
+    assertThat(next, is(sameInstance(buffer)));
+    assertThat(next.size(), is(0));
+  }
+
+  @Test
+  public void shouldNotKeepBufferThatGrewBeyondMaxRetainedCapacity() {
+    // Given:
+    final int length = SerializationBuffer.MAX_RETAINED_CAPACITY + 1;
+    buffer.write(new byte[length], 0, length);
+
+    // When:
+    buffer.release();
+
+    // Then:
+    final SerializationBuffer next = SerializationBuffer.acquire();
+    assertThat(next, is(not(sameInstance(buffer))));
+    assertThat(next.capacity(), is(SerializationBuffer.INITIAL_CAPACITY));
+  }
+}